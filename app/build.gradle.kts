@@ -25,19 +25,35 @@ android {
                 "proguard-rules.pro"
             )
         }
+        // Release-like build that Macrobenchmark can install and trace
+        create("benchmark") {
+            initWith(getByName("release"))
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+        }
     }
 
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+
+    // Robolectric tests inflate the app's real layouts
+    testOptions {
+        unitTests {
+            isIncludeAndroidResources = true
+        }
+    }
 }
 
 dependencies {
+    implementation(project(":core"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
     implementation(libs.constraintlayout)
+    implementation(libs.recyclerview)
+    implementation(libs.asynclayoutinflater)
     implementation(libs.firebase.auth)
     implementation(libs.firebase.database)
     implementation(platform("com.google.firebase:firebase-bom:33.16.0"))
@@ -45,6 +61,7 @@ dependencies {
 
     // Basic testing dependencies (no Mockito to avoid Java 21 issues)
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
@@ -0,0 +1,180 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.StrictMode;
+import android.os.strictmode.Violation;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.expensetracker.core.Expense;
+import com.example.expensetracker.core.ExpenseAggregates;
+import com.example.expensetracker.core.ExpenseSnapshot;
+import com.example.expensetracker.core.OutboxEntry;
+import com.example.expensetracker.core.TaskScope;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Runs the app's data paths from the main thread under a StrictMode policy
+ * that records every disk or network access made on it. Any violation fails.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MainThreadIoTest {
+
+    private static final String TEST_USER = "strictmode-test";
+
+    private final List<Violation> violations = new CopyOnWriteArrayList<>();
+    private Context context;
+    private ExpenseDbHelper dbHelper;
+    private SqliteExpenseRepository repository;
+    private TaskScope tasks;
+    private StrictMode.ThreadPolicy previousPolicy;
+
+    @Before
+    public void setUp() {
+        // penaltyListener needs API 28
+        assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.P);
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase("expenses_" + TEST_USER + ".db");
+        dbHelper = ExpenseDbHelper.getInstance(context, TEST_USER);
+        repository = new SqliteExpenseRepository(dbHelper);
+        AppExecutors executors = AppExecutors.get();
+        tasks = new TaskScope(executors.mainThread(), executors.io(), executors.diskWriter(), null);
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            previousPolicy = StrictMode.getThreadPolicy();
+            StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                    .detectDiskReads()
+                    .detectDiskWrites()
+                    .detectNetwork()
+                    .penaltyListener(Runnable::run, violations::add)
+                    .build());
+        });
+    }
+
+    @After
+    public void tearDown() {
+        if (previousPolicy != null) {
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> StrictMode.setThreadPolicy(previousPolicy));
+        }
+        if (dbHelper != null) {
+            dbHelper.close();
+            context.deleteDatabase("expenses_" + TEST_USER + ".db");
+        }
+    }
+
+    @Test
+    public void testPolicyCatchesMainThreadDiskAccess() {
+        // Control: proves the policy would catch a regression
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> repository.count());
+
+        assertFalse("Reading the database on the main thread is reported", violations.isEmpty());
+    }
+
+    @Test
+    public void testWriteAndLoad_StayOffMainThread() throws Exception {
+        // Arrange
+        CountDownLatch done = new CountDownLatch(1);
+        int[] loaded = new int[1];
+
+        // Act: the same write-then-read sequence MainActivity uses
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+                tasks.write(() -> repository.insert(new Expense(0, "Coffee", 550, "Food", "2025-07-11")),
+                        saved -> tasks.load(() -> repository.loadRecent(50), page -> {
+                            loaded[0] = page.size();
+                            done.countDown();
+                        })));
+
+        // Assert
+        assertTrue("Continuations ran", done.await(10, TimeUnit.SECONDS));
+        assertEquals(1, loaded[0]);
+        assertTrue("No disk access on the main thread: " + violations, violations.isEmpty());
+    }
+
+    @Test
+    public void testOutboxAndTotals_StayOffMainThread() throws Exception {
+        // Arrange
+        CountDownLatch done = new CountDownLatch(1);
+        int[] pending = new int[1];
+        SqliteOutboxStore outbox = new SqliteOutboxStore(dbHelper);
+
+        // Act
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+                tasks.write(() -> {
+                    Expense saved = repository.insert(new Expense(0, "Bus", 225, "Transport", "2025-07-12"));
+                    repository.delete(saved.id);
+                    return outbox.peek(10);
+                }, entries -> {
+                    pending[0] = entries.size();
+                    done.countDown();
+                }));
+
+        // Assert
+        assertTrue("Continuation ran", done.await(10, TimeUnit.SECONDS));
+        assertEquals("Create and delete both queued", 2, pending[0]);
+        assertTrue("No disk access on the main thread: " + violations, violations.isEmpty());
+    }
+
+    @Test
+    public void testRecreation_RestoresSnapshotWithoutViolations() throws Exception {
+        // Arrange: the snapshot is on disk but not in memory, as after process death
+        ExpenseSnapshot saved = new ExpenseSnapshot(1, Collections.singletonList(
+                new Expense(1, "Coffee", 550, "Food", "2025-07-11")), false, false, new ExpenseAggregates());
+        ExpenseSnapshotStore writer = new ExpenseSnapshotStore(context, TEST_USER);
+        writer.write(saved);
+        writer.remember(new ExpenseSnapshot(2, Collections.<Expense>emptyList(), false, false,
+                new ExpenseAggregates()));
+        ExpenseSnapshot[] restored = new ExpenseSnapshot[2];
+
+        // Act: what MainActivity.onCreate does for a recreated screen, from the file and then from memory
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            restored[0] = new ExpenseSnapshotStore(context, TEST_USER).load(1);
+            ExpenseSnapshotStore store = new ExpenseSnapshotStore(context, TEST_USER);
+            store.remember(restored[0]);
+            restored[1] = store.load(1);
+        });
+
+        // Assert
+        assertNotNull("Read from the file", restored[0]);
+        assertEquals(1, restored[0].window.size());
+        assertSame("Served from memory", restored[0], restored[1]);
+        assertTrue("The snapshot read is allowed on the main thread: " + violations, violations.isEmpty());
+    }
+
+    @Test
+    public void testCancelledScope_DropsContinuation() throws Exception {
+        // Arrange
+        CountDownLatch written = new CountDownLatch(1);
+        boolean[] delivered = new boolean[1];
+
+        // Act
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            tasks.write(() -> {
+                repository.insert(new Expense(0, "Taxi", 1500, "Transport", "2025-07-12"));
+                written.countDown();
+                return null;
+            }, ignored -> delivered[0] = true);
+            tasks.cancel();
+        });
+
+        // Assert
+        assertTrue("The write itself still happens", written.await(10, TimeUnit.SECONDS));
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        assertFalse("Nothing reaches the destroyed screen", delivered[0]);
+        assertEquals(OutboxEntry.OP_CREATE, new SqliteOutboxStore(dbHelper).peek(1).get(0).op);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the flat item_expense against the nested LinearLayout row it
+ * replaced, kept in androidTest resources as item_expense_nested. Both are
+ * measured and laid out at a phone's list width many times over; the flat
+ * row must be shallower and no slower. Per-row timings go to logcat under
+ * RowLayoutPerf.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RowLayoutPerfTest {
+
+    private static final String TAG = "RowLayoutPerf";
+    private static final int WARMUP_PASSES = 200;
+    private static final int TIMED_PASSES = 2000;
+    // Headroom for scheduler noise on shared emulators
+    private static final double SLOWDOWN_ALLOWED = 1.10;
+
+    private View flatRow;
+    private View nestedRow;
+
+    @Before
+    public void setUp() {
+        Context appContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Context testContext = InstrumentationRegistry.getInstrumentation().getContext();
+        int nestedLayout = testContext.getResources()
+                .getIdentifier("item_expense_nested", "layout", testContext.getPackageName());
+        assertNotEquals("item_expense_nested should be packaged with the tests", 0, nestedLayout);
+
+        // The same framework theme for both, so only the hierarchies differ
+        flatRow = inflate(appContext, R.layout.item_expense);
+        nestedRow = inflate(testContext, nestedLayout);
+    }
+
+    @Test
+    public void flatRowIsShallowerThanNestedRow() {
+        // Act
+        int flatDepth = depth(flatRow);
+        int nestedDepth = depth(nestedRow);
+
+        // Assert
+        assertEquals("Flat row should hold its views directly", 2, flatDepth);
+        assertTrue("Flat row (" + flatDepth + ") should be shallower than nested (" + nestedDepth + ")",
+                flatDepth < nestedDepth);
+    }
+
+    @Test
+    public void flatRowMeasuresAndLaysOutNoSlowerThanNestedRow() {
+        // Arrange
+        int width = Math.round(360 * flatRow.getResources().getDisplayMetrics().density);
+        measureAndLayout(flatRow, width, WARMUP_PASSES);
+        measureAndLayout(nestedRow, width, WARMUP_PASSES);
+
+        // Act
+        long flatNanos = measureAndLayout(flatRow, width, TIMED_PASSES);
+        long nestedNanos = measureAndLayout(nestedRow, width, TIMED_PASSES);
+        Log.i(TAG, "measure+layout per row: flat " + flatNanos / TIMED_PASSES + " ns, nested "
+                + nestedNanos / TIMED_PASSES + " ns");
+
+        // Assert
+        assertTrue("Flat row took " + flatNanos + " ns against " + nestedNanos + " ns nested",
+                flatNanos <= nestedNanos * SLOWDOWN_ALLOWED);
+    }
+
+    @Test
+    public void flatRowKeepsTheNestedArrangement() {
+        // Arrange
+        int width = Math.round(360 * flatRow.getResources().getDisplayMetrics().density);
+
+        // Act
+        measureAndLayout(flatRow, width, 1);
+
+        // Assert
+        View description = flatRow.findViewById(R.id.tv_description);
+        View category = flatRow.findViewById(R.id.tv_category);
+        View date = flatRow.findViewById(R.id.tv_date);
+        View amount = flatRow.findViewById(R.id.tv_amount);
+        View delete = flatRow.findViewById(R.id.btn_delete);
+        assertTrue("Category should sit under the description", category.getTop() >= description.getBottom());
+        assertEquals("Date should follow the category on its line", category.getTop() + category.getHeight() / 2,
+                date.getTop() + date.getHeight() / 2, 1);
+        assertTrue("Date should be after the category", date.getLeft() > category.getRight());
+        assertTrue("Amount should be right of the description", amount.getLeft() >= description.getRight());
+        assertEquals("Amount should end at the padding", flatRow.getWidth() - flatRow.getPaddingRight(),
+                amount.getRight());
+        assertTrue("Delete should sit below the info", delete.getTop() > category.getBottom());
+        assertEquals("Delete should end at the padding", flatRow.getWidth() - flatRow.getPaddingRight(),
+                delete.getRight());
+    }
+
+    private static View inflate(Context context, int layout) {
+        Context themed = new ContextThemeWrapper(context, android.R.style.Theme_Material_Light);
+        FrameLayout parent = new FrameLayout(themed);
+        View row = LayoutInflater.from(themed).inflate(layout, parent, false);
+        // The nested row's ids belong to the test package, so look the view up by name
+        int description = context.getResources().getIdentifier("tv_description", "id", context.getPackageName());
+        ((TextView) row.findViewById(description)).setText("Weekly groceries at the market");
+        return row;
+    }
+
+    // Forces a full pass every time, as a rebind that changes text would
+    private static long measureAndLayout(View row, int width, int passes) {
+        int widthSpec = View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY);
+        int heightSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        long start = System.nanoTime();
+        for (int i = 0; i < passes; i++) {
+            forceLayout(row);
+            row.measure(widthSpec, heightSpec);
+            row.layout(0, 0, row.getMeasuredWidth(), row.getMeasuredHeight());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void forceLayout(View view) {
+        view.forceLayout();
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                forceLayout(group.getChildAt(i));
+            }
+        }
+    }
+
+    private static int depth(View view) {
+        int deepest = 0;
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                deepest = Math.max(deepest, depth(group.getChildAt(i)));
+            }
+        }
+        return deepest + 1;
+    }
+}
@@ -3,6 +3,8 @@ package com.example.expensetracker;
 import android.app.DatePickerDialog;
 import android.content.Intent;
 import android.os.Bundle;
+import android.view.View;
+import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
 import android.widget.Button;
 import android.widget.EditText;
@@ -10,24 +12,42 @@ import android.widget.Spinner;
 import android.widget.Toast;
 
 import androidx.annotation.Nullable;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
-import java.text.SimpleDateFormat;
+import com.example.expensetracker.core.Category;
+import com.example.expensetracker.core.CategoryRegistry;
+import com.example.expensetracker.core.ExpenseFormatter;
+import com.example.expensetracker.core.ExpenseValidator;
+
+import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.Locale;
+import java.util.List;
 
 public class AddExpenseActivity extends AppCompatActivity {
 
+    private static final String NEW_CATEGORY = "+ New category";
+    private static final String STATE_NEW_CATEGORY = "new_category";
+
     private EditText etDescription, etAmount, etDate;
     private Spinner spinnerCategory;
     private Button btnSelectDate, btnSave;
 
     private Calendar selectedDate;
+    // Spinner entries in order; then the typed category, if any, and the entry that adds one
+    private List<Category> categories;
+    // A name the registry doesn't know yet. It is only interned once the expense is saved, on the
+    // writer after the user's categories have loaded, so it can't take an id the database already uses
+    @Nullable
+    private String newCategory;
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_add_expense);
+        if (savedInstanceState != null) {
+            newCategory = savedInstanceState.getString(STATE_NEW_CATEGORY);
+        }
 
         initViews();
         setupCategorySpinner();
@@ -73,8 +93,8 @@ public class AddExpenseActivity extends AppCompatActivity {
     }
 
     private void updateDateField() {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        etDate.setText(dateFormat.format(selectedDate.getTime()));
+        // Cached yyyy-MM-dd label, no SimpleDateFormat per call
+        etDate.setText(ExpenseFormatter.isoDate(selectedDate));
     }
 
     private void saveExpense() {
@@ -84,58 +104,34 @@ public class AddExpenseActivity extends AppCompatActivity {
 
         String description = etDescription.getText().toString().trim();
         String amountStr = etAmount.getText().toString().trim();
-        String category = spinnerCategory.getSelectedItem().toString();
+        String category = selectedCategoryName();
         String date = etDate.getText().toString().trim();
 
         // Validation
-        if (description.isEmpty()) {
-            etDescription.setError("Please enter a description");
-            etDescription.requestFocus();
-            return;
-        }
-
-        if (description.length() > 50) {
-            etDescription.setError("Description too long (max 50 characters)");
-            etDescription.requestFocus();
-            return;
-        }
-
-        if (amountStr.isEmpty()) {
-            etAmount.setError("Please enter an amount");
-            etAmount.requestFocus();
-            return;
-        }
-
-        double amount;
-        try {
-            amount = Double.parseDouble(amountStr);
-            if (amount <= 0) {
-                etAmount.setError("Amount must be greater than zero");
-                etAmount.requestFocus();
-                return;
+        ExpenseValidator.Result result = ExpenseValidator.validate(description, amountStr, date);
+        if (!result.isValid()) {
+            switch (result.field) {
+                case DESCRIPTION:
+                    etDescription.setError(result.message);
+                    etDescription.requestFocus();
+                    break;
+                case AMOUNT:
+                    etAmount.setError(result.message);
+                    etAmount.requestFocus();
+                    break;
+                case DATE:
+                    Toast.makeText(this, result.message, Toast.LENGTH_SHORT).show();
+                    break;
             }
-            if (amount > 999999.99) {
-                etAmount.setError("Amount is too large");
-                etAmount.requestFocus();
-                return;
-            }
-        } catch (NumberFormatException e) {
-            etAmount.setError("Please enter a valid amount");
-            etAmount.requestFocus();
-            return;
-        }
-
-        if (date.isEmpty()) {
-            Toast.makeText(this, "Please select a date", Toast.LENGTH_SHORT).show();
             return;
         }
 
         // Send data back to MainActivity
         Intent resultIntent = new Intent();
         resultIntent.putExtra("description", description);
-        resultIntent.putExtra("amount", amount);
+        resultIntent.putExtra("amount_cents", result.amountCents);
         resultIntent.putExtra("category", category);
-        resultIntent.putExtra("date", date);
+        resultIntent.putExtra("epoch_day", result.epochDay);
         setResult(RESULT_OK, resultIntent);
 
         Toast.makeText(this, "Expense saved successfully!", Toast.LENGTH_SHORT).show();
@@ -143,14 +139,79 @@ public class AddExpenseActivity extends AppCompatActivity {
     }
 
     private void setupCategorySpinner() {
-        String[] categories = {"Food", "Transport", "Entertainment", "Shopping", "Bills", "Healthcare", "Education", "Others"};
+        // Same registry the list binds from, so names, icons and order match across screens
+        categories = CategoryRegistry.shared().all();
+        List<String> labels = new ArrayList<>(categories.size() + 2);
+        for (Category category : categories) {
+            labels.add(category.label);
+        }
+        if (newCategory != null) {
+            labels.add(CategoryRegistry.DEFAULT_ICON + " " + newCategory);
+        }
+        labels.add(NEW_CATEGORY);
+
         ArrayAdapter<String> adapter = new ArrayAdapter<>(
                 this,
                 android.R.layout.simple_spinner_item,
-                categories
+                labels
         );
         adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         spinnerCategory.setAdapter(adapter);
+        spinnerCategory.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                if (position == labels.size() - 1) {
+                    showNewCategoryDialog();
+                }
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {
+            }
+        });
+    }
+
+    private String selectedCategoryName() {
+        int position = spinnerCategory.getSelectedItemPosition();
+        if (position >= 0 && position < categories.size()) {
+            return categories.get(position).name;
+        }
+        if (position == categories.size() && newCategory != null) {
+            return newCategory;
+        }
+        return CategoryRegistry.shared().get(CategoryRegistry.OTHERS).name;
+    }
+
+    private void showNewCategoryDialog() {
+        EditText input = new EditText(this);
+        input.setHint("Category name");
+        new AlertDialog.Builder(this)
+                .setTitle("New Category")
+                .setView(input)
+                .setPositiveButton("Add", (dialog, which) -> {
+                    String name = input.getText().toString().trim();
+                    if (name.isEmpty()) {
+                        spinnerCategory.setSelection(0);
+                        return;
+                    }
+                    // An existing name in any casing resolves to that category instead of a duplicate;
+                    // a new one is added to the registry and the database with the expense that uses it
+                    Category existing = CategoryRegistry.shared().find(name);
+                    if (existing == null) {
+                        newCategory = name;
+                    }
+                    setupCategorySpinner();
+                    spinnerCategory.setSelection(existing != null ? categories.indexOf(existing) : categories.size());
+                })
+                .setNegativeButton("Cancel", (dialog, which) -> spinnerCategory.setSelection(0))
+                .setOnCancelListener(dialog -> spinnerCategory.setSelection(0))
+                .show();
+    }
+
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putString(STATE_NEW_CATEGORY, newCategory);
     }
 
     @Override
@@ -0,0 +1,160 @@
+package com.example.expensetracker;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.example.expensetracker.core.TaskScope;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * App-wide threads. Nothing that touches disk or network runs on the main thread:
+ * - diskWriter: the one thread that writes the expense database, so writes never contend;
+ *   the repository and outbox hop there from other threads, see {@link #writeAndWait}.
+ *   Schema creation and upgrades are the exception, they run wherever the database is first opened
+ * - io: small bounded pool for database reads and other blocking calls
+ * - compute: CPU-bound work such as diffing or aggregation
+ * - sync: outbox pushes and delta pulls, serialized and schedulable for retries
+ * - timer: short delays that only hand work on to another executor, such as debounces
+ * - mainThread: hands results back to the UI
+ */
+public final class AppExecutors {
+
+    private static final String TAG = "AppExecutors";
+
+    private static final int IO_THREADS = 4;
+    private static final int COMPUTE_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+
+    private static AppExecutors instance;
+
+    // Set on the disk writer's thread, so a write already there runs in place
+    private static final ThreadLocal<Boolean> ON_DISK_WRITER = new ThreadLocal<>();
+
+    private final ExecutorService diskWriter;
+    private final ExecutorService io;
+    private final ExecutorService compute;
+    private final ScheduledExecutorService sync;
+    private final ScheduledExecutorService timer;
+    private final Executor mainThread;
+
+    public static synchronized AppExecutors get() {
+        if (instance == null) {
+            instance = new AppExecutors();
+        }
+        return instance;
+    }
+
+    private AppExecutors() {
+        ThreadFactory writerThreads = threadFactory("disk-writer");
+        diskWriter = Executors.newSingleThreadExecutor(runnable -> writerThreads.newThread(() -> {
+            ON_DISK_WRITER.set(Boolean.TRUE);
+            runnable.run();
+        }));
+        ThreadPoolExecutor ioPool = new ThreadPoolExecutor(IO_THREADS, IO_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory("io"));
+        // Idle I/O threads go away instead of pinning memory
+        ioPool.allowCoreThreadTimeOut(true);
+        io = ioPool;
+        compute = Executors.newFixedThreadPool(COMPUTE_THREADS, threadFactory("compute"));
+        sync = Executors.newSingleThreadScheduledExecutor(threadFactory("sync"));
+        timer = Executors.newSingleThreadScheduledExecutor(threadFactory("timer"));
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        mainThread = mainHandler::post;
+    }
+
+    public ExecutorService diskWriter() {
+        return diskWriter;
+    }
+
+    /**
+     * Runs a database write on diskWriter and blocks until it is done, so sync
+     * and import writes queue behind the screen's writes rather than contending
+     * with them. Runs in place when called on diskWriter. Never call it from
+     * the main thread.
+     */
+    public <T> T writeAndWait(Callable<T> write) {
+        if (ON_DISK_WRITER.get() != null) {
+            try {
+                return write.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        try {
+            return diskWriter.submit(write).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            // The write may still run, and is published like any other if it does
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the disk writer", e);
+        }
+    }
+
+    public ExecutorService io() {
+        return io;
+    }
+
+    public ExecutorService compute() {
+        return compute;
+    }
+
+    public ScheduledExecutorService sync() {
+        return sync;
+    }
+
+    public ScheduledExecutorService timer() {
+        return timer;
+    }
+
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    // A task scope cancelled automatically when the owner is destroyed
+    public TaskScope scopeFor(LifecycleOwner owner) {
+        TaskScope scope = new TaskScope(mainThread, io, diskWriter,
+                error -> Log.e(TAG, "Background task failed", error));
+        owner.getLifecycle().addObserver(new DefaultLifecycleObserver() {
+            @Override
+            public void onDestroy(@NonNull LifecycleOwner source) {
+                scope.cancel();
+            }
+        });
+        return scope;
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> new Thread(() -> {
+            // Keep background work from competing with the UI thread for CPU
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            runnable.run();
+        }, name + "-" + count.incrementAndGet());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.expensetracker;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+
+/**
+ * Process-wide cache of the signed-in Firebase user.
+ * The persisted session is read once; after that an auth state listener keeps
+ * the cache current, so screens can check the session without going back to
+ * FirebaseAuth every time they are created or resumed. A missing user is
+ * re-checked, since a fresh sign-in can land before the listener fires.
+ */
+public final class AuthSession {
+
+    private static FirebaseUser cachedUser;
+    private static boolean resolved;
+
+    private AuthSession() {
+    }
+
+    public static synchronized FirebaseUser currentUser() {
+        if (!resolved) {
+            FirebaseAuth auth = FirebaseAuth.getInstance();
+            cachedUser = auth.getCurrentUser();
+            resolved = true;
+            auth.addAuthStateListener(AuthSession::onAuthStateChanged);
+        } else if (cachedUser == null) {
+            cachedUser = FirebaseAuth.getInstance().getCurrentUser();
+        }
+        return cachedUser;
+    }
+
+    public static boolean isSignedIn() {
+        return currentUser() != null;
+    }
+
+    public static synchronized void signOut() {
+        FirebaseAuth.getInstance().signOut();
+        cachedUser = null;
+    }
+
+    private static synchronized void onAuthStateChanged(FirebaseAuth auth) {
+        cachedUser = auth.getCurrentUser();
+    }
+}
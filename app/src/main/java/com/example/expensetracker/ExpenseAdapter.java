@@ -0,0 +1,245 @@
+package com.example.expensetracker;
+
+import android.graphics.Color;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.expensetracker.core.Category;
+import com.example.expensetracker.core.CategoryRegistry;
+import com.example.expensetracker.core.Expense;
+import com.example.expensetracker.core.ExpenseFormatter;
+import com.example.expensetracker.core.FrameStats;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Recycling adapter for the expense list.
+ * Diffs are computed on a background thread by ListAdapter, so only the rows
+ * that actually changed are inserted, removed or moved.
+ * A long press starts multi-select; selection is kept by id and rebinds only
+ * the row background through a payload.
+ */
+public class ExpenseAdapter extends ListAdapter<Expense, ExpenseAdapter.ViewHolder> {
+
+    public interface OnDeleteClickListener {
+        void onDeleteClick(Expense expense);
+    }
+
+    public interface OnSelectionChangedListener {
+        void onSelectionChanged(int selectedCount);
+    }
+
+    // The only row type; RowPrewarmer fills the pool for it
+    static final int VIEW_TYPE_EXPENSE = 0;
+    private static final int COLOR_SELECTED = Color.parseColor("#E0E7FF");
+    // Partial rebind: only the selection state changed
+    private static final Object PAYLOAD_SELECTION = new Object();
+
+    private final OnDeleteClickListener deleteClickListener;
+    private final OnSelectionChangedListener selectionListener;
+    private final Set<Long> selectedIds = new HashSet<>();
+    // Debug builds time every inflation and full bind; null otherwise
+    @Nullable
+    private FrameStats frameStats;
+    // A row inflated off the main thread, handed to the next onCreateViewHolder
+    @Nullable
+    private View prewarmedView;
+
+    public ExpenseAdapter(OnDeleteClickListener deleteClickListener, OnSelectionChangedListener selectionListener) {
+        super(new ExpenseDiffCallback());
+        this.deleteClickListener = deleteClickListener;
+        this.selectionListener = selectionListener;
+        setHasStableIds(true);
+    }
+
+    public void setFrameStats(@Nullable FrameStats frameStats) {
+        this.frameStats = frameStats;
+    }
+
+    public boolean isSelecting() {
+        return !selectedIds.isEmpty();
+    }
+
+    // The selected rows in list order
+    public List<Expense> getSelectedExpenses() {
+        List<Expense> selected = new ArrayList<>(selectedIds.size());
+        for (Expense expense : getCurrentList()) {
+            if (selectedIds.contains(expense.id)) {
+                selected.add(expense);
+            }
+        }
+        return selected;
+    }
+
+    public void selectAll() {
+        for (Expense expense : getCurrentList()) {
+            selectedIds.add(expense.id);
+        }
+        notifySelectionChanged();
+    }
+
+    public void clearSelection() {
+        if (!selectedIds.isEmpty()) {
+            selectedIds.clear();
+            notifySelectionChanged();
+        }
+    }
+
+    @Override
+    public void onCurrentListChanged(@NonNull List<Expense> previousList, @NonNull List<Expense> currentList) {
+        if (selectedIds.isEmpty()) {
+            return;
+        }
+        // Rows paged out or deleted elsewhere can't stay selected
+        Set<Long> present = new HashSet<>(currentList.size() * 2);
+        for (Expense expense : currentList) {
+            present.add(expense.id);
+        }
+        if (selectedIds.retainAll(present)) {
+            selectionListener.onSelectionChanged(selectedIds.size());
+        }
+    }
+
+    /**
+     * Wraps a row inflated ahead of time in a holder with its listeners set,
+     * the same as one the RecyclerView would create. Main thread only.
+     */
+    ViewHolder createPrewarmedHolder(RecyclerView parent, View row) {
+        prewarmedView = row;
+        try {
+            // createViewHolder also records the view type the pool files the holder under
+            return createViewHolder(parent, VIEW_TYPE_EXPENSE);
+        } finally {
+            prewarmedView = null;
+        }
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return VIEW_TYPE_EXPENSE;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).id;
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = prewarmedView;
+        if (view == null) {
+            // The pre-warmed pool ran dry, inflate on the spot
+            long start = frameStats != null ? System.nanoTime() : 0;
+            view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_expense, parent, false);
+            if (frameStats != null) {
+                frameStats.recordInflation(System.nanoTime() - start);
+            }
+        }
+        ViewHolder holder = new ViewHolder(view);
+
+        // One listener per holder; it resolves the bound row at click time
+        holder.btnDelete.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                deleteClickListener.onDeleteClick(getItem(position));
+            }
+        });
+        holder.itemView.setOnLongClickListener(v -> {
+            toggleSelection(holder);
+            return true;
+        });
+        // Plain taps only select once selection has started
+        holder.itemView.setOnClickListener(v -> {
+            if (isSelecting()) {
+                toggleSelection(holder);
+            }
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_SELECTION) && payloads.size() == 1) {
+            bindSelection(holder, getItem(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        long start = frameStats != null ? System.nanoTime() : 0;
+        Expense expense = getItem(position);
+        Category category = CategoryRegistry.shared().get(expense.categoryId);
+
+        holder.tvDescription.setText(expense.description);
+        holder.tvCategory.setText(category.label);
+        holder.tvDate.setText(expense.isoDate());
+
+        // Reformat into the holder's own buffer only when the amount changed
+        if (holder.amountText.set(expense.amountCents)) {
+            holder.tvAmount.setText(holder.amountText.chars, 0, holder.amountText.length);
+        }
+
+        // Label and color are precomputed on the category, binding is an array lookup
+        holder.tvCategory.setBackgroundColor(category.color);
+        bindSelection(holder, expense);
+
+        if (frameStats != null) {
+            frameStats.recordBind(System.nanoTime() - start);
+        }
+    }
+
+    private void bindSelection(ViewHolder holder, Expense expense) {
+        holder.itemView.setBackgroundColor(selectedIds.contains(expense.id) ? COLOR_SELECTED : Color.WHITE);
+    }
+
+    private void toggleSelection(ViewHolder holder) {
+        int position = holder.getBindingAdapterPosition();
+        if (position == RecyclerView.NO_POSITION) {
+            return;
+        }
+        long id = getItem(position).id;
+        if (!selectedIds.remove(id)) {
+            selectedIds.add(id);
+        }
+        notifyItemChanged(position, PAYLOAD_SELECTION);
+        selectionListener.onSelectionChanged(selectedIds.size());
+    }
+
+    private void notifySelectionChanged() {
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        selectionListener.onSelectionChanged(selectedIds.size());
+    }
+
+    // Cached view references for a recycled row
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        final TextView tvDescription;
+        final TextView tvCategory;
+        final TextView tvDate;
+        final TextView tvAmount;
+        final Button btnDelete;
+        final ExpenseFormatter.AmountText amountText = new ExpenseFormatter.AmountText();
+
+        ViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvDescription = itemView.findViewById(R.id.tv_description);
+            tvCategory = itemView.findViewById(R.id.tv_category);
+            tvDate = itemView.findViewById(R.id.tv_date);
+            tvAmount = itemView.findViewById(R.id.tv_amount);
+            btnDelete = itemView.findViewById(R.id.btn_delete);
+        }
+    }
+}
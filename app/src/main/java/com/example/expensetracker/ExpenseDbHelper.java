@@ -0,0 +1,259 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import com.example.expensetracker.core.CategoryRegistry;
+import com.example.expensetracker.core.ExpenseAggregates;
+import com.example.expensetracker.core.ExpenseChanges;
+import com.example.expensetracker.core.OutboxEntry;
+
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_AMOUNT;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_BUCKET_TYPE;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_CATEGORY;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_DATE;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_DESCRIPTION;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_EXPENSE_ID;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_ID;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_NAME;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_OP;
+import static com.example.expensetracker.core.ExpenseSchema.CREATE_AMOUNT_INDEX;
+import static com.example.expensetracker.core.ExpenseSchema.CREATE_CATEGORIES_TABLE;
+import static com.example.expensetracker.core.ExpenseSchema.CREATE_CATEGORY_INDEX;
+import static com.example.expensetracker.core.ExpenseSchema.CREATE_CHANGE_SEQUENCE_TABLE;
+import static com.example.expensetracker.core.ExpenseSchema.CREATE_DATE_INDEX;
+import static com.example.expensetracker.core.ExpenseSchema.CREATE_EXPENSES_TABLE;
+import static com.example.expensetracker.core.ExpenseSchema.CREATE_OUTBOX_EXPENSE_INDEX;
+import static com.example.expensetracker.core.ExpenseSchema.CREATE_OUTBOX_TABLE;
+import static com.example.expensetracker.core.ExpenseSchema.CREATE_SYNC_CURSOR_TABLE;
+import static com.example.expensetracker.core.ExpenseSchema.CREATE_TOTALS_TABLE;
+import static com.example.expensetracker.core.ExpenseSchema.SQL_SEED_CHANGE_SEQUENCE;
+import static com.example.expensetracker.core.ExpenseSchema.TABLE_CATEGORIES;
+import static com.example.expensetracker.core.ExpenseSchema.TABLE_EXPENSES;
+import static com.example.expensetracker.core.ExpenseSchema.TABLE_OUTBOX;
+import static com.example.expensetracker.core.ExpenseSchema.TABLE_TOTALS;
+
+/**
+ * Owns the on-device expense database.
+ * Each signed-in user gets their own database file so accounts never share rows,
+ * and their own change stream, which outlives any one screen.
+ */
+public class ExpenseDbHelper extends SQLiteOpenHelper {
+
+    private static final int DATABASE_VERSION = 8;
+
+    // Changes a frame apart reach subscribers as one update, a steady stream at least every 100 ms
+    private static final long CHANGE_DEBOUNCE_MILLIS = 16;
+    private static final long CHANGE_MAX_DELAY_MILLIS = 100;
+
+    private static ExpenseDbHelper instance;
+    private static String instanceUserId;
+
+    public static synchronized ExpenseDbHelper getInstance(Context context, String userId) {
+        if (instance != null && !userId.equals(instanceUserId)) {
+            // A different account signed in, release the previous user's database and categories
+            instance.changes.close();
+            instance.close();
+            instance = null;
+            CategoryRegistry.shared().resetUserCategories();
+        }
+        if (instance == null) {
+            instance = new ExpenseDbHelper(context.getApplicationContext(), userId);
+            instanceUserId = userId;
+        }
+        return instance;
+    }
+
+    private final ExpenseChanges changes =
+            new ExpenseChanges(AppExecutors.get().timer(), CHANGE_DEBOUNCE_MILLIS, CHANGE_MAX_DELAY_MILLIS);
+
+    private ExpenseDbHelper(Context context, String userId) {
+        super(context, "expenses_" + userId + ".db", null, DATABASE_VERSION);
+        // WAL lets list reads proceed while a batch insert is being written
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    // SqliteExpenseRepository publishes every committed write here; screens subscribe while they exist
+    public ExpenseChanges changes() {
+        return changes;
+    }
+
+    /**
+     * Blocking, off the main thread. Opening the database loads this user's
+     * categories into the registry, so call it before interning a category
+     * name that may be new; interned earlier, a new name could take an id a
+     * saved category already has.
+     */
+    public void loadCategories() {
+        getWritableDatabase();
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        createCategoriesTable(db);
+        createExpensesTable(db);
+        createTotalsTable(db);
+        db.execSQL(CREATE_OUTBOX_TABLE);
+        createSyncTables(db);
+        createChangeSequenceTable(db);
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 3) {
+            // v3 stores money as integer cents; older versions used REAL amounts
+            migrateAmountsToCents(db);
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE_TOTALS);
+            createTotalsTable(db);
+        }
+        if (oldVersion < 4) {
+            // v4 queues local writes for sync; upload everything saved before it
+            db.execSQL(CREATE_OUTBOX_TABLE);
+            db.execSQL("INSERT INTO " + TABLE_OUTBOX + " ("
+                    + COLUMN_OP + ", " + COLUMN_EXPENSE_ID + ", " + COLUMN_DESCRIPTION + ", " + COLUMN_AMOUNT + ", "
+                    + COLUMN_CATEGORY + ", " + COLUMN_DATE + ") SELECT " + OutboxEntry.OP_CREATE + ", " + COLUMN_ID
+                    + ", " + COLUMN_DESCRIPTION + ", " + COLUMN_AMOUNT + ", " + COLUMN_CATEGORY + ", " + COLUMN_DATE
+                    + " FROM " + TABLE_EXPENSES + " ORDER BY " + COLUMN_ID);
+        }
+        if (oldVersion < 5) {
+            // v5 pulls server changes incrementally, the first sync starts from the beginning
+            createSyncTables(db);
+        }
+        if (oldVersion < 6) {
+            // v6 stores dates as epoch days so range filters compare integers
+            migrateDatesToEpochDays(db);
+        }
+        if (oldVersion < 7) {
+            // v7 stores category ids; names that aren't built-ins become user categories
+            migrateCategoriesToIds(db);
+        }
+        if (oldVersion < 8) {
+            // v8 numbers committed writes, so loaded totals can skip the change sets they include
+            createChangeSequenceTable(db);
+        }
+        if (oldVersion < 3) {
+            // Totals are rebuilt last, once amounts and dates are both in their current form
+            rebuildTotals(db);
+        }
+    }
+
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        // Rows refer to categories by id, so the registry learns this user's before any row is read
+        SqliteCategories.load(db, CategoryRegistry.shared());
+    }
+
+    private static void createCategoriesTable(SQLiteDatabase db) {
+        db.execSQL(CREATE_CATEGORIES_TABLE);
+        SqliteCategories.seed(db);
+    }
+
+    private static void createSyncTables(SQLiteDatabase db) {
+        db.execSQL(CREATE_SYNC_CURSOR_TABLE);
+        db.execSQL(CREATE_OUTBOX_EXPENSE_INDEX);
+    }
+
+    private static void createChangeSequenceTable(SQLiteDatabase db) {
+        db.execSQL(CREATE_CHANGE_SEQUENCE_TABLE);
+        db.execSQL(SQL_SEED_CHANGE_SEQUENCE);
+    }
+
+    private static void createExpensesTable(SQLiteDatabase db) {
+        db.execSQL(CREATE_EXPENSES_TABLE);
+        db.execSQL(CREATE_DATE_INDEX);
+        db.execSQL(CREATE_CATEGORY_INDEX);
+        db.execSQL(CREATE_AMOUNT_INDEX);
+    }
+
+    private static void dropExpenseIndexes(SQLiteDatabase db) {
+        db.execSQL("DROP INDEX IF EXISTS idx_expenses_date");
+        db.execSQL("DROP INDEX IF EXISTS idx_expenses_category");
+        db.execSQL("DROP INDEX IF EXISTS idx_expenses_amount");
+    }
+
+    // SQLite can't change a column type in place, so copy into a fresh table
+    private static void migrateAmountsToCents(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE " + TABLE_EXPENSES + " RENAME TO expenses_v2");
+        dropExpenseIndexes(db);
+        createExpensesTable(db);
+        db.execSQL("INSERT INTO " + TABLE_EXPENSES + " ("
+                + COLUMN_ID + ", " + COLUMN_DESCRIPTION + ", " + COLUMN_AMOUNT + ", " + COLUMN_CATEGORY + ", " + COLUMN_DATE
+                + ") SELECT " + COLUMN_ID + ", " + COLUMN_DESCRIPTION + ", CAST(ROUND(amount * 100) AS INTEGER), "
+                + COLUMN_CATEGORY + ", " + COLUMN_DATE + " FROM expenses_v2");
+        db.execSQL("DROP TABLE expenses_v2");
+    }
+
+    // yyyy-MM-dd text to days since 1970-01-01; unparseable dates fall back to day 0 rather than being dropped
+    private static String epochDayOf(String column) {
+        return "COALESCE(CAST(julianday(" + column + ") - 2440587.5 AS INTEGER), 0)";
+    }
+
+    // The TEXT column would coerce integers back to text, so this needs a table copy too
+    private static void migrateDatesToEpochDays(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE " + TABLE_EXPENSES + " RENAME TO expenses_v5");
+        dropExpenseIndexes(db);
+        createExpensesTable(db);
+        db.execSQL("INSERT INTO " + TABLE_EXPENSES + " ("
+                + COLUMN_ID + ", " + COLUMN_DESCRIPTION + ", " + COLUMN_AMOUNT + ", " + COLUMN_CATEGORY + ", " + COLUMN_DATE
+                + ") SELECT " + COLUMN_ID + ", " + COLUMN_DESCRIPTION + ", " + COLUMN_AMOUNT + ", "
+                + COLUMN_CATEGORY + ", " + epochDayOf(COLUMN_DATE) + " FROM expenses_v5");
+        db.execSQL("DROP TABLE expenses_v5");
+
+        // Queued writes keep their own copy of the date; it is read back as an integer either way
+        db.execSQL("UPDATE " + TABLE_OUTBOX + " SET " + COLUMN_DATE + " = " + epochDayOf(COLUMN_DATE)
+                + " WHERE " + COLUMN_DATE + " LIKE '____-__-__'");
+    }
+
+    // Another table copy, so the column takes INTEGER affinity; unmatched names fall back to Others
+    private static void migrateCategoriesToIds(SQLiteDatabase db) {
+        createCategoriesTable(db);
+        // New names get the next free ids in order of first use; the NOCASE name collapses spellings
+        String name = "TRIM(" + COLUMN_CATEGORY + ")";
+        db.execSQL("INSERT OR IGNORE INTO " + TABLE_CATEGORIES + " (" + COLUMN_NAME + ") SELECT " + name + " FROM "
+                + TABLE_EXPENSES + " WHERE " + name + " <> '' GROUP BY " + name + " ORDER BY MIN(" + COLUMN_ID + ")");
+
+        db.execSQL("ALTER TABLE " + TABLE_EXPENSES + " RENAME TO expenses_v6");
+        dropExpenseIndexes(db);
+        createExpensesTable(db);
+        db.execSQL("INSERT INTO " + TABLE_EXPENSES + " ("
+                + COLUMN_ID + ", " + COLUMN_DESCRIPTION + ", " + COLUMN_AMOUNT + ", " + COLUMN_CATEGORY + ", " + COLUMN_DATE
+                + ") SELECT e." + COLUMN_ID + ", e." + COLUMN_DESCRIPTION + ", e." + COLUMN_AMOUNT + ", COALESCE(c."
+                + COLUMN_ID + ", " + CategoryRegistry.OTHERS + "), e." + COLUMN_DATE + " FROM expenses_v6 e LEFT JOIN "
+                + TABLE_CATEGORIES + " c ON c." + COLUMN_NAME + " = TRIM(e." + COLUMN_CATEGORY + ")");
+        db.execSQL("DROP TABLE expenses_v6");
+
+        // Category buckets are keyed by the canonical name now
+        db.delete(TABLE_TOTALS, COLUMN_BUCKET_TYPE + " = ?", new String[]{ExpenseAggregates.BUCKET_CATEGORY});
+        insertCategoryTotals(db);
+    }
+
+    private static void createTotalsTable(SQLiteDatabase db) {
+        db.execSQL(CREATE_TOTALS_TABLE);
+    }
+
+    // Recomputes every bucket from the expenses table, only needed on migration
+    static void rebuildTotals(SQLiteDatabase db) {
+        db.delete(TABLE_TOTALS, null, null);
+        String insert = "INSERT INTO " + TABLE_TOTALS + " SELECT ";
+        String sums = ", SUM(" + COLUMN_AMOUNT + "), COUNT(*) FROM " + TABLE_EXPENSES;
+
+        db.execSQL(insert + "'" + ExpenseAggregates.BUCKET_ALL + "', ''" + sums
+                + " HAVING COUNT(*) > 0");
+        insertCategoryTotals(db);
+        // Bucket keys stay yyyy-MM-dd and yyyy-MM, derived from the epoch day
+        String day = "date(" + COLUMN_DATE + " * 86400, 'unixepoch')";
+        db.execSQL(insert + "'" + ExpenseAggregates.BUCKET_DAY + "', " + day + sums
+                + " GROUP BY " + COLUMN_DATE);
+        db.execSQL(insert + "'" + ExpenseAggregates.BUCKET_MONTH + "', substr(" + day + ", 1, 7)" + sums
+                + " GROUP BY substr(" + day + ", 1, 7)");
+    }
+
+    // Category buckets are keyed by name, rows hold the id
+    private static void insertCategoryTotals(SQLiteDatabase db) {
+        db.execSQL("INSERT INTO " + TABLE_TOTALS + " SELECT '" + ExpenseAggregates.BUCKET_CATEGORY + "', c."
+                + COLUMN_NAME + ", SUM(e." + COLUMN_AMOUNT + "), COUNT(*) FROM " + TABLE_EXPENSES + " e JOIN "
+                + TABLE_CATEGORIES + " c ON c." + COLUMN_ID + " = e." + COLUMN_CATEGORY + " GROUP BY e." + COLUMN_CATEGORY);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.expensetracker;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.expensetracker.core.Expense;
+
+/**
+ * Identity and content checks used when diffing expense list snapshots.
+ */
+public class ExpenseDiffCallback extends DiffUtil.ItemCallback<Expense> {
+
+    @Override
+    public boolean areItemsTheSame(@NonNull Expense oldItem, @NonNull Expense newItem) {
+        return oldItem.id == newItem.id;
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull Expense oldItem, @NonNull Expense newItem) {
+        return oldItem.hasSameContents(newItem);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Root of item_expense: places the description, category chip, date, amount
+ * and delete button itself instead of nesting LinearLayouts, so every child
+ * is measured exactly once per pass and the row is a single level deep.
+ *
+ *   description ........................ amount
+ *   [category]  date                  (centered)
+ *                                     [delete]
+ *
+ * Child margins from the layout file are honored; the description takes the
+ * width the amount leaves and wraps within it. Right-to-left layouts mirror.
+ */
+public class ExpenseRowLayout extends ViewGroup {
+
+    private View description;
+    private View category;
+    private View date;
+    private View amount;
+    private View delete;
+
+    // Heights of the info block and the line under the description, kept from onMeasure for onLayout
+    private int topBlockHeight;
+    private int metaLineHeight;
+
+    public ExpenseRowLayout(Context context) {
+        super(context);
+    }
+
+    public ExpenseRowLayout(Context context, AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    @Override
+    protected void onFinishInflate() {
+        super.onFinishInflate();
+        description = findViewById(R.id.tv_description);
+        category = findViewById(R.id.tv_category);
+        date = findViewById(R.id.tv_date);
+        amount = findViewById(R.id.tv_amount);
+        delete = findViewById(R.id.btn_delete);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        measureChildWithMargins(amount, widthMeasureSpec, 0, heightMeasureSpec, 0);
+        int amountWidth = outerWidth(amount);
+        measureChildWithMargins(description, widthMeasureSpec, amountWidth, heightMeasureSpec, 0);
+        measureChildWithMargins(category, widthMeasureSpec, amountWidth, heightMeasureSpec, 0);
+        measureChildWithMargins(date, widthMeasureSpec, amountWidth + outerWidth(category), heightMeasureSpec, 0);
+        measureChildWithMargins(delete, widthMeasureSpec, 0, heightMeasureSpec, 0);
+
+        metaLineHeight = Math.max(outerHeight(category), outerHeight(date));
+        topBlockHeight = Math.max(outerHeight(description) + metaLineHeight, outerHeight(amount));
+
+        int width = getPaddingLeft() + getPaddingRight()
+                + Math.max(outerWidth(description), outerWidth(category) + outerWidth(date)) + amountWidth;
+        int height = getPaddingTop() + topBlockHeight + outerHeight(delete) + getPaddingBottom();
+        setMeasuredDimension(resolveSize(Math.max(width, getSuggestedMinimumWidth()), widthMeasureSpec),
+                resolveSize(Math.max(height, getSuggestedMinimumHeight()), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        // Offsets run from the start edge and are mirrored in right-to-left layouts
+        int start = getPaddingStart();
+        int end = getMeasuredWidth() - getPaddingEnd();
+        int top = getPaddingTop();
+
+        int metaTop = place(description, start, top);
+        int dateStart = placeCentered(category, start, metaTop, metaLineHeight);
+        placeCentered(date, dateStart, metaTop, metaLineHeight);
+
+        MarginLayoutParams amountParams = params(amount);
+        layoutChild(amount, end - amountParams.getMarginEnd() - amount.getMeasuredWidth(),
+                top + (topBlockHeight - outerHeight(amount)) / 2 + amountParams.topMargin);
+
+        MarginLayoutParams deleteParams = params(delete);
+        layoutChild(delete, end - deleteParams.getMarginEnd() - delete.getMeasuredWidth(),
+                top + topBlockHeight + deleteParams.topMargin);
+    }
+
+    // Places the child at the top-start corner of its margin box, returns the bottom of that box
+    private int place(View child, int start, int top) {
+        MarginLayoutParams params = params(child);
+        int childTop = top + params.topMargin;
+        layoutChild(child, start + params.getMarginStart(), childTop);
+        return childTop + child.getMeasuredHeight() + params.bottomMargin;
+    }
+
+    // Centers the child vertically in a line, returns the end of its margin box
+    private int placeCentered(View child, int start, int lineTop, int lineHeight) {
+        MarginLayoutParams params = params(child);
+        int childStart = start + params.getMarginStart();
+        layoutChild(child, childStart, lineTop + (lineHeight - outerHeight(child)) / 2 + params.topMargin);
+        return childStart + child.getMeasuredWidth() + params.getMarginEnd();
+    }
+
+    private void layoutChild(View child, int start, int top) {
+        int width = child.getMeasuredWidth();
+        int left = getLayoutDirection() == LAYOUT_DIRECTION_RTL ? getMeasuredWidth() - start - width : start;
+        child.layout(left, top, left + width, top + child.getMeasuredHeight());
+    }
+
+    private static int outerWidth(View child) {
+        MarginLayoutParams params = params(child);
+        return child.getMeasuredWidth() + params.leftMargin + params.rightMargin;
+    }
+
+    private static int outerHeight(View child) {
+        MarginLayoutParams params = params(child);
+        return child.getMeasuredHeight() + params.topMargin + params.bottomMargin;
+    }
+
+    private static MarginLayoutParams params(View child) {
+        return (MarginLayoutParams) child.getLayoutParams();
+    }
+
+    @Override
+    public LayoutParams generateLayoutParams(AttributeSet attrs) {
+        return new MarginLayoutParams(getContext(), attrs);
+    }
+
+    @Override
+    protected LayoutParams generateDefaultLayoutParams() {
+        return new MarginLayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
+    }
+
+    @Override
+    protected LayoutParams generateLayoutParams(LayoutParams p) {
+        return p instanceof MarginLayoutParams ? new MarginLayoutParams((MarginLayoutParams) p) : new MarginLayoutParams(p);
+    }
+
+    @Override
+    protected boolean checkLayoutParams(LayoutParams p) {
+        return p instanceof MarginLayoutParams;
+    }
+
+    // Not scrollable, so presses needn't wait to rule out a scroll
+    @Override
+    public boolean shouldDelayChildPressedState() {
+        return false;
+    }
+}
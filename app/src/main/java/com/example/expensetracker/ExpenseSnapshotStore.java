@@ -0,0 +1,79 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.os.StrictMode;
+
+import androidx.annotation.Nullable;
+
+import com.example.expensetracker.core.ExpenseSnapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Where the main screen keeps its snapshot between instances: a per-user
+ * file in the cache directory, plus the last saved snapshot in memory.
+ * A configuration change is served from memory, even while the file write
+ * is still queued; after process death the file is read instead.
+ *
+ * Created and loaded on the main thread by design, see {@link #load(long)}.
+ */
+public final class ExpenseSnapshotStore {
+
+    // Survives activity recreation, not process death
+    private static volatile ExpenseSnapshot lastSaved;
+
+    private final File file;
+
+    public ExpenseSnapshotStore(Context context, String userId) {
+        // Resolving the cache directory stats it; part of the same deliberate read as load
+        StrictMode.ThreadPolicy policy = StrictMode.allowThreadDiskReads();
+        try {
+            this.file = new File(context.getCacheDir(), "main_snapshot_" + userId + ".bin");
+        } finally {
+            StrictMode.setThreadPolicy(policy);
+        }
+    }
+
+    // Null unless the stored snapshot is the one saved under this stamp
+    @Nullable
+    public ExpenseSnapshot load(long stamp) {
+        ExpenseSnapshot saved = lastSaved;
+        if (saved != null && saved.stamp == stamp) {
+            return saved;
+        }
+        // Read on the main thread on purpose: one small file buys a first frame without a database query
+        StrictMode.ThreadPolicy policy = StrictMode.allowThreadDiskReads();
+        try (InputStream input = new BufferedInputStream(new FileInputStream(file))) {
+            ExpenseSnapshot snapshot = ExpenseSnapshot.readFrom(input);
+            return snapshot.stamp == stamp ? snapshot : null;
+        } catch (IOException e) {
+            // Missing or torn, the screen falls back to querying storage
+            return null;
+        } finally {
+            StrictMode.setThreadPolicy(policy);
+        }
+    }
+
+    // Called on the main thread as the screen saves its state
+    public void remember(ExpenseSnapshot snapshot) {
+        lastSaved = snapshot;
+    }
+
+    // Runs on the disk writer; written aside and renamed so a reader never sees half a file
+    public void write(ExpenseSnapshot snapshot) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(temp))) {
+            snapshot.writeTo(output);
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Could not replace " + file);
+        }
+    }
+}
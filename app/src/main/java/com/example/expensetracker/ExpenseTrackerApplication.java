@@ -0,0 +1,71 @@
+package com.example.expensetracker;
+
+import android.app.Application;
+import android.content.pm.ApplicationInfo;
+import android.os.Build;
+import android.os.StrictMode;
+import android.os.Trace;
+import android.util.Log;
+
+import com.example.expensetracker.core.Metrics;
+import com.example.expensetracker.core.MetricsExporter;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Turns on StrictMode in debuggable builds so any disk or network access on
+ * the main thread shows up in logcat while developing.
+ *
+ * Hot-path metrics are written to files/metrics.jsonl whenever the app goes
+ * to the background; read them with
+ * `adb shell run-as com.example.expensetracker cat files/metrics.jsonl`.
+ */
+public class ExpenseTrackerApplication extends Application {
+
+    private static final String TAG = "ExpenseTrackerApp";
+    static final String METRICS_FILE = "metrics.jsonl";
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                    .detectDiskReads()
+                    .detectDiskWrites()
+                    .detectNetwork()
+                    .penaltyLog()
+                    .build());
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            // Sections cross threads and callbacks, so they map to async trace slices
+            Metrics.shared().setTraceListener(new Metrics.TraceListener() {
+                @Override
+                public void onBegin(String name, int cookie) {
+                    Trace.beginAsyncSection(name, cookie);
+                }
+
+                @Override
+                public void onEnd(String name, int cookie) {
+                    Trace.endAsyncSection(name, cookie);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level >= TRIM_MEMORY_UI_HIDDEN) {
+            AppExecutors.get().diskWriter().execute(() -> {
+                // getFilesDir may create the directory, so it is resolved off the main thread too
+                File file = new File(getFilesDir(), METRICS_FILE);
+                try {
+                    MetricsExporter.export(Metrics.shared(), file);
+                } catch (IOException e) {
+                    Log.w(TAG, "Could not write " + file, e);
+                }
+            });
+        }
+    }
+}
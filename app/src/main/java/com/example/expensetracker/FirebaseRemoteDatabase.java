@@ -0,0 +1,88 @@
+package com.example.expensetracker;
+
+import com.example.expensetracker.core.OutboxCoalescer;
+import com.example.expensetracker.core.RemoteChild;
+import com.example.expensetracker.core.RemoteDatabase;
+import com.example.expensetracker.core.SyncCursor;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ServerValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link RemoteDatabase} backed by the Firebase Realtime Database.
+ * Firebase already queues writes while offline, but only in memory; the
+ * outbox in front of it is what survives a process restart.
+ * Delta queries order by updatedAt, so the database rules should declare
+ * ".indexOn": "updatedAt" on Users/$uid/expenses.
+ */
+public class FirebaseRemoteDatabase implements RemoteDatabase {
+
+    private final FirebaseDatabase database;
+
+    public FirebaseRemoteDatabase(FirebaseDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public void updateChildren(String path, Map<String, Object> updates, CompletionListener listener) {
+        database.getReference(path).updateChildren(toFirebaseValues(updates))
+                .addOnCompleteListener(task -> {
+                    if (task.isSuccessful()) {
+                        listener.onComplete(null);
+                    } else {
+                        Exception error = task.getException();
+                        listener.onComplete(error != null ? error : new Exception("Sync write failed"));
+                    }
+                });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void queryChangedSince(String path, SyncCursor cursor, int limit, QueryListener listener) {
+        Query query = database.getReference(path).orderByChild(OutboxCoalescer.FIELD_UPDATED_AT);
+        // startAt is inclusive, so ask for one extra child and drop the cursor itself
+        query = cursor.key == null
+                ? query.startAt(cursor.updatedAt)
+                : query.startAt(cursor.updatedAt, cursor.key);
+        query.limitToFirst(limit + 1).get().addOnCompleteListener(task -> {
+            if (!task.isSuccessful()) {
+                Exception error = task.getException();
+                listener.onResult(null, error != null ? error : new Exception("Sync read failed"));
+                return;
+            }
+            List<RemoteChild> children = new ArrayList<>(limit);
+            for (DataSnapshot child : task.getResult().getChildren()) {
+                Object value = child.getValue();
+                Map<String, Object> fields = value instanceof Map ? (Map<String, Object>) value : new HashMap<>();
+                Object updatedAt = fields.get(OutboxCoalescer.FIELD_UPDATED_AT);
+                long childUpdatedAt = updatedAt instanceof Number ? ((Number) updatedAt).longValue() : 0;
+                if (children.size() < limit && cursor.isBefore(childUpdatedAt, child.getKey())) {
+                    children.add(new RemoteChild(child.getKey(), fields));
+                }
+            }
+            listener.onResult(children, null);
+        });
+    }
+
+    // Swaps the portable timestamp marker for Firebase's own placeholder
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toFirebaseValues(Map<String, Object> values) {
+        Map<String, Object> converted = new HashMap<>(values.size());
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            Object value = entry.getValue();
+            if (value == SERVER_TIMESTAMP) {
+                value = ServerValue.TIMESTAMP;
+            } else if (value instanceof Map) {
+                value = toFirebaseValues((Map<String, Object>) value);
+            }
+            converted.put(entry.getKey(), value);
+        }
+        return converted;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.expensetracker;
+
+import android.app.Activity;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.TypedValue;
+import android.view.FrameMetrics;
+import android.view.Gravity;
+import android.view.ViewGroup;
+import android.view.Window;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import androidx.annotation.Nullable;
+
+import com.example.expensetracker.core.FrameStats;
+
+/**
+ * Feeds a FrameStats from one activity while it is resumed: per-frame
+ * durations from FrameMetrics, and main-thread stalls from a watchdog that
+ * pings the main looper and measures how late the ping runs. Row binds and
+ * inflations are recorded by the adapter. The optional overlay shows the
+ * running summary on top of the screen.
+ */
+final class FrameMonitor implements Window.OnFrameMetricsAvailableListener {
+
+    // The watchdog pings this often; a ping delayed past the threshold is a stall
+    static final long PING_INTERVAL_MILLIS = 100;
+    static final long STALL_THRESHOLD_MILLIS = 200;
+    private static final long OVERLAY_REFRESH_MILLIS = 500;
+
+    private final Activity activity;
+    private final FrameStats stats;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Frame metrics callbacks and watchdog pings, off the main thread
+    @Nullable
+    private HandlerThread monitorThread;
+    @Nullable
+    private Handler monitorHandler;
+    // Uptime the pending ping was posted at, 0 when none is in flight
+    private volatile long pingPostedAt;
+
+    @Nullable
+    private TextView overlay;
+
+    FrameMonitor(Activity activity, FrameStats stats) {
+        this.activity = activity;
+        this.stats = stats;
+    }
+
+    FrameStats stats() {
+        return stats;
+    }
+
+    // From onResume
+    void start() {
+        if (monitorThread != null) {
+            return;
+        }
+        monitorThread = new HandlerThread("frame-monitor");
+        monitorThread.start();
+        monitorHandler = new Handler(monitorThread.getLooper());
+        activity.getWindow().addOnFrameMetricsAvailableListener(this, monitorHandler);
+        monitorHandler.postDelayed(watchdog, PING_INTERVAL_MILLIS);
+        if (overlay != null) {
+            mainHandler.post(refreshOverlay);
+        }
+    }
+
+    // From onPause
+    void stop() {
+        if (monitorThread == null) {
+            return;
+        }
+        activity.getWindow().removeOnFrameMetricsAvailableListener(this);
+        monitorHandler.removeCallbacksAndMessages(null);
+        mainHandler.removeCallbacksAndMessages(null);
+        monitorThread.quit();
+        monitorThread = null;
+        monitorHandler = null;
+        pingPostedAt = 0;
+    }
+
+    @Override
+    public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+        // The first frame of a window includes its layout inflation, startup tracing covers that
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+                && frameMetrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1) {
+            return;
+        }
+        stats.recordFrame(frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION));
+    }
+
+    private final Runnable watchdog = new Runnable() {
+        @Override
+        public void run() {
+            long postedAt = pingPostedAt;
+            if (postedAt == 0) {
+                pingPostedAt = SystemClock.uptimeMillis();
+                mainHandler.post(ping);
+            }
+            // A ping still in flight is measured when it finally runs
+            Handler handler = monitorHandler;
+            if (handler != null) {
+                handler.postDelayed(this, PING_INTERVAL_MILLIS);
+            }
+        }
+    };
+
+    private final Runnable ping = new Runnable() {
+        @Override
+        public void run() {
+            long postedAt = pingPostedAt;
+            pingPostedAt = 0;
+            long lateMillis = SystemClock.uptimeMillis() - postedAt;
+            if (postedAt != 0 && lateMillis >= STALL_THRESHOLD_MILLIS) {
+                stats.recordStall(lateMillis * 1_000_000L);
+            }
+        }
+    };
+
+    boolean isOverlayShown() {
+        return overlay != null;
+    }
+
+    void setOverlayShown(boolean shown) {
+        if (shown == isOverlayShown()) {
+            return;
+        }
+        ViewGroup content = activity.findViewById(android.R.id.content);
+        if (shown) {
+            overlay = new TextView(activity);
+            overlay.setTypeface(Typeface.MONOSPACE);
+            overlay.setTextSize(TypedValue.COMPLEX_UNIT_SP, 11);
+            overlay.setTextColor(Color.WHITE);
+            overlay.setBackgroundColor(0xB3000000);
+            int padding = Math.round(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 6,
+                    activity.getResources().getDisplayMetrics()));
+            overlay.setPadding(padding, padding, padding, padding);
+            // Touches pass through to the list underneath
+            overlay.setClickable(false);
+            overlay.setFocusable(false);
+            content.addView(overlay, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT,
+                    ViewGroup.LayoutParams.WRAP_CONTENT, Gravity.BOTTOM | Gravity.START));
+            refreshOverlay.run();
+        } else {
+            mainHandler.removeCallbacks(refreshOverlay);
+            content.removeView(overlay);
+            overlay = null;
+        }
+    }
+
+    private final Runnable refreshOverlay = new Runnable() {
+        @Override
+        public void run() {
+            if (overlay == null) {
+                return;
+            }
+            overlay.setText(stats.summary());
+            mainHandler.postDelayed(this, OVERLAY_REFRESH_MILLIS);
+        }
+    };
+}
@@ -12,12 +12,16 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.expensetracker.core.Metrics;
+import com.example.expensetracker.core.TaskScope;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 
 public class LoginActivity extends AppCompatActivity {
 
     private static final String TAG = "LoginActivity";
+    // Latency of signInWithEmailAndPassword, see Metrics
+    static final String METRIC_SIGN_IN = "auth.signIn";
 
     private EditText etUsername, etPassword;
     private Button btnLogin;
@@ -25,6 +29,8 @@ public class LoginActivity extends AppCompatActivity {
 
     private FirebaseAuth mAuth;
     private ProgressDialog progressDialog;
+    // Firebase callbacks are delivered through this so none reach a destroyed screen
+    private TaskScope tasks;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -33,17 +39,10 @@ public class LoginActivity extends AppCompatActivity {
         try {
             // Initialize Firebase Auth first
             mAuth = FirebaseAuth.getInstance();
+            tasks = AppExecutors.get().scopeFor(this);
             Log.d(TAG, "Firebase Auth initialized successfully");
 
-            // Check if user is already logged in
-            FirebaseUser currentUser = mAuth.getCurrentUser();
-            if (currentUser != null) {
-                Log.d(TAG, "User already logged in: " + currentUser.getEmail());
-                // User is already logged in, so skip login screen
-                navigateToMainActivity();
-                return;
-            }
-
+            // StartupActivity only routes here when nobody is signed in, no re-check needed
             setContentView(R.layout.activity_login);
             Log.d(TAG, "Login layout set successfully");
 
@@ -135,8 +134,11 @@ public class LoginActivity extends AppCompatActivity {
                 progressDialog.show();
             }
 
+            Metrics.Section signIn = Metrics.shared().begin(METRIC_SIGN_IN);
             mAuth.signInWithEmailAndPassword(email, password)
-                    .addOnCompleteListener(task -> {
+                    // Timed apart from the screen's callback, which is dropped if the screen goes away
+                    .addOnCompleteListener(task -> signIn.end(task.isSuccessful()))
+                    .addOnCompleteListener(tasks.main(), task -> {
                         try {
                             if (progressDialog != null) {
                                 progressDialog.dismiss();
@@ -150,10 +152,15 @@ public class LoginActivity extends AppCompatActivity {
                                     Log.d(TAG, "User ID: " + user.getUid());
                                     String welcomeName = user.getDisplayName() != null ? user.getDisplayName() : user.getEmail();
                                     Toast.makeText(this, "Welcome back, " + welcomeName + "!", Toast.LENGTH_SHORT).show();
+                                    // Open (and migrate) the user's database on the writer thread, not in MainActivity.onCreate
+                                    tasks.write(() -> {
+                                        warmUpDatabase(user.getUid());
+                                        return null;
+                                    }, ignored -> navigateToMainActivity());
                                 } else {
                                     Toast.makeText(this, "Login successful!", Toast.LENGTH_SHORT).show();
+                                    navigateToMainActivity();
                                 }
-                                navigateToMainActivity();
                             } else {
                                 Log.e(TAG, "Login failed", task.getException());
                                 // Login failed
@@ -173,6 +180,15 @@ public class LoginActivity extends AppCompatActivity {
         }
     }
 
+    // Runs on the writer thread; a failure here is retried when MainActivity reads
+    private void warmUpDatabase(String userId) {
+        try {
+            ExpenseDbHelper.getInstance(this, userId).getWritableDatabase();
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Error opening expense database: " + e.getMessage(), e);
+        }
+    }
+
     private void handleLoginError(Exception exception) {
         String errorMessage = "Login failed. Please try again.";
         if (exception != null) {
@@ -249,24 +265,6 @@ public class LoginActivity extends AppCompatActivity {
         }
     }
 
-    @Override
-    protected void onStart() {
-        super.onStart();
-        try {
-            // Check if the user is already signed in
-            if (mAuth != null) {
-                FirebaseUser currentUser = mAuth.getCurrentUser();
-                if (currentUser != null) {
-                    Log.d(TAG, "User already signed in on start");
-                    // User is already signed in, so skip login screen
-                    navigateToMainActivity();
-                }
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error in onStart: " + e.getMessage(), e);
-        }
-    }
-
     @Override
     protected void onResume() {
         super.onResume();
@@ -1,49 +1,242 @@
 package com.example.expensetracker;
 
+import android.content.ContentResolver;
 import android.content.Intent;
+import android.content.pm.ApplicationInfo;
+import android.net.Uri;
 import android.os.Bundle;
+import android.os.ParcelFileDescriptor;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.util.Log;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
-import android.widget.Button;
-import android.widget.LinearLayout;
+import android.widget.EditText;
 import android.widget.PopupMenu;
 import android.widget.TextView;
 import android.widget.Toast;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
-
-import com.google.firebase.auth.FirebaseAuth;
+import androidx.appcompat.view.ActionMode;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.expensetracker.core.Backoff;
+import com.example.expensetracker.core.DeltaSyncEngine;
+import com.example.expensetracker.core.Expense;
+import com.example.expensetracker.core.ExpenseAggregates;
+import com.example.expensetracker.core.ExpenseChangeSet;
+import com.example.expensetracker.core.ExpenseChanges;
+import com.example.expensetracker.core.ExpenseExporter;
+import com.example.expensetracker.core.ExpenseFormatter;
+import com.example.expensetracker.core.ExpenseImporter;
+import com.example.expensetracker.core.ExpensePager;
+import com.example.expensetracker.core.ExpenseRepository;
+import com.example.expensetracker.core.ExpenseSnapshot;
+import com.example.expensetracker.core.FrameStats;
+import com.example.expensetracker.core.LiveSearchIndex;
+import com.example.expensetracker.core.Metrics;
+import com.example.expensetracker.core.MetricsExporter;
+import com.example.expensetracker.core.OutboxFlusher;
+import com.example.expensetracker.core.PendingDelete;
+import com.example.expensetracker.core.SyncStats;
+import com.example.expensetracker.core.TaskScope;
+import com.google.android.material.progressindicator.LinearProgressIndicator;
+import com.google.android.material.snackbar.Snackbar;
 import com.google.firebase.auth.FirebaseUser;
-
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.LongConsumer;
 
 public class MainActivity extends AppCompatActivity {
 
+    private static final String TAG = "MainActivity";
     private static final int REQUEST_CODE_ADD_EXPENSE = 1001;
+    private static final int REQUEST_CODE_IMPORT_CSV = 1002;
+    private static final int REQUEST_CODE_EXPORT_CSV = 1003;
+    private static final int REQUEST_CODE_EXPORT_JSON = 1004;
+    // Row errors listed in the import summary, the rest are only counted
+    private static final int IMPORT_ERRORS_SHOWN = 5;
+    // Instance state key for the stamp of the snapshot saved on the way out
+    private static final String STATE_SNAPSHOT_STAMP = "snapshot_stamp";
+    // Storage time of an add and of a committed delete, see Metrics
+    static final String METRIC_ADD_EXPENSE = "expense.add";
+    static final String METRIC_DELETE_EXPENSES = "expense.delete";
+
+    // Only the first page is read at launch, later pages as the user scrolls
+    private static final int PAGE_SIZE = 50;
+    private static final int PREFETCH_DISTANCE = 15;
+    private static final int MAX_LOADED_PAGES = 5;
+
+    // Search shows the newest matches only; the index is built a page at a time
+    private static final int SEARCH_RESULT_LIMIT = 200;
+    private static final int SEARCH_INDEX_BATCH_SIZE = 1000;
+
+    // Deletes wait this long for an undo before they reach storage
+    private static final int UNDO_WINDOW_MILLIS = 5000;
+    private static final int MENU_SELECT_ALL = 1;
+    private static final int MENU_DELETE_SELECTED = 2;
+
+    // Sync retries start at 1s and back off to at most 5 minutes
+    private static final long SYNC_RETRY_BASE_MILLIS = 1000;
+    private static final long SYNC_RETRY_MAX_MILLIS = 5 * 60 * 1000;
 
     private TextView tvWelcome, tvTotal;
-    private LinearLayout expenseListContainer;
-
-    private double totalExpenses = 0.0;
-    private List<ExpenseItem> expenseList = new ArrayList<>();
+    private TextView tvTransferStatus, tvTransferCancel;
+    private LinearProgressIndicator progressTransfer;
+    private EditText etSearch;
+    private RecyclerView expenseRecyclerView;
+    private ExpenseAdapter expenseAdapter;
+
+    // Running totals, updated incrementally instead of rescanning the list
+    private ExpenseAggregates aggregates = new ExpenseAggregates();
+    private final ExpenseFormatter.AmountText totalText = new ExpenseFormatter.AmountText();
+    private ExpensePager pager;
+    // Last window from the pager, shown again when the search box is cleared
+    private List<Expense> pagedWindow = Collections.emptyList();
+    // A snapshot is only saved once both the window and the totals have loaded
+    private boolean windowLoaded;
+    private boolean aggregatesLoaded;
+    // Change sets delivered while the totals load, replayed onto them; null when no load is running
+    @Nullable
+    private List<ExpenseChangeSet> changesDuringLoad;
+    private ExpenseSnapshotStore snapshotStore;
+
+    // Built in the background on load, then kept current on every add and delete
+    private final LiveSearchIndex searchIndex = new LiveSearchIndex();
+    private String searchQuery = "";
+
+    private ExpenseDbHelper dbHelper;
+    private ExpenseRepository expenseRepository;
+    // On the user's change stream, which storage publishes to; cancelled when the screen goes away
+    private final List<ExpenseChanges.Subscription> changeSubscriptions = new ArrayList<>();
+    // Background work for this screen, cancelled when it is destroyed
+    private TaskScope tasks;
+    private OutboxFlusher outboxFlusher;
+    private DeltaSyncEngine deltaSync;
+    // Attached while the screen is started
+    private final TransferProgress.Listener transferListener = this::showTransferProgress;
+
+    // The delete still inside its undo window, and the bar offering the undo
+    private PendingDelete pendingDelete;
+    private Snackbar undoBar;
+    // Deleted rows kept out of the list, the total and search until a change set shows storage no
+    // longer has them; filtered rather than patched out, so a reload meanwhile can't bring them back
+    private final Map<Long, Expense> hiddenExpenses = new HashMap<>();
+    private long hiddenTotalCents;
+    // The same for a delete-all: nothing stored is shown
+    private boolean hidingAll;
+    private ActionMode selectionMode;
+
+    // Frame, bind and stall counters for the list; debuggable builds only
+    @Nullable
+    private FrameMonitor frameMonitor;
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
-        // Check if user is logged in, otherwise redirect to LoginActivity
-        FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
+        // StartupActivity already routed here, this only guards a restore after sign-out
+        FirebaseUser currentUser = AuthSession.currentUser();
         if (currentUser == null) {
             navigateToLogin();
             return;
         }
 
+        StartupTrace.beginSection("Startup.mainOnCreate");
         setContentView(R.layout.activity_main);
+        AppExecutors executors = AppExecutors.get();
+        tasks = executors.scopeFor(this);
+
+        dbHelper = ExpenseDbHelper.getInstance(this, currentUser.getUid());
+        SqliteExpenseRepository sqliteRepository = new SqliteExpenseRepository(dbHelper);
+        expenseRepository = sqliteRepository;
+
+        // Subscribed before sync starts, so nothing it applies is missed
+        ExpenseChanges changes = dbHelper.changes();
+        changeSubscriptions.add(changes.subscribe(tasks.main(), this::onExpensesChanged));
+        changeSubscriptions.add(changes.subscribe(executors.compute(), this::updateSearchIndex));
+
+        // Writes are queued locally and pushed to Firebase whenever we are online
+        FirebaseRemoteDatabase remoteDatabase = new FirebaseRemoteDatabase(FirebaseDatabase.getInstance());
+        String userPath = OutboxFlusher.userPath(currentUser.getUid());
+        outboxFlusher = new OutboxFlusher(new SqliteOutboxStore(dbHelper), remoteDatabase, userPath, executors.sync(),
+                new Backoff(SYNC_RETRY_BASE_MILLIS, SYNC_RETRY_MAX_MILLIS), OutboxFlusher.DEFAULT_BATCH_SIZE);
+        outboxFlusher.requestFlush();
+
+        // Then pull only what other devices changed since the last run
+        deltaSync = new DeltaSyncEngine(remoteDatabase, sqliteRepository, userPath, executors.sync(),
+                new Backoff(SYNC_RETRY_BASE_MILLIS, SYNC_RETRY_MAX_MILLIS), DeltaSyncEngine.DEFAULT_PAGE_SIZE,
+                System::currentTimeMillis, this::onDeltaSyncComplete);
+        deltaSync.requestSync();
 
         tvWelcome = findViewById(R.id.tv_welcome);
         tvTotal = findViewById(R.id.tv_total);
-        expenseListContainer = findViewById(R.id.expense_list_container);
+        etSearch = findViewById(R.id.et_search);
+        tvTransferStatus = findViewById(R.id.tv_transfer_status);
+        tvTransferCancel = findViewById(R.id.tv_transfer_cancel);
+        progressTransfer = findViewById(R.id.progress_transfer);
+        tvTransferCancel.setOnClickListener(v -> TransferProgress.get().cancel());
+        expenseRecyclerView = findViewById(R.id.expense_list);
+
+        // Rows are recycled, so memory stays flat however many expenses exist
+        expenseAdapter = new ExpenseAdapter(
+                expense -> deleteExpenses(Collections.singletonList(expense)), this::onSelectionChanged);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        expenseRecyclerView.setLayoutManager(layoutManager);
+        expenseRecyclerView.setHasFixedSize(true);
+        expenseRecyclerView.setAdapter(expenseAdapter);
+        // Rows for later pages and inserts are inflated in the background once startup settles
+        new RowPrewarmer(expenseRecyclerView, expenseAdapter).startWhenIdle();
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            // Read with `adb shell dumpsys activity MainActivity` or the overlay from the settings menu
+            frameMonitor = new FrameMonitor(this, new FrameStats());
+            expenseAdapter.setFrameStats(frameMonitor.stats());
+        }
+
+        // The adapter only ever holds a bounded window of the history
+        pager = new ExpensePager(expenseRepository, executors.io(), tasks.main(),
+                PAGE_SIZE, PREFETCH_DISTANCE, MAX_LOADED_PAGES, this::onWindowChanged);
+        expenseRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                pager.onVisibleRangeChanged(layoutManager.findFirstVisibleItemPosition(),
+                        layoutManager.findLastVisibleItemPosition());
+            }
+        });
+
+        etSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                onSearchQueryChanged(s.toString().trim());
+            }
+        });
 
         // Display username from Firebase Authentication with better fallback
         String userName = getUserDisplayName(currentUser);
@@ -55,10 +248,175 @@ public class MainActivity extends AppCompatActivity {
             startActivityForResult(intent, REQUEST_CODE_ADD_EXPENSE);
         });
 
-        updateTotalExpenses();
+        // A recreated screen shows its saved window and totals in the first frame
+        snapshotStore = new ExpenseSnapshotStore(this, currentUser.getUid());
+        ExpenseSnapshot snapshot = savedInstanceState != null
+                ? snapshotStore.load(savedInstanceState.getLong(STATE_SNAPSHOT_STAMP)) : null;
+        if (snapshot != null) {
+            restoreSnapshot(snapshot);
+        } else {
+            updateTotalExpenses();
+            loadExpenses();
+        }
 
         TextView tvSettings = findViewById(R.id.tv_settings);
         tvSettings.setOnClickListener(v -> showSettingsMenu(v));
+
+        StartupTrace.reportFirstFrame(expenseRecyclerView, "MainActivity");
+        StartupTrace.endSection();
+    }
+
+    // Rows still hidden for a delete stay hidden in what comes back
+    private void loadExpenses() {
+        pager.refresh();
+        loadAggregates(null);
+        buildSearchIndex();
+    }
+
+    // The totals carry the write sequence they were read at, so a change set that raced the load is
+    // counted once: skipped if the load already saw it, replayed if it arrived before the load finished.
+    // onLoaded gets the sequence storage was read at
+    private void loadAggregates(@Nullable LongConsumer onLoaded) {
+        List<ExpenseChangeSet> arrived = new ArrayList<>();
+        changesDuringLoad = arrived;
+        tasks.load(() -> expenseRepository.loadAggregates(), storedAggregates -> {
+            if (changesDuringLoad != arrived) {
+                // A later load replaced this one
+                return;
+            }
+            changesDuringLoad = null;
+            if (onLoaded != null) {
+                onLoaded.accept(storedAggregates.getSequence());
+            }
+            for (ExpenseChangeSet changes : arrived) {
+                if (!storedAggregates.apply(changes)) {
+                    loadAggregates(null);
+                    return;
+                }
+            }
+            aggregates = storedAggregates;
+            aggregatesLoaded = true;
+            updateTotalExpenses();
+        });
+    }
+
+    private void restoreSnapshot(ExpenseSnapshot snapshot) {
+        // The snapshot may still be queued for writing, so keep our own copy of the totals
+        aggregates = new ExpenseAggregates(snapshot.aggregates);
+        aggregatesLoaded = true;
+        updateTotalExpenses();
+        pager.restore(snapshot.window, snapshot.hasOlder, snapshot.hasNewer);
+        // Writes committed while no screen was subscribed, such as an import batch mid-rotation, never
+        // reached this one. The totals are read again, and the window too if storage moved past it
+        long savedAt = snapshot.aggregates.getSequence();
+        loadAggregates(loadedAt -> {
+            if (loadedAt > savedAt) {
+                pager.refresh();
+            }
+        });
+        // Search covers the whole history, so the index is still built from storage
+        buildSearchIndex();
+    }
+
+    private void buildSearchIndex() {
+        // Changes arriving while it reads are replayed onto the new index before it is swapped in
+        tasks.load(() -> searchIndex.rebuild(expenseRepository, SEARCH_INDEX_BATCH_SIZE), swapped -> {
+            if (swapped && !searchQuery.isEmpty()) {
+                runSearch(searchQuery);
+            }
+        });
+    }
+
+    // One call per batch, however many mutations it merges: one window change and one total update
+    private void onExpensesChanged(ExpenseChangeSet changes) {
+        if (changesDuringLoad != null) {
+            changesDuringLoad.add(changes);
+        }
+        if (!aggregates.apply(changes)) {
+            // Merged across the point the totals were read at; reading them again is exact
+            loadAggregates(null);
+        }
+        if (changes.cleared) {
+            hideOnly(pendingDelete);
+        }
+        for (Expense expense : changes.removed) {
+            Expense hidden = hiddenExpenses.remove(expense.id);
+            if (hidden != null) {
+                hiddenTotalCents -= hidden.amountCents;
+            }
+        }
+        pager.apply(changes);
+        onHiddenChanged();
+    }
+
+    // Runs on the compute pool, then reruns an open search against the patched index
+    private void updateSearchIndex(ExpenseChangeSet changes) {
+        searchIndex.apply(changes);
+        tasks.main().execute(() -> {
+            if (!searchQuery.isEmpty()) {
+                runSearch(searchQuery);
+            }
+        });
+    }
+
+    private void onWindowChanged(List<Expense> window) {
+        pagedWindow = window;
+        windowLoaded = true;
+        // While searching the list shows matches, the window is kept for when the query is cleared
+        if (searchQuery.isEmpty()) {
+            // The diff against the previous window runs off the main thread
+            expenseAdapter.submitList(shownWindow());
+        }
+        // The first page is on screen, the app is usable
+        reportFullyDrawn();
+    }
+
+    private void onSearchQueryChanged(String query) {
+        if (query.equals(searchQuery)) {
+            return;
+        }
+        searchQuery = query;
+        if (query.isEmpty()) {
+            expenseAdapter.submitList(shownWindow());
+        } else {
+            runSearch(query);
+        }
+    }
+
+    private void runSearch(String query) {
+        tasks.load(() -> searchIndex.current().search(query, SEARCH_RESULT_LIMIT), results -> {
+            // Drop results for a query the user has already typed past
+            if (query.equals(searchQuery)) {
+                expenseAdapter.submitList(withoutHidden(results));
+            }
+        });
+    }
+
+    // The pager already leaves hidden rows out, except for a delete-all
+    private List<Expense> shownWindow() {
+        return hidingAll ? Collections.<Expense>emptyList() : pagedWindow;
+    }
+
+    private List<Expense> withoutHidden(List<Expense> expenses) {
+        if (hidingAll) {
+            return Collections.emptyList();
+        }
+        if (hiddenExpenses.isEmpty()) {
+            return expenses;
+        }
+        List<Expense> shown = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            if (!hiddenExpenses.containsKey(expense.id)) {
+                shown.add(expense);
+            }
+        }
+        return shown;
+    }
+
+    // Runs on the sync thread
+    private void onDeltaSyncComplete(int appliedChanges, SyncStats stats) {
+        Log.d(TAG, "Delta sync applied " + appliedChanges + " of " + stats.pulledChanges
+                + " pulled changes in " + stats.lastDurationMillis + " ms, cursor at " + stats.cursorMillis);
     }
 
     private String getUserDisplayName(FirebaseUser user) {
@@ -79,118 +437,339 @@ public class MainActivity extends AppCompatActivity {
 
         if (requestCode == REQUEST_CODE_ADD_EXPENSE && resultCode == RESULT_OK && data != null) {
             String description = data.getStringExtra("description");
-            double amount = data.getDoubleExtra("amount", 0);
+            long amountCents = data.getLongExtra("amount_cents", 0);
             String category = data.getStringExtra("category");
-            String date = data.getStringExtra("date");
-
-            addExpense(description, amount, category, date);
-            updateTotalExpenses();
+            int epochDay = data.getIntExtra("epoch_day", 0);
+
+            addExpense(description, amountCents, category, epochDay);
+        } else if (requestCode == REQUEST_CODE_IMPORT_CSV && resultCode == RESULT_OK
+                && data != null && data.getData() != null) {
+            importCsv(data.getData());
+        } else if ((requestCode == REQUEST_CODE_EXPORT_CSV || requestCode == REQUEST_CODE_EXPORT_JSON)
+                && resultCode == RESULT_OK && data != null && data.getData() != null) {
+            exportTo(data.getData(), requestCode == REQUEST_CODE_EXPORT_CSV
+                    ? ExpenseExporter.Format.CSV : ExpenseExporter.Format.JSON_LINES);
         }
     }
 
-    private void addExpense(String description, double amount, String category, String date) {
-        // Create expense object
-        Expense expense = new Expense(description, amount, category, date);
-
-        // Inflate the custom expense item layout
-        View expenseItemView = getLayoutInflater().inflate(R.layout.item_expense, expenseListContainer, false);
-
-        // Find views in the inflated layout
-        TextView tvDescription = expenseItemView.findViewById(R.id.tv_description);
-        TextView tvCategory = expenseItemView.findViewById(R.id.tv_category);
-        TextView tvDate = expenseItemView.findViewById(R.id.tv_date);
-        TextView tvAmount = expenseItemView.findViewById(R.id.tv_amount);
-        Button btnDelete = expenseItemView.findViewById(R.id.btn_delete);
-
-        // Set the data to views
-        tvDescription.setText(description);
-        tvCategory.setText(category);
-        tvDate.setText(date);
-        tvAmount.setText(String.format("$%.2f", amount));
-
-        // Set category background color based on category
-        setCategoryBackground(tvCategory, category);
-
-        // Store the expense with its view for later deletion
-        ExpenseItem expenseItemObj = new ExpenseItem(expense, expenseItemView);
-        expenseList.add(expenseItemObj);
-
-        // Set delete click listener
-        btnDelete.setOnClickListener(v -> {
-            new AlertDialog.Builder(this)
-                    .setTitle("Delete Expense")
-                    .setMessage("Are you sure you want to delete this expense?")
-                    .setPositiveButton("Delete", (dialog, which) -> {
-                        deleteExpense(expenseItemObj);
-                    })
-                    .setNegativeButton("Cancel", null)
-                    .show();
+    private void addExpense(String description, long amountCents, String category, int epochDay) {
+        // Queued ahead of the insert on the writer, so a pending delete-all can't take the new row with it
+        commitPendingDelete();
+
+        tasks.write(() -> Metrics.shared().time(METRIC_ADD_EXPENSE, () -> {
+            // Built on the writer once the user's categories have loaded, since a new category name is
+            // interned here; the repository assigns the id
+            dbHelper.loadCategories();
+            Expense expense = new Expense(0, description, amountCents, category, epochDay);
+            // The list, the total and the index follow from the change set; the new row is the confirmation
+            Expense saved = expenseRepository.insert(expense);
+            outboxFlusher.requestFlush();
+            return saved;
+        }), null);
+    }
+
+    // Streams the file on the I/O pool; each batch is one transaction on the writer, so edits and sync
+    // writes take turns with it, and reaches the list as it commits. The import belongs to the process
+    // rather than this screen, so a rotation keeps both it and its summary
+    private void importCsv(Uri uri) {
+        TransferProgress transfer = TransferProgress.get();
+        transfer.start("Importing expenses...", 0, null);
+
+        AppExecutors executors = AppExecutors.get();
+        Executor mainThread = executors.mainThread();
+        ContentResolver resolver = getApplicationContext().getContentResolver();
+        ExpenseImporter importer = new ExpenseImporter(expenseRepository, ExpenseImporter.DEFAULT_BATCH_SIZE);
+        OutboxFlusher flusher = outboxFlusher;
+        ExpenseDbHelper helper = dbHelper;
+        executors.io().execute(() -> {
+            ExpenseImporter.Result result = null;
+            String notice = null;
+            try (InputStream input = resolver.openInputStream(uri)) {
+                if (input == null) {
+                    throw new IOException("Cannot open " + uri);
+                }
+                // Rows intern their category names as they are parsed
+                helper.loadCategories();
+                Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+                result = importer.importCsv(reader, (rowsRead, imported, failed) ->
+                        mainThread.execute(() -> transfer.update("Imported " + imported + " expenses...")));
+                flusher.requestFlush();
+            } catch (IOException | RuntimeException e) {
+                // Batches committed before the failure are kept, and already shown
+                Log.e(TAG, "CSV import failed", e);
+                notice = "Import failed: " + e.getMessage();
+            }
+            ExpenseImporter.Result finalResult = result;
+            String finalNotice = notice;
+            mainThread.execute(() -> transfer.finish(finalResult, finalNotice));
+        });
+    }
+
+    // Reads page by page on the I/O pool and writes through the file's channel; like an import,
+    // it carries on through a rotation
+    private void exportTo(Uri uri, ExpenseExporter.Format format) {
+        ExpenseExporter exporter = new ExpenseExporter(expenseRepository, ExpenseExporter.DEFAULT_CHUNK_SIZE);
+        TransferProgress transfer = TransferProgress.get();
+        transfer.start("Exporting expenses...", Math.max(1, aggregates.getCount()), exporter::cancel);
+
+        AppExecutors executors = AppExecutors.get();
+        Executor mainThread = executors.mainThread();
+        ContentResolver resolver = getApplicationContext().getContentResolver();
+        executors.io().execute(() -> {
+            String notice;
+            // "wt" truncates, so re-exporting over an existing file leaves no stale tail
+            try (ParcelFileDescriptor descriptor = resolver.openFileDescriptor(uri, "wt")) {
+                if (descriptor == null) {
+                    throw new IOException("Cannot open " + uri);
+                }
+                try (FileOutputStream output = new FileOutputStream(descriptor.getFileDescriptor())) {
+                    ExpenseExporter.Result result = exporter.export(format, output.getChannel(), exported ->
+                            mainThread.execute(() -> transfer.updateDone(exported)));
+                    notice = result.cancelled
+                            ? "Export cancelled after " + result.exported + " expenses"
+                            : "Exported " + result.exported + " expenses";
+                }
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Export failed", e);
+                notice = "Export failed: " + e.getMessage();
+            }
+            String finalNotice = notice;
+            mainThread.execute(() -> transfer.finish(null, finalNotice));
         });
+    }
 
-        // Add the view to container
-        expenseListContainer.addView(expenseItemView);
-
-        // Update total expenses value
-        totalExpenses += amount;
-
-        // Show confirmation
-        Toast.makeText(this, "Expense added successfully!", Toast.LENGTH_SHORT).show();
-    }
-
-    private void setCategoryBackground(TextView tvCategory, String category) {
-        int backgroundColor;
-        switch (category.toLowerCase()) {
-            case "food":
-                backgroundColor = 0xFF10B981; // Green
-                break;
-            case "transport":
-                backgroundColor = 0xFF3B82F6; // Blue
-                break;
-            case "entertainment":
-                backgroundColor = 0xFFEF4444; // Red
-                break;
-            case "shopping":
-                backgroundColor = 0xFFF59E0B; // Yellow
-                break;
-            case "bills":
-                backgroundColor = 0xFF8B5CF6; // Purple
-                break;
-            case "healthcare":
-                backgroundColor = 0xFFEC4899; // Pink
-                break;
-            case "education":
-                backgroundColor = 0xFF06B6D4; // Cyan
-                break;
-            default: // Others
-                backgroundColor = 0xFF6B7280; // Gray
-                break;
-        }
-        tvCategory.setBackgroundColor(backgroundColor);
-    }
-
-    private void deleteExpense(ExpenseItem expenseItem) {
-        // Remove from list
-        expenseList.remove(expenseItem);
-
-        // Remove view from container
-        expenseListContainer.removeView(expenseItem.view);
-
-        // Update total
-        totalExpenses -= expenseItem.expense.amount;
+    // Follows TransferProgress while the screen is started, and shows an outcome it missed
+    private void showTransferProgress() {
+        TransferProgress transfer = TransferProgress.get();
+        if (transfer.isRunning()) {
+            if (progressTransfer.getVisibility() != View.VISIBLE) {
+                // A transfer keeps its mode, so it is only switched while the bar is hidden
+                progressTransfer.setIndeterminate(transfer.max() == 0);
+                progressTransfer.setMax(Math.max(1, transfer.max()));
+                progressTransfer.setVisibility(View.VISIBLE);
+            }
+            if (transfer.max() > 0) {
+                progressTransfer.setProgressCompat(transfer.done(), true);
+            }
+            tvTransferStatus.setText(transfer.message());
+            tvTransferStatus.setVisibility(View.VISIBLE);
+            tvTransferCancel.setVisibility(transfer.isCancellable() ? View.VISIBLE : View.GONE);
+        } else {
+            tvTransferStatus.setVisibility(View.GONE);
+            tvTransferCancel.setVisibility(View.GONE);
+            progressTransfer.setVisibility(View.GONE);
+        }
+        ExpenseImporter.Result result = transfer.takeImportResult();
+        if (result != null) {
+            showImportSummary(result);
+        }
+        String notice = transfer.takeNotice();
+        if (notice != null) {
+            Toast.makeText(this, notice, Toast.LENGTH_LONG).show();
+        }
+    }
+
+    private void showImportSummary(ExpenseImporter.Result result) {
+        StringBuilder message = new StringBuilder()
+                .append("Imported ").append(result.imported).append(" of ").append(result.rowsRead).append(" rows.");
+        if (result.failed > 0) {
+            message.append("\n\n").append(result.failed).append(" rows were skipped:");
+            for (int i = 0; i < Math.min(IMPORT_ERRORS_SHOWN, result.errors.size()); i++) {
+                message.append("\n").append(result.errors.get(i));
+            }
+            if (result.failed > IMPORT_ERRORS_SHOWN) {
+                message.append("\n...");
+            }
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Import Complete")
+                .setMessage(message)
+                .setPositiveButton("OK", null)
+                .show();
+    }
+
+    private void onSelectionChanged(int selectedCount) {
+        if (selectedCount == 0) {
+            if (selectionMode != null) {
+                selectionMode.finish();
+            }
+            return;
+        }
+        if (selectionMode == null) {
+            selectionMode = startSupportActionMode(selectionCallback);
+        }
+        if (selectionMode != null) {
+            selectionMode.setTitle(selectedCount + " selected");
+        }
+    }
+
+    private final ActionMode.Callback selectionCallback = new ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(ActionMode mode, Menu menu) {
+            menu.add(Menu.NONE, MENU_SELECT_ALL, Menu.NONE, "Select All");
+            menu.add(Menu.NONE, MENU_DELETE_SELECTED, Menu.NONE, "Delete")
+                    .setShowAsAction(MenuItem.SHOW_AS_ACTION_ALWAYS);
+            return true;
+        }
+
+        @Override
+        public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
+            return false;
+        }
+
+        @Override
+        public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
+            if (item.getItemId() == MENU_SELECT_ALL) {
+                expenseAdapter.selectAll();
+                return true;
+            } else if (item.getItemId() == MENU_DELETE_SELECTED) {
+                deleteExpenses(expenseAdapter.getSelectedExpenses());
+                mode.finish();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void onDestroyActionMode(ActionMode mode) {
+            selectionMode = null;
+            expenseAdapter.clearSelection();
+        }
+    };
+
+    // Hides the rows at once and deletes them from storage when the undo window closes
+    private void deleteExpenses(List<Expense> expenses) {
+        if (expenses.isEmpty()) {
+            return;
+        }
+        PendingDelete delete = PendingDelete.of(expenses);
+        String message = expenses.size() == 1 ? "Expense deleted" : expenses.size() + " expenses deleted";
+        offerUndo(delete, message);
+    }
+
+    private void deleteAllExpenses() {
+        etSearch.setText("");
+        offerUndo(PendingDelete.everything(), "All expenses deleted");
+    }
+
+    private void hide(PendingDelete delete) {
+        if (delete.all) {
+            hidingAll = true;
+            return;
+        }
+        for (Expense expense : delete.expenses) {
+            if (hiddenExpenses.put(expense.id, expense) == null) {
+                hiddenTotalCents += expense.amountCents;
+            }
+        }
+    }
+
+    private void unhide(PendingDelete delete) {
+        if (delete.all) {
+            hidingAll = false;
+            return;
+        }
+        for (Expense expense : delete.expenses) {
+            if (hiddenExpenses.remove(expense.id) != null) {
+                hiddenTotalCents -= expense.amountCents;
+            }
+        }
+    }
+
+    // Storage has caught up with every delete but this one, which may be null
+    private void hideOnly(@Nullable PendingDelete delete) {
+        hiddenExpenses.clear();
+        hiddenTotalCents = 0;
+        hidingAll = false;
+        if (delete != null) {
+            hide(delete);
+        }
+    }
+
+    // The list, the total and an open search, after the hidden rows or the totals changed
+    private void onHiddenChanged() {
+        pager.setHidden(hiddenExpenses.keySet());
         updateTotalExpenses();
+        if (searchQuery.isEmpty()) {
+            expenseAdapter.submitList(shownWindow());
+        } else {
+            runSearch(searchQuery);
+        }
+    }
+
+    private void offerUndo(PendingDelete delete, String message) {
+        // One delete is pending at a time; an older one goes to storage now
+        commitPendingDelete();
+        pendingDelete = delete;
+        hide(delete);
+        onHiddenChanged();
+        undoBar = Snackbar.make(findViewById(R.id.main), message, UNDO_WINDOW_MILLIS)
+                .setAction("Undo", v -> {
+                    if (delete.undo()) {
+                        pendingDelete = null;
+                        // Storage still has them, so showing them again is all there is to do
+                        unhide(delete);
+                        onHiddenChanged();
+                    }
+                })
+                .addCallback(new Snackbar.Callback() {
+                    @Override
+                    public void onDismissed(Snackbar bar, int event) {
+                        if (event != DISMISS_EVENT_ACTION) {
+                            commitDelete(delete);
+                        }
+                    }
+                });
+        undoBar.show();
+    }
+
+    // Commits the delete still waiting for an undo, if there is one
+    private void commitPendingDelete() {
+        PendingDelete delete = pendingDelete;
+        if (delete == null) {
+            return;
+        }
+        commitDelete(delete);
+        undoBar.dismiss();
+    }
 
-        Toast.makeText(this, "Expense deleted", Toast.LENGTH_SHORT).show();
+    private void commitDelete(PendingDelete delete) {
+        if (pendingDelete == delete) {
+            pendingDelete = null;
+        }
+        if (!delete.commit()) {
+            return;
+        }
+        // One transaction for the whole batch; the rows stay hidden until the change set it publishes arrives
+        tasks.write(() -> Metrics.shared().time(METRIC_DELETE_EXPENSES, () -> {
+            if (delete.all) {
+                expenseRepository.deleteAll();
+            } else {
+                expenseRepository.deleteAll(delete.ids());
+            }
+            outboxFlusher.requestFlush();
+            return null;
+        }), null);
     }
 
     private void updateTotalExpenses() {
-        tvTotal.setText(String.format("$%.2f", totalExpenses));
+        long total = hidingAll ? 0 : aggregates.getTotal() - hiddenTotalCents;
+        if (totalText.set(total)) {
+            tvTotal.setText(totalText.chars, 0, totalText.length);
+        }
     }
 
     private void showSettingsMenu(View anchor) {
         PopupMenu popupMenu = new PopupMenu(this, anchor);
         popupMenu.getMenu().add("About");
+        popupMenu.getMenu().add("Import CSV");
+        popupMenu.getMenu().add("Export CSV");
+        popupMenu.getMenu().add("Export JSON");
         popupMenu.getMenu().add("Delete All Expenses");
         popupMenu.getMenu().add("Logout");
+        if (frameMonitor != null) {
+            popupMenu.getMenu().add("Performance Overlay");
+        }
 
         popupMenu.setOnMenuItemClickListener(item -> {
             String title = item.getTitle().toString();
@@ -202,22 +781,41 @@ public class MainActivity extends AppCompatActivity {
                         .setPositiveButton("OK", null)
                         .show();
                 return true;
+            } else if (title.equals("Import CSV")) {
+                if (TransferProgress.get().isRunning()) {
+                    Toast.makeText(this, "An import or export is already running", Toast.LENGTH_SHORT).show();
+                    return true;
+                }
+                Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT);
+                intent.addCategory(Intent.CATEGORY_OPENABLE);
+                intent.setType("*/*");
+                intent.putExtra(Intent.EXTRA_MIME_TYPES,
+                        new String[]{"text/csv", "text/comma-separated-values", "text/plain"});
+                startActivityForResult(intent, REQUEST_CODE_IMPORT_CSV);
+                return true;
+            } else if (title.equals("Export CSV") || title.equals("Export JSON")) {
+                if (TransferProgress.get().isRunning()) {
+                    Toast.makeText(this, "An import or export is already running", Toast.LENGTH_SHORT).show();
+                    return true;
+                }
+                boolean csv = title.equals("Export CSV");
+                ExpenseExporter.Format format = csv ? ExpenseExporter.Format.CSV : ExpenseExporter.Format.JSON_LINES;
+                Intent intent = new Intent(Intent.ACTION_CREATE_DOCUMENT);
+                intent.addCategory(Intent.CATEGORY_OPENABLE);
+                intent.setType(format.mimeType);
+                intent.putExtra(Intent.EXTRA_TITLE, "expenses" + format.extension);
+                startActivityForResult(intent, csv ? REQUEST_CODE_EXPORT_CSV : REQUEST_CODE_EXPORT_JSON);
+                return true;
             } else if (title.equals("Delete All Expenses")) {
-                if (expenseList.isEmpty()) {
+                if (pager.isEmpty()) {
                     Toast.makeText(this, "No expenses to delete", Toast.LENGTH_SHORT).show();
                     return true;
                 }
 
                 new AlertDialog.Builder(this)
                         .setTitle("Delete All Expenses")
-                        .setMessage("Are you sure you want to delete all expenses? This action cannot be undone.")
-                        .setPositiveButton("Delete All", (dialog, which) -> {
-                            expenseList.clear();
-                            expenseListContainer.removeAllViews();
-                            totalExpenses = 0.0;
-                            updateTotalExpenses();
-                            Toast.makeText(MainActivity.this, "All expenses deleted", Toast.LENGTH_SHORT).show();
-                        })
+                        .setMessage("Are you sure you want to delete all expenses?")
+                        .setPositiveButton("Delete All", (dialog, which) -> deleteAllExpenses())
                         .setNegativeButton("Cancel", null)
                         .show();
                 return true;
@@ -226,13 +824,16 @@ public class MainActivity extends AppCompatActivity {
                         .setTitle("Logout")
                         .setMessage("Are you sure you want to logout?")
                         .setPositiveButton("Logout", (dialog, which) -> {
-                            FirebaseAuth.getInstance().signOut();
+                            AuthSession.signOut();
                             Toast.makeText(this, "Logged out successfully", Toast.LENGTH_SHORT).show();
                             navigateToLogin();
                         })
                         .setNegativeButton("Cancel", null)
                         .show();
                 return true;
+            } else if (title.equals("Performance Overlay")) {
+                frameMonitor.setOverlayShown(!frameMonitor.isOverlayShown());
+                return true;
             }
             return false;
         });
@@ -248,38 +849,110 @@ public class MainActivity extends AppCompatActivity {
     }
 
     @Override
-    protected void onResume() {
-        super.onResume();
-        // Check if user is still logged in
-        FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
-        if (currentUser == null) {
-            navigateToLogin();
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        if (!windowLoaded || !aggregatesLoaded) {
+            return;
+        }
+        // Captured here, encoded and written on the disk writer
+        ExpenseSnapshot snapshot = new ExpenseSnapshot(System.nanoTime(), shownWindow(), pager.hasOlder(),
+                pager.hasNewer(), shownAggregates());
+        snapshotStore.remember(snapshot);
+        outState.putLong(STATE_SNAPSHOT_STAMP, snapshot.stamp);
+        tasks.write(() -> {
+            try {
+                snapshotStore.write(snapshot);
+            } catch (IOException e) {
+                Log.w(TAG, "Could not save the screen snapshot", e);
+            }
+            return null;
+        }, null);
+    }
+
+    // The totals as shown, without rows hidden for a delete that storage may not have caught up with
+    private ExpenseAggregates shownAggregates() {
+        if (hidingAll) {
+            return new ExpenseAggregates();
+        }
+        ExpenseAggregates shown = new ExpenseAggregates(aggregates);
+        for (Expense expense : hiddenExpenses.values()) {
+            shown.remove(expense);
         }
+        return shown;
     }
 
-    // Expense class
-    public static class Expense {
-        public String description;
-        public double amount;
-        public String category;
-        public String date;
+    @Override
+    public void dump(@NonNull String prefix, @Nullable FileDescriptor fd, @NonNull PrintWriter writer,
+                     @Nullable String[] args) {
+        super.dump(prefix, fd, writer, args);
+        writer.print(prefix);
+        writer.println("Metrics:");
+        StringWriter metrics = new StringWriter();
+        try {
+            MetricsExporter.write(Metrics.shared(), metrics);
+        } catch (IOException e) {
+            // A StringWriter doesn't throw
+        }
+        for (String line : metrics.toString().split("\n")) {
+            writer.print(prefix);
+            writer.print("  ");
+            writer.println(line);
+        }
+        if (frameMonitor != null) {
+            writer.print(prefix);
+            writer.println("Expense list rendering:");
+            for (String line : frameMonitor.stats().report().split("\n")) {
+                writer.print(prefix);
+                writer.print("  ");
+                writer.println(line);
+            }
+        }
+    }
 
-        public Expense(String description, double amount, String category, String date) {
-            this.description = description;
-            this.amount = amount;
-            this.category = category;
-            this.date = date;
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (frameMonitor != null) {
+            frameMonitor.stop();
         }
     }
 
-    // Helper class to store expense with its view
-    private static class ExpenseItem {
-        public Expense expense;
-        public View view;
+    @Override
+    protected void onStart() {
+        super.onStart();
+        TransferProgress.get().attach(transferListener);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        TransferProgress.get().detach(transferListener);
+        // Leaving the screen closes the undo window
+        commitPendingDelete();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // Queued writes still run to completion on the shared writer thread
+        if (outboxFlusher != null) {
+            outboxFlusher.stop();
+            deltaSync.stop();
+        }
+        // The stream belongs to the user and carries on for the next screen
+        for (ExpenseChanges.Subscription subscription : changeSubscriptions) {
+            subscription.cancel();
+        }
+    }
 
-        public ExpenseItem(Expense expense, View view) {
-            this.expense = expense;
-            this.view = view;
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // Check if user is still logged in, answered from the cached session
+        if (!AuthSession.isSignedIn()) {
+            navigateToLogin();
+        } else if (frameMonitor != null) {
+            frameMonitor.start();
         }
     }
-}
\ No newline at end of file
+}
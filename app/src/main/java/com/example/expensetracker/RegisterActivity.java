@@ -12,6 +12,8 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.expensetracker.core.Metrics;
+import com.example.expensetracker.core.TaskScope;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.auth.UserProfileChangeRequest;
@@ -20,12 +22,17 @@ import com.google.firebase.database.FirebaseDatabase;
 public class RegisterActivity extends AppCompatActivity {
 
     private static final String TAG = "RegisterActivity";
+    // Latency of createUserWithEmailAndPassword and of the Users/<uid> write, see Metrics
+    static final String METRIC_CREATE_USER = "auth.createUser";
+    static final String METRIC_SAVE_USER = "auth.saveUser";
 
     private EditText etUsername, etEmail, etPassword, etConfirmPassword;
     private Button btnRegister;
     private TextView tvLogin;
     private FirebaseAuth mAuth;
     private ProgressDialog progressDialog;
+    // Firebase callbacks are delivered through this so none reach a destroyed screen
+    private TaskScope tasks;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -42,6 +49,7 @@ public class RegisterActivity extends AppCompatActivity {
 
         // Initialize Firebase Auth
         mAuth = FirebaseAuth.getInstance();
+        tasks = AppExecutors.get().scopeFor(this);
 
         // Initialize ProgressDialog
         progressDialog = new ProgressDialog(this);
@@ -106,8 +114,11 @@ public class RegisterActivity extends AppCompatActivity {
         progressDialog.show();
 
         // Create user in Firebase Authentication
+        Metrics.Section createUser = Metrics.shared().begin(METRIC_CREATE_USER);
         mAuth.createUserWithEmailAndPassword(email, password)
-                .addOnCompleteListener(task -> {
+                // Timed apart from the screen's callbacks, which are dropped if the screen goes away
+                .addOnCompleteListener(task -> createUser.end(task.isSuccessful()))
+                .addOnCompleteListener(tasks.main(), task -> {
                     if (task.isSuccessful()) {
                         Log.d(TAG, "FirebaseAuth: User account created successfully.");
 
@@ -120,7 +131,7 @@ public class RegisterActivity extends AppCompatActivity {
                                     .build();
 
                             firebaseUser.updateProfile(profileUpdates)
-                                    .addOnCompleteListener(profileTask -> {
+                                    .addOnCompleteListener(AppExecutors.get().io(), profileTask -> {
                                         if (profileTask.isSuccessful()) {
                                             Log.d(TAG, "User profile updated with username.");
                                         }
@@ -131,10 +142,12 @@ public class RegisterActivity extends AppCompatActivity {
                             User user = new User(username, email);
 
                             // Save user data to Firebase Realtime Database
+                            Metrics.Section saveUser = Metrics.shared().begin(METRIC_SAVE_USER);
                             FirebaseDatabase.getInstance().getReference("Users")
                                     .child(uid)
                                     .setValue(user)
-                                    .addOnCompleteListener(dbTask -> {
+                                    .addOnCompleteListener(dbTask -> saveUser.end(dbTask.isSuccessful()))
+                                    .addOnCompleteListener(tasks.main(), dbTask -> {
                                         // Dismiss the dialog once all operations complete
                                         progressDialog.dismiss();
 
@@ -147,10 +160,10 @@ public class RegisterActivity extends AppCompatActivity {
                                             // Show success message with better feedback
                                             Toast.makeText(this, "Account created successfully! Welcome " + username + "!", Toast.LENGTH_LONG).show();
 
-                                            // Go to login layout
-                                            Intent intent = new Intent(this, LoginActivity.class);
-                                            intent.putExtra("registration_success", true);
-                                            intent.putExtra("user_email", email);
+                                            // Creating the account signed the user in, so go straight to
+                                            // the main screen as StartupActivity does for a signed-in session
+                                            Intent intent = new Intent(this, MainActivity.class);
+                                            intent.setFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
                                             startActivity(intent);
                                             finish();
                                         } else {
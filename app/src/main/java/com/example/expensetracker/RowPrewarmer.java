@@ -0,0 +1,77 @@
+package com.example.expensetracker;
+
+import android.os.Looper;
+import android.util.TypedValue;
+import android.view.View;
+
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Fills the expense list's RecycledViewPool with rows inflated off the main
+ * thread, enough to cover the viewport plus a little scroll. It starts the
+ * first time the main thread goes idle after launch, so it never competes
+ * with the first frame; the RecyclerView then takes its holders from the
+ * pool instead of inflating while a page or a restored window is shown.
+ * Any row the pool can't supply is still inflated on demand.
+ */
+final class RowPrewarmer {
+
+    // Rows beyond the viewport, for the first fling and item animations
+    static final int EXTRA_ROWS = 4;
+    // A little below the real height of item_expense, so the estimate errs on more rows
+    private static final int ESTIMATED_ROW_HEIGHT_DP = 120;
+
+    private final RecyclerView recyclerView;
+    private final ExpenseAdapter adapter;
+    // Rows the list should have without inflating on the main thread
+    private int targetRows;
+
+    RowPrewarmer(RecyclerView recyclerView, ExpenseAdapter adapter) {
+        this.recyclerView = recyclerView;
+        this.adapter = adapter;
+    }
+
+    // Rows needed to fill a viewport of this height, plus the extras
+    static int rowsFor(int viewportPx, int rowPx) {
+        return (viewportPx + rowPx - 1) / Math.max(1, rowPx) + EXTRA_ROWS;
+    }
+
+    // From onCreate, after the adapter is set; setting an adapter later clears the pool
+    void startWhenIdle() {
+        Looper.myQueue().addIdleHandler(() -> {
+            start();
+            return false;
+        });
+    }
+
+    void start() {
+        int rowPx = Math.round(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, ESTIMATED_ROW_HEIGHT_DP,
+                recyclerView.getResources().getDisplayMetrics()));
+        // Laid out by now in the usual case; before that the screen height is the bound
+        int viewportPx = recyclerView.getHeight() > 0
+                ? recyclerView.getHeight() : recyclerView.getResources().getDisplayMetrics().heightPixels;
+        targetRows = rowsFor(viewportPx, rowPx);
+        // The pool keeps 5 per type by default
+        recyclerView.getRecycledViewPool().setMaxRecycledViews(ExpenseAdapter.VIEW_TYPE_EXPENSE, targetRows);
+
+        AsyncLayoutInflater inflater = new AsyncLayoutInflater(recyclerView.getContext());
+        for (int i = 0; i < targetRows; i++) {
+            inflater.inflate(R.layout.item_expense, recyclerView, (row, resId, parent) -> addToPool(row));
+        }
+    }
+
+    // Main thread, once per inflated row
+    void addToPool(View row) {
+        RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+        // Rows shown while inflation was in flight already count towards the target
+        int existing = pool.getRecycledViewCount(ExpenseAdapter.VIEW_TYPE_EXPENSE) + recyclerView.getChildCount();
+        if (existing < targetRows) {
+            pool.putRecycledView(adapter.createPrewarmedHolder(recyclerView, row));
+        }
+    }
+
+    int targetRows() {
+        return targetRows;
+    }
+}
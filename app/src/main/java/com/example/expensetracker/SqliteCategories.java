@@ -0,0 +1,66 @@
+package com.example.expensetracker;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import com.example.expensetracker.core.Category;
+import com.example.expensetracker.core.CategoryRegistry;
+
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_COLOR;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_ICON;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_ID;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_NAME;
+import static com.example.expensetracker.core.ExpenseSchema.SQL_ENSURE_CATEGORY;
+import static com.example.expensetracker.core.ExpenseSchema.TABLE_CATEGORIES;
+
+/**
+ * Moves categories between the categories table and the CategoryRegistry.
+ * The table is the source of truth for a user's category ids; the registry
+ * is filled from it when the database opens.
+ */
+final class SqliteCategories {
+
+    private static final String TAG = "SqliteCategories";
+
+    private SqliteCategories() {
+    }
+
+    // Built-ins under their fixed ids, so migrated and new rows can refer to them
+    static void seed(SQLiteDatabase db) {
+        SQLiteStatement ensure = db.compileStatement(SQL_ENSURE_CATEGORY);
+        try {
+            for (Category category : new CategoryRegistry().all()) {
+                bindCategory(ensure, category);
+                ensure.executeInsert();
+            }
+        } finally {
+            ensure.close();
+        }
+    }
+
+    static void load(SQLiteDatabase db, CategoryRegistry registry) {
+        try (Cursor cursor = db.query(TABLE_CATEGORIES, new String[]{COLUMN_ID, COLUMN_NAME, COLUMN_ICON, COLUMN_COLOR},
+                COLUMN_ID + " >= ?", new String[]{String.valueOf(CategoryRegistry.BUILT_IN_COUNT)},
+                null, null, COLUMN_ID)) {
+            while (cursor.moveToNext()) {
+                int id = cursor.getInt(0);
+                String name = cursor.getString(1);
+                if (!registry.register(id, name, cursor.isNull(2) ? null : cursor.getString(2),
+                        cursor.isNull(3) ? null : cursor.getInt(3))) {
+                    Log.w(TAG, "Category " + id + " (" + name + ") conflicts with one already registered");
+                }
+            }
+        }
+    }
+
+    // Binds a compiled SQL_ENSURE_CATEGORY
+    static void bindCategory(SQLiteStatement statement, Category category) {
+        statement.clearBindings();
+        statement.bindLong(1, category.id);
+        statement.bindString(2, category.name);
+        statement.bindString(3, category.icon);
+        statement.bindLong(4, category.color);
+    }
+}
@@ -0,0 +1,526 @@
+package com.example.expensetracker;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.example.expensetracker.core.CategoryRegistry;
+import com.example.expensetracker.core.EpochDays;
+import com.example.expensetracker.core.Expense;
+import com.example.expensetracker.core.ExpenseAggregates;
+import com.example.expensetracker.core.ExpenseChangeSet;
+import com.example.expensetracker.core.ExpenseIds;
+import com.example.expensetracker.core.ExpenseQuery;
+import com.example.expensetracker.core.ExpenseRepository;
+import com.example.expensetracker.core.ExpenseSchema;
+import com.example.expensetracker.core.OutboxEntry;
+import com.example.expensetracker.core.SyncCursor;
+import com.example.expensetracker.core.SyncTarget;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_AMOUNT;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_BUCKET_KEY;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_BUCKET_TYPE;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_COUNT;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_CURSOR_KEY;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_CURSOR_UPDATED_AT;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_DESCRIPTION;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_ID;
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_TOTAL;
+import static com.example.expensetracker.core.ExpenseSchema.ORDER_NEWEST_FIRST;
+import static com.example.expensetracker.core.ExpenseSchema.ORDER_OLDEST_FIRST;
+import static com.example.expensetracker.core.ExpenseSchema.PROJECTION;
+import static com.example.expensetracker.core.ExpenseSchema.SQL_APPLY_BUCKET;
+import static com.example.expensetracker.core.ExpenseSchema.SQL_CHANGE_SEQUENCE;
+import static com.example.expensetracker.core.ExpenseSchema.SQL_DELETE;
+import static com.example.expensetracker.core.ExpenseSchema.SQL_DROP_EMPTY_BUCKETS;
+import static com.example.expensetracker.core.ExpenseSchema.SQL_ENSURE_BUCKET;
+import static com.example.expensetracker.core.ExpenseSchema.SQL_ENSURE_CATEGORY;
+import static com.example.expensetracker.core.ExpenseSchema.SQL_HAS_PENDING_OUTBOX;
+import static com.example.expensetracker.core.ExpenseSchema.SQL_INSERT;
+import static com.example.expensetracker.core.ExpenseSchema.SQL_NEXT_CHANGE_SEQUENCE;
+import static com.example.expensetracker.core.ExpenseSchema.SQL_OUTBOX_APPEND;
+import static com.example.expensetracker.core.ExpenseSchema.SQL_OUTBOX_DELETE_ALL;
+import static com.example.expensetracker.core.ExpenseSchema.SQL_SAVE_SYNC_CURSOR;
+import static com.example.expensetracker.core.ExpenseSchema.SQL_UPDATE;
+import static com.example.expensetracker.core.ExpenseSchema.TABLE_EXPENSES;
+import static com.example.expensetracker.core.ExpenseSchema.TABLE_SYNC_CURSOR;
+import static com.example.expensetracker.core.ExpenseSchema.TABLE_TOTALS;
+import static com.example.expensetracker.core.ExpenseSchema.WHERE_NEWER_THAN;
+import static com.example.expensetracker.core.ExpenseSchema.WHERE_OLDER_THAN;
+
+/**
+ * SQLite implementation of {@link ExpenseRepository}.
+ * The expense_totals table is updated in the same transaction as every write,
+ * so persisted aggregates never drift from the rows they summarize.
+ * Every write is also queued in the sync outbox within that transaction;
+ * changes pulled from the server are applied without being queued again.
+ * Every write runs on the app's disk writer, whichever thread calls it.
+ * Once a transaction commits, what it changed is published to the user's
+ * ExpenseChanges from the disk writer, so callers never need to.
+ */
+public class SqliteExpenseRepository implements ExpenseRepository, SyncTarget {
+
+    private final ExpenseDbHelper dbHelper;
+
+    public SqliteExpenseRepository(ExpenseDbHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    @Override
+    public Expense insert(Expense expense) {
+        List<Expense> single = new ArrayList<>(1);
+        single.add(expense);
+        return insertAll(single).get(0);
+    }
+
+    @Override
+    public List<Expense> insertAll(List<Expense> expenses) {
+        return AppExecutors.get().writeAndWait(() -> insertAllOnWriter(expenses));
+    }
+
+    private List<Expense> insertAllOnWriter(List<Expense> expenses) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        long sequence;
+        List<Expense> inserted = new ArrayList<>(expenses.size());
+
+        // One compiled statement and one transaction for the whole batch
+        SQLiteStatement statement = db.compileStatement(SQL_INSERT);
+        SQLiteStatement outbox = db.compileStatement(SQL_OUTBOX_APPEND);
+        db.beginTransaction();
+        try (TotalsWriter totals = new TotalsWriter(db)) {
+            for (Expense expense : expenses) {
+                Expense saved = expense.id != 0 ? expense : expense.withId(ExpenseIds.next());
+                statement.clearBindings();
+                statement.bindLong(1, saved.id);
+                statement.bindString(2, saved.description);
+                statement.bindLong(3, saved.amountCents);
+                statement.bindLong(4, saved.categoryId);
+                statement.bindLong(5, saved.epochDay);
+                statement.executeInsert();
+                inserted.add(saved);
+                totals.apply(saved, 1);
+                SqliteOutboxStore.append(outbox, OutboxEntry.OP_CREATE, saved.id, saved);
+            }
+            sequence = nextChangeSequence(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            statement.close();
+            outbox.close();
+        }
+        dbHelper.changes().publish(ExpenseChangeSet.added(inserted).committedAt(sequence));
+        return inserted;
+    }
+
+    @Override
+    public void update(Expense expense) {
+        AppExecutors.get().writeAndWait(() -> {
+            updateOnWriter(expense);
+            return null;
+        });
+    }
+
+    private void updateOnWriter(Expense expense) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        long sequence;
+        Expense previous;
+        db.beginTransaction();
+        try (TotalsWriter totals = new TotalsWriter(db)) {
+            previous = findById(db, expense.id);
+            if (previous == null) {
+                return;
+            }
+            db.execSQL(SQL_UPDATE, new Object[]{
+                    expense.description, expense.amountCents, expense.categoryId, expense.epochDay, expense.id});
+            totals.apply(previous, -1);
+            totals.apply(expense, 1);
+            totals.dropEmptyBuckets();
+            appendToOutbox(db, OutboxEntry.OP_UPDATE, expense.id, expense);
+            sequence = nextChangeSequence(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        dbHelper.changes().publish(ExpenseChangeSet.removed(Collections.singletonList(previous))
+                .merge(ExpenseChangeSet.added(expense)).committedAt(sequence));
+    }
+
+    @Override
+    public void delete(long id) {
+        AppExecutors.get().writeAndWait(() -> {
+            deleteOnWriter(id);
+            return null;
+        });
+    }
+
+    private void deleteOnWriter(long id) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        long sequence;
+        Expense previous;
+        db.beginTransaction();
+        try (TotalsWriter totals = new TotalsWriter(db)) {
+            previous = findById(db, id);
+            if (previous == null) {
+                return;
+            }
+            db.delete(TABLE_EXPENSES, COLUMN_ID + " = ?", new String[]{String.valueOf(id)});
+            totals.apply(previous, -1);
+            totals.dropEmptyBuckets();
+            appendToOutbox(db, OutboxEntry.OP_DELETE, id, null);
+            sequence = nextChangeSequence(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        dbHelper.changes().publish(ExpenseChangeSet.removed(Collections.singletonList(previous)).committedAt(sequence));
+    }
+
+    @Override
+    public void deleteAll() {
+        AppExecutors.get().writeAndWait(() -> {
+            deleteAllOnWriter();
+            return null;
+        });
+    }
+
+    private void deleteAllOnWriter() {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        long sequence;
+        db.beginTransaction();
+        try {
+            db.execSQL(SQL_OUTBOX_DELETE_ALL);
+            db.delete(TABLE_EXPENSES, null, null);
+            db.delete(TABLE_TOTALS, null, null);
+            sequence = nextChangeSequence(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        dbHelper.changes().publish(ExpenseChangeSet.cleared().committedAt(sequence));
+    }
+
+    @Override
+    public int deleteAll(Collection<Long> ids) {
+        return AppExecutors.get().writeAndWait(() -> deleteAllOnWriter(ids));
+    }
+
+    private int deleteAllOnWriter(Collection<Long> ids) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        long sequence;
+        List<Expense> deleted = new ArrayList<>(ids.size());
+        db.beginTransaction();
+        SQLiteStatement delete = db.compileStatement(SQL_DELETE);
+        SQLiteStatement outbox = db.compileStatement(SQL_OUTBOX_APPEND);
+        try (TotalsWriter totals = new TotalsWriter(db)) {
+            // Summed per bucket first, so the totals cost a few statements however many rows go
+            ExpenseAggregates removed = new ExpenseAggregates();
+            for (long id : ids) {
+                Expense previous = findById(db, id);
+                if (previous == null) {
+                    continue;
+                }
+                delete.bindLong(1, id);
+                delete.executeUpdateDelete();
+                SqliteOutboxStore.append(outbox, OutboxEntry.OP_DELETE, id, null);
+                removed.add(previous);
+                deleted.add(previous);
+            }
+            if (!deleted.isEmpty()) {
+                totals.apply(removed, -1);
+                totals.dropEmptyBuckets();
+            }
+            sequence = nextChangeSequence(db);
+            db.setTransactionSuccessful();
+        } finally {
+            delete.close();
+            outbox.close();
+            db.endTransaction();
+        }
+        dbHelper.changes().publish(ExpenseChangeSet.removed(deleted).committedAt(sequence));
+        return deleted.size();
+    }
+
+    @Override
+    public List<Expense> loadRecent(int limit) {
+        return query(null, null, limit);
+    }
+
+    @Override
+    public List<Expense> loadOlderThan(Expense anchor, int limit) {
+        return query(WHERE_OLDER_THAN, keysetArgs(anchor), ORDER_NEWEST_FIRST, limit);
+    }
+
+    @Override
+    public List<Expense> loadNewerThan(Expense anchor, int limit) {
+        // Walk the index upwards from the anchor, then flip into list order
+        List<Expense> page = query(WHERE_NEWER_THAN, keysetArgs(anchor), ORDER_OLDEST_FIRST, limit);
+        Collections.reverse(page);
+        return page;
+    }
+
+    private static String[] keysetArgs(Expense anchor) {
+        String day = String.valueOf(anchor.epochDay);
+        return new String[]{day, day, String.valueOf(anchor.id)};
+    }
+
+    @Override
+    public List<Expense> find(ExpenseQuery query) {
+        List<String> args = new ArrayList<>();
+        String where = ExpenseSchema.where(query, args);
+        return query(where, args.toArray(new String[0]), ExpenseSchema.orderBy(query.order), query.limit);
+    }
+
+    @Override
+    public long total(ExpenseQuery query) {
+        List<String> args = new ArrayList<>();
+        String where = ExpenseSchema.where(query.after(null), args);
+        String sql = "SELECT SUM(" + COLUMN_AMOUNT + ") FROM " + TABLE_EXPENSES
+                + (where != null ? " WHERE " + where : "");
+        try (Cursor cursor = dbHelper.getReadableDatabase().rawQuery(sql, args.toArray(new String[0]))) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+
+    @Override
+    public List<Expense> findByCategory(String category, int limit) {
+        return find(ExpenseQuery.all().inCategories(category).limit(limit));
+    }
+
+    @Override
+    public List<Expense> findByDateRange(String fromDate, String toDate, int limit) {
+        return find(ExpenseQuery.all().between(EpochDays.parseIso(fromDate), EpochDays.parseIso(toDate)).limit(limit));
+    }
+
+    @Override
+    public int count() {
+        try (Cursor cursor = dbHelper.getReadableDatabase()
+                .rawQuery("SELECT COUNT(*) FROM " + TABLE_EXPENSES, null)) {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        }
+    }
+
+    @Override
+    public long getTotal() {
+        // Read from the maintained totals row instead of summing every expense
+        try (Cursor cursor = dbHelper.getReadableDatabase().rawQuery("SELECT " + COLUMN_TOTAL
+                        + " FROM " + TABLE_TOTALS + " WHERE " + COLUMN_BUCKET_TYPE + " = ?",
+                new String[]{ExpenseAggregates.BUCKET_ALL})) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+
+    // Read in one transaction with the change sequence, so the totals know which writes they include
+    @Override
+    public ExpenseAggregates loadAggregates() {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        ExpenseAggregates aggregates = new ExpenseAggregates();
+        db.beginTransactionNonExclusive();
+        try {
+            aggregates.setSequence(DatabaseUtils.longForQuery(db, SQL_CHANGE_SEQUENCE, null));
+            try (Cursor cursor = db.query(TABLE_TOTALS,
+                    new String[]{COLUMN_BUCKET_TYPE, COLUMN_BUCKET_KEY, COLUMN_TOTAL, COLUMN_COUNT},
+                    null, null, null, null, null)) {
+                while (cursor.moveToNext()) {
+                    aggregates.put(cursor.getString(0), cursor.getString(1), cursor.getLong(2), cursor.getInt(3));
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return aggregates;
+    }
+
+    @Override
+    public SyncCursor loadCursor() {
+        try (Cursor cursor = dbHelper.getReadableDatabase().query(TABLE_SYNC_CURSOR,
+                new String[]{COLUMN_CURSOR_UPDATED_AT, COLUMN_CURSOR_KEY}, null, null, null, null, null)) {
+            return cursor.moveToFirst() ? new SyncCursor(cursor.getLong(0), cursor.getString(1)) : SyncCursor.START;
+        }
+    }
+
+    // Called on the sync thread; the page is written on the disk writer like any other write
+    @Override
+    public int applyRemoteChanges(List<Expense> upserts, List<Long> deletedIds, SyncCursor cursor) {
+        return AppExecutors.get().writeAndWait(() -> applyRemoteChangesOnWriter(upserts, deletedIds, cursor));
+    }
+
+    private int applyRemoteChangesOnWriter(List<Expense> upserts, List<Long> deletedIds, SyncCursor cursor) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        long sequence;
+        int applied = 0;
+        // Published as exact changes, so screens patch instead of reloading after every pull
+        List<Expense> added = new ArrayList<>();
+        List<Expense> removed = new ArrayList<>();
+
+        SQLiteStatement insert = db.compileStatement(SQL_INSERT);
+        SQLiteStatement hasPending = db.compileStatement(SQL_HAS_PENDING_OUTBOX);
+        db.beginTransaction();
+        try (TotalsWriter totals = new TotalsWriter(db)) {
+            for (Expense expense : upserts) {
+                if (isPending(hasPending, expense.id)) {
+                    continue;
+                }
+                Expense previous = findById(db, expense.id);
+                if (previous == null) {
+                    insert.clearBindings();
+                    insert.bindLong(1, expense.id);
+                    insert.bindString(2, expense.description);
+                    insert.bindLong(3, expense.amountCents);
+                    insert.bindLong(4, expense.categoryId);
+                    insert.bindLong(5, expense.epochDay);
+                    insert.executeInsert();
+                } else if (!previous.hasSameContents(expense)) {
+                    db.execSQL(SQL_UPDATE, new Object[]{
+                            expense.description, expense.amountCents, expense.categoryId, expense.epochDay, expense.id});
+                    totals.apply(previous, -1);
+                    removed.add(previous);
+                } else {
+                    // Our own write echoed back from the server
+                    continue;
+                }
+                totals.apply(expense, 1);
+                added.add(expense);
+                applied++;
+            }
+            for (long id : deletedIds) {
+                Expense previous = isPending(hasPending, id) ? null : findById(db, id);
+                if (previous != null) {
+                    db.delete(TABLE_EXPENSES, COLUMN_ID + " = ?", new String[]{String.valueOf(id)});
+                    totals.apply(previous, -1);
+                    removed.add(previous);
+                    applied++;
+                }
+            }
+            totals.dropEmptyBuckets();
+            db.execSQL(SQL_SAVE_SYNC_CURSOR, new Object[]{cursor.updatedAt, cursor.key});
+            sequence = nextChangeSequence(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            insert.close();
+            hasPending.close();
+        }
+        dbHelper.changes().publish(ExpenseChangeSet.removed(removed).merge(ExpenseChangeSet.added(added))
+                .committedAt(sequence));
+        return applied;
+    }
+
+    // Bumped inside the write's transaction, so the number commits or rolls back with it
+    private static long nextChangeSequence(SQLiteDatabase db) {
+        db.execSQL(SQL_NEXT_CHANGE_SEQUENCE);
+        return DatabaseUtils.longForQuery(db, SQL_CHANGE_SEQUENCE, null);
+    }
+
+    private static boolean isPending(SQLiteStatement hasPending, long expenseId) {
+        hasPending.bindLong(1, expenseId);
+        return hasPending.simpleQueryForLong() != 0;
+    }
+
+    private static Expense findById(SQLiteDatabase db, long id) {
+        try (Cursor cursor = db.query(TABLE_EXPENSES, PROJECTION, COLUMN_ID + " = ?",
+                new String[]{String.valueOf(id)}, null, null, null)) {
+            return cursor.moveToFirst() ? readExpense(cursor) : null;
+        }
+    }
+
+    private static void appendToOutbox(SQLiteDatabase db, int op, long expenseId, Expense expense) {
+        SQLiteStatement outbox = db.compileStatement(SQL_OUTBOX_APPEND);
+        try {
+            SqliteOutboxStore.append(outbox, op, expenseId, expense);
+        } finally {
+            outbox.close();
+        }
+    }
+
+    private static Expense readExpense(Cursor cursor) {
+        return new Expense(
+                cursor.getLong(0),
+                cursor.getString(1),
+                cursor.getLong(2),
+                cursor.getInt(3),
+                cursor.getInt(4));
+    }
+
+    private List<Expense> query(String selection, String[] selectionArgs, int limit) {
+        return query(selection, selectionArgs, ORDER_NEWEST_FIRST, limit);
+    }
+
+    private List<Expense> query(String selection, String[] selectionArgs, String orderBy, int limit) {
+        List<Expense> expenses = new ArrayList<>();
+        try (Cursor cursor = dbHelper.getReadableDatabase().query(TABLE_EXPENSES, PROJECTION,
+                selection, selectionArgs, null, null, orderBy, String.valueOf(limit))) {
+            while (cursor.moveToNext()) {
+                expenses.add(readExpense(cursor));
+            }
+        }
+        return expenses;
+    }
+
+    // Applies expense deltas to the persisted totals within the caller's transaction,
+    // and saves any user category an added expense refers to
+    private static class TotalsWriter implements AutoCloseable {
+        private final SQLiteDatabase db;
+        private final SQLiteStatement ensureBucket;
+        private final SQLiteStatement applyBucket;
+        private final SQLiteStatement ensureCategory;
+
+        TotalsWriter(SQLiteDatabase db) {
+            this.db = db;
+            this.ensureBucket = db.compileStatement(SQL_ENSURE_BUCKET);
+            this.applyBucket = db.compileStatement(SQL_APPLY_BUCKET);
+            this.ensureCategory = db.compileStatement(SQL_ENSURE_CATEGORY);
+        }
+
+        void apply(Expense expense, int sign) {
+            if (sign > 0 && expense.categoryId >= CategoryRegistry.BUILT_IN_COUNT) {
+                // Built-ins are seeded; a user category is saved with the first expense using it
+                SqliteCategories.bindCategory(ensureCategory, CategoryRegistry.shared().get(expense.categoryId));
+                ensureCategory.executeInsert();
+            }
+            apply(ExpenseAggregates.BUCKET_ALL, "", expense.amountCents, sign);
+            apply(ExpenseAggregates.BUCKET_CATEGORY, expense.category, expense.amountCents, sign);
+            apply(ExpenseAggregates.BUCKET_DAY, expense.isoDate(), expense.amountCents, sign);
+            apply(ExpenseAggregates.BUCKET_MONTH, EpochDays.monthKey(expense.epochDay), expense.amountCents, sign);
+        }
+
+        // Every bucket of a batch at once, instead of four updates per expense
+        void apply(ExpenseAggregates delta, int sign) {
+            delta.forEachBucket((bucketType, bucketKey, total, count) ->
+                    applyDelta(bucketType, bucketKey, sign * total, sign * count));
+        }
+
+        private void apply(String bucketType, String bucketKey, long amountCents, int sign) {
+            applyDelta(bucketType, bucketKey, sign * amountCents, sign);
+        }
+
+        private void applyDelta(String bucketType, String bucketKey, long totalDelta, int countDelta) {
+            ensureBucket.bindString(1, bucketType);
+            ensureBucket.bindString(2, bucketKey);
+            ensureBucket.executeInsert();
+
+            applyBucket.bindLong(1, totalDelta);
+            applyBucket.bindLong(2, countDelta);
+            applyBucket.bindString(3, bucketType);
+            applyBucket.bindString(4, bucketKey);
+            applyBucket.executeUpdateDelete();
+        }
+
+        void dropEmptyBuckets() {
+            db.execSQL(SQL_DROP_EMPTY_BUCKETS);
+        }
+
+        @Override
+        public void close() {
+            ensureBucket.close();
+            applyBucket.close();
+            ensureCategory.close();
+        }
+    }
+}
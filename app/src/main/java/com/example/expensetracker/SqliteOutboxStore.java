@@ -0,0 +1,89 @@
+package com.example.expensetracker;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.example.expensetracker.core.Expense;
+import com.example.expensetracker.core.OutboxEntry;
+import com.example.expensetracker.core.OutboxStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.expensetracker.core.ExpenseSchema.COLUMN_SEQUENCE;
+import static com.example.expensetracker.core.ExpenseSchema.OUTBOX_PROJECTION;
+import static com.example.expensetracker.core.ExpenseSchema.SQL_OUTBOX_APPEND;
+import static com.example.expensetracker.core.ExpenseSchema.TABLE_OUTBOX;
+
+/**
+ * Durable {@link OutboxStore} kept in the user's expense database.
+ * The repository appends entries in the same transaction as the write they
+ * describe, so a change is never saved locally without also being queued.
+ */
+public class SqliteOutboxStore implements OutboxStore {
+
+    private final ExpenseDbHelper dbHelper;
+
+    public SqliteOutboxStore(ExpenseDbHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    @Override
+    public void append(int op, long expenseId, Expense expense) {
+        AppExecutors.get().writeAndWait(() -> {
+            SQLiteStatement statement = dbHelper.getWritableDatabase().compileStatement(SQL_OUTBOX_APPEND);
+            try {
+                append(statement, op, expenseId, expense);
+            } finally {
+                statement.close();
+            }
+            return null;
+        });
+    }
+
+    // Binds and runs a compiled SQL_OUTBOX_APPEND within the caller's transaction
+    static void append(SQLiteStatement statement, int op, long expenseId, Expense expense) {
+        statement.clearBindings();
+        statement.bindLong(1, op);
+        statement.bindLong(2, expenseId);
+        if (expense != null) {
+            statement.bindString(3, expense.description);
+            statement.bindLong(4, expense.amountCents);
+            statement.bindString(5, expense.category);
+            statement.bindLong(6, expense.epochDay);
+        }
+        statement.executeInsert();
+    }
+
+    @Override
+    public List<OutboxEntry> peek(int limit) {
+        List<OutboxEntry> entries = new ArrayList<>();
+        try (Cursor cursor = dbHelper.getReadableDatabase().query(TABLE_OUTBOX, OUTBOX_PROJECTION,
+                null, null, null, null, COLUMN_SEQUENCE, String.valueOf(limit))) {
+            while (cursor.moveToNext()) {
+                int op = cursor.getInt(1);
+                long expenseId = cursor.getLong(2);
+                Expense expense = op == OutboxEntry.OP_DELETE ? null : new Expense(
+                        expenseId, cursor.getString(3), cursor.getLong(4), cursor.getString(5), cursor.getInt(6));
+                entries.add(new OutboxEntry(cursor.getLong(0), op, expenseId, expense));
+            }
+        }
+        return entries;
+    }
+
+    // Called on the sync thread once a batch is uploaded; deleted on the disk writer
+    @Override
+    public void removeThrough(long sequence) {
+        AppExecutors.get().writeAndWait(() -> {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            return db.delete(TABLE_OUTBOX, COLUMN_SEQUENCE + " <= ?", new String[]{String.valueOf(sequence)});
+        });
+    }
+
+    @Override
+    public int size() {
+        return (int) DatabaseUtils.queryNumEntries(dbHelper.getReadableDatabase(), TABLE_OUTBOX);
+    }
+}
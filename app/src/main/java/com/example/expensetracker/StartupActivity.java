@@ -0,0 +1,31 @@
+package com.example.expensetracker;
+
+import android.app.Activity;
+import android.content.Intent;
+import android.os.Bundle;
+
+/**
+ * Launcher entry point. Resolves the session once and starts exactly one
+ * destination, so a cold start never creates an Activity only to bounce
+ * through it. Has no layout and uses a no-display theme.
+ */
+public class StartupActivity extends Activity {
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        StartupTrace.beginSection("Startup.route");
+        Class<?> destination = AuthSession.isSignedIn() ? MainActivity.class : LoginActivity.class;
+        StartupTrace.endSection();
+
+        Intent intent = new Intent(this, destination);
+        // Pass through anything the launcher handed us, e.g. shortcut extras
+        if (getIntent() != null && getIntent().getExtras() != null) {
+            intent.putExtras(getIntent().getExtras());
+        }
+        startActivity(intent);
+        overridePendingTransition(0, 0);
+        finish();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.expensetracker;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+/**
+ * Startup instrumentation. Trace sections show up in system traces and
+ * Macrobenchmark runs; time-to-first-frame is logged once per process,
+ * measured from the moment the process was forked.
+ */
+public final class StartupTrace {
+
+    private static final String TAG = "StartupTrace";
+
+    private static boolean firstFrameReported;
+
+    private StartupTrace() {
+    }
+
+    public static void beginSection(String name) {
+        Trace.beginSection(name);
+    }
+
+    public static void endSection() {
+        Trace.endSection();
+    }
+
+    // Logs the delay until the given view is first about to draw
+    public static void reportFirstFrame(View view, String screen) {
+        if (firstFrameReported) {
+            return;
+        }
+        firstFrameReported = true;
+        ViewTreeObserver observer = view.getViewTreeObserver();
+        observer.addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                view.getViewTreeObserver().removeOnPreDrawListener(this);
+                long elapsed = SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+                Log.i(TAG, "Time to first frame (" + screen + "): " + elapsed + " ms");
+                return true;
+            }
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.expensetracker;
+
+import androidx.annotation.Nullable;
+
+import com.example.expensetracker.core.ExpenseImporter;
+
+/**
+ * The CSV import or export in progress, kept for the process rather than for one
+ * screen. The work runs on the app's executors and reports here on the main
+ * thread; whichever MainActivity is started shows the progress inline, and
+ * an outcome that lands while none is (mid-rotation, or in the background)
+ * waits for the next one to show it.
+ *
+ * Main thread only.
+ */
+final class TransferProgress {
+
+    interface Listener {
+        void onTransferChanged();
+    }
+
+    private static final TransferProgress INSTANCE = new TransferProgress();
+
+    private boolean running;
+    private String message = "";
+    // Rows done out of max; max is 0 while the total is unknown, as for an import
+    private int done;
+    private int max;
+    @Nullable
+    private Runnable cancel;
+    // Set when the transfer ends, cleared by the screen that shows it
+    @Nullable
+    private ExpenseImporter.Result importResult;
+    @Nullable
+    private String notice;
+    @Nullable
+    private Listener listener;
+
+    private TransferProgress() {
+    }
+
+    static TransferProgress get() {
+        return INSTANCE;
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    String message() {
+        return message;
+    }
+
+    int done() {
+        return done;
+    }
+
+    int max() {
+        return max;
+    }
+
+    boolean isCancellable() {
+        return cancel != null;
+    }
+
+    // onCancel may be null for work that can't stop halfway
+    void start(String startMessage, int total, @Nullable Runnable onCancel) {
+        running = true;
+        message = startMessage;
+        done = 0;
+        max = total;
+        cancel = onCancel;
+        changed();
+    }
+
+    void update(String progressMessage) {
+        message = progressMessage;
+        changed();
+    }
+
+    void updateDone(int rowsDone) {
+        done = rowsDone;
+        changed();
+    }
+
+    // The work still reports its outcome through finish
+    void cancel() {
+        if (cancel != null) {
+            cancel.run();
+        }
+    }
+
+    // Either may be null: a failed import has only a notice
+    void finish(@Nullable ExpenseImporter.Result result, @Nullable String finalNotice) {
+        running = false;
+        cancel = null;
+        importResult = result;
+        notice = finalNotice;
+        changed();
+    }
+
+    @Nullable
+    ExpenseImporter.Result takeImportResult() {
+        ExpenseImporter.Result result = importResult;
+        importResult = null;
+        return result;
+    }
+
+    @Nullable
+    String takeNotice() {
+        String taken = notice;
+        notice = null;
+        return taken;
+    }
+
+    // From onStart; the screen catches up with anything it missed meanwhile
+    void attach(Listener screen) {
+        listener = screen;
+        screen.onTransferChanged();
+    }
+
+    void detach(Listener screen) {
+        if (listener == screen) {
+            listener = null;
+        }
+    }
+
+    private void changed() {
+        if (listener != null) {
+            listener.onTransferChanged();
+        }
+    }
+}
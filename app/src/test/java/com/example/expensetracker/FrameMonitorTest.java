@@ -0,0 +1,115 @@
+package com.example.expensetracker;
+
+import android.app.Activity;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.expensetracker.core.Expense;
+import com.example.expensetracker.core.FrameStats;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Robolectric tests for the list instrumentation: the adapter's inflation and
+ * bind counters, and the overlay that shows them
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class FrameMonitorTest {
+
+    private Activity activity;
+    private FrameStats stats;
+    private ExpenseAdapter adapter;
+    private RecyclerView recyclerView;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        stats = new FrameStats();
+        adapter = new ExpenseAdapter(expense -> { }, count -> { });
+        adapter.setFrameStats(stats);
+        recyclerView = new RecyclerView(activity);
+        recyclerView.setLayoutManager(new LinearLayoutManager(activity));
+        recyclerView.setAdapter(adapter);
+        // The first list is applied synchronously, no diff runs
+        adapter.submitList(Arrays.asList(
+                new Expense(1, "Coffee", 550, "Food", "2025-07-11"),
+                new Expense(2, "Bus", 225, "Transport", "2025-07-12")));
+    }
+
+    @Test
+    public void testAdapter_CountsInflationsAndBinds() {
+        // Act
+        ExpenseAdapter.ViewHolder holder = adapter.onCreateViewHolder(recyclerView, 0);
+        adapter.onBindViewHolder(holder, 0);
+        adapter.onBindViewHolder(holder, 1);
+
+        // Assert
+        assertEquals("One row inflated", 1, stats.inflations());
+        assertEquals("Rebinding a recycled row doesn't inflate", 2, stats.binds());
+        assertTrue(stats.maxBindNanos() > 0);
+    }
+
+    @Test
+    public void testAdapter_WithoutStatsRecordsNothing() {
+        // Arrange
+        adapter.setFrameStats(null);
+
+        // Act
+        ExpenseAdapter.ViewHolder holder = adapter.onCreateViewHolder(recyclerView, 0);
+        adapter.onBindViewHolder(holder, 0);
+
+        // Assert
+        assertEquals(0, stats.inflations());
+        assertEquals(0, stats.binds());
+    }
+
+    @Test
+    public void testOverlay_ShowsSummaryAndRemovesCleanly() {
+        // Arrange
+        FrameMonitor monitor = new FrameMonitor(activity, stats);
+        stats.recordFrame(40_000_000L);
+        stats.recordStall(300_000_000L);
+        ViewGroup content = activity.findViewById(android.R.id.content);
+        int childrenBefore = content.getChildCount();
+
+        // Act
+        monitor.setOverlayShown(true);
+
+        // Assert
+        assertTrue(monitor.isOverlayShown());
+        TextView overlay = (TextView) content.getChildAt(content.getChildCount() - 1);
+        assertEquals(stats.summary(), overlay.getText().toString());
+        assertTrue(overlay.getText().toString().contains("jank 1"));
+        assertTrue(overlay.getText().toString().contains("stalls 1"));
+
+        monitor.setOverlayShown(false);
+        assertFalse(monitor.isOverlayShown());
+        assertEquals(childrenBefore, content.getChildCount());
+    }
+
+    @Test
+    public void testStartStop_AreIdempotent() {
+        // Arrange
+        FrameMonitor monitor = new FrameMonitor(activity, stats);
+
+        // Act & Assert, a second start or stop must not register or quit twice
+        monitor.start();
+        monitor.start();
+        monitor.stop();
+        monitor.stop();
+        assertEquals(0, stats.stalls());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.expensetracker;
+
+import android.app.Activity;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.expensetracker.core.Expense;
+import com.example.expensetracker.core.FrameStats;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Robolectric tests for pre-warming the expense row pool
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class RowPrewarmerTest {
+
+    private Activity activity;
+    private FrameStats stats;
+    private ExpenseAdapter adapter;
+    private RecyclerView recyclerView;
+    private RowPrewarmer prewarmer;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        stats = new FrameStats();
+        adapter = new ExpenseAdapter(expense -> { }, count -> { });
+        adapter.setFrameStats(stats);
+        recyclerView = new RecyclerView(activity);
+        recyclerView.setLayoutManager(new LinearLayoutManager(activity));
+        recyclerView.setAdapter(adapter);
+        prewarmer = new RowPrewarmer(recyclerView, adapter);
+    }
+
+    @Test
+    public void testRowsFor_CoversTheViewport() {
+        assertEquals("Partial rows count", 3 + RowPrewarmer.EXTRA_ROWS, RowPrewarmer.rowsFor(250, 100));
+        assertEquals(2 + RowPrewarmer.EXTRA_ROWS, RowPrewarmer.rowsFor(200, 100));
+        assertEquals("Zero row height can't divide by zero", RowPrewarmer.EXTRA_ROWS, RowPrewarmer.rowsFor(0, 0));
+    }
+
+    @Test
+    public void testAddToPool_HolderIsUsedWithoutInflating() {
+        // Arrange
+        prewarmer.start();
+        View row = LayoutInflater.from(activity).inflate(R.layout.item_expense, recyclerView, false);
+
+        // Act
+        prewarmer.addToPool(row);
+
+        // Assert
+        RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+        assertEquals(1, pool.getRecycledViewCount(ExpenseAdapter.VIEW_TYPE_EXPENSE));
+        RecyclerView.ViewHolder holder = pool.getRecycledView(ExpenseAdapter.VIEW_TYPE_EXPENSE);
+        assertSame("The pre-inflated row is wrapped, not replaced", row, holder.itemView);
+        assertEquals(ExpenseAdapter.VIEW_TYPE_EXPENSE, holder.getItemViewType());
+        assertEquals("Nothing inflated on the main thread", 0, stats.inflations());
+    }
+
+    @Test
+    public void testAddToPool_StopsAtTheTarget() {
+        // Arrange
+        prewarmer.start();
+        int target = prewarmer.targetRows();
+
+        // Act
+        for (int i = 0; i < target + 3; i++) {
+            prewarmer.addToPool(LayoutInflater.from(activity).inflate(R.layout.item_expense, recyclerView, false));
+        }
+
+        // Assert
+        assertEquals(target, recyclerView.getRecycledViewPool()
+                .getRecycledViewCount(ExpenseAdapter.VIEW_TYPE_EXPENSE));
+    }
+
+    @Test
+    public void testCreateViewHolder_FallsBackToInflating() {
+        // Arrange
+        adapter.submitList(Collections.singletonList(new Expense(1, "Coffee", 550, "Food", "2025-07-11")));
+
+        // Act
+        adapter.onCreateViewHolder(recyclerView, ExpenseAdapter.VIEW_TYPE_EXPENSE);
+
+        // Assert
+        assertEquals("An empty pool still gets a row", 1, stats.inflations());
+    }
+}
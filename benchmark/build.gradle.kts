@@ -0,0 +1,52 @@
+// Pure-JVM JMH benchmarks for the expense data path.
+// Run with: ./gradlew :benchmark:jmh (results in build/results/jmh)
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// The list diff callback lives in :app next to the adapter; compile just that file here
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include("com/example/expensetracker/ExpenseDiffCallback.java")
+        }
+    }
+}
+
+// DiffUtil only ships inside the RecyclerView AAR; its diff code is plain Java,
+// so pull classes.jar out of the AAR and put it on the JVM classpath.
+val recyclerViewAar: Configuration by configurations.creating {
+    isTransitive = false
+}
+
+val extractRecyclerViewClasses by tasks.registering(Copy::class) {
+    from({ zipTree(recyclerViewAar.singleFile) }) {
+        include("classes.jar")
+    }
+    into(layout.buildDirectory.dir("recyclerview"))
+}
+
+dependencies {
+    implementation(project(":core"))
+
+    recyclerViewAar("androidx.recyclerview:recyclerview:${libs.versions.recyclerview.get()}@aar")
+    implementation(files(layout.buildDirectory.file("recyclerview/classes.jar")).builtBy(extractRecyclerViewClasses))
+    compileOnly(libs.androidx.annotation)
+
+    jmh(libs.sqlite.jdbc)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+}
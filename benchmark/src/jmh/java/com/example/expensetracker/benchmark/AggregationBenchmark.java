@@ -0,0 +1,78 @@
+package com.example.expensetracker.benchmark;
+
+import com.example.expensetracker.core.Expense;
+import com.example.expensetracker.core.ExpenseAggregates;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building aggregates from scratch versus keeping them up to date one mutation at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AggregationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private List<Expense> expenses;
+    private ExpenseAggregates aggregates;
+    private Expense extra;
+
+    @Setup
+    public void setUp() {
+        expenses = SyntheticExpenses.generate(size);
+        aggregates = new ExpenseAggregates();
+        for (Expense expense : expenses) {
+            aggregates.add(expense);
+        }
+        extra = SyntheticExpenses.generate(1, 42).get(0);
+    }
+
+    // Full rescan, what a dashboard would cost without incremental totals
+    @Benchmark
+    public long rebuildFromScratch() {
+        ExpenseAggregates rebuilt = new ExpenseAggregates();
+        for (Expense expense : expenses) {
+            rebuilt.add(expense);
+        }
+        return rebuilt.getTotal();
+    }
+
+    // One add and one delete against the maintained totals
+    @Benchmark
+    public long incrementalAddRemove() {
+        aggregates.add(extra);
+        aggregates.remove(extra);
+        return aggregates.getTotal();
+    }
+
+    @Benchmark
+    public long readSummary() {
+        return aggregates.getTotal()
+                + aggregates.getCategoryTotal("Food")
+                + aggregates.getMonthTotal("2025-07")
+                + aggregates.getDayTotal("2025-07-31");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long sumCents() {
+        long total = 0;
+        for (Expense expense : expenses) {
+            total += expense.amountCents;
+        }
+        return total;
+    }
+}
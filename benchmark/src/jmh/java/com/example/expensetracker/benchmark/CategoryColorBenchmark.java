@@ -0,0 +1,49 @@
+package com.example.expensetracker.benchmark;
+
+import com.example.expensetracker.core.Expense;
+import com.example.expensetracker.core.CategoryRegistry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Category color lookup as performed on every row bind: by id, as the adapter does,
+ * against resolving the name through the registry's map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CategoryColorBenchmark {
+
+    private static final int ROWS = 1024;
+
+    private final CategoryRegistry registry = CategoryRegistry.shared();
+    private Expense[] rows;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Expense> expenses = SyntheticExpenses.generate(ROWS);
+        rows = expenses.toArray(new Expense[0]);
+    }
+
+    @Benchmark
+    public int colorForRow() {
+        Expense expense = rows[next++ & (ROWS - 1)];
+        return registry.get(expense.categoryId).color;
+    }
+
+    @Benchmark
+    public int colorForRowByName() {
+        Expense expense = rows[next++ & (ROWS - 1)];
+        return registry.find(expense.category).color;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.expensetracker.benchmark;
+
+import com.example.expensetracker.core.Expense;
+import com.example.expensetracker.core.ExpenseValidator;
+import com.example.expensetracker.core.Money;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and validation as done by AddExpenseActivity.saveExpense, over a whole dataset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExpenseValidationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private String[] descriptions;
+    private String[] amountTexts;
+    private String[] dates;
+
+    @Setup
+    public void setUp() {
+        List<Expense> expenses = SyntheticExpenses.generate(size);
+        descriptions = new String[size];
+        dates = new String[size];
+        for (int i = 0; i < size; i++) {
+            descriptions[i] = expenses.get(i).description;
+            dates[i] = expenses.get(i).isoDate();
+        }
+        amountTexts = SyntheticExpenses.amountTexts(size, SyntheticExpenses.DEFAULT_SEED);
+    }
+
+    @Benchmark
+    public void validate(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(ExpenseValidator.validate(descriptions[i], amountTexts[i], dates[i]));
+        }
+    }
+
+    @Benchmark
+    public long parseCents() {
+        long sum = 0;
+        for (String text : amountTexts) {
+            long cents = Money.parseCents(text);
+            if (cents != Money.INVALID) {
+                sum += cents;
+            }
+        }
+        return sum;
+    }
+
+    // Baseline: the Double.parseDouble path the add screen used before
+    @Benchmark
+    public double parseDouble() {
+        double sum = 0;
+        for (String text : amountTexts) {
+            try {
+                sum += Double.parseDouble(text);
+            } catch (NumberFormatException ignored) {
+                // invalid rows are skipped, as in parseCents
+            }
+        }
+        return sum;
+    }
+}
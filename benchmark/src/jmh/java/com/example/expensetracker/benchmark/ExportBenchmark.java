@@ -0,0 +1,64 @@
+package com.example.expensetracker.benchmark;
+
+import com.example.expensetracker.core.ExpenseExporter;
+import com.example.expensetracker.core.InMemoryExpenseRepository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Export throughput: paging rows out of the repository, formatting and writing
+ * them through a FileChannel. Divide the file size by the score for bytes per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExportBenchmark {
+
+    @Param({"100000", "500000"})
+    public int size;
+
+    @Param({"CSV", "JSON_LINES"})
+    public ExpenseExporter.Format format;
+
+    @Param({"1000"})
+    public int chunkSize;
+
+    private InMemoryExpenseRepository repository;
+    private File file;
+    private FileChannel channel;
+
+    @Setup
+    public void setUp() throws IOException {
+        repository = new InMemoryExpenseRepository();
+        repository.insertAll(SyntheticExpenses.generate(size));
+        file = File.createTempFile("expenses-export", format.extension);
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        channel.close();
+        file.delete();
+    }
+
+    @Benchmark
+    public long exportAll() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        return new ExpenseExporter(repository, chunkSize).export(format, channel, null).bytesWritten;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.expensetracker.benchmark;
+
+import com.example.expensetracker.core.EpochDays;
+import com.example.expensetracker.core.Expense;
+import com.example.expensetracker.core.ExpenseJournal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append latency and full-history scans of the memory-mapped journal.
+ * Compare with StorageBenchmark.insertBatch and scanTotal on the same sizes.
+ */
+public class JournalBenchmark {
+
+    // A fresh journal per iteration; appends cycle through the dataset
+    @State(Scope.Thread)
+    public static class EmptyJournal {
+        List<Expense> expenses;
+        File file;
+        ExpenseJournal journal;
+        int next;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            expenses = SyntheticExpenses.generate(10_000);
+        }
+
+        @Setup(Level.Iteration)
+        public void open() throws IOException {
+            file = File.createTempFile("expenses-bench", ".journal");
+            journal = ExpenseJournal.open(file);
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() throws IOException {
+            journal.close();
+            file.delete();
+        }
+    }
+
+    // A journal preloaded with the dataset, for scans
+    @State(Scope.Benchmark)
+    public static class LoadedJournal {
+        @Param({"1000", "100000", "1000000"})
+        public int size;
+
+        File file;
+        ExpenseJournal journal;
+        int monthStart;
+        int monthEnd;
+
+        @Setup(Level.Trial)
+        public void load() throws IOException {
+            file = File.createTempFile("expenses-bench", ".journal");
+            journal = ExpenseJournal.open(file);
+            for (Expense expense : SyntheticExpenses.generate(size)) {
+                journal.append(expense);
+            }
+            // Date-ordered records, as after any compaction
+            journal.compact();
+            monthStart = EpochDays.of(2025, 3, 1);
+            monthEnd = EpochDays.lastDayOfMonth(monthStart);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            journal.close();
+            file.delete();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Expense append(EmptyJournal state) {
+        Expense expense = state.expenses.get(state.next++ % state.expenses.size());
+        return state.journal.append(expense);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long scanTotal(LoadedJournal state) {
+        return state.journal.sumCents(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    // One month: the date index skips every block outside it
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long scanMonthTotal(LoadedJournal state) {
+        return state.journal.sumCents(state.monthStart, state.monthEnd);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long aggregateHistory(LoadedJournal state) {
+        return state.journal.aggregate().getCount();
+    }
+}
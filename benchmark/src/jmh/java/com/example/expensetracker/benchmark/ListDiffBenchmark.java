@@ -0,0 +1,88 @@
+package com.example.expensetracker.benchmark;
+
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.expensetracker.ExpenseDiffCallback;
+import com.example.expensetracker.core.Expense;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The background diff the list adapter runs when a new snapshot is submitted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListDiffBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private final ExpenseDiffCallback itemCallback = new ExpenseDiffCallback();
+    private List<Expense> oldList;
+    private List<Expense> newList;
+
+    @Setup
+    public void setUp() {
+        oldList = SyntheticExpenses.generate(size);
+        newList = new ArrayList<>(oldList);
+
+        SplittableRandom random = new SplittableRandom(SyntheticExpenses.DEFAULT_SEED);
+        // Touch 1% of the rows: a mix of deletes, inserts and edits
+        int changes = Math.max(1, size / 100);
+        long nextId = size + 1;
+        for (int i = 0; i < changes; i++) {
+            int index = random.nextInt(newList.size());
+            switch (i % 3) {
+                case 0:
+                    newList.remove(index);
+                    break;
+                case 1:
+                    newList.add(index, SyntheticExpenses.generate(1, nextId).get(0).withId(nextId++));
+                    break;
+                default:
+                    Expense edited = newList.get(index);
+                    newList.set(index, new Expense(edited.id, edited.description, edited.amountCents + 1,
+                            edited.category, edited.epochDay));
+                    break;
+            }
+        }
+    }
+
+    @Benchmark
+    public DiffUtil.DiffResult calculateDiff() {
+        return DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldList.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newList.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return itemCallback.areItemsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                return itemCallback.areContentsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+            }
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.expensetracker.benchmark;
+
+import com.example.expensetracker.core.Expense;
+import com.example.expensetracker.core.ExpenseSearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search-as-you-type against the inverted index versus scanning every description.
+ * Each keystroke has to come back within a frame (16 ms) at 100k expenses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchIndexBenchmark {
+
+    private static final int RESULT_LIMIT = 200;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    // One letter matches many terms, the longer queries narrow down
+    @Param({"c", "coff", "bill ele"})
+    public String query;
+
+    private List<Expense> expenses;
+    private ExpenseSearchIndex index;
+    private Expense extra;
+
+    @Setup
+    public void setUp() {
+        expenses = SyntheticExpenses.generate(size);
+        index = new ExpenseSearchIndex();
+        index.addAll(expenses);
+        extra = new Expense(size + 1L, "Coffee refill", 350, "Food", "2025-07-31");
+    }
+
+    @Benchmark
+    public List<Expense> indexedSearch() {
+        return index.search(query, RESULT_LIMIT);
+    }
+
+    // What filtering the list on every keystroke would cost without the index
+    @Benchmark
+    public List<Expense> linearScan() {
+        String[] tokens = query.toLowerCase(Locale.ROOT).split(" ");
+        List<Expense> results = new ArrayList<>();
+        for (Expense expense : expenses) {
+            String text = (expense.description + " " + expense.category).toLowerCase(Locale.ROOT);
+            boolean all = true;
+            for (String token : tokens) {
+                if (!text.contains(token)) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all) {
+                results.add(expense);
+            }
+        }
+        results.sort(Expense::compareNewestFirst);
+        return results.subList(0, Math.min(RESULT_LIMIT, results.size()));
+    }
+
+    // Keeping the index current on add and delete
+    @Benchmark
+    public int incrementalAddRemove() {
+        index.add(extra);
+        index.remove(extra.id);
+        return index.size();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int buildFromScratch() {
+        ExpenseSearchIndex rebuilt = new ExpenseSearchIndex();
+        rebuilt.addAll(expenses);
+        return rebuilt.size();
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.expensetracker.benchmark;
+
+import com.example.expensetracker.core.CategoryRegistry;
+import com.example.expensetracker.core.EpochDays;
+import com.example.expensetracker.core.Expense;
+import com.example.expensetracker.core.ExpenseAggregates;
+import com.example.expensetracker.core.ExpenseIds;
+import com.example.expensetracker.core.ExpenseQuery;
+import com.example.expensetracker.core.ExpenseSchema;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert and query throughput of the expense schema.
+ * Runs the app's own DDL and statements from ExpenseSchema on a JVM SQLite driver,
+ * with WAL enabled as on the device.
+ */
+public class StorageBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final String SQL_SELECT_PAGE = "SELECT " + String.join(", ", ExpenseSchema.PROJECTION)
+            + " FROM " + ExpenseSchema.TABLE_EXPENSES
+            + " ORDER BY " + ExpenseSchema.ORDER_NEWEST_FIRST + " LIMIT " + PAGE_SIZE;
+
+    private static final String SQL_SELECT_CATEGORY_PAGE = "SELECT " + String.join(", ", ExpenseSchema.PROJECTION)
+            + " FROM " + ExpenseSchema.TABLE_EXPENSES + " WHERE " + ExpenseSchema.COLUMN_CATEGORY + " = ?"
+            + " ORDER BY " + ExpenseSchema.ORDER_NEWEST_FIRST + " LIMIT " + PAGE_SIZE;
+
+    private static final String SQL_SELECT_TOTAL = "SELECT " + ExpenseSchema.COLUMN_TOTAL
+            + " FROM " + ExpenseSchema.TABLE_TOTALS + " WHERE " + ExpenseSchema.COLUMN_BUCKET_TYPE + " = ?";
+
+    private static final String SQL_SCAN_TOTAL = "SELECT SUM(" + ExpenseSchema.COLUMN_AMOUNT + ") FROM "
+            + ExpenseSchema.TABLE_EXPENSES;
+
+    // A monthly report view: one month, two categories, larger amounts, biggest first
+    private static final ExpenseQuery FILTERED_MONTH = ExpenseQuery.all()
+            .inMonth(EpochDays.of(2025, 3, 1))
+            .inCategories("Food", "Shopping")
+            .amountBetween(10_000, Long.MAX_VALUE)
+            .orderBy(ExpenseQuery.Order.LARGEST_FIRST)
+            .limit(PAGE_SIZE);
+
+    // A fresh, empty database per iteration; each invocation inserts the whole dataset once
+    @State(Scope.Thread)
+    public static class EmptyDatabase {
+        @Param({"1000", "100000"})
+        public int size;
+
+        List<Expense> expenses;
+        Database database;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            expenses = SyntheticExpenses.generate(size);
+        }
+
+        @Setup(Level.Iteration)
+        public void open() throws Exception {
+            database = Database.create();
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() throws Exception {
+            database.close();
+        }
+    }
+
+    // A database preloaded with the dataset, for read benchmarks
+    @State(Scope.Benchmark)
+    public static class LoadedDatabase {
+        @Param({"1000", "100000", "1000000"})
+        public int size;
+
+        Database database;
+
+        @Setup(Level.Trial)
+        public void load() throws Exception {
+            database = Database.create();
+            database.insertBatch(SyntheticExpenses.generate(size));
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            database.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int insertBatch(EmptyDatabase state) throws SQLException {
+        return state.database.insertBatch(state.expenses);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long loadFirstPage(LoadedDatabase state) throws SQLException {
+        try (Statement statement = state.database.connection.createStatement();
+             ResultSet rows = statement.executeQuery(SQL_SELECT_PAGE)) {
+            return readAll(rows);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long loadCategoryPage(LoadedDatabase state) throws SQLException {
+        try (PreparedStatement statement = state.database.connection.prepareStatement(SQL_SELECT_CATEGORY_PAGE)) {
+            statement.setInt(1, CategoryRegistry.FOOD);
+            try (ResultSet rows = statement.executeQuery()) {
+                return readAll(rows);
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long loadFilteredMonthPage(LoadedDatabase state) throws SQLException {
+        List<String> args = new ArrayList<>();
+        String sql = "SELECT " + String.join(", ", ExpenseSchema.PROJECTION)
+                + " FROM " + ExpenseSchema.TABLE_EXPENSES + " WHERE " + ExpenseSchema.where(FILTERED_MONTH, args)
+                + " ORDER BY " + ExpenseSchema.orderBy(FILTERED_MONTH.order) + " LIMIT " + FILTERED_MONTH.limit;
+        try (PreparedStatement statement = state.database.connection.prepareStatement(sql)) {
+            for (int i = 0; i < args.size(); i++) {
+                statement.setString(i + 1, args.get(i));
+            }
+            try (ResultSet rows = statement.executeQuery()) {
+                return readAll(rows);
+            }
+        }
+    }
+
+    // Maintained totals row versus summing every expense
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long readTotal(LoadedDatabase state) throws SQLException {
+        try (PreparedStatement statement = state.database.connection.prepareStatement(SQL_SELECT_TOTAL)) {
+            statement.setString(1, ExpenseAggregates.BUCKET_ALL);
+            try (ResultSet rows = statement.executeQuery()) {
+                return rows.next() ? rows.getLong(1) : 0;
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long scanTotal(LoadedDatabase state) throws SQLException {
+        try (Statement statement = state.database.connection.createStatement();
+             ResultSet rows = statement.executeQuery(SQL_SCAN_TOTAL)) {
+            return rows.next() ? rows.getLong(1) : 0;
+        }
+    }
+
+    private static long readAll(ResultSet rows) throws SQLException {
+        long checksum = 0;
+        while (rows.next()) {
+            checksum += rows.getLong(1) + rows.getString(2).length() + rows.getLong(3)
+                    + rows.getInt(4) + rows.getInt(5);
+        }
+        return checksum;
+    }
+
+    static final class Database {
+        final File file;
+        final Connection connection;
+
+        private Database(File file, Connection connection) {
+            this.file = file;
+            this.connection = connection;
+        }
+
+        static Database create() throws IOException, SQLException {
+            File file = File.createTempFile("expenses-bench", ".db");
+            Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute(ExpenseSchema.CREATE_CATEGORIES_TABLE);
+                statement.execute(ExpenseSchema.CREATE_EXPENSES_TABLE);
+                statement.execute(ExpenseSchema.CREATE_DATE_INDEX);
+                statement.execute(ExpenseSchema.CREATE_CATEGORY_INDEX);
+                statement.execute(ExpenseSchema.CREATE_AMOUNT_INDEX);
+                statement.execute(ExpenseSchema.CREATE_TOTALS_TABLE);
+            }
+            return new Database(file, connection);
+        }
+
+        // Same shape as SqliteExpenseRepository.insertAll: one transaction, totals updated per row
+        int insertBatch(List<Expense> expenses) throws SQLException {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(ExpenseSchema.SQL_INSERT);
+                 PreparedStatement ensureBucket = connection.prepareStatement(ExpenseSchema.SQL_ENSURE_BUCKET);
+                 PreparedStatement applyBucket = connection.prepareStatement(ExpenseSchema.SQL_APPLY_BUCKET)) {
+                for (Expense expense : expenses) {
+                    insert.setLong(1, ExpenseIds.next());
+                    insert.setString(2, expense.description);
+                    insert.setLong(3, expense.amountCents);
+                    insert.setInt(4, expense.categoryId);
+                    insert.setInt(5, expense.epochDay);
+                    insert.executeUpdate();
+
+                    applyBucket(ensureBucket, applyBucket, ExpenseAggregates.BUCKET_ALL, "", expense.amountCents);
+                    applyBucket(ensureBucket, applyBucket, ExpenseAggregates.BUCKET_CATEGORY, expense.category,
+                            expense.amountCents);
+                    applyBucket(ensureBucket, applyBucket, ExpenseAggregates.BUCKET_DAY, expense.isoDate(),
+                            expense.amountCents);
+                    applyBucket(ensureBucket, applyBucket, ExpenseAggregates.BUCKET_MONTH,
+                            EpochDays.monthKey(expense.epochDay), expense.amountCents);
+                }
+                connection.commit();
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            return expenses.size();
+        }
+
+        private static void applyBucket(PreparedStatement ensureBucket, PreparedStatement applyBucket,
+                                        String bucketType, String bucketKey, long amountCents) throws SQLException {
+            ensureBucket.setString(1, bucketType);
+            ensureBucket.setString(2, bucketKey);
+            ensureBucket.executeUpdate();
+
+            applyBucket.setLong(1, amountCents);
+            applyBucket.setLong(2, 1);
+            applyBucket.setString(3, bucketType);
+            applyBucket.setString(4, bucketKey);
+            applyBucket.executeUpdate();
+        }
+
+        void close() throws SQLException {
+            connection.close();
+            new File(file.getPath() + "-wal").delete();
+            new File(file.getPath() + "-shm").delete();
+            file.delete();
+        }
+    }
+}
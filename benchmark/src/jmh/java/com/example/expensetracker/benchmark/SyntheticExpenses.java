@@ -0,0 +1,75 @@
+package com.example.expensetracker.benchmark;
+
+import com.example.expensetracker.core.EpochDays;
+import com.example.expensetracker.core.Expense;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Reproducible synthetic expense datasets.
+ * The same (size, seed) pair always yields the same rows, so runs are comparable.
+ */
+public final class SyntheticExpenses {
+
+    public static final long DEFAULT_SEED = 0x5EED_E8E5L;
+
+    // Same labels as the add screen's spinner
+    public static final String[] CATEGORIES = {
+            "Food", "Transport", "Entertainment", "Shopping", "Bills", "Healthcare", "Education", "Others"
+    };
+
+    private static final String[] DESCRIPTIONS = {
+            "Coffee", "Lunch", "Groceries", "Bus ticket", "Taxi", "Cinema", "Concert", "Shoes",
+            "Electricity bill", "Water bill", "Pharmacy", "Dentist", "Textbook", "Online course",
+            "Dinner with friends", "Fuel", "Parking", "Phone bill", "Gym membership", "Gift"
+    };
+
+    // Rows are spread over five years of history ending on 2025-07-31
+    private static final int HISTORY_DAYS = 5 * 365;
+    private static final int LAST_DAY = EpochDays.of(2025, 7, 31);
+
+    private SyntheticExpenses() {
+    }
+
+    public static List<Expense> generate(int count) {
+        return generate(count, DEFAULT_SEED);
+    }
+
+    // Ids run from 1 to count, amounts are 0.01 to 999.99
+    public static List<Expense> generate(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            expenses.add(new Expense(
+                    i + 1,
+                    DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)],
+                    1 + random.nextInt(99_999),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    LAST_DAY - random.nextInt(HISTORY_DAYS)));
+        }
+        return expenses;
+    }
+
+    // Amount strings as typed into the add screen, including some invalid ones
+    public static String[] amountTexts(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] texts = new String[count];
+        for (int i = 0; i < count; i++) {
+            int cents = 1 + random.nextInt(99_999_999);
+            switch (random.nextInt(10)) {
+                case 0:
+                    texts[i] = "12a.5";
+                    break;
+                case 1:
+                    texts[i] = String.valueOf(cents / 100);
+                    break;
+                default:
+                    texts[i] = (cents / 100) + "." + (cents % 100 < 10 ? "0" : "") + (cents % 100);
+                    break;
+            }
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,14 @@
+// Android-free domain logic: model, validation, aggregation and queries.
+// Consumed by :app and :benchmark, tested on the plain JVM.
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
@@ -0,0 +1,36 @@
+package com.example.expensetracker.core;
+
+import java.util.Random;
+
+/**
+ * Exponential backoff with full jitter for retrying failed network calls.
+ */
+public class Backoff {
+
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final Random random;
+    private int failures;
+
+    public Backoff(long baseDelayMillis, long maxDelayMillis) {
+        this(baseDelayMillis, maxDelayMillis, new Random());
+    }
+
+    public Backoff(long baseDelayMillis, long maxDelayMillis, Random random) {
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.random = random;
+    }
+
+    // Records a failure and returns how long to wait before the next attempt
+    public long nextDelayMillis() {
+        int exponent = Math.min(failures++, 30);
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << exponent);
+        // Full jitter spreads retries from many clients, never below the base delay
+        return baseDelayMillis + (long) (random.nextDouble() * (ceiling - baseDelayMillis));
+    }
+
+    public void reset() {
+        failures = 0;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.expensetracker.core;
+
+/**
+ * An expense category and its display metadata. Instances are interned by
+ * CategoryRegistry, one per id, so rows share them and compare by id.
+ */
+public final class Category {
+
+    public final int id;
+    // Canonical name, as stored on the server and in CSV files
+    public final String name;
+    public final String icon;
+    // Icon and name, built once for the rows to show
+    public final String label;
+    // ARGB
+    public final int color;
+    public final boolean builtIn;
+
+    Category(int id, String name, String icon, int color, boolean builtIn) {
+        this.id = id;
+        this.name = name;
+        this.icon = icon;
+        this.label = icon + " " + name;
+        this.color = color;
+        this.builtIn = builtIn;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
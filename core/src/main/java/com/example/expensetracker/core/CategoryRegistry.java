@@ -0,0 +1,183 @@
+package com.example.expensetracker.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every category the app knows, indexed by a small integer id.
+ * The built-in categories have fixed ids; categories the user or the server
+ * introduces get the next free id. Expenses store the id, so binding a row or
+ * adding to a category total is an array lookup instead of a string switch.
+ *
+ * Lookups are lock-free: the id table is replaced, never modified, when a
+ * category is added. Names match case-insensitively and resolve to the
+ * canonical spelling. The shared instance is reloaded from each user's
+ * database when it opens, before any expense row is read.
+ */
+public final class CategoryRegistry {
+
+    public static final int FOOD = 0;
+    public static final int TRANSPORT = 1;
+    public static final int ENTERTAINMENT = 2;
+    public static final int SHOPPING = 3;
+    public static final int BILLS = 4;
+    public static final int HEALTHCARE = 5;
+    public static final int EDUCATION = 6;
+    public static final int OTHERS = 7;
+    public static final int BUILT_IN_COUNT = 8;
+
+    // Shown for categories the user adds
+    public static final String DEFAULT_ICON = "\uD83C\uDFF7"; // Tag
+    // Colors handed out to user categories in turn
+    private static final int[] USER_COLORS = {
+            0xFF14B8A6, // Teal
+            0xFFF97316, // Orange
+            0xFF6366F1, // Indigo
+            0xFF84CC16, // Lime
+            0xFFE11D48, // Rose
+            0xFFA855F7, // Violet
+    };
+
+    private static final CategoryRegistry SHARED = new CategoryRegistry();
+
+    // Indexed by id; null where an id is unused
+    private volatile Category[] byId;
+    // Exact spelling first, so canonical names skip the lower-casing
+    private final Map<String, Category> byName = new ConcurrentHashMap<>();
+    private final Map<String, Category> byFoldedName = new ConcurrentHashMap<>();
+
+    public CategoryRegistry() {
+        byId = new Category[0];
+        addBuiltIns();
+    }
+
+    public static CategoryRegistry shared() {
+        return SHARED;
+    }
+
+    // Unknown ids read as Others rather than failing a row bind
+    public Category get(int id) {
+        Category[] table = byId;
+        Category category = id >= 0 && id < table.length ? table[id] : null;
+        return category != null ? category : table[OTHERS];
+    }
+
+    // Null when no category has this name
+    public Category find(String name) {
+        Category category = byName.get(name);
+        return category != null ? category : byFoldedName.get(fold(name));
+    }
+
+    // The category with this name, added as a user category if it is new; blank means Others.
+    // Only once the user's saved categories are registered, or a new name could take one of their ids
+    public Category intern(String name) {
+        Category category = find(name);
+        if (category != null) {
+            return category;
+        }
+        String trimmed = name.trim();
+        if (trimmed.isEmpty()) {
+            return get(OTHERS);
+        }
+        synchronized (this) {
+            // Re-check under the lock, another thread may have added it
+            category = byFoldedName.get(fold(trimmed));
+            if (category == null) {
+                int id = byId.length;
+                category = new Category(id, trimmed, DEFAULT_ICON,
+                        USER_COLORS[(id - BUILT_IN_COUNT) % USER_COLORS.length], false);
+                publish(category);
+            }
+            return category;
+        }
+    }
+
+    /**
+     * Adds a user category under the id it was saved with. Built-in ids are
+     * fixed and ignored. Returns false if the id or the name is already taken
+     * by a different category.
+     */
+    public synchronized boolean register(int id, String name, String icon, Integer color) {
+        if (id < BUILT_IN_COUNT) {
+            return true;
+        }
+        Category existing = byFoldedName.get(fold(name));
+        Category atId = id < byId.length ? byId[id] : null;
+        if (existing != null || atId != null) {
+            return existing == atId;
+        }
+        publish(new Category(id, name, icon != null ? icon : DEFAULT_ICON,
+                color != null ? color : USER_COLORS[(id - BUILT_IN_COUNT) % USER_COLORS.length], false));
+        return true;
+    }
+
+    // Drops user categories, e.g. before another account's are loaded
+    public synchronized void resetUserCategories() {
+        byId = Arrays.copyOf(byId, BUILT_IN_COUNT);
+        byName.clear();
+        byFoldedName.clear();
+        for (Category category : byId) {
+            index(category);
+        }
+    }
+
+    // Built-ins first, then user categories in the order they were added
+    public List<Category> all() {
+        List<Category> categories = new ArrayList<>();
+        for (Category category : byId) {
+            if (category != null) {
+                categories.add(category);
+            }
+        }
+        return Collections.unmodifiableList(categories);
+    }
+
+    public List<Category> userCategories() {
+        List<Category> all = all();
+        return all.subList(Math.min(BUILT_IN_COUNT, all.size()), all.size());
+    }
+
+    // One past the highest id, for sizing arrays indexed by category
+    public int idLimit() {
+        return byId.length;
+    }
+
+    private void addBuiltIns() {
+        publish(new Category(FOOD, "Food", "\uD83C\uDF54", 0xFF10B981, true)); // Green
+        publish(new Category(TRANSPORT, "Transport", "\uD83D\uDE8C", 0xFF3B82F6, true)); // Blue
+        publish(new Category(ENTERTAINMENT, "Entertainment", "\uD83C\uDFAC", 0xFFEF4444, true)); // Red
+        publish(new Category(SHOPPING, "Shopping", "\uD83D\uDECD", 0xFFF59E0B, true)); // Yellow
+        publish(new Category(BILLS, "Bills", "\uD83E\uDDFE", 0xFF8B5CF6, true)); // Purple
+        publish(new Category(HEALTHCARE, "Healthcare", "\uD83D\uDC8A", 0xFFEC4899, true)); // Pink
+        publish(new Category(EDUCATION, "Education", "\uD83D\uDCDA", 0xFF06B6D4, true)); // Cyan
+        publish(new Category(OTHERS, "Others", "\uD83D\uDCE6", 0xFF6B7280, true)); // Gray
+    }
+
+    // Callers hold the lock (or are the constructor)
+    private void publish(Category category) {
+        Category[] table = byId;
+        if (category.id >= table.length) {
+            table = Arrays.copyOf(table, category.id + 1);
+        } else {
+            table = table.clone();
+        }
+        table[category.id] = category;
+        // The id table goes first, so a category found by name also resolves by id
+        byId = table;
+        index(category);
+    }
+
+    private void index(Category category) {
+        byName.put(category.name, category);
+        byFoldedName.put(fold(category.name), category);
+    }
+
+    private static String fold(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.expensetracker.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: one record at a time, never the whole file.
+ * Handles quoted fields with commas, doubled quotes and line breaks, and
+ * both LF and CRLF endings, and skips the byte-order mark spreadsheet apps
+ * put in front of UTF-8 exports. Input is pulled through a fixed char buffer,
+ * so the underlying Reader does not need its own buffering.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private final StringBuilder field = new StringBuilder();
+    // Line the last record started on, 1-based, for error messages
+    private int recordLine;
+    private int line = 1;
+    private boolean started;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next record into fields, which is cleared first.
+     * Returns false at end of input. Blank lines are skipped.
+     */
+    public boolean readRecord(List<String> fields) throws IOException {
+        fields.clear();
+        if (!started) {
+            started = true;
+            // Excel's "CSV UTF-8" starts with one; left in, it hides the first column name
+            if (peek() == BYTE_ORDER_MARK) {
+                position++;
+            }
+        }
+        int c = read();
+        while (c == '\n' || c == '\r') {
+            c = read();
+        }
+        if (c == -1) {
+            return false;
+        }
+        recordLine = line;
+
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    if (peek() == '\n') {
+                        read();
+                    }
+                }
+                fields.add(field.toString());
+                return true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    public int getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            position++;
+            if (c == '\n') {
+                line++;
+            }
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.expensetracker.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Pulls only the expenses that changed on the server since the last sync.
+ * Children are read in (updatedAt, key) order a page at a time; each page is
+ * applied together with the advanced cursor in one local transaction, so an
+ * interrupted sync resumes exactly where it stopped.
+ *
+ * All state is confined to the given executor, which must be single-threaded.
+ * Sharing it with the {@link OutboxFlusher} keeps pushes and pulls ordered.
+ */
+public class DeltaSyncEngine {
+
+    public static final int DEFAULT_PAGE_SIZE = 500;
+    // Round trip of one page query, and applying it locally; see Metrics
+    public static final String METRIC_PULL_PAGE = "sync.pullPage";
+    public static final String METRIC_APPLY_PAGE = "sync.applyPage";
+
+    public interface Listener {
+        // Called on the sync executor after the feed was read to the end
+        void onSyncComplete(int appliedChanges, SyncStats stats);
+    }
+
+    private final RemoteDatabase remote;
+    private final SyncTarget target;
+    private final String expensesPath;
+    private final ScheduledExecutorService executor;
+    private final Backoff backoff;
+    private final int pageSize;
+    private final LongSupplier clock;
+    private final Listener listener;
+
+    private boolean running;
+    private boolean stopped;
+    private ScheduledFuture<?> pendingRetry;
+
+    // Per-run and lifetime metrics
+    private long runStartMillis;
+    private int runApplied;
+    private long lastSuccessMillis;
+    private long cursorMillis;
+    private long pulledChanges;
+    private long appliedChanges;
+    private long lastDurationMillis;
+    private int consecutiveFailures;
+
+    public DeltaSyncEngine(RemoteDatabase remote, SyncTarget target, String userPath,
+                           ScheduledExecutorService executor, Backoff backoff, int pageSize,
+                           LongSupplier clock, Listener listener) {
+        this.remote = remote;
+        this.target = target;
+        this.expensesPath = userPath + "/" + OutboxCoalescer.EXPENSES_NODE;
+        this.executor = executor;
+        this.backoff = backoff;
+        this.pageSize = pageSize;
+        this.clock = clock;
+        this.listener = listener;
+    }
+
+    // Safe to call from any thread; a sync already running absorbs the request
+    public void requestSync() {
+        post(() -> {
+            if (pendingRetry != null) {
+                pendingRetry.cancel(false);
+                pendingRetry = null;
+            }
+            startRun();
+        });
+    }
+
+    public void stop() {
+        post(() -> {
+            stopped = true;
+            if (pendingRetry != null) {
+                pendingRetry.cancel(false);
+                pendingRetry = null;
+            }
+        });
+    }
+
+    // Only meaningful on the sync executor, or once it is idle
+    public SyncStats getStats() {
+        return new SyncStats(lastSuccessMillis, cursorMillis, pulledChanges, appliedChanges,
+                lastDurationMillis, consecutiveFailures);
+    }
+
+    private void post(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shut down; the cursor is durable so the next start picks up from here
+        }
+    }
+
+    private void startRun() {
+        if (running || stopped) {
+            return;
+        }
+        running = true;
+        runStartMillis = clock.getAsLong();
+        runApplied = 0;
+        try {
+            fetchNextPage(target.loadCursor());
+        } catch (RuntimeException e) {
+            // Local storage failed before any round trip; retried like a failed page
+            retryLater();
+        }
+    }
+
+    private void fetchNextPage(SyncCursor cursor) {
+        Metrics.Section pull = Metrics.shared().begin(METRIC_PULL_PAGE);
+        remote.queryChangedSince(expensesPath, cursor, pageSize, (children, error) -> {
+            pull.end(error == null);
+            post(() -> onPage(children, error));
+        });
+    }
+
+    private void onPage(List<RemoteChild> children, Exception error) {
+        if (stopped) {
+            running = false;
+            return;
+        }
+        if (error != null) {
+            retryLater();
+            return;
+        }
+
+        if (!children.isEmpty()) {
+            List<Expense> upserts = new ArrayList<>(children.size());
+            List<Long> deletedIds = new ArrayList<>();
+            for (RemoteChild child : children) {
+                collectChange(child, upserts, deletedIds);
+            }
+            RemoteChild last = children.get(children.size() - 1);
+            SyncCursor next = new SyncCursor(updatedAt(last.value), last.key);
+            Metrics.Section apply = Metrics.shared().begin(METRIC_APPLY_PAGE);
+            try {
+                runApplied += target.applyRemoteChanges(upserts, deletedIds, next);
+                apply.end();
+                pulledChanges += children.size();
+                cursorMillis = next.updatedAt;
+
+                if (children.size() == pageSize) {
+                    fetchNextPage(next);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                // The page rolled back with its cursor, so the retry pulls it again
+                apply.end(false);
+                retryLater();
+                return;
+            }
+        }
+
+        // Reached the end of the feed
+        running = false;
+        backoff.reset();
+        consecutiveFailures = 0;
+        appliedChanges += runApplied;
+        lastSuccessMillis = clock.getAsLong();
+        lastDurationMillis = lastSuccessMillis - runStartMillis;
+        if (listener != null) {
+            listener.onSyncComplete(runApplied, getStats());
+        }
+    }
+
+    // Ends the run as failed and starts a new one after the backoff
+    private void retryLater() {
+        running = false;
+        consecutiveFailures++;
+        pendingRetry = executor.schedule(() -> {
+            pendingRetry = null;
+            startRun();
+        }, backoff.nextDelayMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static void collectChange(RemoteChild child, List<Expense> upserts, List<Long> deletedIds) {
+        long id;
+        try {
+            id = Long.parseLong(child.key);
+        } catch (NumberFormatException e) {
+            // Not written by this app, skip it but still move past it
+            return;
+        }
+        Map<String, Object> value = child.value;
+        if (Boolean.TRUE.equals(value.get(OutboxCoalescer.FIELD_DELETED))) {
+            deletedIds.add(id);
+            return;
+        }
+        Object description = value.get(OutboxCoalescer.FIELD_DESCRIPTION);
+        Object amount = value.get(OutboxCoalescer.FIELD_AMOUNT_CENTS);
+        Object category = value.get(OutboxCoalescer.FIELD_CATEGORY);
+        Object date = value.get(OutboxCoalescer.FIELD_DATE);
+        if (description instanceof String && amount instanceof Number
+                && category instanceof String && date instanceof String) {
+            try {
+                upserts.add(new Expense(id, (String) description, ((Number) amount).longValue(),
+                        (String) category, EpochDays.parseIso((String) date)));
+            } catch (IllegalArgumentException e) {
+                // Malformed date, skip it like any other foreign value
+            }
+        }
+    }
+
+    private static long updatedAt(Map<String, Object> value) {
+        Object updatedAt = value.get(OutboxCoalescer.FIELD_UPDATED_AT);
+        return updatedAt instanceof Number ? ((Number) updatedAt).longValue() : 0;
+    }
+}
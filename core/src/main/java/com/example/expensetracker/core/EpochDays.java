@@ -0,0 +1,119 @@
+package com.example.expensetracker.core;
+
+import java.util.Calendar;
+
+/**
+ * Calendar dates as days since 1970-01-01, the form expenses are stored in.
+ * Integer days compare, range-scan and index directly; the yyyy-MM-dd label
+ * is only produced for display and sync. Pure arithmetic on the proleptic
+ * Gregorian calendar, since java.time needs API 26.
+ */
+public final class EpochDays {
+
+    private EpochDays() {
+    }
+
+    // month is 1-based
+    public static int of(int year, int month, int day) {
+        // Days-from-civil: count from 0000-03-01 so the leap day ends each year
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    public static int of(Calendar calendar) {
+        return of(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1, calendar.get(Calendar.DAY_OF_MONTH));
+    }
+
+    // Strict yyyy-MM-dd; anything else is an IllegalArgumentException
+    public static int parseIso(String text) {
+        if (text == null || text.length() != ExpenseFormatter.ISO_DATE_LENGTH
+                || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            throw new IllegalArgumentException("Not a yyyy-MM-dd date: " + text);
+        }
+        int year = parseDigits(text, 0, 4);
+        int month = parseDigits(text, 5, 7);
+        int day = parseDigits(text, 8, 10);
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            throw new IllegalArgumentException("Not a calendar date: " + text);
+        }
+        return of(year, month, day);
+    }
+
+    // Cached label, so binding a row does not allocate
+    public static String toIso(int epochDay) {
+        int date = toYearMonthDay(epochDay);
+        return ExpenseFormatter.isoDate(date / 10000, date / 100 % 100, date % 100);
+    }
+
+    // yyyy-MM, the key of the monthly totals
+    public static String monthKey(int epochDay) {
+        return toIso(epochDay).substring(0, 7);
+    }
+
+    public static int year(int epochDay) {
+        return toYearMonthDay(epochDay) / 10000;
+    }
+
+    // 1-based
+    public static int month(int epochDay) {
+        return toYearMonthDay(epochDay) / 100 % 100;
+    }
+
+    public static int dayOfMonth(int epochDay) {
+        return toYearMonthDay(epochDay) % 100;
+    }
+
+    public static int firstDayOfMonth(int epochDay) {
+        return epochDay - dayOfMonth(epochDay) + 1;
+    }
+
+    public static int lastDayOfMonth(int epochDay) {
+        int date = toYearMonthDay(epochDay);
+        return firstDayOfMonth(epochDay) + lengthOfMonth(date / 10000, date / 100 % 100) - 1;
+    }
+
+    public static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // Packs the civil date as yyyyMMdd, the inverse of of()
+    private static int toYearMonthDay(int epochDay) {
+        int z = epochDay + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 10000 + month * 100 + day;
+    }
+
+    private static int parseDigits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Not a yyyy-MM-dd date: " + text);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
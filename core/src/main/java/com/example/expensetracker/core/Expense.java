@@ -0,0 +1,64 @@
+package com.example.expensetracker.core;
+
+/**
+ * A single expense. Instances are immutable, so list snapshots can be diffed safely.
+ */
+public class Expense {
+    public final long id;
+    public final String description;
+    // Exact amount in cents, see Money
+    public final long amountCents;
+    // Canonical category name, kept alongside the id for sync, search and export
+    public final String category;
+    // Index into CategoryRegistry, used for display and aggregation
+    public final int categoryId;
+    // Days since 1970-01-01, see EpochDays
+    public final int epochDay;
+
+    public Expense(long id, String description, long amountCents, Category category, int epochDay) {
+        this.id = id;
+        this.description = description;
+        this.amountCents = amountCents;
+        this.category = category.name;
+        this.categoryId = category.id;
+        this.epochDay = epochDay;
+    }
+
+    // A category name from the user, a file or the server; new names become user categories
+    public Expense(long id, String description, long amountCents, String category, int epochDay) {
+        this(id, description, amountCents, CategoryRegistry.shared().intern(category), epochDay);
+    }
+
+    // A category id as stored in the database
+    public Expense(long id, String description, long amountCents, int categoryId, int epochDay) {
+        this(id, description, amountCents, CategoryRegistry.shared().get(categoryId), epochDay);
+    }
+
+    // date in yyyy-MM-dd, as entered on the add screen and stored on the server
+    public Expense(long id, String description, long amountCents, String category, String date) {
+        this(id, description, amountCents, category, EpochDays.parseIso(date));
+    }
+
+    public Expense withId(long newId) {
+        return new Expense(newId, description, amountCents, CategoryRegistry.shared().get(categoryId), epochDay);
+    }
+
+    // yyyy-MM-dd label, cached by ExpenseFormatter
+    public String isoDate() {
+        return EpochDays.toIso(epochDay);
+    }
+
+    // Negative when this expense sorts before the other in the newest-first list
+    public int compareNewestFirst(Expense other) {
+        int byDate = Integer.compare(other.epochDay, epochDay);
+        return byDate != 0 ? byDate : Long.compare(other.id, id);
+    }
+
+    // Used by the list diff to decide whether a row needs rebinding
+    public boolean hasSameContents(Expense other) {
+        return amountCents == other.amountCents
+                && epochDay == other.epochDay
+                && description.equals(other.description)
+                && categoryId == other.categoryId;
+    }
+}
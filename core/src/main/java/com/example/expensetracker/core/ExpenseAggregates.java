@@ -0,0 +1,260 @@
+package com.example.expensetracker.core;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running totals kept up to date on every insert, delete and edit.
+ * Every read is a single map lookup, no matter how many expenses exist;
+ * category totals are arrays indexed by category id.
+ * All totals are exact long cents.
+ */
+public class ExpenseAggregates {
+
+    // Bucket types, also used as keys in the persisted totals table
+    public static final String BUCKET_ALL = "all";
+    public static final String BUCKET_CATEGORY = "category";
+    public static final String BUCKET_DAY = "day";
+    public static final String BUCKET_MONTH = "month";
+
+    public interface BucketVisitor {
+        void visit(String bucketType, String bucketKey, long total, int count);
+    }
+
+    private static class Bucket {
+        long total;
+        int count;
+    }
+
+    private final Bucket overall = new Bucket();
+    // Indexed by category id, grown when a user category shows up
+    private long[] categoryTotals = new long[CategoryRegistry.BUILT_IN_COUNT];
+    private int[] categoryCounts = new int[CategoryRegistry.BUILT_IN_COUNT];
+    private final Map<String, Bucket> byDay = new HashMap<>();
+    private final Map<String, Bucket> byMonth = new HashMap<>();
+    // The storage write these totals were read at or brought up to, see ExpenseChangeSet
+    private long sequence;
+
+    public ExpenseAggregates() {
+    }
+
+    // Deep copy, so a snapshot can be handed to another thread
+    public ExpenseAggregates(ExpenseAggregates other) {
+        copyBucket(other.overall, overall);
+        categoryTotals = other.categoryTotals.clone();
+        categoryCounts = other.categoryCounts.clone();
+        copyBuckets(other.byDay, byDay);
+        copyBuckets(other.byMonth, byMonth);
+        sequence = other.sequence;
+    }
+
+    public void add(Expense expense) {
+        apply(expense, 1);
+    }
+
+    public void remove(Expense expense) {
+        apply(expense, -1);
+    }
+
+    public void update(Expense oldExpense, Expense newExpense) {
+        apply(oldExpense, -1);
+        apply(newExpense, 1);
+    }
+
+    /**
+     * Brings totals loaded from storage up to date with a set from the change
+     * stream. Writes the load already saw are skipped, so a load racing a
+     * write counts it once. False, with nothing applied, when the set is only
+     * partly included in the totals; the caller reloads them.
+     */
+    public boolean apply(ExpenseChangeSet changes) {
+        if (changes.lastSequence != 0 && changes.lastSequence <= sequence) {
+            return true;
+        }
+        if (changes.firstSequence != 0 && changes.firstSequence <= sequence) {
+            return false;
+        }
+        if (changes.cleared) {
+            clear();
+        }
+        for (Expense expense : changes.removed) {
+            remove(expense);
+        }
+        for (Expense expense : changes.added) {
+            add(expense);
+        }
+        sequence = Math.max(sequence, changes.lastSequence);
+        return true;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    // Set by the repository that read the totals, in the same transaction
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public void clear() {
+        overall.total = 0;
+        overall.count = 0;
+        Arrays.fill(categoryTotals, 0);
+        Arrays.fill(categoryCounts, 0);
+        byDay.clear();
+        byMonth.clear();
+    }
+
+    // Restores one persisted bucket, used when loading from storage
+    public void put(String bucketType, String bucketKey, long total, int count) {
+        Bucket bucket;
+        if (BUCKET_CATEGORY.equals(bucketType)) {
+            int id = CategoryRegistry.shared().intern(bucketKey).id;
+            ensureCategoryCapacity(id);
+            categoryTotals[id] = total;
+            categoryCounts[id] = count;
+            return;
+        } else if (BUCKET_ALL.equals(bucketType)) {
+            bucket = overall;
+        } else {
+            bucket = new Bucket();
+            bucketsFor(bucketType).put(bucketKey, bucket);
+        }
+        bucket.total = total;
+        bucket.count = count;
+    }
+
+    // Every non-empty bucket, in the form put() accepts back
+    public void forEachBucket(BucketVisitor visitor) {
+        visitor.visit(BUCKET_ALL, "", overall.total, overall.count);
+        CategoryRegistry categories = CategoryRegistry.shared();
+        for (int id = 0; id < categoryCounts.length; id++) {
+            if (categoryCounts[id] > 0) {
+                visitor.visit(BUCKET_CATEGORY, categories.get(id).name, categoryTotals[id], categoryCounts[id]);
+            }
+        }
+        visitBuckets(BUCKET_DAY, byDay, visitor);
+        visitBuckets(BUCKET_MONTH, byMonth, visitor);
+    }
+
+    // Number of buckets forEachBucket() visits
+    public int bucketCount() {
+        int categories = 0;
+        for (int count : categoryCounts) {
+            if (count > 0) {
+                categories++;
+            }
+        }
+        return 1 + categories + byDay.size() + byMonth.size();
+    }
+
+    public long getTotal() {
+        return overall.total;
+    }
+
+    public int getCount() {
+        return overall.count;
+    }
+
+    public long getCategoryTotal(String category) {
+        Category known = CategoryRegistry.shared().find(category);
+        return known != null ? getCategoryTotal(known.id) : 0;
+    }
+
+    public long getCategoryTotal(int categoryId) {
+        return categoryId >= 0 && categoryId < categoryTotals.length ? categoryTotals[categoryId] : 0;
+    }
+
+    // date in yyyy-MM-dd
+    public long getDayTotal(String date) {
+        return totalOf(byDay.get(date));
+    }
+
+    // month in yyyy-MM
+    public long getMonthTotal(String month) {
+        return totalOf(byMonth.get(month));
+    }
+
+    private void apply(Expense expense, int sign) {
+        applyTo(overall, expense.amountCents, sign);
+        applyToCategory(expense.categoryId, expense.amountCents, sign);
+        applyTo(byDay, expense.isoDate(), expense.amountCents, sign);
+        applyTo(byMonth, EpochDays.monthKey(expense.epochDay), expense.amountCents, sign);
+    }
+
+    private static void applyTo(Map<String, Bucket> buckets, String key, long amount, int sign) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new Bucket();
+            buckets.put(key, bucket);
+        }
+        applyTo(bucket, amount, sign);
+
+        // Drop empty buckets so deleted days and categories don't linger
+        if (bucket.count <= 0) {
+            buckets.remove(key);
+        }
+    }
+
+    private void applyToCategory(int id, long amount, int sign) {
+        ensureCategoryCapacity(id);
+        categoryTotals[id] += sign * amount;
+        categoryCounts[id] += sign;
+        if (categoryCounts[id] <= 0) {
+            categoryTotals[id] = 0;
+            categoryCounts[id] = 0;
+        }
+    }
+
+    private void ensureCategoryCapacity(int id) {
+        if (id >= categoryTotals.length) {
+            int length = Math.max(id + 1, CategoryRegistry.shared().idLimit());
+            categoryTotals = Arrays.copyOf(categoryTotals, length);
+            categoryCounts = Arrays.copyOf(categoryCounts, length);
+        }
+    }
+
+    private static void applyTo(Bucket bucket, long amount, int sign) {
+        bucket.total += sign * amount;
+        bucket.count += sign;
+        if (bucket.count <= 0) {
+            bucket.total = 0;
+            bucket.count = 0;
+        }
+    }
+
+    private Map<String, Bucket> bucketsFor(String bucketType) {
+        switch (bucketType) {
+            case BUCKET_DAY:
+                return byDay;
+            case BUCKET_MONTH:
+                return byMonth;
+            default:
+                throw new IllegalArgumentException("Unknown bucket type: " + bucketType);
+        }
+    }
+
+    private static void visitBuckets(String bucketType, Map<String, Bucket> buckets, BucketVisitor visitor) {
+        for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+            visitor.visit(bucketType, entry.getKey(), entry.getValue().total, entry.getValue().count);
+        }
+    }
+
+    private static void copyBuckets(Map<String, Bucket> from, Map<String, Bucket> to) {
+        for (Map.Entry<String, Bucket> entry : from.entrySet()) {
+            Bucket bucket = new Bucket();
+            copyBucket(entry.getValue(), bucket);
+            to.put(entry.getKey(), bucket);
+        }
+    }
+
+    private static void copyBucket(Bucket from, Bucket to) {
+        to.total = from.total;
+        to.count = from.count;
+    }
+
+    private static long totalOf(Bucket bucket) {
+        return bucket != null ? bucket.total : 0;
+    }
+}
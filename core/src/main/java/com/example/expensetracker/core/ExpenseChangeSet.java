@@ -0,0 +1,116 @@
+package com.example.expensetracker.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What changed in the expenses the user sees, as one immutable batch.
+ * Subscribers apply it in field order: a clear first, then the removals,
+ * then the additions.
+ *
+ * Merging keeps only the net effect, the way OutboxCoalescer does for the
+ * outbox: an expense added and removed again cancels out, so does one
+ * removed and put back unchanged, and a clear drops everything before it.
+ *
+ * Storage numbers its committed writes, and a set carries the range of
+ * numbers merged into it, so state loaded from storage at some number can
+ * skip what it already includes.
+ */
+public final class ExpenseChangeSet {
+
+    public final List<Expense> added;
+    public final List<Expense> removed;
+    // Everything stored before is gone: a committed delete-all
+    public final boolean cleared;
+    // Sequence numbers of the first and last write merged in, inclusive; 0 when not from storage
+    public final long firstSequence;
+    public final long lastSequence;
+
+    private ExpenseChangeSet(List<Expense> added, List<Expense> removed, boolean cleared,
+                             long firstSequence, long lastSequence) {
+        this.added = added;
+        this.removed = removed;
+        this.cleared = cleared;
+        this.firstSequence = firstSequence;
+        this.lastSequence = lastSequence;
+    }
+
+    public static ExpenseChangeSet added(Collection<Expense> expenses) {
+        return new ExpenseChangeSet(copy(expenses), Collections.<Expense>emptyList(), false, 0, 0);
+    }
+
+    public static ExpenseChangeSet added(Expense expense) {
+        return added(Collections.singletonList(expense));
+    }
+
+    public static ExpenseChangeSet removed(Collection<Expense> expenses) {
+        return new ExpenseChangeSet(Collections.<Expense>emptyList(), copy(expenses), false, 0, 0);
+    }
+
+    public static ExpenseChangeSet cleared() {
+        return new ExpenseChangeSet(Collections.<Expense>emptyList(), Collections.<Expense>emptyList(), true, 0, 0);
+    }
+
+    // The same changes, as committed by the write storage numbered sequence
+    public ExpenseChangeSet committedAt(long sequence) {
+        return new ExpenseChangeSet(added, removed, cleared, sequence, sequence);
+    }
+
+    // The net effect of this set followed by the later one
+    public ExpenseChangeSet merge(ExpenseChangeSet later) {
+        if (later.cleared) {
+            // Whatever came before is gone with the clear, its sequence numbers included
+            return later;
+        }
+        Map<Long, Expense> netAdded = byId(added);
+        Map<Long, Expense> netRemoved = byId(removed);
+        for (Expense expense : later.removed) {
+            // Never seen by subscribers, or already gone with the clear
+            if (netAdded.remove(expense.id) == null && !cleared) {
+                netRemoved.put(expense.id, expense);
+            }
+        }
+        for (Expense expense : later.added) {
+            Expense wasRemoved = netRemoved.get(expense.id);
+            if (wasRemoved != null && wasRemoved.hasSameContents(expense)) {
+                // Removed and put back unchanged
+                netRemoved.remove(expense.id);
+            } else {
+                netAdded.put(expense.id, expense);
+            }
+        }
+        return new ExpenseChangeSet(copy(netAdded.values()), copy(netRemoved.values()),
+                cleared, firstSequence != 0 ? firstSequence : later.firstSequence,
+                Math.max(lastSequence, later.lastSequence));
+    }
+
+    public Set<Long> removedIds() {
+        Set<Long> ids = new HashSet<>(removed.size() * 2);
+        for (Expense expense : removed) {
+            ids.add(expense.id);
+        }
+        return ids;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && !cleared;
+    }
+
+    private static List<Expense> copy(Collection<Expense> expenses) {
+        return Collections.unmodifiableList(new ArrayList<>(expenses));
+    }
+
+    private static Map<Long, Expense> byId(List<Expense> expenses) {
+        Map<Long, Expense> map = new LinkedHashMap<>();
+        for (Expense expense : expenses) {
+            map.put(expense.id, expense);
+        }
+        return map;
+    }
+}
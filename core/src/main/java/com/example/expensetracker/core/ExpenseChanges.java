@@ -0,0 +1,150 @@
+package com.example.expensetracker.core;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Observable stream of changes to one user's expenses.
+ * Writers publish a change set right after storage has it, from any thread.
+ * Changes are merged and delivered once things go quiet for debounceMillis,
+ * and never later than maxDelayMillis after the first of them, so a burst of
+ * mutations reaches every subscriber as one ExpenseChangeSet.
+ *
+ * Each subscriber names its executor: the screen subscribes on the main
+ * thread, recomputation such as the search index on a background pool.
+ * Deliveries to one subscriber never overlap, and a slow subscriber gets
+ * whatever piled up meanwhile merged into its next set.
+ */
+public final class ExpenseChanges {
+
+    public interface Listener {
+        void onChanged(ExpenseChangeSet changes);
+    }
+
+    public final class Subscription {
+        private final Executor executor;
+        private final Listener listener;
+        // Guarded by this; changes waiting for the listener, and whether a drain is queued
+        private ExpenseChangeSet queued;
+        private boolean draining;
+        private volatile boolean cancelled;
+
+        private Subscription(Executor executor, Listener listener) {
+            this.executor = executor;
+            this.listener = listener;
+        }
+
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void deliver(ExpenseChangeSet changes) {
+            synchronized (this) {
+                queued = queued == null ? changes : queued.merge(changes);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            executor.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                ExpenseChangeSet changes;
+                synchronized (this) {
+                    changes = queued;
+                    queued = null;
+                    if (changes == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                if (!cancelled) {
+                    listener.onChanged(changes);
+                }
+            }
+        }
+    }
+
+    private final ScheduledExecutorService timer;
+    private final long debounceNanos;
+    private final long maxDelayNanos;
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    // Guarded by this
+    private ExpenseChangeSet pending;
+    private long firstPendingNanos;
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean closed;
+
+    // timer only waits out the debounce, listeners run on their own executors
+    public ExpenseChanges(ScheduledExecutorService timer, long debounceMillis, long maxDelayMillis) {
+        if (maxDelayMillis < debounceMillis) {
+            throw new IllegalArgumentException("maxDelayMillis must be at least debounceMillis");
+        }
+        this.timer = timer;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    }
+
+    public Subscription subscribe(Executor executor, Listener listener) {
+        Subscription subscription = new Subscription(executor, listener);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public synchronized void publish(ExpenseChangeSet changes) {
+        if (closed || changes.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (pending == null) {
+            pending = changes;
+            firstPendingNanos = now;
+        } else {
+            pending = pending.merge(changes);
+            scheduledFlush.cancel(false);
+        }
+        // Each change restarts the quiet period, up to the cap from the first one
+        long delay = Math.min(debounceNanos, firstPendingNanos + maxDelayNanos - now);
+        scheduledFlush = timer.schedule(this::flush, Math.max(0, delay), TimeUnit.NANOSECONDS);
+    }
+
+    // Delivers whatever is pending now instead of waiting for the debounce
+    public synchronized void flush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (pending == null || pending.isEmpty()) {
+            // Nothing, or changes that cancelled out, such as a row added and deleted again
+            pending = null;
+            return;
+        }
+        // Handed over under the lock so two flushes can't reach a subscriber out of order
+        for (Subscription subscription : subscriptions) {
+            subscription.deliver(pending);
+        }
+        pending = null;
+    }
+
+    // Drops pending changes and subscribers; later publishes are ignored
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            pending = null;
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.cancel();
+        }
+    }
+}
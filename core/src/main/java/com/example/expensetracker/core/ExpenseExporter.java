@@ -0,0 +1,230 @@
+package com.example.expensetracker.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Streams expenses out of a repository into a byte channel as CSV or JSON Lines.
+ * Rows are read one keyset page at a time, formatted into a reused text
+ * buffer and encoded through a fixed direct ByteBuffer, so memory stays flat
+ * however many expenses are exported. The CSV uses the header the importer
+ * understands, so an export can be imported again.
+ *
+ * One instance per export. {@link #cancel()} may be called from any thread;
+ * the export stops after the chunk in progress.
+ */
+public class ExpenseExporter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+    private static final int BYTE_BUFFER_SIZE = 64 * 1024;
+
+    public enum Format {
+        CSV("text/csv", ".csv"),
+        JSON_LINES("application/x-ndjson", ".jsonl");
+
+        public final String mimeType;
+        public final String extension;
+
+        Format(String mimeType, String extension) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+        }
+    }
+
+    public interface ProgressListener {
+        // Called on the exporting thread after every chunk is written
+        void onProgress(int exported);
+    }
+
+    public static final class Result {
+        public final int exported;
+        public final long bytesWritten;
+        public final boolean cancelled;
+
+        Result(int exported, long bytesWritten, boolean cancelled) {
+            this.exported = exported;
+            this.bytesWritten = bytesWritten;
+            this.cancelled = cancelled;
+        }
+    }
+
+    private final ExpenseRepository repository;
+    private final int chunkSize;
+    private final StringBuilder text = new StringBuilder(8 * 1024);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BYTE_BUFFER_SIZE);
+    // A lone surrogate in a description becomes '?' rather than failing the export
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private long bytesWritten;
+    private volatile boolean cancelled;
+
+    public ExpenseExporter(ExpenseRepository repository, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.repository = repository;
+        this.chunkSize = chunkSize;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Writes every expense matching the query, in its order. The query's own
+     * limit is ignored; rows are read chunkSize at a time. The channel is not
+     * closed. Blocking, call off the main thread.
+     */
+    public Result export(ExpenseQuery query, Format format, WritableByteChannel channel,
+                         ProgressListener listener) throws IOException {
+        bytesWritten = 0;
+        int exported = 0;
+        if (format == Format.CSV) {
+            text.append("description,amount,category,date\n");
+        }
+
+        ExpenseQuery page = query.after(null).limit(chunkSize);
+        while (!cancelled) {
+            List<Expense> chunk = repository.find(page);
+            for (Expense expense : chunk) {
+                if (format == Format.CSV) {
+                    appendCsv(expense);
+                } else {
+                    appendJson(expense);
+                }
+            }
+            write(channel, false);
+            exported += chunk.size();
+            if (listener != null && !chunk.isEmpty()) {
+                listener.onProgress(exported);
+            }
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            page = page.after(chunk.get(chunk.size() - 1));
+        }
+        write(channel, true);
+        return new Result(exported, bytesWritten, cancelled);
+    }
+
+    public Result export(Format format, WritableByteChannel channel, ProgressListener listener) throws IOException {
+        return export(ExpenseQuery.all(), format, channel, listener);
+    }
+
+    private void appendCsv(Expense expense) {
+        appendCsvField(expense.description);
+        text.append(',');
+        appendAmount(expense.amountCents);
+        text.append(',');
+        appendCsvField(expense.category);
+        text.append(',').append(expense.isoDate()).append('\n');
+    }
+
+    private void appendJson(Expense expense) {
+        text.append("{\"id\":").append(expense.id).append(",\"description\":");
+        appendJsonString(expense.description);
+        text.append(",\"amountCents\":").append(expense.amountCents).append(",\"category\":");
+        appendJsonString(expense.category);
+        text.append(",\"date\":\"").append(expense.isoDate()).append("\"}\n");
+    }
+
+    // Plain 1234.56, no currency symbol, which Money.parseCents reads back
+    private void appendAmount(long cents) {
+        if (cents < 0) {
+            text.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % 100;
+        text.append(cents / 100).append('.').append(fraction < 10 ? "0" : "").append(fraction);
+    }
+
+    // Quoted only when needed, with quotes doubled (RFC 4180)
+    private void appendCsvField(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            text.append(value);
+            return;
+        }
+        text.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                text.append('"');
+            }
+            text.append(c);
+        }
+        text.append('"');
+    }
+
+    private void appendJsonString(String value) {
+        text.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    text.append("\\\"");
+                    break;
+                case '\\':
+                    text.append("\\\\");
+                    break;
+                case '\n':
+                    text.append("\\n");
+                    break;
+                case '\r':
+                    text.append("\\r");
+                    break;
+                case '\t':
+                    text.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        text.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        text.append(c);
+                    }
+            }
+        }
+        text.append('"');
+    }
+
+    // Encodes the pending text into the byte buffer, draining it to the channel whenever it fills
+    private void write(WritableByteChannel channel, boolean endOfInput) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                drain(channel);
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        text.setLength(0);
+        if (endOfInput) {
+            encoder.flush(bytes);
+            drain(channel);
+            encoder.reset();
+        }
+    }
+
+    private void drain(WritableByteChannel channel) throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            bytesWritten += channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.expensetracker.core;
+
+import java.util.Calendar;
+
+/**
+ * Reusable formatting for list binding and the add screen.
+ * Amounts are written into per-view char buffers and date labels are cached,
+ * so binding a row does not allocate.
+ */
+public final class ExpenseFormatter {
+
+    // yyyy-MM-dd
+    public static final int ISO_DATE_LENGTH = 10;
+
+    // Labels for the days around "today" are precomputed, older ones are cached on first use
+    private static final int DATE_CACHE_SIZE = 1024;
+    private static final int[] cachedDateKeys = new int[DATE_CACHE_SIZE];
+    private static final String[] cachedDateLabels = new String[DATE_CACHE_SIZE];
+
+    static {
+        Calendar day = Calendar.getInstance();
+        for (int i = 0; i < 366; i++) {
+            isoDate(day.get(Calendar.YEAR), day.get(Calendar.MONTH) + 1, day.get(Calendar.DAY_OF_MONTH));
+            day.add(Calendar.DAY_OF_MONTH, -1);
+        }
+    }
+
+    private ExpenseFormatter() {
+    }
+
+    /**
+     * A char buffer that a TextView can display without a String copy.
+     * TextView keeps a reference to the array, so each view needs its own instance.
+     */
+    public static final class AmountText {
+        public final char[] chars = new char[Money.MAX_FORMATTED_LENGTH];
+        public int length;
+        private long cents;
+        private boolean formatted;
+
+        // Returns false when the buffer already holds this amount
+        public boolean set(long newCents) {
+            if (formatted && cents == newCents) {
+                return false;
+            }
+            length = Money.format(newCents, chars, 0);
+            cents = newCents;
+            formatted = true;
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+
+    // Writes yyyy-MM-dd with ASCII digits, whatever the default locale
+    public static int formatIsoDate(int year, int month, int day, char[] buffer, int offset) {
+        writeDigits(year, 4, buffer, offset);
+        buffer[offset + 4] = '-';
+        writeDigits(month, 2, buffer, offset + 5);
+        buffer[offset + 7] = '-';
+        writeDigits(day, 2, buffer, offset + 8);
+        return ISO_DATE_LENGTH;
+    }
+
+    public static String isoDate(Calendar calendar) {
+        return isoDate(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1,
+                calendar.get(Calendar.DAY_OF_MONTH));
+    }
+
+    // month is 1-based; repeated calls for the same day return the same String
+    public static String isoDate(int year, int month, int day) {
+        int key = year * 10000 + month * 100 + day;
+        int slot = (key ^ (key >>> 7)) & (DATE_CACHE_SIZE - 1);
+        synchronized (cachedDateKeys) {
+            if (cachedDateKeys[slot] == key) {
+                return cachedDateLabels[slot];
+            }
+            char[] buffer = new char[ISO_DATE_LENGTH];
+            formatIsoDate(year, month, day, buffer, 0);
+            String label = new String(buffer);
+            cachedDateKeys[slot] = key;
+            cachedDateLabels[slot] = label;
+            return label;
+        }
+    }
+
+    private static void writeDigits(int value, int width, char[] buffer, int offset) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.expensetracker.core;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates expense ids that are unique across devices, so an id can double
+ * as the remote key when syncing.
+ * Layout: milliseconds since epoch (upper bits), a random per-process node id
+ * (10 bits) and a counter (10 bits). Ids increase over time, which keeps the
+ * newest-first order stable.
+ */
+public final class ExpenseIds {
+
+    private static final int NODE_BITS = 10;
+    private static final int COUNTER_BITS = 10;
+
+    private static final long NODE = new SecureRandom().nextInt(1 << NODE_BITS);
+    private static final AtomicLong last = new AtomicLong();
+
+    private ExpenseIds() {
+    }
+
+    public static long next() {
+        long candidate = (System.currentTimeMillis() << (NODE_BITS + COUNTER_BITS)) | (NODE << COUNTER_BITS);
+        while (true) {
+            long previous = last.get();
+            // Same millisecond (or a clock step back): bump the counter instead
+            long id = candidate > previous ? candidate : previous + 1;
+            if (last.compareAndSet(previous, id)) {
+                return id;
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.expensetracker.core;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams expenses from CSV into a repository.
+ * Rows are parsed one at a time, checked with {@link ExpenseValidator} (the
+ * same rules as the add screen) and inserted in batches, one transaction
+ * each. Memory stays bounded by the batch size whatever the file size;
+ * only the first few row errors are kept, the rest are counted.
+ *
+ * A header row naming description, amount, category and date is used to
+ * find the columns in any order; without one the columns are read in that order.
+ * Blocking, call off the main thread.
+ */
+public class ExpenseImporter {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int MAX_REPORTED_ERRORS = 100;
+    // Used when a row leaves the category empty
+    public static final String DEFAULT_CATEGORY = "Others";
+
+    private static final String[] COLUMNS = {"description", "amount", "category", "date"};
+    private static final int DESCRIPTION = 0;
+    private static final int AMOUNT = 1;
+    private static final int CATEGORY = 2;
+    private static final int DATE = 3;
+
+    public interface ProgressListener {
+        // Called on the importing thread after every committed batch
+        void onProgress(int rowsRead, int imported, int failed);
+    }
+
+    public static final class RowError {
+        // Line the row starts on in the file, 1-based
+        public final int line;
+        public final String message;
+
+        RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return "Line " + line + ": " + message;
+        }
+    }
+
+    public static final class Result {
+        public final int rowsRead;
+        public final int imported;
+        public final int failed;
+        // At most MAX_REPORTED_ERRORS, in file order
+        public final List<RowError> errors;
+
+        Result(int rowsRead, int imported, int failed, List<RowError> errors) {
+            this.rowsRead = rowsRead;
+            this.imported = imported;
+            this.failed = failed;
+            this.errors = errors;
+        }
+    }
+
+    private final ExpenseRepository repository;
+    private final int batchSize;
+
+    public ExpenseImporter(ExpenseRepository repository, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.repository = repository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports every valid row. Rows that fail validation are skipped and
+     * reported; an IOException (unreadable input or a broken quote) stops the
+     * import, leaving the batches already committed in place.
+     */
+    public Result importCsv(Reader input, ProgressListener listener) throws IOException {
+        CsvReader csv = new CsvReader(input);
+        List<String> fields = new ArrayList<>();
+        List<Expense> batch = new ArrayList<>(batchSize);
+        List<RowError> errors = new ArrayList<>();
+        int rowsRead = 0;
+        int imported = 0;
+        int failed = 0;
+
+        int[] columns = {DESCRIPTION, AMOUNT, CATEGORY, DATE};
+        boolean first = true;
+        while (csv.readRecord(fields)) {
+            if (first) {
+                first = false;
+                if (readHeader(fields, columns)) {
+                    continue;
+                }
+            }
+            rowsRead++;
+
+            String error = null;
+            Expense expense = null;
+            if (maxOf(columns) >= fields.size()) {
+                error = "Expected " + (maxOf(columns) + 1) + " columns, found " + fields.size();
+            } else {
+                String description = fields.get(columns[DESCRIPTION]).trim();
+                String category = fields.get(columns[CATEGORY]).trim();
+                ExpenseValidator.Result result = ExpenseValidator.validate(description,
+                        fields.get(columns[AMOUNT]).trim(), fields.get(columns[DATE]).trim());
+                if (result.isValid()) {
+                    expense = new Expense(0, description, result.amountCents,
+                            category.isEmpty() ? DEFAULT_CATEGORY : category, result.epochDay);
+                } else {
+                    error = result.message;
+                }
+            }
+
+            if (expense != null) {
+                batch.add(expense);
+                if (batch.size() == batchSize) {
+                    imported += flush(batch);
+                    notifyProgress(listener, rowsRead, imported, failed);
+                }
+            } else {
+                failed++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new RowError(csv.getRecordLine(), error));
+                }
+            }
+        }
+        imported += flush(batch);
+        notifyProgress(listener, rowsRead, imported, failed);
+        return new Result(rowsRead, imported, failed, errors);
+    }
+
+    private int flush(List<Expense> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        // One transaction per batch; the returned copies with ids are not kept
+        repository.insertAll(batch);
+        int count = batch.size();
+        batch.clear();
+        return count;
+    }
+
+    // Fills columns from a header row; returns false when the row is data
+    private static boolean readHeader(List<String> fields, int[] columns) {
+        int[] found = {-1, -1, -1, -1};
+        for (int i = 0; i < fields.size(); i++) {
+            String name = fields.get(i).trim().toLowerCase(Locale.ROOT);
+            for (int column = 0; column < COLUMNS.length; column++) {
+                if (name.equals(COLUMNS[column]) && found[column] == -1) {
+                    found[column] = i;
+                }
+            }
+        }
+        for (int index : found) {
+            if (index == -1) {
+                return false;
+            }
+        }
+        System.arraycopy(found, 0, columns, 0, columns.length);
+        return true;
+    }
+
+    private static int maxOf(int[] values) {
+        int max = values[0];
+        for (int value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    private static void notifyProgress(ProgressListener listener, int rowsRead, int imported, int failed) {
+        if (listener != null) {
+            listener.onProgress(rowsRead, imported, failed);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.example.expensetracker.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+/**
+ * Append-only expense log in a memory-mapped file of fixed-width records.
+ *
+ * An append writes one record into the mapping and bumps the record count in
+ * the header, so no syscall or cursor is involved. Updates append a newer
+ * version and deletes append a tombstone; replaying the log on open keeps
+ * the last version of each id. A report reads the mapping sequentially,
+ * and a sparse date index (the day range of every block of records) lets
+ * it skip blocks that can't match. Once dead records outnumber live ones
+ * the file is compacted: live records are rewritten in date order and the
+ * new file is renamed over the old one.
+ *
+ * Writes reach the page cache immediately and survive an app crash; call
+ * {@link #sync()} to force them to storage. Not thread-safe beyond its
+ * synchronized methods; one instance per file.
+ */
+public class ExpenseJournal implements Closeable {
+
+    // Fixed-width text slots, in UTF-16 chars
+    public static final int MAX_DESCRIPTION_LENGTH = ExpenseValidator.MAX_DESCRIPTION_LENGTH;
+    public static final int MAX_CATEGORY_LENGTH = 26;
+
+    private static final int MAGIC = 0x45585047; // "EXPG"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int COUNT_OFFSET = 8;
+
+    // Record layout
+    static final int RECORD_SIZE = 176;
+    private static final int KIND = 0;
+    private static final int DESCRIPTION_LENGTH = 1;
+    private static final int CATEGORY_LENGTH = 2;
+    private static final int EPOCH_DAY = 4;
+    private static final int ID = 8;
+    private static final int AMOUNT = 16;
+    private static final int DESCRIPTION = 24;
+    private static final int CATEGORY = DESCRIPTION + MAX_DESCRIPTION_LENGTH * 2;
+
+    private static final byte KIND_EXPENSE = 1;
+    private static final byte KIND_TOMBSTONE = 2;
+
+    // Records per entry of the sparse date index
+    static final int BLOCK_RECORDS = 256;
+    private static final int INITIAL_CAPACITY = 1024;
+    // Below this many dead records compaction isn't worth the rewrite
+    private static final int MIN_DEAD_TO_COMPACT = 1024;
+
+    private final File file;
+    private RandomAccessFile raf;
+    private FileChannel channel;
+    private MappedByteBuffer map;
+    private int capacity;
+    private int recordCount;
+
+    // Latest live slot of every id, and the same slots as a bitmap for scans
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private int[] blockMinDay = new int[0];
+    private int[] blockMaxDay = new int[0];
+    private final char[] chars = new char[Math.max(MAX_DESCRIPTION_LENGTH, MAX_CATEGORY_LENGTH)];
+    // Moves the compacted copy over the file; tests swap in one that fails
+    BiPredicate<File, File> rename = File::renameTo;
+
+    private ExpenseJournal(File file) {
+        this.file = file;
+    }
+
+    public static ExpenseJournal open(File file) throws IOException {
+        ExpenseJournal journal = new ExpenseJournal(file);
+        journal.mapAndReplay();
+        return journal;
+    }
+
+    // Stores a new expense, assigning an id when it has none
+    public synchronized Expense append(Expense expense) {
+        Expense saved = expense.id != 0 ? expense : expense.withId(ExpenseIds.next());
+        write(KIND_EXPENSE, saved);
+        return saved;
+    }
+
+    public synchronized void update(Expense expense) {
+        if (slotById.containsKey(expense.id)) {
+            write(KIND_EXPENSE, expense);
+            maybeCompact();
+        }
+    }
+
+    public synchronized void delete(long id) {
+        if (slotById.containsKey(id)) {
+            write(KIND_TOMBSTONE, new Expense(id, "", 0, "", 0));
+            maybeCompact();
+        }
+    }
+
+    public synchronized void deleteAll() {
+        recordCount = 0;
+        map.putInt(COUNT_OFFSET, 0);
+        slotById.clear();
+        live.clear();
+        blockMinDay = new int[0];
+        blockMaxDay = new int[0];
+    }
+
+    public synchronized Expense get(long id) {
+        Integer slot = slotById.get(id);
+        return slot != null ? read(slot) : null;
+    }
+
+    public synchronized int size() {
+        return slotById.size();
+    }
+
+    // Records in the file, live or not; compaction brings this back to size()
+    public synchronized int recordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Visits every live expense with fromDay <= epochDay <= toDay, in file
+     * order (date order right after a compaction, append order after that).
+     */
+    public synchronized void scan(int fromDay, int toDay, Consumer<Expense> visitor) {
+        for (int block = 0; block < blockMinDay.length; block++) {
+            if (blockMaxDay[block] < fromDay || blockMinDay[block] > toDay) {
+                continue;
+            }
+            int end = Math.min(recordCount, (block + 1) * BLOCK_RECORDS);
+            for (int slot = live.nextSetBit(block * BLOCK_RECORDS); slot >= 0 && slot < end;
+                 slot = live.nextSetBit(slot + 1)) {
+                int day = map.getInt(offset(slot) + EPOCH_DAY);
+                if (day >= fromDay && day <= toDay) {
+                    visitor.accept(read(slot));
+                }
+            }
+        }
+    }
+
+    // Sum over a date range straight from the mapping, without creating Expense objects
+    public synchronized long sumCents(int fromDay, int toDay) {
+        long total = 0;
+        for (int block = 0; block < blockMinDay.length; block++) {
+            if (blockMaxDay[block] < fromDay || blockMinDay[block] > toDay) {
+                continue;
+            }
+            int end = Math.min(recordCount, (block + 1) * BLOCK_RECORDS);
+            for (int slot = live.nextSetBit(block * BLOCK_RECORDS); slot >= 0 && slot < end;
+                 slot = live.nextSetBit(slot + 1)) {
+                int offset = offset(slot);
+                int day = map.getInt(offset + EPOCH_DAY);
+                if (day >= fromDay && day <= toDay) {
+                    total += map.getLong(offset + AMOUNT);
+                }
+            }
+        }
+        return total;
+    }
+
+    // Totals for the whole history in one sequential pass
+    public synchronized ExpenseAggregates aggregate() {
+        ExpenseAggregates aggregates = new ExpenseAggregates();
+        scan(Integer.MIN_VALUE, Integer.MAX_VALUE, aggregates::add);
+        return aggregates;
+    }
+
+    /**
+     * Rewrites only the live records, sorted by date, into a new file and
+     * renames it over this one. Sorted records make the date index tight.
+     */
+    public synchronized void compact() throws IOException {
+        // Sort slots by (day, slot): the day in the high half, the slot in the low half
+        long[] keys = new long[slotById.size()];
+        int n = 0;
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            keys[n++] = ((long) map.getInt(offset(slot) + EPOCH_DAY) << 32) | slot;
+        }
+        Arrays.sort(keys);
+
+        File compacted = new File(file.getPath() + ".compact");
+        try {
+            writeCompacted(compacted, keys);
+        } catch (IOException e) {
+            compacted.delete();
+            throw e;
+        }
+        close();
+        if (!rename.test(compacted, file)) {
+            compacted.delete();
+            // The original file is untouched, so map it again and keep going with the larger log
+            mapAndReplay();
+            throw new IOException("Could not replace " + file + " with its compacted copy");
+        }
+        mapAndReplay();
+    }
+
+    private void writeCompacted(File compacted, long[] keys) throws IOException {
+        try (RandomAccessFile out = new RandomAccessFile(compacted, "rw")) {
+            out.setLength(0);
+            MappedByteBuffer target = out.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) Math.max(keys.length, INITIAL_CAPACITY) * RECORD_SIZE);
+            writeHeader(target, keys.length);
+            byte[] record = new byte[RECORD_SIZE];
+            for (int i = 0; i < keys.length; i++) {
+                map.position(offset((int) keys[i]));
+                map.get(record);
+                target.position(HEADER_SIZE + i * RECORD_SIZE);
+                target.put(record);
+            }
+            target.force();
+        }
+    }
+
+    // Forces written records out to storage
+    public synchronized void sync() {
+        map.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (raf != null) {
+            raf.close();
+            raf = null;
+            channel = null;
+        }
+    }
+
+    private void maybeCompact() {
+        int dead = recordCount - slotById.size();
+        if (dead >= MIN_DEAD_TO_COMPACT && dead > slotById.size()) {
+            try {
+                compact();
+            } catch (IOException e) {
+                // The log is still complete, just larger than it needs to be
+            }
+        }
+    }
+
+    private void write(byte kind, Expense expense) {
+        if (expense.description.length() > MAX_DESCRIPTION_LENGTH) {
+            throw new IllegalArgumentException("Description longer than " + MAX_DESCRIPTION_LENGTH + " chars");
+        }
+        if (expense.category.length() > MAX_CATEGORY_LENGTH) {
+            throw new IllegalArgumentException("Category longer than " + MAX_CATEGORY_LENGTH + " chars");
+        }
+        int slot = recordCount;
+        ensureCapacity(slot + 1);
+
+        int offset = offset(slot);
+        map.put(offset + KIND, kind);
+        map.put(offset + DESCRIPTION_LENGTH, (byte) expense.description.length());
+        map.put(offset + CATEGORY_LENGTH, (byte) expense.category.length());
+        map.putInt(offset + EPOCH_DAY, expense.epochDay);
+        map.putLong(offset + ID, expense.id);
+        map.putLong(offset + AMOUNT, expense.amountCents);
+        putChars(offset + DESCRIPTION, expense.description);
+        putChars(offset + CATEGORY, expense.category);
+
+        // The count is written last, so a record torn by a crash is never replayed
+        recordCount = slot + 1;
+        map.putInt(COUNT_OFFSET, recordCount);
+        apply(slot, kind, expense.id, expense.epochDay);
+    }
+
+    // Updates the in-memory indexes for one record, on append and on replay
+    private void apply(int slot, byte kind, long id, int epochDay) {
+        Integer previous = kind == KIND_EXPENSE ? slotById.put(id, slot) : slotById.remove(id);
+        if (previous != null) {
+            live.clear(previous);
+        }
+        if (kind != KIND_EXPENSE) {
+            return;
+        }
+        live.set(slot);
+        int block = slot / BLOCK_RECORDS;
+        if (block >= blockMinDay.length) {
+            blockMinDay = Arrays.copyOf(blockMinDay, block + 1);
+            blockMaxDay = Arrays.copyOf(blockMaxDay, block + 1);
+            blockMinDay[block] = Integer.MAX_VALUE;
+            blockMaxDay[block] = Integer.MIN_VALUE;
+        }
+        blockMinDay[block] = Math.min(blockMinDay[block], epochDay);
+        blockMaxDay[block] = Math.max(blockMaxDay[block], epochDay);
+    }
+
+    private Expense read(int slot) {
+        int offset = offset(slot);
+        String description = getChars(offset + DESCRIPTION, map.get(offset + DESCRIPTION_LENGTH));
+        String category = getChars(offset + CATEGORY, map.get(offset + CATEGORY_LENGTH));
+        return new Expense(map.getLong(offset + ID), description, map.getLong(offset + AMOUNT), category,
+                map.getInt(offset + EPOCH_DAY));
+    }
+
+    private void putChars(int offset, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            map.putChar(offset + i * 2, value.charAt(i));
+        }
+    }
+
+    private String getChars(int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            chars[i] = map.getChar(offset + i * 2);
+        }
+        return new String(chars, 0, length);
+    }
+
+    private void mapAndReplay() throws IOException {
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+        boolean fresh = channel.size() < HEADER_SIZE;
+        long records = fresh ? 0 : (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+        remap((int) Math.max(INITIAL_CAPACITY, records));
+        if (fresh) {
+            writeHeader(map, 0);
+        } else if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+            close();
+            throw new IOException(file + " is not an expense journal");
+        }
+
+        slotById.clear();
+        live.clear();
+        blockMinDay = new int[0];
+        blockMaxDay = new int[0];
+        // A count beyond the file means the header outlived a truncation; trust the file
+        recordCount = (int) Math.min(map.getInt(COUNT_OFFSET), records);
+        for (int slot = 0; slot < recordCount; slot++) {
+            int offset = offset(slot);
+            apply(slot, map.get(offset + KIND), map.getLong(offset + ID), map.getInt(offset + EPOCH_DAY));
+        }
+    }
+
+    private void ensureCapacity(int records) {
+        if (records > capacity) {
+            try {
+                remap(Math.max(records, capacity * 2));
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not grow " + file, e);
+            }
+        }
+    }
+
+    // Mapping past the end grows the file
+    private void remap(int records) throws IOException {
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) records * RECORD_SIZE);
+        capacity = records;
+    }
+
+    private static void writeHeader(MappedByteBuffer buffer, int count) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(COUNT_OFFSET, count);
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+}
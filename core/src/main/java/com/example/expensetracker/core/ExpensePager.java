@@ -0,0 +1,291 @@
+package com.example.expensetracker.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Sliding window over the newest-first expense history.
+ * Pages are read with keyset queries anchored on the first or last loaded row,
+ * so each page costs the same no matter how deep the user has scrolled. The
+ * next page is fetched before the user reaches the end of the window, and
+ * pages far from the visible range are released so memory stays bounded.
+ *
+ * All methods must be called on the main executor; results are delivered there too.
+ */
+public class ExpensePager {
+
+    public interface Listener {
+        // A new immutable snapshot of the loaded window
+        void onWindowChanged(List<Expense> window);
+    }
+
+    private final ExpenseRepository repository;
+    private final Executor background;
+    private final Executor main;
+    private final int pageSize;
+    private final int prefetchDistance;
+    private final int maxLoaded;
+    private final Listener listener;
+
+    private final ArrayList<Expense> window = new ArrayList<>();
+    private boolean hasOlder;
+    private boolean hasNewer;
+    private boolean loadingOlder;
+    private boolean loadingNewer;
+    // Ids left out of what is published, e.g. deletes still inside their undo window. The rows stay
+    // in the window, so pages keep anchoring on what storage holds and a reload can't bring them back
+    private Set<Long> hidden = Collections.emptySet();
+    // Rows in the last published snapshot, which is what the visible positions index into
+    private int publishedCount;
+    // Bumped on refresh so results of loads started earlier are ignored
+    private int generation;
+
+    /**
+     * @param prefetchDistance how many rows from either edge of the window a load is triggered
+     * @param maxPages         pages kept in memory before the far side is released
+     */
+    public ExpensePager(ExpenseRepository repository, Executor background, Executor main,
+                        int pageSize, int prefetchDistance, int maxPages, Listener listener) {
+        if (maxPages < 2) {
+            throw new IllegalArgumentException("maxPages must be at least 2");
+        }
+        this.repository = repository;
+        this.background = background;
+        this.main = main;
+        this.pageSize = pageSize;
+        this.prefetchDistance = prefetchDistance;
+        this.maxLoaded = pageSize * maxPages;
+        this.listener = listener;
+    }
+
+    // Drops the window and reloads the newest page
+    public void refresh() {
+        int requestGeneration = ++generation;
+        loadingOlder = true;
+        loadingNewer = false;
+        background.execute(() -> {
+            List<Expense> page;
+            try {
+                page = repository.loadRecent(pageSize);
+            } catch (RuntimeException e) {
+                main.execute(() -> onLoadFailed(requestGeneration, true));
+                return;
+            }
+            main.execute(() -> {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loadingOlder = false;
+                window.clear();
+                window.addAll(page);
+                hasOlder = page.size() == pageSize;
+                hasNewer = false;
+                publish();
+            });
+        });
+    }
+
+    // Shows a window saved by an earlier instance without touching storage
+    public void restore(List<Expense> savedWindow, boolean savedHasOlder, boolean savedHasNewer) {
+        // Loads started before the restore belong to the old window
+        generation++;
+        loadingOlder = false;
+        loadingNewer = false;
+        window.clear();
+        window.addAll(savedWindow);
+        hasOlder = savedHasOlder;
+        hasNewer = savedHasNewer;
+        publish();
+    }
+
+    // Called as the list scrolls, with adapter positions of the visible rows
+    public void onVisibleRangeChanged(int firstVisible, int lastVisible) {
+        if (window.isEmpty()) {
+            return;
+        }
+        if (hasOlder && !loadingOlder && lastVisible >= publishedCount - 1 - prefetchDistance) {
+            loadOlder();
+        }
+        if (hasNewer && !loadingNewer && firstVisible <= prefetchDistance) {
+            loadNewer();
+        }
+    }
+
+    // Replaces the hidden ids; publishes only if that changes what is shown
+    public void setHidden(Set<Long> ids) {
+        boolean changed = false;
+        for (Expense expense : window) {
+            if (hidden.contains(expense.id) != ids.contains(expense.id)) {
+                changed = true;
+                break;
+            }
+        }
+        hidden = ids.isEmpty() ? Collections.<Long>emptySet() : new HashSet<>(ids);
+        if (changed) {
+            publish();
+        }
+    }
+
+    // A whole change set, published as a single window change
+    public void apply(ExpenseChangeSet changes) {
+        boolean changed = false;
+        if (changes.cleared) {
+            // Loads in flight belong to the history that was just cleared
+            generation++;
+            loadingOlder = false;
+            loadingNewer = false;
+            changed = !window.isEmpty();
+            window.clear();
+            hasOlder = false;
+            hasNewer = false;
+        }
+        if (!changes.removed.isEmpty()) {
+            Set<Long> ids = changes.removedIds();
+            changed |= window.removeIf(expense -> ids.contains(expense.id));
+        }
+        for (Expense expense : changes.added) {
+            changed |= insertSorted(expense);
+        }
+        if (changed) {
+            publish();
+        }
+    }
+
+    public boolean isEmpty() {
+        return window.isEmpty() && !hasOlder && !hasNewer;
+    }
+
+    public boolean hasOlder() {
+        return hasOlder;
+    }
+
+    public boolean hasNewer() {
+        return hasNewer;
+    }
+
+    private boolean insertSorted(Expense expense) {
+        int index = Collections.binarySearch(window, expense, Expense::compareNewestFirst);
+        if (index >= 0) {
+            return false;
+        }
+        int insertAt = -index - 1;
+        boolean beforeWindow = insertAt == 0 && hasNewer;
+        boolean afterWindow = insertAt == window.size() && hasOlder;
+        if (beforeWindow || afterWindow) {
+            // Outside what is loaded; it appears when the user scrolls there
+            return false;
+        }
+        window.add(insertAt, expense);
+        return true;
+    }
+
+    private void loadOlder() {
+        loadingOlder = true;
+        int requestGeneration = generation;
+        Expense anchor = window.get(window.size() - 1);
+        background.execute(() -> {
+            List<Expense> page;
+            try {
+                page = repository.loadOlderThan(anchor, pageSize);
+            } catch (RuntimeException e) {
+                main.execute(() -> onLoadFailed(requestGeneration, true));
+                return;
+            }
+            main.execute(() -> {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loadingOlder = false;
+                // Rows may have been added or removed at the edge meanwhile; start over from the new one
+                if (window.isEmpty() || !window.get(window.size() - 1).equals(anchor)) {
+                    retryFromEdge(this::loadOlder);
+                    return;
+                }
+                hasOlder = page.size() == pageSize;
+                window.addAll(page);
+                int excess = window.size() - maxLoaded;
+                if (excess > 0) {
+                    // Release the newest rows, they are furthest from where the user is
+                    window.subList(0, excess).clear();
+                    hasNewer = true;
+                }
+                publish();
+            });
+        });
+    }
+
+    private void loadNewer() {
+        loadingNewer = true;
+        int requestGeneration = generation;
+        Expense anchor = window.get(0);
+        background.execute(() -> {
+            List<Expense> page;
+            try {
+                page = repository.loadNewerThan(anchor, pageSize);
+            } catch (RuntimeException e) {
+                main.execute(() -> onLoadFailed(requestGeneration, false));
+                return;
+            }
+            main.execute(() -> {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loadingNewer = false;
+                if (window.isEmpty() || !window.get(0).equals(anchor)) {
+                    retryFromEdge(this::loadNewer);
+                    return;
+                }
+                hasNewer = page.size() == pageSize;
+                window.addAll(0, page);
+                int excess = window.size() - maxLoaded;
+                if (excess > 0) {
+                    window.subList(window.size() - excess, window.size()).clear();
+                    hasOlder = true;
+                }
+                publish();
+            });
+        });
+    }
+
+    // The window stays as it was; clearing the flag lets the next scroll towards that edge load again
+    private void onLoadFailed(int requestGeneration, boolean older) {
+        if (requestGeneration != generation) {
+            return;
+        }
+        if (older) {
+            loadingOlder = false;
+        } else {
+            loadingNewer = false;
+        }
+        publish();
+    }
+
+    // Nothing left to anchor on means the edge is unknown, so start again from the newest page
+    private void retryFromEdge(Runnable load) {
+        if (window.isEmpty()) {
+            refresh();
+        } else {
+            load.run();
+        }
+    }
+
+    private void publish() {
+        ArrayList<Expense> shown;
+        if (hidden.isEmpty()) {
+            shown = new ArrayList<>(window);
+        } else {
+            shown = new ArrayList<>(window.size());
+            for (Expense expense : window) {
+                if (!hidden.contains(expense.id)) {
+                    shown.add(expense);
+                }
+            }
+        }
+        publishedCount = shown.size();
+        listener.onWindowChanged(Collections.unmodifiableList(shown));
+    }
+}
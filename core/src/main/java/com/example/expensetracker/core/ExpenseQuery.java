@@ -0,0 +1,161 @@
+package com.example.expensetracker.core;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * An immutable, composable expense filter: date range, category set, amount
+ * bounds, sort order and page size. Every with-method returns a new query,
+ * so a screen can keep a base filter and derive pages from it.
+ * Bounds are inclusive; an unset bound matches everything.
+ *
+ * Paging is keyset based: pass the last row of a page to {@link #after(Expense)}
+ * and the next page continues from it in the same order.
+ */
+public final class ExpenseQuery {
+
+    public static final int DEFAULT_LIMIT = 50;
+
+    public enum Order {
+        NEWEST_FIRST((a, b) -> a.compareNewestFirst(b)),
+        OLDEST_FIRST((a, b) -> b.compareNewestFirst(a)),
+        LARGEST_FIRST((a, b) -> a.amountCents != b.amountCents
+                ? Long.compare(b.amountCents, a.amountCents) : Long.compare(b.id, a.id)),
+        SMALLEST_FIRST((a, b) -> a.amountCents != b.amountCents
+                ? Long.compare(a.amountCents, b.amountCents) : Long.compare(a.id, b.id));
+
+        // List order, ties broken by id so keyset paging is stable
+        public final Comparator<Expense> comparator;
+
+        Order(Comparator<Expense> comparator) {
+            this.comparator = comparator;
+        }
+
+        public boolean byDate() {
+            return this == NEWEST_FIRST || this == OLDEST_FIRST;
+        }
+    }
+
+    private static final ExpenseQuery ALL = new ExpenseQuery(Integer.MIN_VALUE, Integer.MAX_VALUE,
+            Collections.emptySet(), Long.MIN_VALUE, Long.MAX_VALUE, Order.NEWEST_FIRST, null, DEFAULT_LIMIT);
+
+    public final int fromDay;
+    public final int toDay;
+    // Empty means any category
+    public final Set<String> categories;
+    public final long minCents;
+    public final long maxCents;
+    public final Order order;
+    // Last row of the previous page, or null for the first page
+    public final Expense after;
+    public final int limit;
+
+    private ExpenseQuery(int fromDay, int toDay, Set<String> categories, long minCents, long maxCents,
+                         Order order, Expense after, int limit) {
+        this.fromDay = fromDay;
+        this.toDay = toDay;
+        this.categories = categories;
+        this.minCents = minCents;
+        this.maxCents = maxCents;
+        this.order = order;
+        this.after = after;
+        this.limit = limit;
+    }
+
+    public static ExpenseQuery all() {
+        return ALL;
+    }
+
+    // Inclusive epoch days
+    public ExpenseQuery between(int fromDay, int toDay) {
+        return new ExpenseQuery(fromDay, toDay, categories, minCents, maxCents, order, after, limit);
+    }
+
+    // The calendar month containing epochDay
+    public ExpenseQuery inMonth(int epochDay) {
+        return between(EpochDays.firstDayOfMonth(epochDay), EpochDays.lastDayOfMonth(epochDay));
+    }
+
+    public ExpenseQuery inCategories(String... categories) {
+        // Canonical spelling, so matching rows compare equal; sorted, so equal filters produce
+        // identical SQL and share a compiled statement
+        Set<String> set = new TreeSet<>();
+        for (String category : categories) {
+            Category known = CategoryRegistry.shared().find(category);
+            set.add(known != null ? known.name : category);
+        }
+        set = Collections.unmodifiableSet(set);
+        return new ExpenseQuery(fromDay, toDay, set, minCents, maxCents, order, after, limit);
+    }
+
+    // Inclusive cents
+    public ExpenseQuery amountBetween(long minCents, long maxCents) {
+        return new ExpenseQuery(fromDay, toDay, categories, minCents, maxCents, order, after, limit);
+    }
+
+    public ExpenseQuery orderBy(Order order) {
+        return new ExpenseQuery(fromDay, toDay, categories, minCents, maxCents, order, null, limit);
+    }
+
+    public ExpenseQuery after(Expense anchor) {
+        return new ExpenseQuery(fromDay, toDay, categories, minCents, maxCents, order, anchor, limit);
+    }
+
+    public ExpenseQuery limit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+        return new ExpenseQuery(fromDay, toDay, categories, minCents, maxCents, order, after, limit);
+    }
+
+    public boolean hasDateBounds() {
+        return fromDay != Integer.MIN_VALUE || toDay != Integer.MAX_VALUE;
+    }
+
+    public boolean hasAmountBounds() {
+        return minCents != Long.MIN_VALUE || maxCents != Long.MAX_VALUE;
+    }
+
+    // Filters only; order, anchor and limit are applied by the repository
+    public boolean matches(Expense expense) {
+        return expense.epochDay >= fromDay && expense.epochDay <= toDay
+                && expense.amountCents >= minCents && expense.amountCents <= maxCents
+                && (categories.isEmpty() || categories.contains(expense.category));
+    }
+
+    /*
+     * Probes that sort just before the first and just after the last possible
+     * match in this query's order, so sorted indexes can be cut to a sub-range.
+     */
+    Expense firstProbe() {
+        switch (order) {
+            case NEWEST_FIRST:
+                return probe(Long.MAX_VALUE, 0, toDay);
+            case OLDEST_FIRST:
+                return probe(Long.MIN_VALUE, 0, fromDay);
+            case LARGEST_FIRST:
+                return probe(Long.MAX_VALUE, maxCents, 0);
+            default:
+                return probe(Long.MIN_VALUE, minCents, 0);
+        }
+    }
+
+    Expense lastProbe() {
+        switch (order) {
+            case NEWEST_FIRST:
+                return probe(Long.MIN_VALUE, 0, fromDay);
+            case OLDEST_FIRST:
+                return probe(Long.MAX_VALUE, 0, toDay);
+            case LARGEST_FIRST:
+                return probe(Long.MIN_VALUE, minCents, 0);
+            default:
+                return probe(Long.MAX_VALUE, maxCents, 0);
+        }
+    }
+
+    private static Expense probe(long id, long amountCents, int epochDay) {
+        return new Expense(id, "", amountCents, "", epochDay);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.expensetracker.core;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Storage abstraction for expenses.
+ * Implementations are blocking and must be called off the main thread.
+ */
+public interface ExpenseRepository {
+
+    // Inserts a single expense and returns it with its generated id
+    Expense insert(Expense expense);
+
+    // Inserts all expenses in one transaction and returns them with their ids
+    List<Expense> insertAll(List<Expense> expenses);
+
+    // Replaces the stored expense with the same id
+    void update(Expense expense);
+
+    void delete(long id);
+
+    void deleteAll();
+
+    // Deletes every listed expense in one transaction and returns how many existed
+    int deleteAll(Collection<Long> ids);
+
+    // Newest first (date, then id), limited to one page
+    List<Expense> loadRecent(int limit);
+
+    // Keyset paging: the next rows after the anchor in list order, newest first
+    List<Expense> loadOlderThan(Expense anchor, int limit);
+
+    // Keyset paging: the rows just before the anchor in list order, still newest first
+    List<Expense> loadNewerThan(Expense anchor, int limit);
+
+    // One page of rows matching the query, in its order, read through the index that fits it
+    List<Expense> find(ExpenseQuery query);
+
+    // Sum in cents over every row matching the query's filters; order, anchor and limit are ignored
+    long total(ExpenseQuery query);
+
+    List<Expense> findByCategory(String category, int limit);
+
+    // Inclusive yyyy-MM-dd bounds, newest first
+    List<Expense> findByDateRange(String fromDate, String toDate, int limit);
+
+    int count();
+
+    // Total in cents
+    long getTotal();
+
+    // Per-category, per-day and per-month running totals
+    ExpenseAggregates loadAggregates();
+}
@@ -0,0 +1,252 @@
+package com.example.expensetracker.core;
+
+import java.util.List;
+
+/**
+ * Table layout and SQL for the expense database.
+ * Plain strings with no Android types, so the benchmark module can run the
+ * exact same statements against a JVM SQLite driver.
+ */
+public final class ExpenseSchema {
+
+    public static final String TABLE_EXPENSES = "expenses";
+    public static final String COLUMN_ID = "_id";
+    public static final String COLUMN_DESCRIPTION = "description";
+    public static final String COLUMN_AMOUNT = "amount_cents";
+    // Category id, see CategoryRegistry; the outbox keeps the name instead
+    public static final String COLUMN_CATEGORY = "category";
+    // Days since 1970-01-01, see EpochDays
+    public static final String COLUMN_DATE = "date";
+
+    // User categories with the ids their expenses refer to; built-ins are seeded with fixed ids
+    public static final String TABLE_CATEGORIES = "categories";
+    public static final String COLUMN_NAME = "name";
+    public static final String COLUMN_ICON = "icon";
+    public static final String COLUMN_COLOR = "color";
+
+    // Persisted running totals, one row per (bucket type, bucket key)
+    public static final String TABLE_TOTALS = "expense_totals";
+    public static final String COLUMN_BUCKET_TYPE = "bucket_type";
+    public static final String COLUMN_BUCKET_KEY = "bucket_key";
+    public static final String COLUMN_TOTAL = "total_cents";
+    public static final String COLUMN_COUNT = "expense_count";
+
+    // Local mutations waiting to be pushed to the server, in write order
+    public static final String TABLE_OUTBOX = "sync_outbox";
+    public static final String COLUMN_SEQUENCE = "seq";
+    public static final String COLUMN_OP = "op";
+    public static final String COLUMN_EXPENSE_ID = "expense_id";
+
+    // Single-row table holding the delta sync position; the database is already per user
+    public static final String TABLE_SYNC_CURSOR = "sync_cursor";
+    public static final String COLUMN_CURSOR_UPDATED_AT = "updated_at";
+    public static final String COLUMN_CURSOR_KEY = "child_key";
+
+    // Single-row count of committed writes, bumped in each write's transaction; see ExpenseChangeSet
+    public static final String TABLE_CHANGE_SEQUENCE = "change_sequence";
+
+    public static final String[] PROJECTION = {
+            COLUMN_ID, COLUMN_DESCRIPTION, COLUMN_AMOUNT, COLUMN_CATEGORY, COLUMN_DATE
+    };
+
+    public static final String ORDER_NEWEST_FIRST = COLUMN_DATE + " DESC, " + COLUMN_ID + " DESC";
+    public static final String ORDER_OLDEST_FIRST = COLUMN_DATE + " ASC, " + COLUMN_ID + " ASC";
+    public static final String ORDER_LARGEST_FIRST = COLUMN_AMOUNT + " DESC, " + COLUMN_ID + " DESC";
+    public static final String ORDER_SMALLEST_FIRST = COLUMN_AMOUNT + " ASC, " + COLUMN_ID + " ASC";
+
+    // Keyset conditions against the (date, _id) index; args are date, date, id.
+    // Written without row values, which need SQLite 3.15 (API 24 ships 3.9)
+    public static final String WHERE_OLDER_THAN = COLUMN_DATE + " <= ? AND ("
+            + COLUMN_DATE + " < ? OR " + COLUMN_ID + " < ?)";
+    public static final String WHERE_NEWER_THAN = COLUMN_DATE + " >= ? AND ("
+            + COLUMN_DATE + " > ? OR " + COLUMN_ID + " > ?)";
+    // The same against the (amount_cents, _id) index; args are cents, cents, id
+    public static final String WHERE_SMALLER_THAN = COLUMN_AMOUNT + " <= ? AND ("
+            + COLUMN_AMOUNT + " < ? OR " + COLUMN_ID + " < ?)";
+    public static final String WHERE_LARGER_THAN = COLUMN_AMOUNT + " >= ? AND ("
+            + COLUMN_AMOUNT + " > ? OR " + COLUMN_ID + " > ?)";
+
+    public static final String CREATE_EXPENSES_TABLE = "CREATE TABLE " + TABLE_EXPENSES + " ("
+            + COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + COLUMN_DESCRIPTION + " TEXT NOT NULL, "
+            + COLUMN_AMOUNT + " INTEGER NOT NULL, "
+            + COLUMN_CATEGORY + " INTEGER NOT NULL, "
+            + COLUMN_DATE + " INTEGER NOT NULL)";
+
+    // A null icon or color falls back to the registry's defaults
+    public static final String CREATE_CATEGORIES_TABLE = "CREATE TABLE " + TABLE_CATEGORIES + " ("
+            + COLUMN_ID + " INTEGER PRIMARY KEY, "
+            + COLUMN_NAME + " TEXT NOT NULL UNIQUE COLLATE NOCASE, "
+            + COLUMN_ICON + " TEXT, "
+            + COLUMN_COLOR + " INTEGER)";
+
+    public static final String SQL_ENSURE_CATEGORY = "INSERT OR IGNORE INTO " + TABLE_CATEGORIES + " ("
+            + COLUMN_ID + ", " + COLUMN_NAME + ", " + COLUMN_ICON + ", " + COLUMN_COLOR + ") VALUES (?, ?, ?, ?)";
+
+    // Indexes match the list order (date, id), the category filter and the amount sort
+    public static final String CREATE_DATE_INDEX = "CREATE INDEX idx_expenses_date ON " + TABLE_EXPENSES
+            + " (" + COLUMN_DATE + ", " + COLUMN_ID + ")";
+    public static final String CREATE_CATEGORY_INDEX = "CREATE INDEX idx_expenses_category ON " + TABLE_EXPENSES
+            + " (" + COLUMN_CATEGORY + ", " + COLUMN_DATE + ")";
+    public static final String CREATE_AMOUNT_INDEX = "CREATE INDEX idx_expenses_amount ON " + TABLE_EXPENSES
+            + " (" + COLUMN_AMOUNT + ", " + COLUMN_ID + ")";
+
+    public static final String CREATE_TOTALS_TABLE = "CREATE TABLE " + TABLE_TOTALS + " ("
+            + COLUMN_BUCKET_TYPE + " TEXT NOT NULL, "
+            + COLUMN_BUCKET_KEY + " TEXT NOT NULL, "
+            + COLUMN_TOTAL + " INTEGER NOT NULL, "
+            + COLUMN_COUNT + " INTEGER NOT NULL, "
+            + "PRIMARY KEY (" + COLUMN_BUCKET_TYPE + ", " + COLUMN_BUCKET_KEY + ")) WITHOUT ROWID";
+
+    // Ids come from ExpenseIds so they are unique across devices
+    public static final String SQL_INSERT = "INSERT INTO " + TABLE_EXPENSES + " ("
+            + COLUMN_ID + ", " + COLUMN_DESCRIPTION + ", " + COLUMN_AMOUNT + ", " + COLUMN_CATEGORY + ", " + COLUMN_DATE
+            + ") VALUES (?, ?, ?, ?, ?)";
+
+    public static final String SQL_DELETE = "DELETE FROM " + TABLE_EXPENSES + " WHERE " + COLUMN_ID + " = ?";
+
+    public static final String SQL_UPDATE = "UPDATE " + TABLE_EXPENSES + " SET "
+            + COLUMN_DESCRIPTION + " = ?, " + COLUMN_AMOUNT + " = ?, " + COLUMN_CATEGORY + " = ?, "
+            + COLUMN_DATE + " = ? WHERE " + COLUMN_ID + " = ?";
+
+    public static final String SQL_ENSURE_BUCKET = "INSERT OR IGNORE INTO " + TABLE_TOTALS + " ("
+            + COLUMN_BUCKET_TYPE + ", " + COLUMN_BUCKET_KEY + ", " + COLUMN_TOTAL + ", " + COLUMN_COUNT
+            + ") VALUES (?, ?, 0, 0)";
+
+    public static final String SQL_APPLY_BUCKET = "UPDATE " + TABLE_TOTALS + " SET "
+            + COLUMN_TOTAL + " = " + COLUMN_TOTAL + " + ?, " + COLUMN_COUNT + " = " + COLUMN_COUNT + " + ? WHERE "
+            + COLUMN_BUCKET_TYPE + " = ? AND " + COLUMN_BUCKET_KEY + " = ?";
+
+    public static final String SQL_DROP_EMPTY_BUCKETS = "DELETE FROM " + TABLE_TOTALS
+            + " WHERE " + COLUMN_COUNT + " <= 0";
+
+    public static final String CREATE_OUTBOX_TABLE = "CREATE TABLE " + TABLE_OUTBOX + " ("
+            + COLUMN_SEQUENCE + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + COLUMN_OP + " INTEGER NOT NULL, "
+            + COLUMN_EXPENSE_ID + " INTEGER NOT NULL, "
+            + COLUMN_DESCRIPTION + " TEXT, "
+            + COLUMN_AMOUNT + " INTEGER, "
+            + COLUMN_CATEGORY + " TEXT, "
+            + COLUMN_DATE + " INTEGER)";
+
+    public static final String[] OUTBOX_PROJECTION = {
+            COLUMN_SEQUENCE, COLUMN_OP, COLUMN_EXPENSE_ID, COLUMN_DESCRIPTION, COLUMN_AMOUNT, COLUMN_CATEGORY, COLUMN_DATE
+    };
+
+    public static final String SQL_OUTBOX_APPEND = "INSERT INTO " + TABLE_OUTBOX + " ("
+            + COLUMN_OP + ", " + COLUMN_EXPENSE_ID + ", " + COLUMN_DESCRIPTION + ", " + COLUMN_AMOUNT + ", "
+            + COLUMN_CATEGORY + ", " + COLUMN_DATE + ") VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Queues a delete for every row, run just before clearing the expenses table
+    public static final String SQL_OUTBOX_DELETE_ALL = "INSERT INTO " + TABLE_OUTBOX + " ("
+            + COLUMN_OP + ", " + COLUMN_EXPENSE_ID + ") SELECT " + OutboxEntry.OP_DELETE + ", " + COLUMN_ID
+            + " FROM " + TABLE_EXPENSES;
+
+    public static final String CREATE_SYNC_CURSOR_TABLE = "CREATE TABLE " + TABLE_SYNC_CURSOR + " ("
+            + COLUMN_ID + " INTEGER PRIMARY KEY CHECK (" + COLUMN_ID + " = 0), "
+            + COLUMN_CURSOR_UPDATED_AT + " INTEGER NOT NULL, "
+            + COLUMN_CURSOR_KEY + " TEXT)";
+
+    public static final String SQL_SAVE_SYNC_CURSOR = "INSERT OR REPLACE INTO " + TABLE_SYNC_CURSOR + " ("
+            + COLUMN_ID + ", " + COLUMN_CURSOR_UPDATED_AT + ", " + COLUMN_CURSOR_KEY + ") VALUES (0, ?, ?)";
+
+    public static final String CREATE_CHANGE_SEQUENCE_TABLE = "CREATE TABLE " + TABLE_CHANGE_SEQUENCE + " ("
+            + COLUMN_ID + " INTEGER PRIMARY KEY CHECK (" + COLUMN_ID + " = 0), "
+            + COLUMN_SEQUENCE + " INTEGER NOT NULL)";
+
+    public static final String SQL_SEED_CHANGE_SEQUENCE = "INSERT INTO " + TABLE_CHANGE_SEQUENCE + " ("
+            + COLUMN_ID + ", " + COLUMN_SEQUENCE + ") VALUES (0, 0)";
+
+    public static final String SQL_NEXT_CHANGE_SEQUENCE = "UPDATE " + TABLE_CHANGE_SEQUENCE + " SET "
+            + COLUMN_SEQUENCE + " = " + COLUMN_SEQUENCE + " + 1";
+
+    public static final String SQL_CHANGE_SEQUENCE = "SELECT " + COLUMN_SEQUENCE + " FROM " + TABLE_CHANGE_SEQUENCE;
+
+    // Remote changes must not clobber local writes that have not been pushed yet
+    public static final String SQL_HAS_PENDING_OUTBOX = "SELECT EXISTS (SELECT 1 FROM " + TABLE_OUTBOX
+            + " WHERE " + COLUMN_EXPENSE_ID + " = ?)";
+
+    public static final String CREATE_OUTBOX_EXPENSE_INDEX = "CREATE INDEX idx_outbox_expense ON " + TABLE_OUTBOX
+            + " (" + COLUMN_EXPENSE_ID + ")";
+
+    private ExpenseSchema() {
+    }
+
+    public static String orderBy(ExpenseQuery.Order order) {
+        switch (order) {
+            case NEWEST_FIRST:
+                return ORDER_NEWEST_FIRST;
+            case OLDEST_FIRST:
+                return ORDER_OLDEST_FIRST;
+            case LARGEST_FIRST:
+                return ORDER_LARGEST_FIRST;
+            default:
+                return ORDER_SMALLEST_FIRST;
+        }
+    }
+
+    /**
+     * WHERE clause for a query, with its arguments appended to args in order.
+     * Returns null when the query has no filters. Only the bounds that are set
+     * become conditions, so SQLite can range-scan the matching index.
+     */
+    public static String where(ExpenseQuery query, List<String> args) {
+        StringBuilder where = new StringBuilder();
+        if (query.fromDay != Integer.MIN_VALUE) {
+            and(where, COLUMN_DATE + " >= ?");
+            args.add(String.valueOf(query.fromDay));
+        }
+        if (query.toDay != Integer.MAX_VALUE) {
+            and(where, COLUMN_DATE + " <= ?");
+            args.add(String.valueOf(query.toDay));
+        }
+        if (!query.categories.isEmpty()) {
+            // Rows store ids; a name no category has can't match, which -1 expresses
+            StringBuilder in = new StringBuilder(COLUMN_CATEGORY).append(" IN (");
+            CategoryRegistry registry = CategoryRegistry.shared();
+            for (String category : query.categories) {
+                Category known = registry.find(category);
+                in.append(in.charAt(in.length() - 1) == '(' ? "?" : ", ?");
+                args.add(String.valueOf(known != null ? known.id : -1));
+            }
+            and(where, in.append(')').toString());
+        }
+        if (query.minCents != Long.MIN_VALUE) {
+            and(where, COLUMN_AMOUNT + " >= ?");
+            args.add(String.valueOf(query.minCents));
+        }
+        if (query.maxCents != Long.MAX_VALUE) {
+            and(where, COLUMN_AMOUNT + " <= ?");
+            args.add(String.valueOf(query.maxCents));
+        }
+        if (query.after != null) {
+            and(where, keysetCondition(query.order));
+            String key = String.valueOf(query.order.byDate() ? query.after.epochDay : query.after.amountCents);
+            args.add(key);
+            args.add(key);
+            args.add(String.valueOf(query.after.id));
+        }
+        return where.length() > 0 ? where.toString() : null;
+    }
+
+    // Rows after the anchor in the given order
+    private static String keysetCondition(ExpenseQuery.Order order) {
+        switch (order) {
+            case NEWEST_FIRST:
+                return WHERE_OLDER_THAN;
+            case OLDEST_FIRST:
+                return WHERE_NEWER_THAN;
+            case LARGEST_FIRST:
+                return WHERE_SMALLER_THAN;
+            default:
+                return WHERE_LARGER_THAN;
+        }
+    }
+
+    private static void and(StringBuilder where, String condition) {
+        if (where.length() > 0) {
+            where.append(" AND ");
+        }
+        where.append('(').append(condition).append(')');
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.expensetracker.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index over expense descriptions and categories.
+ * Text is split into lowercase letter/digit tokens. Every query token matches
+ * as a prefix, so results update while the user is still typing. All tokens
+ * must match (AND).
+ *
+ * Each indexed expense gets an ordinal; postings are ordinal lists per term
+ * and a query is a few BitSet unions and intersections. Removing an expense
+ * only clears its live bit; the postings are compacted once dead entries
+ * outnumber live ones. Methods are synchronized so the index can be updated
+ * from the change stream, through LiveSearchIndex, and searched from another
+ * thread.
+ */
+public class ExpenseSearchIndex {
+
+    // Term -> ordinals of expenses containing it, in insertion order
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private Expense[] docs = new Expense[1024];
+    private int nextOrdinal;
+
+    /**
+     * Indexes the whole history by keyset pages of batchSize, so no single
+     * query holds more than one page in memory. Blocking, call off the main thread.
+     */
+    public static ExpenseSearchIndex build(ExpenseRepository repository, int batchSize) {
+        ExpenseSearchIndex index = new ExpenseSearchIndex();
+        List<Expense> page = repository.loadRecent(batchSize);
+        while (!page.isEmpty()) {
+            index.addAll(page);
+            if (page.size() < batchSize) {
+                break;
+            }
+            page = repository.loadOlderThan(page.get(page.size() - 1), batchSize);
+        }
+        return index;
+    }
+
+    public synchronized void add(Expense expense) {
+        remove(expense.id);
+        int ordinal = nextOrdinal++;
+        if (ordinal == docs.length) {
+            docs = Arrays.copyOf(docs, ordinal * 2);
+        }
+        docs[ordinal] = expense;
+        live.set(ordinal);
+        ordinalById.put(expense.id, ordinal);
+
+        List<String> tokens = new ArrayList<>();
+        tokenize(expense.description, tokens);
+        tokenize(expense.category, tokens);
+        for (String token : tokens) {
+            Postings postings = terms.get(token);
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(token, postings);
+            }
+            postings.add(ordinal);
+        }
+    }
+
+    public synchronized void addAll(List<Expense> expenses) {
+        for (Expense expense : expenses) {
+            add(expense);
+        }
+    }
+
+    public synchronized void remove(long id) {
+        Integer ordinal = ordinalById.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        live.clear(ordinal);
+        docs[ordinal] = null;
+        if (nextOrdinal - ordinalById.size() > Math.max(1024, ordinalById.size())) {
+            compact();
+        }
+    }
+
+    public synchronized void clear() {
+        terms.clear();
+        ordinalById.clear();
+        live.clear();
+        docs = new Expense[1024];
+        nextOrdinal = 0;
+    }
+
+    public synchronized int size() {
+        return ordinalById.size();
+    }
+
+    /**
+     * Expenses matching every token of the query as a prefix, newest first.
+     * A blank query matches nothing.
+     */
+    public synchronized List<Expense> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(query, tokens);
+        if (tokens.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        BitSet matches = null;
+        for (String token : tokens) {
+            BitSet tokenMatches = matchPrefix(token);
+            if (matches == null) {
+                matches = tokenMatches;
+            } else {
+                matches.and(tokenMatches);
+            }
+            if (matches.isEmpty()) {
+                return new ArrayList<>();
+            }
+        }
+        matches.and(live);
+
+        // Keep only the newest `limit` matches; the heap's head is the oldest kept
+        PriorityQueue<Expense> newest = new PriorityQueue<>(limit + 1, (a, b) -> b.compareNewestFirst(a));
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+            Expense expense = docs[ordinal];
+            if (newest.size() < limit) {
+                newest.add(expense);
+            } else if (expense.compareNewestFirst(newest.peek()) < 0) {
+                newest.poll();
+                newest.add(expense);
+            }
+        }
+        List<Expense> results = new ArrayList<>(newest);
+        Collections.sort(results, Expense::compareNewestFirst);
+        return results;
+    }
+
+    private BitSet matchPrefix(String prefix) {
+        BitSet bits = new BitSet(nextOrdinal);
+        // Every term starting with prefix sorts in [prefix, prefix + MAX_VALUE)
+        for (Postings postings : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            postings.setBits(bits);
+        }
+        return bits;
+    }
+
+    // Rebuilds postings without the removed expenses
+    private void compact() {
+        List<Expense> remaining = new ArrayList<>(ordinalById.size());
+        for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal = live.nextSetBit(ordinal + 1)) {
+            remaining.add(docs[ordinal]);
+        }
+        clear();
+        for (Expense expense : remaining) {
+            add(expense);
+        }
+    }
+
+    // Lowercase runs of letters and digits, each distinct token added once
+    static void tokenize(String text, List<String> out) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!out.contains(token)) {
+                    out.add(token);
+                }
+                start = -1;
+            }
+        }
+    }
+
+    // Growable int list; ordinals are appended in increasing order
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size > 0 && ordinals[size - 1] == ordinal) {
+                return;
+            }
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        void setBits(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(ordinals[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.expensetracker.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What the main screen shows, in a compact binary form: the paged window,
+ * whether more history lies on either side of it, and the running totals.
+ * Written when the screen is torn down and read back when it is recreated,
+ * so the list and total are on screen in the first frame without a query.
+ *
+ * The stamp identifies one save; a recreated screen only trusts a snapshot
+ * whose stamp matches the one it saved in its instance state. Rows refer to
+ * categories by id, so the user categories travel along and are registered
+ * before the rows are read. The totals keep the storage write sequence they
+ * were brought up to, so a restored screen can tell whether storage moved on
+ * while nothing was listening.
+ */
+public final class ExpenseSnapshot {
+
+    private static final int MAGIC = 0x45585353; // "EXSS"
+    private static final int VERSION = 3;
+
+    // Bucket types as single bytes instead of repeated strings
+    private static final String[] BUCKET_TYPES = {
+            ExpenseAggregates.BUCKET_ALL, ExpenseAggregates.BUCKET_CATEGORY,
+            ExpenseAggregates.BUCKET_DAY, ExpenseAggregates.BUCKET_MONTH};
+
+    public final long stamp;
+    public final List<Expense> window;
+    public final boolean hasOlder;
+    public final boolean hasNewer;
+    public final ExpenseAggregates aggregates;
+
+    public ExpenseSnapshot(long stamp, List<Expense> window, boolean hasOlder, boolean hasNewer,
+                           ExpenseAggregates aggregates) {
+        this.stamp = stamp;
+        this.window = Collections.unmodifiableList(new ArrayList<>(window));
+        this.hasOlder = hasOlder;
+        this.hasNewer = hasNewer;
+        this.aggregates = aggregates;
+    }
+
+    public void writeTo(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(stamp);
+        out.writeBoolean(hasOlder);
+        out.writeBoolean(hasNewer);
+
+        List<Category> userCategories = CategoryRegistry.shared().userCategories();
+        out.writeInt(userCategories.size());
+        for (Category category : userCategories) {
+            out.writeInt(category.id);
+            out.writeUTF(category.name);
+            out.writeUTF(category.icon);
+            out.writeInt(category.color);
+        }
+
+        out.writeInt(window.size());
+        for (Expense expense : window) {
+            out.writeLong(expense.id);
+            out.writeInt(expense.epochDay);
+            out.writeLong(expense.amountCents);
+            out.writeInt(expense.categoryId);
+            out.writeUTF(expense.description);
+        }
+
+        out.writeLong(aggregates.getSequence());
+        out.writeInt(aggregates.bucketCount());
+        try {
+            aggregates.forEachBucket((type, key, total, count) -> {
+                try {
+                    out.writeByte(bucketTypeCode(type));
+                    out.writeUTF(key);
+                    out.writeLong(total);
+                    out.writeInt(count);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    // Throws IOException for anything that isn't a complete snapshot of this version
+    public static ExpenseSnapshot readFrom(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("Not an expense snapshot");
+        }
+        long stamp = in.readLong();
+        boolean hasOlder = in.readBoolean();
+        boolean hasNewer = in.readBoolean();
+
+        CategoryRegistry registry = CategoryRegistry.shared();
+        int categories = in.readInt();
+        for (int i = 0; i < categories; i++) {
+            if (!registry.register(in.readInt(), in.readUTF(), in.readUTF(), in.readInt())) {
+                // Ids mean something else now, e.g. another account's categories are loaded
+                throw new IOException("Snapshot categories don't match the registry");
+            }
+        }
+
+        int rows = in.readInt();
+        List<Expense> window = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            long id = in.readLong();
+            int epochDay = in.readInt();
+            long amountCents = in.readLong();
+            int categoryId = in.readInt();
+            String description = in.readUTF();
+            window.add(new Expense(id, description, amountCents, categoryId, epochDay));
+        }
+
+        ExpenseAggregates aggregates = new ExpenseAggregates();
+        aggregates.setSequence(in.readLong());
+        int buckets = in.readInt();
+        for (int i = 0; i < buckets; i++) {
+            int code = in.readUnsignedByte();
+            if (code >= BUCKET_TYPES.length) {
+                throw new IOException("Unknown bucket type " + code);
+            }
+            aggregates.put(BUCKET_TYPES[code], in.readUTF(), in.readLong(), in.readInt());
+        }
+        return new ExpenseSnapshot(stamp, window, hasOlder, hasNewer, aggregates);
+    }
+
+    private static int bucketTypeCode(String bucketType) {
+        for (int i = 0; i < BUCKET_TYPES.length; i++) {
+            if (BUCKET_TYPES[i].equals(bucketType)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown bucket type: " + bucketType);
+    }
+}
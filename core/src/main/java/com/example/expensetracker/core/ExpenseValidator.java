@@ -0,0 +1,89 @@
+package com.example.expensetracker.core;
+
+/**
+ * Validation rules for a new expense, shared by the add screen and any other
+ * entry point so every path enforces the same limits.
+ */
+public final class ExpenseValidator {
+
+    public static final int MAX_DESCRIPTION_LENGTH = 50;
+
+    public enum Field {
+        DESCRIPTION,
+        AMOUNT,
+        DATE
+    }
+
+    public static final class Result {
+        // The offending field, or null when the input is valid
+        public final Field field;
+        public final String message;
+        // Parsed amount and date, only meaningful when valid
+        public final long amountCents;
+        public final int epochDay;
+
+        private Result(Field field, String message, long amountCents, int epochDay) {
+            this.field = field;
+            this.message = message;
+            this.amountCents = amountCents;
+            this.epochDay = epochDay;
+        }
+
+        public boolean isValid() {
+            return field == null;
+        }
+    }
+
+    private static final Result EMPTY_DESCRIPTION = error(Field.DESCRIPTION, "Please enter a description");
+    private static final Result DESCRIPTION_TOO_LONG = error(Field.DESCRIPTION,
+            "Description too long (max " + MAX_DESCRIPTION_LENGTH + " characters)");
+    private static final Result EMPTY_AMOUNT = error(Field.AMOUNT, "Please enter an amount");
+    private static final Result INVALID_AMOUNT = error(Field.AMOUNT, "Please enter a valid amount");
+    private static final Result AMOUNT_NOT_POSITIVE = error(Field.AMOUNT, "Amount must be greater than zero");
+    private static final Result AMOUNT_TOO_LARGE = error(Field.AMOUNT, "Amount is too large");
+    private static final Result EMPTY_DATE = error(Field.DATE, "Please select a date");
+    private static final Result INVALID_DATE = error(Field.DATE, "Please enter a date as yyyy-MM-dd");
+
+    private ExpenseValidator() {
+    }
+
+    // Expects already trimmed input
+    public static Result validate(String description, String amountText, String date) {
+        if (description.isEmpty()) {
+            return EMPTY_DESCRIPTION;
+        }
+        if (description.length() > MAX_DESCRIPTION_LENGTH) {
+            return DESCRIPTION_TOO_LONG;
+        }
+
+        if (amountText.isEmpty()) {
+            return EMPTY_AMOUNT;
+        }
+        // Parsed straight to exact cents, no floating point involved
+        long amountCents = Money.parseCents(amountText);
+        if (amountCents == Money.INVALID) {
+            return INVALID_AMOUNT;
+        }
+        if (amountCents <= 0) {
+            return AMOUNT_NOT_POSITIVE;
+        }
+        if (amountCents > Money.MAX_EXPENSE_CENTS) {
+            return AMOUNT_TOO_LARGE;
+        }
+
+        if (date.isEmpty()) {
+            return EMPTY_DATE;
+        }
+        int epochDay;
+        try {
+            epochDay = EpochDays.parseIso(date);
+        } catch (IllegalArgumentException e) {
+            return INVALID_DATE;
+        }
+        return new Result(null, null, amountCents, epochDay);
+    }
+
+    private static Result error(Field field, String message) {
+        return new Result(field, message, 0, 0);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.expensetracker.core;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rendering counters for a screen: frame durations, row binds and
+ * inflations, and main-thread stalls. Frames, binds and stalls are reported
+ * from different threads, so every counter is atomic; recording never
+ * allocates or locks. Frame times are kept in 1 ms buckets for percentiles.
+ */
+public final class FrameStats {
+
+    // One frame at 60 Hz; anything longer missed a vsync
+    public static final long FRAME_BUDGET_NANOS = 16_666_667L;
+    // Android vitals counts a frame this slow as frozen
+    public static final long FROZEN_FRAME_NANOS = 700_000_000L;
+    // A bind this slow takes a noticeable share of the frame budget
+    public static final long SLOW_BIND_NANOS = 4_000_000L;
+
+    // Frames of this many ms or more share the last bucket
+    private static final int MAX_FRAME_MILLIS = 128;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final AtomicIntegerArray frameMillis = new AtomicIntegerArray(MAX_FRAME_MILLIS + 1);
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong jankyFrames = new AtomicLong();
+    private final AtomicLong frozenFrames = new AtomicLong();
+    private final AtomicLong frameNanos = new AtomicLong();
+
+    private final AtomicLong binds = new AtomicLong();
+    private final AtomicLong slowBinds = new AtomicLong();
+    private final AtomicLong bindNanos = new AtomicLong();
+    private final AtomicLong maxBindNanos = new AtomicLong();
+
+    private final AtomicLong inflations = new AtomicLong();
+    private final AtomicLong inflationNanos = new AtomicLong();
+
+    private final AtomicLong stalls = new AtomicLong();
+    private final AtomicLong maxStallNanos = new AtomicLong();
+
+    public void recordFrame(long durationNanos) {
+        frames.incrementAndGet();
+        frameNanos.addAndGet(durationNanos);
+        if (durationNanos > FRAME_BUDGET_NANOS) {
+            jankyFrames.incrementAndGet();
+        }
+        if (durationNanos >= FROZEN_FRAME_NANOS) {
+            frozenFrames.incrementAndGet();
+        }
+        frameMillis.incrementAndGet((int) Math.min(MAX_FRAME_MILLIS, Math.max(0, durationNanos / NANOS_PER_MILLI)));
+    }
+
+    public void recordBind(long durationNanos) {
+        binds.incrementAndGet();
+        bindNanos.addAndGet(durationNanos);
+        if (durationNanos >= SLOW_BIND_NANOS) {
+            slowBinds.incrementAndGet();
+        }
+        updateMax(maxBindNanos, durationNanos);
+    }
+
+    public void recordInflation(long durationNanos) {
+        inflations.incrementAndGet();
+        inflationNanos.addAndGet(durationNanos);
+    }
+
+    // The main thread was unresponsive for this long
+    public void recordStall(long durationNanos) {
+        stalls.incrementAndGet();
+        updateMax(maxStallNanos, durationNanos);
+    }
+
+    public long frames() {
+        return frames.get();
+    }
+
+    public long jankyFrames() {
+        return jankyFrames.get();
+    }
+
+    public long frozenFrames() {
+        return frozenFrames.get();
+    }
+
+    public long binds() {
+        return binds.get();
+    }
+
+    public long slowBinds() {
+        return slowBinds.get();
+    }
+
+    public long maxBindNanos() {
+        return maxBindNanos.get();
+    }
+
+    public long inflations() {
+        return inflations.get();
+    }
+
+    public long stalls() {
+        return stalls.get();
+    }
+
+    public long maxStallNanos() {
+        return maxStallNanos.get();
+    }
+
+    /**
+     * Frame duration in whole ms at the given percentile (0-100), 0 with no
+     * frames. Frames of 128 ms or more report as 128.
+     */
+    public int frameMillisAt(double percentile) {
+        long total = frames.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int millis = 0; millis <= MAX_FRAME_MILLIS; millis++) {
+            seen += frameMillis.get(millis);
+            if (seen >= rank) {
+                return millis;
+            }
+        }
+        return MAX_FRAME_MILLIS;
+    }
+
+    public void reset() {
+        for (int i = 0; i <= MAX_FRAME_MILLIS; i++) {
+            frameMillis.set(i, 0);
+        }
+        for (AtomicLong counter : new AtomicLong[]{frames, jankyFrames, frozenFrames, frameNanos, binds, slowBinds,
+                bindNanos, maxBindNanos, inflations, inflationNanos, stalls, maxStallNanos}) {
+            counter.set(0);
+        }
+    }
+
+    // Two short lines for the debug overlay
+    public String summary() {
+        return String.format(Locale.ROOT, "frames %d  jank %d (%.1f%%)  p50 %dms  p99 %dms\n"
+                        + "binds %d  slow %d  inflated %d  stalls %d",
+                frames(), jankyFrames(), percentOf(jankyFrames(), frames()), frameMillisAt(50), frameMillisAt(99),
+                binds(), slowBinds(), inflations(), stalls());
+    }
+
+    // Multi-line report for dumpsys and bug reports
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "Frames: %d, janky %d (%.1f%%), frozen %d, mean %.2f ms\n",
+                frames(), jankyFrames(), percentOf(jankyFrames(), frames()), frozenFrames(),
+                meanMillis(frameNanos.get(), frames())));
+        report.append(String.format(Locale.ROOT, "Frame time: p50 %d ms, p90 %d ms, p95 %d ms, p99 %d ms\n",
+                frameMillisAt(50), frameMillisAt(90), frameMillisAt(95), frameMillisAt(99)));
+        report.append(String.format(Locale.ROOT, "Binds: %d, slow %d, mean %.3f ms, max %.3f ms\n",
+                binds(), slowBinds(), meanMillis(bindNanos.get(), binds()), maxBindNanos() / 1e6));
+        report.append(String.format(Locale.ROOT, "Inflations: %d, mean %.3f ms\n",
+                inflations(), meanMillis(inflationNanos.get(), inflations())));
+        report.append(String.format(Locale.ROOT, "Main-thread stalls: %d, longest %d ms\n",
+                stalls(), maxStallNanos() / NANOS_PER_MILLI));
+        return report.toString();
+    }
+
+    private static double percentOf(long part, long whole) {
+        return whole == 0 ? 0 : 100.0 * part / whole;
+    }
+
+    private static double meanMillis(long totalNanos, long count) {
+        return count == 0 ? 0 : totalNanos / 1e6 / count;
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+}
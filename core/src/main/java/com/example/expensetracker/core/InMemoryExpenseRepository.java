@@ -0,0 +1,256 @@
+package com.example.expensetracker.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * {@link ExpenseRepository} backed by ordered in-memory indexes.
+ * Used by JVM tests, benchmarks and worker code that needs the same query
+ * semantics as the SQLite store without a device.
+ */
+public class InMemoryExpenseRepository implements ExpenseRepository, SyncTarget {
+
+    private static final Comparator<Expense> NEWEST_FIRST = Expense::compareNewestFirst;
+
+    private final NavigableSet<Expense> byDate = new TreeSet<>(NEWEST_FIRST);
+    private final NavigableSet<Expense> byAmount = new TreeSet<>(ExpenseQuery.Order.LARGEST_FIRST.comparator);
+    private final Map<String, NavigableSet<Expense>> byCategory = new HashMap<>();
+    private final Map<Long, Expense> byId = new HashMap<>();
+    private final ExpenseAggregates aggregates = new ExpenseAggregates();
+    private long nextId = 1;
+    private SyncCursor cursor = SyncCursor.START;
+
+    @Override
+    public synchronized Expense insert(Expense expense) {
+        Expense saved = expense.withId(nextId++);
+        index(saved);
+        return saved;
+    }
+
+    @Override
+    public synchronized List<Expense> insertAll(List<Expense> expenses) {
+        List<Expense> inserted = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            inserted.add(insert(expense));
+        }
+        return inserted;
+    }
+
+    @Override
+    public synchronized void update(Expense expense) {
+        Expense previous = byId.get(expense.id);
+        if (previous == null) {
+            return;
+        }
+        unindex(previous);
+        index(expense);
+    }
+
+    @Override
+    public synchronized void delete(long id) {
+        Expense previous = byId.get(id);
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+
+    @Override
+    public synchronized void deleteAll() {
+        byDate.clear();
+        byAmount.clear();
+        byCategory.clear();
+        byId.clear();
+        aggregates.clear();
+    }
+
+    @Override
+    public synchronized int deleteAll(Collection<Long> ids) {
+        int deleted = 0;
+        for (long id : ids) {
+            Expense previous = byId.get(id);
+            if (previous != null) {
+                unindex(previous);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public synchronized List<Expense> loadRecent(int limit) {
+        return firstPage(byDate, limit);
+    }
+
+    @Override
+    public synchronized List<Expense> loadOlderThan(Expense anchor, int limit) {
+        return firstPage(byDate.tailSet(anchor, false), limit);
+    }
+
+    @Override
+    public synchronized List<Expense> loadNewerThan(Expense anchor, int limit) {
+        List<Expense> page = firstPage(byDate.headSet(anchor, false).descendingSet(), limit);
+        Collections.reverse(page);
+        return page;
+    }
+
+    @Override
+    public synchronized List<Expense> find(ExpenseQuery query) {
+        List<Expense> page = new ArrayList<>();
+        for (Expense expense : scan(query)) {
+            if (page.size() == query.limit) {
+                break;
+            }
+            if (query.matches(expense)) {
+                page.add(expense);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public synchronized long total(ExpenseQuery query) {
+        long total = 0;
+        for (Expense expense : scan(query.after(null))) {
+            if (query.matches(expense)) {
+                total += expense.amountCents;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public synchronized List<Expense> findByCategory(String category, int limit) {
+        return find(ExpenseQuery.all().inCategories(category).limit(limit));
+    }
+
+    @Override
+    public synchronized List<Expense> findByDateRange(String fromDate, String toDate, int limit) {
+        return find(ExpenseQuery.all().between(EpochDays.parseIso(fromDate), EpochDays.parseIso(toDate)).limit(limit));
+    }
+
+    @Override
+    public synchronized int count() {
+        return byId.size();
+    }
+
+    @Override
+    public synchronized long getTotal() {
+        return aggregates.getTotal();
+    }
+
+    @Override
+    public synchronized ExpenseAggregates loadAggregates() {
+        return new ExpenseAggregates(aggregates);
+    }
+
+    @Override
+    public synchronized SyncCursor loadCursor() {
+        return cursor;
+    }
+
+    // Has no outbox of its own, so every change is applied
+    @Override
+    public synchronized int applyRemoteChanges(List<Expense> upserts, List<Long> deletedIds, SyncCursor cursor) {
+        int applied = 0;
+        for (Expense expense : upserts) {
+            Expense previous = byId.get(expense.id);
+            if (previous != null && previous.hasSameContents(expense)) {
+                continue;
+            }
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(expense);
+            applied++;
+        }
+        for (long id : deletedIds) {
+            Expense previous = byId.get(id);
+            if (previous != null) {
+                unindex(previous);
+                applied++;
+            }
+        }
+        this.cursor = cursor;
+        return applied;
+    }
+
+    /*
+     * The sorted index that fits the query, cut down to the query's key range
+     * and started after its anchor. Rows in it may still fail other filters.
+     */
+    private NavigableSet<Expense> scan(ExpenseQuery query) {
+        NavigableSet<Expense> index;
+        if (query.order.byDate()) {
+            // A single category has its own date-ordered index
+            index = query.categories.size() == 1
+                    ? byCategory.get(query.categories.iterator().next())
+                    : byDate;
+            if (index == null) {
+                return Collections.emptyNavigableSet();
+            }
+        } else {
+            index = byAmount;
+        }
+        if (query.order == ExpenseQuery.Order.OLDEST_FIRST || query.order == ExpenseQuery.Order.SMALLEST_FIRST) {
+            index = index.descendingSet();
+        }
+
+        Comparator<Expense> order = query.order.comparator;
+        Expense first = query.firstProbe();
+        boolean firstInclusive = true;
+        if (query.after != null && order.compare(query.after, first) >= 0) {
+            first = query.after;
+            firstInclusive = false;
+        }
+        Expense last = query.lastProbe();
+        if (order.compare(first, last) > 0) {
+            return Collections.emptyNavigableSet();
+        }
+        return index.subSet(first, firstInclusive, last, true);
+    }
+
+    private void index(Expense expense) {
+        byId.put(expense.id, expense);
+        byDate.add(expense);
+        byAmount.add(expense);
+        NavigableSet<Expense> categoryRows = byCategory.get(expense.category);
+        if (categoryRows == null) {
+            categoryRows = new TreeSet<>(NEWEST_FIRST);
+            byCategory.put(expense.category, categoryRows);
+        }
+        categoryRows.add(expense);
+        aggregates.add(expense);
+    }
+
+    private void unindex(Expense expense) {
+        byId.remove(expense.id);
+        byDate.remove(expense);
+        byAmount.remove(expense);
+        NavigableSet<Expense> categoryRows = byCategory.get(expense.category);
+        if (categoryRows != null) {
+            categoryRows.remove(expense);
+            if (categoryRows.isEmpty()) {
+                byCategory.remove(expense.category);
+            }
+        }
+        aggregates.remove(expense);
+    }
+
+    private static List<Expense> firstPage(NavigableSet<Expense> expenses, int limit) {
+        List<Expense> page = new ArrayList<>(Math.min(limit, expenses.size()));
+        for (Expense expense : expenses) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(expense);
+        }
+        return page;
+    }
+}
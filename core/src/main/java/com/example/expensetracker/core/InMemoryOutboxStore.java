@@ -0,0 +1,43 @@
+package com.example.expensetracker.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Non-durable {@link OutboxStore} for JVM tests and benchmarks.
+ */
+public class InMemoryOutboxStore implements OutboxStore {
+
+    private final Deque<OutboxEntry> entries = new ArrayDeque<>();
+    private long nextSequence = 1;
+
+    @Override
+    public synchronized void append(int op, long expenseId, Expense expense) {
+        entries.addLast(new OutboxEntry(nextSequence++, op, expenseId, expense));
+    }
+
+    @Override
+    public synchronized List<OutboxEntry> peek(int limit) {
+        List<OutboxEntry> batch = new ArrayList<>(Math.min(limit, entries.size()));
+        Iterator<OutboxEntry> iterator = entries.iterator();
+        while (iterator.hasNext() && batch.size() < limit) {
+            batch.add(iterator.next());
+        }
+        return batch;
+    }
+
+    @Override
+    public synchronized void removeThrough(long sequence) {
+        while (!entries.isEmpty() && entries.peekFirst().sequence <= sequence) {
+            entries.removeFirst();
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+}
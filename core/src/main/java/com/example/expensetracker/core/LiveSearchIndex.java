@@ -0,0 +1,69 @@
+package com.example.expensetracker.core;
+
+/**
+ * The search index a screen queries, kept current from an ExpenseChanges
+ * subscription and rebuilt from storage when the screen loads the history.
+ * A rebuild reads storage for a while, so change sets that arrive meanwhile
+ * are queued and replayed onto the new index before it replaces the current
+ * one; an update is never lost to a build that read past it. Replaying one
+ * that the build already saw is harmless, adds and removes are idempotent.
+ *
+ * Thread-safe: changes arrive on one thread, builds run on another and
+ * searches read {@link #current()} from a third.
+ */
+public final class LiveSearchIndex {
+
+    private ExpenseSearchIndex current = new ExpenseSearchIndex();
+    // Bumped when a rebuild starts, so one overtaken by a later rebuild is dropped
+    private int builds;
+    private boolean building;
+    // Changes that arrived during the build in progress
+    private ExpenseChangeSet queued;
+
+    public synchronized ExpenseSearchIndex current() {
+        return current;
+    }
+
+    // From the change stream; deliveries must not overlap, which ExpenseChanges guarantees
+    public synchronized void apply(ExpenseChangeSet changes) {
+        if (building) {
+            queued = queued == null ? changes : queued.merge(changes);
+        } else {
+            current = applyTo(current, changes);
+        }
+    }
+
+    /**
+     * Indexes the whole history, then swaps it in with whatever changed
+     * meanwhile. Blocking, call off the main thread. False if a later rebuild
+     * started in the meantime, which is the one that gets swapped in.
+     */
+    public boolean rebuild(ExpenseRepository repository, int batchSize) {
+        int build;
+        synchronized (this) {
+            build = ++builds;
+            building = true;
+            // Already in storage, so the new build reads them
+            queued = null;
+        }
+        ExpenseSearchIndex built = ExpenseSearchIndex.build(repository, batchSize);
+        synchronized (this) {
+            if (build != builds) {
+                return false;
+            }
+            current = queued == null ? built : applyTo(built, queued);
+            queued = null;
+            building = false;
+            return true;
+        }
+    }
+
+    private static ExpenseSearchIndex applyTo(ExpenseSearchIndex index, ExpenseChangeSet changes) {
+        ExpenseSearchIndex updated = changes.cleared ? new ExpenseSearchIndex() : index;
+        for (Expense expense : changes.removed) {
+            updated.remove(expense.id);
+        }
+        updated.addAll(changes.added);
+        return updated;
+    }
+}
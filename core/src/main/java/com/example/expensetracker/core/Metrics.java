@@ -0,0 +1,162 @@
+package com.example.expensetracker.core;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Named counters and latency histograms for the app's hot paths, readable
+ * on a real device without a profiler. Metrics are created on first use and
+ * live for the process; recording is lock-free.
+ *
+ * A Section times one operation, which may start on one thread and finish
+ * in a callback on another, as Firebase and sync calls do. Its latency goes
+ * to the histogram of the same name and a failure also counts in
+ * name + ".errors". Names are dotted code constants such as "auth.signIn".
+ */
+public final class Metrics {
+
+    /** Mirrors sections into a system tracer; the app forwards them to android.os.Trace. */
+    public interface TraceListener {
+        void onBegin(String name, int cookie);
+
+        void onEnd(String name, int cookie);
+    }
+
+    public static final class Counter {
+        private final AtomicLong value = new AtomicLong();
+
+        public void increment() {
+            value.incrementAndGet();
+        }
+
+        public void add(long delta) {
+            value.addAndGet(delta);
+        }
+
+        public long get() {
+            return value.get();
+        }
+    }
+
+    public final class Section {
+        private final String name;
+        private final LatencyHistogram histogram;
+        private final long startNanos;
+        private final int cookie;
+        private boolean ended;
+
+        private Section(String name) {
+            this.name = name;
+            this.histogram = histogram(name);
+            this.cookie = nextCookie.incrementAndGet();
+            TraceListener listener = traceListener;
+            if (listener != null) {
+                listener.onBegin(name, cookie);
+            }
+            this.startNanos = clock.getAsLong();
+        }
+
+        public void end() {
+            end(true);
+        }
+
+        // Only the first call records, so every exit path of a callback can end the section
+        public void end(boolean success) {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            histogram.record(clock.getAsLong() - startNanos);
+            if (!success) {
+                counter(name + ".errors").increment();
+            }
+            TraceListener listener = traceListener;
+            if (listener != null) {
+                listener.onEnd(name, cookie);
+            }
+        }
+    }
+
+    private static final Metrics SHARED = new Metrics(System::nanoTime);
+
+    private final LongSupplier clock;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final AtomicInteger nextCookie = new AtomicInteger();
+    private volatile TraceListener traceListener;
+
+    // clock returns nanoseconds, System::nanoTime outside tests
+    public Metrics(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static Metrics shared() {
+        return SHARED;
+    }
+
+    public void setTraceListener(TraceListener traceListener) {
+        this.traceListener = traceListener;
+    }
+
+    public Counter counter(String name) {
+        // A plain get first; the common case never touches a lock
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            Counter created = new Counter();
+            counter = counters.putIfAbsent(name, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        return counter;
+    }
+
+    public LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            LatencyHistogram created = new LatencyHistogram();
+            histogram = histograms.putIfAbsent(name, created);
+            if (histogram == null) {
+                histogram = created;
+            }
+        }
+        return histogram;
+    }
+
+    public Section begin(String name) {
+        return new Section(name);
+    }
+
+    // Runs work inside a section; an exception counts as an error and is rethrown
+    public <T> T time(String name, Callable<T> work) throws Exception {
+        Section section = begin(name);
+        boolean success = false;
+        try {
+            T result = work.call();
+            success = true;
+            return result;
+        } finally {
+            section.end(success);
+        }
+    }
+
+    // Sorted by name, for reports
+    public Map<String, Counter> counters() {
+        return Collections.unmodifiableMap(new TreeMap<>(counters));
+    }
+
+    public Map<String, LatencyHistogram> histograms() {
+        return Collections.unmodifiableMap(new TreeMap<>(histograms));
+    }
+
+    public void reset() {
+        counters.clear();
+        histograms.clear();
+    }
+}
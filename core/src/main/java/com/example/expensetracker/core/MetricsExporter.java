@@ -0,0 +1,50 @@
+package com.example.expensetracker.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes a Metrics registry as JSON Lines, one metric per line, counters
+ * first and both sorted by name. Latencies are in milliseconds:
+ *
+ *   {"type":"counter","name":"auth.signIn.errors","value":2}
+ *   {"type":"histogram","name":"auth.signIn","count":14,"mean_ms":812.402,"p50_ms":701.497,...}
+ */
+public final class MetricsExporter {
+
+    private MetricsExporter() {
+    }
+
+    public static void write(Metrics metrics, Writer out) throws IOException {
+        for (Map.Entry<String, Metrics.Counter> entry : metrics.counters().entrySet()) {
+            out.write(String.format(Locale.ROOT, "{\"type\":\"counter\",\"name\":\"%s\",\"value\":%d}\n",
+                    entry.getKey(), entry.getValue().get()));
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : metrics.histograms().entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            out.write(String.format(Locale.ROOT, "{\"type\":\"histogram\",\"name\":\"%s\",\"count\":%d,"
+                            + "\"mean_ms\":%.3f,\"p50_ms\":%.3f,\"p90_ms\":%.3f,\"p99_ms\":%.3f,\"max_ms\":%.3f}\n",
+                    entry.getKey(), histogram.count(), histogram.meanNanos() / 1e6,
+                    histogram.valueAtPercentile(50) / 1e6, histogram.valueAtPercentile(90) / 1e6,
+                    histogram.valueAtPercentile(99) / 1e6, histogram.maxNanos() / 1e6));
+        }
+    }
+
+    // Written aside and renamed, so a reader pulling the file never sees half of it
+    public static void export(Metrics metrics, File file) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+            write(metrics, out);
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Could not replace " + file);
+        }
+    }
+}
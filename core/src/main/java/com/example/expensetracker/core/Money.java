@@ -0,0 +1,129 @@
+package com.example.expensetracker.core;
+
+/**
+ * Money is carried as a primitive long number of cents everywhere
+ * (parsing, storage, aggregation and formatting), so sums are exact.
+ * Parsing and buffer formatting never allocate.
+ */
+public final class Money {
+
+    // Returned by parseCents when the text is not a valid amount
+    public static final long INVALID = Long.MIN_VALUE;
+
+    // 999999.99, the largest amount a single expense may have
+    public static final long MAX_EXPENSE_CENTS = 99_999_999L;
+
+    // Enough for "-$" plus every digit of Long.MAX_VALUE and the decimal point
+    public static final int MAX_FORMATTED_LENGTH = 24;
+
+    // More integer digits than this could overflow a long of cents
+    private static final int MAX_INTEGER_DIGITS = 15;
+
+    private Money() {
+    }
+
+    /**
+     * Parses "12", "12.5", "12.50" or ".5" into cents.
+     * Returns {@link #INVALID} for anything else, including more than two decimals.
+     */
+    public static long parseCents(CharSequence text) {
+        return parseCents(text, 0, text.length());
+    }
+
+    public static long parseCents(CharSequence text, int start, int end) {
+        if (start >= end) {
+            return INVALID;
+        }
+
+        boolean negative = false;
+        int i = start;
+        char first = text.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+
+        long units = 0;
+        int integerDigits = 0;
+        while (i < end && isDigit(text.charAt(i))) {
+            if (++integerDigits > MAX_INTEGER_DIGITS) {
+                return INVALID;
+            }
+            units = units * 10 + (text.charAt(i) - '0');
+            i++;
+        }
+
+        long cents = 0;
+        int fractionDigits = 0;
+        if (i < end && text.charAt(i) == '.') {
+            i++;
+            while (i < end && isDigit(text.charAt(i))) {
+                if (++fractionDigits > 2) {
+                    return INVALID;
+                }
+                cents = cents * 10 + (text.charAt(i) - '0');
+                i++;
+            }
+        }
+
+        // Trailing garbage, or no digits at all
+        if (i != end || integerDigits + fractionDigits == 0) {
+            return INVALID;
+        }
+        if (fractionDigits == 1) {
+            cents *= 10;
+        }
+
+        long total = units * 100 + cents;
+        return negative ? -total : total;
+    }
+
+    /**
+     * Writes the amount as "$1234.56" into buffer at offset and returns the number of chars written.
+     * The buffer needs {@link #MAX_FORMATTED_LENGTH} free chars.
+     */
+    public static int format(long cents, char[] buffer, int offset) {
+        int pos = offset;
+        // Work with a non-positive value so Long.MIN_VALUE doesn't overflow
+        long value = cents;
+        if (value < 0) {
+            buffer[pos++] = '-';
+        } else {
+            value = -value;
+        }
+        buffer[pos++] = '$';
+
+        long units = -(value / 100);
+        int fraction = (int) -(value % 100);
+
+        // Integer part, written backwards then reversed in place
+        int digitsStart = pos;
+        do {
+            buffer[pos++] = (char) ('0' + units % 10);
+            units /= 10;
+        } while (units > 0);
+        reverse(buffer, digitsStart, pos - 1);
+
+        buffer[pos++] = '.';
+        buffer[pos++] = (char) ('0' + fraction / 10);
+        buffer[pos++] = (char) ('0' + fraction % 10);
+        return pos - offset;
+    }
+
+    public static String format(long cents) {
+        char[] buffer = new char[MAX_FORMATTED_LENGTH];
+        return new String(buffer, 0, format(cents, buffer, 0));
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static void reverse(char[] buffer, int from, int to) {
+        while (from < to) {
+            char tmp = buffer[from];
+            buffer[from++] = buffer[to];
+            buffer[to--] = tmp;
+        }
+    }
+}
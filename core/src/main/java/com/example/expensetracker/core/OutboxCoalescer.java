@@ -0,0 +1,92 @@
+package com.example.expensetracker.core;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collapses a batch of outbox entries into one multi-path update.
+ * Only the final state of each expense is sent; an expense created and
+ * deleted within the batch is dropped entirely.
+ */
+public final class OutboxCoalescer {
+
+    // Child node under the user's root that holds all expenses
+    public static final String EXPENSES_NODE = "expenses";
+
+    public static final String FIELD_DESCRIPTION = "description";
+    public static final String FIELD_AMOUNT_CENTS = "amountCents";
+    public static final String FIELD_CATEGORY = "category";
+    public static final String FIELD_DATE = "date";
+    public static final String FIELD_DELETED = "deleted";
+    public static final String FIELD_UPDATED_AT = "updatedAt";
+
+    private static final int STATE_CANCELLED = 0;
+
+    private OutboxCoalescer() {
+    }
+
+    public static Map<String, Object> coalesce(List<OutboxEntry> batch) {
+        // Final op and values per expense, in first-seen order
+        Map<Long, Integer> finalOps = new LinkedHashMap<>();
+        Map<Long, Expense> finalValues = new HashMap<>();
+
+        for (OutboxEntry entry : batch) {
+            Integer previous = finalOps.get(entry.expenseId);
+            boolean createdInBatch = previous != null && previous == OutboxEntry.OP_CREATE;
+
+            int op;
+            switch (entry.op) {
+                case OutboxEntry.OP_UPDATE:
+                    op = createdInBatch ? OutboxEntry.OP_CREATE : OutboxEntry.OP_UPDATE;
+                    break;
+                case OutboxEntry.OP_DELETE:
+                    // Never reached the server, nothing to send
+                    op = createdInBatch ? STATE_CANCELLED : OutboxEntry.OP_DELETE;
+                    break;
+                default:
+                    op = OutboxEntry.OP_CREATE;
+                    break;
+            }
+            finalOps.put(entry.expenseId, op);
+            finalValues.put(entry.expenseId, entry.expense);
+        }
+
+        Map<String, Object> updates = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> entry : finalOps.entrySet()) {
+            int op = entry.getValue();
+            if (op == STATE_CANCELLED) {
+                continue;
+            }
+            String path = childPath(entry.getKey());
+            updates.put(path, op == OutboxEntry.OP_DELETE
+                    ? tombstone()
+                    : toRemoteValue(finalValues.get(entry.getKey())));
+        }
+        return updates;
+    }
+
+    public static String childPath(long expenseId) {
+        return EXPENSES_NODE + "/" + expenseId;
+    }
+
+    public static Map<String, Object> toRemoteValue(Expense expense) {
+        Map<String, Object> value = new HashMap<>();
+        value.put(FIELD_DESCRIPTION, expense.description);
+        value.put(FIELD_AMOUNT_CENTS, expense.amountCents);
+        value.put(FIELD_CATEGORY, expense.category);
+        value.put(FIELD_DATE, expense.isoDate());
+        value.put(FIELD_DELETED, false);
+        value.put(FIELD_UPDATED_AT, RemoteDatabase.SERVER_TIMESTAMP);
+        return value;
+    }
+
+    // Deletes are kept as tombstones so other devices can see them in a delta sync
+    private static Map<String, Object> tombstone() {
+        Map<String, Object> value = new HashMap<>();
+        value.put(FIELD_DELETED, true);
+        value.put(FIELD_UPDATED_AT, RemoteDatabase.SERVER_TIMESTAMP);
+        return value;
+    }
+}
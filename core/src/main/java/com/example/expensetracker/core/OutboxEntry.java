@@ -0,0 +1,25 @@
+package com.example.expensetracker.core;
+
+/**
+ * One pending local mutation waiting to be pushed to the server.
+ */
+public final class OutboxEntry {
+
+    public static final int OP_CREATE = 1;
+    public static final int OP_UPDATE = 2;
+    public static final int OP_DELETE = 3;
+
+    // Position in the outbox, entries are flushed in sequence order
+    public final long sequence;
+    public final int op;
+    public final long expenseId;
+    // The new values, null for OP_DELETE
+    public final Expense expense;
+
+    public OutboxEntry(long sequence, int op, long expenseId, Expense expense) {
+        this.sequence = sequence;
+        this.op = op;
+        this.expenseId = expenseId;
+        this.expense = expense;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.expensetracker.core;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains an {@link OutboxStore} into a {@link RemoteDatabase}.
+ * Each batch is coalesced into one multi-path update and only removed from the
+ * outbox once the server acknowledged it, so nothing is lost while offline.
+ * Failures are retried with {@link Backoff}.
+ *
+ * All state is confined to the given executor, which must be single-threaded.
+ */
+public class OutboxFlusher {
+
+    public static final int DEFAULT_BATCH_SIZE = 200;
+    // Round trip of one batch upload, see Metrics
+    public static final String METRIC_PUSH = "sync.push";
+
+    private final OutboxStore outbox;
+    private final RemoteDatabase remote;
+    private final String userPath;
+    private final ScheduledExecutorService executor;
+    private final Backoff backoff;
+    private final int batchSize;
+
+    private boolean inFlight;
+    private boolean stopped;
+    private ScheduledFuture<?> pendingRetry;
+
+    public OutboxFlusher(OutboxStore outbox, RemoteDatabase remote, String userPath,
+                         ScheduledExecutorService executor, Backoff backoff, int batchSize) {
+        this.outbox = outbox;
+        this.remote = remote;
+        this.userPath = userPath;
+        this.executor = executor;
+        this.backoff = backoff;
+        this.batchSize = batchSize;
+    }
+
+    // Root of a user's synced data, matches the Users/<uid> node written at registration
+    public static String userPath(String userId) {
+        return "Users/" + userId;
+    }
+
+    // Safe to call from any thread and as often as needed, requests are merged
+    public void requestFlush() {
+        post(() -> {
+            if (pendingRetry != null) {
+                // A local change is a good moment to retry early
+                pendingRetry.cancel(false);
+                pendingRetry = null;
+            }
+            flushNextBatch();
+        });
+    }
+
+    public void stop() {
+        post(() -> {
+            stopped = true;
+            if (pendingRetry != null) {
+                pendingRetry.cancel(false);
+                pendingRetry = null;
+            }
+        });
+    }
+
+    private void post(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Executor already shut down; the entries are durable and go out on the next start
+        }
+    }
+
+    private void flushNextBatch() {
+        if (inFlight || stopped) {
+            return;
+        }
+        long lastSequence = 0;
+        Metrics.Section push = null;
+        try {
+            List<OutboxEntry> batch = outbox.peek(batchSize);
+            if (batch.isEmpty()) {
+                backoff.reset();
+                return;
+            }
+            lastSequence = batch.get(batch.size() - 1).sequence;
+            Map<String, Object> updates = OutboxCoalescer.coalesce(batch);
+            if (updates.isEmpty()) {
+                // Everything cancelled out, no round trip needed
+                outbox.removeThrough(lastSequence);
+                flushNextBatch();
+                return;
+            }
+
+            inFlight = true;
+            push = Metrics.shared().begin(METRIC_PUSH);
+            Metrics.Section section = push;
+            long sequence = lastSequence;
+            remote.updateChildren(userPath, updates, error -> {
+                section.end(error == null);
+                post(() -> onBatchComplete(sequence, error));
+            });
+        } catch (RuntimeException e) {
+            // Thrown before any round trip, e.g. a value the server rejects or a failing outbox read;
+            // retried with backoff like a failed upload, so the flusher never stays stuck in flight
+            if (push != null) {
+                push.end(false);
+            }
+            onBatchComplete(lastSequence, e);
+        }
+    }
+
+    private void onBatchComplete(long lastSequence, Exception error) {
+        inFlight = false;
+        if (error == null) {
+            outbox.removeThrough(lastSequence);
+            backoff.reset();
+            flushNextBatch();
+        } else if (!stopped) {
+            long delay = backoff.nextDelayMillis();
+            pendingRetry = executor.schedule(() -> {
+                pendingRetry = null;
+                flushNextBatch();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.expensetracker.core;
+
+import java.util.List;
+
+/**
+ * Durable FIFO of local mutations that still need to reach the server.
+ * Implementations are blocking and must be called off the main thread.
+ */
+public interface OutboxStore {
+
+    // expense is null for OP_DELETE
+    void append(int op, long expenseId, Expense expense);
+
+    // Oldest entries first
+    List<OutboxEntry> peek(int limit);
+
+    // Drops every entry up to and including the given sequence
+    void removeThrough(long sequence);
+
+    int size();
+}
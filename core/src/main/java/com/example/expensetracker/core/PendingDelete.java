@@ -0,0 +1,63 @@
+package com.example.expensetracker.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A delete that is already applied to what the user sees but not yet to storage.
+ * It is settled exactly once: committed when its undo window closes, when a newer
+ * delete replaces it or when the screen goes away, or undone before that. Callers
+ * write to storage only when {@link #commit()} returns true, so the Snackbar
+ * callback and the explicit commit paths can race without deleting twice.
+ *
+ * Main thread only.
+ */
+public final class PendingDelete {
+
+    // The selected expenses; empty when everything is being deleted
+    public final List<Expense> expenses;
+    public final boolean all;
+    private boolean settled;
+
+    private PendingDelete(List<Expense> expenses, boolean all) {
+        this.expenses = expenses;
+        this.all = all;
+    }
+
+    public static PendingDelete of(List<Expense> expenses) {
+        return new PendingDelete(Collections.unmodifiableList(new ArrayList<>(expenses)), false);
+    }
+
+    public static PendingDelete everything() {
+        return new PendingDelete(Collections.<Expense>emptyList(), true);
+    }
+
+    public Set<Long> ids() {
+        Set<Long> ids = new HashSet<>(expenses.size() * 2);
+        for (Expense expense : expenses) {
+            ids.add(expense.id);
+        }
+        return ids;
+    }
+
+    // True when the caller should now delete from storage
+    public boolean commit() {
+        return settle();
+    }
+
+    // True when the caller should now put the expenses back on screen
+    public boolean undo() {
+        return settle();
+    }
+
+    private boolean settle() {
+        if (settled) {
+            return false;
+        }
+        settled = true;
+        return true;
+    }
+}
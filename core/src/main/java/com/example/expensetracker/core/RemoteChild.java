@@ -0,0 +1,17 @@
+package com.example.expensetracker.core;
+
+import java.util.Map;
+
+/**
+ * One child node read from the server, with its values as plain Java objects.
+ */
+public final class RemoteChild {
+
+    public final String key;
+    public final Map<String, Object> value;
+
+    public RemoteChild(String key, Map<String, Object> value) {
+        this.key = key;
+        this.value = value;
+    }
+}
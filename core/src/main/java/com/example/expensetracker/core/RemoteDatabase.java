@@ -0,0 +1,36 @@
+package com.example.expensetracker.core;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The slice of the Realtime Database API the sync code needs.
+ * The app implements it on top of Firebase; tests use an in-process fake.
+ */
+public interface RemoteDatabase {
+
+    // Placeholder value replaced by the server's own timestamp on write
+    Object SERVER_TIMESTAMP = new Object();
+
+    interface CompletionListener {
+        // error is null on success
+        void onComplete(Exception error);
+    }
+
+    interface QueryListener {
+        // children is null when error is set
+        void onResult(List<RemoteChild> children, Exception error);
+    }
+
+    /**
+     * Atomically writes every child path under path. A null value deletes the child.
+     * Values are Strings, Longs, Booleans, nested Maps or SERVER_TIMESTAMP.
+     */
+    void updateChildren(String path, Map<String, Object> updates, CompletionListener listener);
+
+    /**
+     * Reads up to limit children of path whose updatedAt field sorts after the
+     * cursor, ordered by (updatedAt, key).
+     */
+    void queryChangedSince(String path, SyncCursor cursor, int limit, QueryListener listener);
+}
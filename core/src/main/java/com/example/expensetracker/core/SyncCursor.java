@@ -0,0 +1,49 @@
+package com.example.expensetracker.core;
+
+/**
+ * Position in the server's change feed: the newest (updatedAt, key) pair
+ * already applied locally. Ties on updatedAt are broken by the child key.
+ */
+public final class SyncCursor {
+
+    public static final SyncCursor START = new SyncCursor(0, null);
+
+    // Server timestamp in milliseconds
+    public final long updatedAt;
+    // Null only for START
+    public final String key;
+
+    public SyncCursor(long updatedAt, String key) {
+        this.updatedAt = updatedAt;
+        this.key = key;
+    }
+
+    // True when the given child sorts strictly after this cursor
+    public boolean isBefore(long childUpdatedAt, String childKey) {
+        if (childUpdatedAt != updatedAt) {
+            return childUpdatedAt > updatedAt;
+        }
+        return key == null || compareKeys(childKey, key) > 0;
+    }
+
+    // Realtime Database key order: 32-bit integer keys first, numerically, then the rest as strings
+    public static int compareKeys(String a, String b) {
+        Integer intA = parseIntKey(a);
+        Integer intB = parseIntKey(b);
+        if (intA != null && intB != null) {
+            return Integer.compare(intA, intB);
+        }
+        if (intA != null || intB != null) {
+            return intA != null ? -1 : 1;
+        }
+        return a.compareTo(b);
+    }
+
+    private static Integer parseIntKey(String key) {
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.expensetracker.core;
+
+/**
+ * Snapshot of delta sync health, for logging and debug screens.
+ */
+public final class SyncStats {
+
+    // Wall clock of the last pull that reached the end of the feed, 0 if never
+    public final long lastSuccessMillis;
+    // Server timestamp of the newest change applied locally
+    public final long cursorMillis;
+    public final long pulledChanges;
+    public final long appliedChanges;
+    public final long lastDurationMillis;
+    public final int consecutiveFailures;
+
+    public SyncStats(long lastSuccessMillis, long cursorMillis, long pulledChanges, long appliedChanges,
+                     long lastDurationMillis, int consecutiveFailures) {
+        this.lastSuccessMillis = lastSuccessMillis;
+        this.cursorMillis = cursorMillis;
+        this.pulledChanges = pulledChanges;
+        this.appliedChanges = appliedChanges;
+        this.lastDurationMillis = lastDurationMillis;
+        this.consecutiveFailures = consecutiveFailures;
+    }
+
+    // How stale the local copy may be, -1 before the first successful sync
+    public long lagMillis(long nowMillis) {
+        return lastSuccessMillis == 0 ? -1 : Math.max(0, nowMillis - lastSuccessMillis);
+    }
+}
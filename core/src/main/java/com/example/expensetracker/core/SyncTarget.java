@@ -0,0 +1,21 @@
+package com.example.expensetracker.core;
+
+import java.util.List;
+
+/**
+ * Local store that server changes are pulled into.
+ * Implementations are blocking and must be called off the main thread.
+ */
+public interface SyncTarget {
+
+    SyncCursor loadCursor();
+
+    /**
+     * Applies one page of server changes and stores the new cursor atomically.
+     * Expenses with local writes still waiting in the outbox are left alone;
+     * the outbox will overwrite the server copy with them shortly.
+     *
+     * @return how many local rows actually changed
+     */
+    int applyRemoteChanges(List<Expense> upserts, List<Long> deletedIds, SyncCursor cursor);
+}
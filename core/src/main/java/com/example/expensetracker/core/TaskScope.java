@@ -0,0 +1,107 @@
+package com.example.expensetracker.core;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Background work owned by one screen.
+ * Work runs off the main thread and its result is handed back on the main
+ * executor. Once the scope is cancelled (the screen is destroyed), pending
+ * loads are dropped and no continuation reaches the dead screen. Writes always
+ * run to completion so user data is never lost to a rotation.
+ */
+public class TaskScope {
+
+    public interface ErrorHandler {
+        void onError(Throwable error);
+    }
+
+    private final Executor mainThread;
+    private final ExecutorService io;
+    private final ExecutorService diskWriter;
+    private final ErrorHandler errorHandler;
+    private final Set<Future<?>> pendingLoads = Collections.newSetFromMap(new IdentityHashMap<>());
+    private volatile boolean cancelled;
+
+    public TaskScope(Executor mainThread, ExecutorService io, ExecutorService diskWriter, ErrorHandler errorHandler) {
+        this.mainThread = mainThread;
+        this.io = io;
+        this.diskWriter = diskWriter;
+        this.errorHandler = errorHandler;
+    }
+
+    // Reads on the I/O pool; skipped entirely if the scope is cancelled first
+    public <T> void load(Callable<T> work, Consumer<T> onResult) {
+        if (cancelled) {
+            return;
+        }
+        Future<?>[] self = new Future<?>[1];
+        synchronized (pendingLoads) {
+            self[0] = io.submit(() -> {
+                try {
+                    deliver(work.call(), onResult);
+                } catch (Throwable e) {
+                    report(e);
+                } finally {
+                    synchronized (pendingLoads) {
+                        pendingLoads.remove(self[0]);
+                    }
+                }
+            });
+            pendingLoads.add(self[0]);
+        }
+    }
+
+    // Writes on the single writer thread; onResult may be null
+    public <T> void write(Callable<T> work, Consumer<T> onResult) {
+        diskWriter.execute(() -> {
+            try {
+                T result = work.call();
+                if (onResult != null) {
+                    deliver(result, onResult);
+                }
+            } catch (Throwable e) {
+                report(e);
+            }
+        });
+    }
+
+    // Main-thread executor that silently drops tasks after cancellation
+    public Executor main() {
+        return task -> mainThread.execute(() -> {
+            if (!cancelled) {
+                task.run();
+            }
+        });
+    }
+
+    public void cancel() {
+        cancelled = true;
+        synchronized (pendingLoads) {
+            for (Future<?> load : pendingLoads) {
+                load.cancel(false);
+            }
+            pendingLoads.clear();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    private <T> void deliver(T result, Consumer<T> onResult) {
+        main().execute(() -> onResult.accept(result));
+    }
+
+    private void report(Throwable error) {
+        if (errorHandler != null) {
+            errorHandler.onError(error);
+        }
+    }
+}
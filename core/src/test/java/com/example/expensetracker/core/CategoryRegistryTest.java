@@ -0,0 +1,102 @@
+package com.example.expensetracker.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for category ids, name matching and user categories
+ */
+@RunWith(JUnit4.class)
+public class CategoryRegistryTest {
+
+    private CategoryRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new CategoryRegistry();
+    }
+
+    @Test
+    public void testBuiltIns_HaveFixedIdsAndMetadata() {
+        // Act
+        Category food = registry.get(CategoryRegistry.FOOD);
+        Category others = registry.get(CategoryRegistry.OTHERS);
+
+        // Assert
+        assertEquals("Food", food.name);
+        assertEquals(0xFF10B981, food.color);
+        assertTrue(food.builtIn);
+        assertTrue("Label carries the icon", food.label.endsWith(" Food"));
+        assertEquals(0xFF6B7280, others.color);
+        assertEquals(CategoryRegistry.BUILT_IN_COUNT, registry.all().size());
+    }
+
+    @Test
+    public void testFind_IgnoresCaseAndSpacing() {
+        assertSame(registry.get(CategoryRegistry.HEALTHCARE), registry.find("healthcare"));
+        assertSame(registry.get(CategoryRegistry.BILLS), registry.find(" BILLS "));
+        assertNull(registry.find("Gym"));
+    }
+
+    @Test
+    public void testIntern_AddsUserCategoryOnce() {
+        // Act
+        Category gym = registry.intern("Gym");
+        Category again = registry.intern("gym");
+
+        // Assert
+        assertSame(gym, again);
+        assertEquals(CategoryRegistry.BUILT_IN_COUNT, gym.id);
+        assertFalse(gym.builtIn);
+        assertSame("Looked up by id", gym, registry.get(gym.id));
+        assertEquals(1, registry.userCategories().size());
+    }
+
+    @Test
+    public void testIntern_BlankIsOthers() {
+        assertEquals(CategoryRegistry.OTHERS, registry.intern("  ").id);
+    }
+
+    @Test
+    public void testGet_UnknownIdIsOthers() {
+        assertEquals(CategoryRegistry.OTHERS, registry.get(999).id);
+        assertEquals(CategoryRegistry.OTHERS, registry.get(-1).id);
+    }
+
+    @Test
+    public void testRegister_KeepsSavedIdsAndRejectsConflicts() {
+        // Act
+        boolean pets = registry.register(12, "Pets", null, 0xFF000000);
+        boolean samePets = registry.register(12, "pets", null, null);
+        boolean clash = registry.register(12, "Travel", null, null);
+        Category next = registry.intern("Travel");
+
+        // Assert
+        assertTrue(pets);
+        assertTrue("Registering the same category again is fine", samePets);
+        assertFalse("Id taken by another name", clash);
+        assertEquals(0xFF000000, registry.get(12).color);
+        assertEquals("New ids continue after the highest saved one", 13, next.id);
+    }
+
+    @Test
+    public void testResetUserCategories_KeepsBuiltIns() {
+        // Arrange
+        registry.intern("Gym");
+
+        // Act
+        registry.resetUserCategories();
+
+        // Assert
+        List<Category> all = registry.all();
+        assertEquals(CategoryRegistry.BUILT_IN_COUNT, all.size());
+        assertNull(registry.find("Gym"));
+        assertEquals("Food", registry.find("food").name);
+    }
+}
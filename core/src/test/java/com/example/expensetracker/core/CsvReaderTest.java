@@ -0,0 +1,64 @@
+package com.example.expensetracker.core;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the streaming CSV record reader
+ */
+@RunWith(JUnit4.class)
+public class CsvReaderTest {
+
+    @Test
+    public void testQuotedFields_KeepCommasQuotesAndNewlines() throws IOException {
+        // Arrange
+        CsvReader csv = new CsvReader(new StringReader(
+                "plain,\"with, comma\",\"say \"\"hi\"\"\"\r\n\"two\nlines\",x,\n"));
+        List<String> fields = new ArrayList<>();
+
+        // Act & Assert
+        assertTrue(csv.readRecord(fields));
+        assertEquals(Arrays.asList("plain", "with, comma", "say \"hi\""), fields);
+        assertTrue(csv.readRecord(fields));
+        assertEquals("Trailing comma is an empty field", Arrays.asList("two\nlines", "x", ""), fields);
+        assertEquals(2, csv.getRecordLine());
+        assertFalse(csv.readRecord(fields));
+    }
+
+    @Test
+    public void testBlankLinesAndMissingFinalNewline() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b\n\n\r\nc,d"));
+        List<String> fields = new ArrayList<>();
+
+        assertTrue(csv.readRecord(fields));
+        assertTrue(csv.readRecord(fields));
+        assertEquals(Arrays.asList("c", "d"), fields);
+        assertEquals("Line numbers count skipped blank lines", 4, csv.getRecordLine());
+        assertFalse(csv.readRecord(fields));
+    }
+
+    @Test
+    public void testLeadingByteOrderMark_Skipped() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("\uFEFFdate,amount\n\uFEFFx,1\n"));
+        List<String> fields = new ArrayList<>();
+
+        assertTrue(csv.readRecord(fields));
+        assertEquals(Arrays.asList("date", "amount"), fields);
+        assertTrue(csv.readRecord(fields));
+        assertEquals("Only a mark at the very start is dropped", "\uFEFFx", fields.get(0));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnterminatedQuote_Fails() throws IOException {
+        new CsvReader(new StringReader("\"never closed,1\n")).readRecord(new ArrayList<>());
+    }
+}
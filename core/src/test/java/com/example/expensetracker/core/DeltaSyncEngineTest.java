@@ -0,0 +1,174 @@
+package com.example.expensetracker.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for pulling server changes through a fake remote database
+ */
+@RunWith(JUnit4.class)
+public class DeltaSyncEngineTest {
+
+    private static final String USER_PATH = OutboxFlusher.userPath("user1");
+
+    private final FakeRemoteDatabase remote = new FakeRemoteDatabase();
+    private final InMemoryOutboxStore otherDeviceOutbox = new InMemoryOutboxStore();
+    private final InMemoryExpenseRepository localStore = new InMemoryExpenseRepository();
+    private final BlockingQueue<Integer> completedRuns = new LinkedBlockingQueue<>();
+    private ScheduledExecutorService executor;
+    private OutboxFlusher otherDevice;
+    private DeltaSyncEngine engine;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        // A second device writing to the same account through its own outbox
+        otherDevice = new OutboxFlusher(otherDeviceOutbox, remote, USER_PATH, executor,
+                new Backoff(1, 8, new Random(42)), OutboxFlusher.DEFAULT_BATCH_SIZE);
+        engine = new DeltaSyncEngine(remote, localStore, USER_PATH, executor,
+                new Backoff(1, 8, new Random(42)), 2, System::currentTimeMillis,
+                (applied, stats) -> completedRuns.add(applied));
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSync_PullsAllPagesIntoLocalStore() throws Exception {
+        // Arrange
+        for (long id = 1; id <= 5; id++) {
+            otherDeviceOutbox.append(OutboxEntry.OP_CREATE, id, new Expense(id, "Item " + id, id * 100, "Food", "2025-07-11"));
+        }
+        pushFromOtherDevice();
+
+        // Act
+        int applied = sync();
+
+        // Assert
+        assertEquals(5, applied);
+        assertEquals(5, localStore.count());
+        assertEquals(1500, localStore.getTotal());
+        assertEquals("Page size 2 needs 3 queries", 3, remote.getQueryCount());
+        assertTrue("Lag is known after a sync", engine.getStats().lagMillis(System.currentTimeMillis()) >= 0);
+    }
+
+    @Test
+    public void testSync_OnlyPullsChangesSinceCursor() throws Exception {
+        // Arrange
+        otherDeviceOutbox.append(OutboxEntry.OP_CREATE, 1, new Expense(1, "Coffee", 550, "Food", "2025-07-11"));
+        otherDeviceOutbox.append(OutboxEntry.OP_CREATE, 2, new Expense(2, "Bus", 225, "Transport", "2025-07-12"));
+        pushFromOtherDevice();
+        sync();
+        long pulledBefore = engine.getStats().pulledChanges;
+
+        otherDeviceOutbox.append(OutboxEntry.OP_UPDATE, 1, new Expense(1, "Coffee", 600, "Food", "2025-07-11"));
+        otherDeviceOutbox.append(OutboxEntry.OP_DELETE, 2, null);
+        pushFromOtherDevice();
+
+        // Act
+        int applied = sync();
+
+        // Assert
+        assertEquals("Only the two changed children are pulled", 2, engine.getStats().pulledChanges - pulledBefore);
+        assertEquals(2, applied);
+        assertEquals(1, localStore.count());
+        assertEquals(600, localStore.getTotal());
+    }
+
+    @Test
+    public void testSync_NothingChanged_AppliesNothing() throws Exception {
+        // Arrange
+        otherDeviceOutbox.append(OutboxEntry.OP_CREATE, 1, new Expense(1, "Coffee", 550, "Food", "2025-07-11"));
+        pushFromOtherDevice();
+        sync();
+
+        // Act
+        int applied = sync();
+
+        // Assert
+        assertEquals(0, applied);
+        assertEquals("Second run reads one empty page", 2, remote.getQueryCount());
+    }
+
+    @Test
+    public void testSync_RetriesAfterFailure() throws Exception {
+        // Arrange
+        otherDeviceOutbox.append(OutboxEntry.OP_CREATE, 1, new Expense(1, "Coffee", 550, "Food", "2025-07-11"));
+        pushFromOtherDevice();
+        remote.failNext(2);
+
+        // Act
+        int applied = sync();
+
+        // Assert
+        assertEquals(1, applied);
+        assertEquals("Failures reset after success", 0, engine.getStats().consecutiveFailures);
+    }
+
+    @Test
+    public void testSync_LocalStorageThrows_RetriedWithBackoff() throws Exception {
+        // Arrange: reading the cursor fails once, then applying the first page fails once
+        otherDeviceOutbox.append(OutboxEntry.OP_CREATE, 1, new Expense(1, "Coffee", 550, "Food", "2025-07-11"));
+        pushFromOtherDevice();
+        int[] failures = {0, 0};
+        InMemoryExpenseRepository flaky = new InMemoryExpenseRepository() {
+            @Override
+            public synchronized SyncCursor loadCursor() {
+                if (failures[0]++ == 0) {
+                    throw new IllegalStateException("database locked");
+                }
+                return super.loadCursor();
+            }
+
+            @Override
+            public synchronized int applyRemoteChanges(List<Expense> upserts, List<Long> deletedIds, SyncCursor cursor) {
+                if (failures[1]++ == 0) {
+                    throw new IllegalStateException("disk full");
+                }
+                return super.applyRemoteChanges(upserts, deletedIds, cursor);
+            }
+        };
+        engine = new DeltaSyncEngine(remote, flaky, USER_PATH, executor,
+                new Backoff(1, 8, new Random(42)), 2, System::currentTimeMillis,
+                (applied, stats) -> completedRuns.add(applied));
+
+        // Act
+        int applied = sync();
+
+        // Assert
+        assertEquals(1, applied);
+        assertEquals(1, flaky.count());
+        assertEquals("Failures reset after success", 0, engine.getStats().consecutiveFailures);
+    }
+
+    private void pushFromOtherDevice() throws InterruptedException {
+        otherDevice.requestFlush();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (otherDeviceOutbox.size() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals("Other device pushed everything", 0, otherDeviceOutbox.size());
+    }
+
+    private int sync() throws InterruptedException {
+        engine.requestSync();
+        Integer applied = completedRuns.poll(5, TimeUnit.SECONDS);
+        assertNotNull("Sync completed", applied);
+        return applied;
+    }
+}
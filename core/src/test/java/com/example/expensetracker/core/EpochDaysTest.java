@@ -0,0 +1,61 @@
+package com.example.expensetracker.core;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the epoch-day date arithmetic
+ */
+@RunWith(JUnit4.class)
+public class EpochDaysTest {
+
+    @Test
+    public void testOf_KnownDates() {
+        assertEquals(0, EpochDays.of(1970, 1, 1));
+        assertEquals(-1, EpochDays.of(1969, 12, 31));
+        assertEquals("Leap day", 11016, EpochDays.of(2000, 2, 29));
+        assertEquals(20280, EpochDays.of(2025, 7, 11));
+    }
+
+    @Test
+    public void testRoundTrip_MatchesCalendar() {
+        // Arrange
+        Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        calendar.clear();
+        calendar.set(1990, Calendar.JANUARY, 1);
+
+        // Act & Assert, one day at a time across several leap years
+        for (int i = 0; i < 20_000; i++) {
+            int epochDay = EpochDays.of(calendar);
+            assertEquals(calendar.getTimeInMillis() / 86_400_000L, epochDay);
+            assertEquals(ExpenseFormatter.isoDate(calendar), EpochDays.toIso(epochDay));
+            assertEquals(epochDay, EpochDays.parseIso(EpochDays.toIso(epochDay)));
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+
+    @Test
+    public void testMonthBounds() {
+        int day = EpochDays.parseIso("2024-02-14");
+        assertEquals("2024-02-01", EpochDays.toIso(EpochDays.firstDayOfMonth(day)));
+        assertEquals("2024-02-29", EpochDays.toIso(EpochDays.lastDayOfMonth(day)));
+        assertEquals("2024-02", EpochDays.monthKey(day));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseIso_RejectsImpossibleDay() {
+        EpochDays.parseIso("2025-04-31");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseIso_RejectsOtherFormats() {
+        EpochDays.parseIso("2025-7-1");
+    }
+}
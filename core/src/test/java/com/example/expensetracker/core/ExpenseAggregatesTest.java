@@ -0,0 +1,167 @@
+package com.example.expensetracker.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the incremental expense aggregates
+ */
+@RunWith(JUnit4.class)
+public class ExpenseAggregatesTest {
+
+    private ExpenseAggregates aggregates;
+
+    @Before
+    public void setUp() {
+        aggregates = new ExpenseAggregates();
+    }
+
+    @Test
+    public void testAdd_UpdatesAllBuckets() {
+        // Arrange
+        Expense coffee = new Expense(1, "Coffee", 550L, "Food", "2025-07-11");
+        Expense bus = new Expense(2, "Bus", 225L, "Transport", "2025-07-11");
+        Expense lunch = new Expense(3, "Lunch", 1200L, "Food", "2025-08-01");
+
+        // Act
+        aggregates.add(coffee);
+        aggregates.add(bus);
+        aggregates.add(lunch);
+
+        // Assert
+        assertEquals("Overall total", 1975L, aggregates.getTotal());
+        assertEquals("Overall count", 3, aggregates.getCount());
+        assertEquals("Food total", 1750L, aggregates.getCategoryTotal("Food"));
+        assertEquals("Day total", 775L, aggregates.getDayTotal("2025-07-11"));
+        assertEquals("July total", 775L, aggregates.getMonthTotal("2025-07"));
+        assertEquals("August total", 1200L, aggregates.getMonthTotal("2025-08"));
+    }
+
+    @Test
+    public void testRemove_LastExpenseInBucket_ClearsBucket() {
+        // Arrange
+        Expense coffee = new Expense(1, "Coffee", 550L, "Food", "2025-07-11");
+        aggregates.add(coffee);
+
+        // Act
+        aggregates.remove(coffee);
+
+        // Assert
+        assertEquals("Overall total should be zero", 0L, aggregates.getTotal());
+        assertEquals("Overall count should be zero", 0, aggregates.getCount());
+        assertEquals("Category bucket should be empty", 0L, aggregates.getCategoryTotal("Food"));
+        assertEquals("Day bucket should be empty", 0L, aggregates.getDayTotal("2025-07-11"));
+    }
+
+    @Test
+    public void testUpdate_MovesAmountBetweenBuckets() {
+        // Arrange
+        Expense original = new Expense(1, "Coffee", 550L, "Food", "2025-07-11");
+        Expense edited = new Expense(1, "Taxi", 2000L, "Transport", "2025-07-12");
+        aggregates.add(original);
+
+        // Act
+        aggregates.update(original, edited);
+
+        // Assert
+        assertEquals("Overall total", 2000L, aggregates.getTotal());
+        assertEquals("Overall count unchanged", 1, aggregates.getCount());
+        assertEquals("Old category emptied", 0L, aggregates.getCategoryTotal("Food"));
+        assertEquals("New category filled", 2000L, aggregates.getCategoryTotal("Transport"));
+        assertEquals("Old day emptied", 0L, aggregates.getDayTotal("2025-07-11"));
+        assertEquals("New day filled", 2000L, aggregates.getDayTotal("2025-07-12"));
+    }
+
+    @Test
+    public void testPut_RestoresPersistedBuckets() {
+        // Act
+        aggregates.put(ExpenseAggregates.BUCKET_ALL, "", 4200L, 4);
+        aggregates.put(ExpenseAggregates.BUCKET_CATEGORY, "Bills", 3000L, 1);
+        aggregates.put(ExpenseAggregates.BUCKET_MONTH, "2025-07", 4200L, 4);
+
+        // Assert
+        assertEquals("Restored total", 4200L, aggregates.getTotal());
+        assertEquals("Restored count", 4, aggregates.getCount());
+        assertEquals("Restored category", 3000L, aggregates.getCategoryTotal("Bills"));
+        assertEquals("Restored month", 4200L, aggregates.getMonthTotal("2025-07"));
+    }
+
+    @Test
+    public void testClear_ResetsEverything() {
+        // Arrange
+        aggregates.add(new Expense(1, "Coffee", 550L, "Food", "2025-07-11"));
+
+        // Act
+        aggregates.clear();
+
+        // Assert
+        assertEquals(0L, aggregates.getTotal());
+        assertEquals(0, aggregates.getCount());
+        assertEquals(0L, aggregates.getMonthTotal("2025-07"));
+    }
+
+    @Test
+    public void testUserCategory_GrowsCategoryTotals() {
+        // Arrange
+        Expense pottery = new Expense(1, "Clay", 3000L, "Pottery", "2025-07-11");
+        int[] visited = {0};
+
+        // Act
+        aggregates.add(pottery);
+        aggregates.forEachBucket((type, key, total, count) -> {
+            if (ExpenseAggregates.BUCKET_CATEGORY.equals(type) && key.equals("Pottery")) {
+                visited[0]++;
+            }
+        });
+
+        // Assert
+        assertEquals(3000L, aggregates.getCategoryTotal("pottery"));
+        assertEquals(3000L, aggregates.getCategoryTotal(pottery.categoryId));
+        assertEquals("Persisted under its name", 1, visited[0]);
+    }
+
+    @Test
+    public void testApply_LoadRacingWrites_CountsEachOnce() {
+        // Arrange: totals read at write 2, which already includes coffee and bus
+        Expense coffee = new Expense(1, "Coffee", 550L, "Food", "2025-07-11");
+        Expense bus = new Expense(2, "Bus", 225L, "Transport", "2025-07-11");
+        Expense lunch = new Expense(3, "Lunch", 1200L, "Food", "2025-08-01");
+        aggregates.add(coffee);
+        aggregates.add(bus);
+        aggregates.setSequence(2);
+
+        // Act: the change stream delivers writes 1 to 3 after the load finished
+        boolean first = aggregates.apply(ExpenseChangeSet.added(coffee).committedAt(1));
+        boolean second = aggregates.apply(ExpenseChangeSet.added(bus).committedAt(2));
+        boolean third = aggregates.apply(ExpenseChangeSet.added(lunch).committedAt(3));
+
+        // Assert
+        assertTrue(first && second && third);
+        assertEquals("Each write counted once", 1975L, aggregates.getTotal());
+        assertEquals(3, aggregates.getCount());
+        assertEquals(3, aggregates.getSequence());
+    }
+
+    @Test
+    public void testApply_SetStraddlingLoad_Refused() {
+        // Arrange: totals read at write 1, then writes 1 and 2 arrive merged into one set
+        Expense coffee = new Expense(1, "Coffee", 550L, "Food", "2025-07-11");
+        Expense bus = new Expense(2, "Bus", 225L, "Transport", "2025-07-11");
+        aggregates.add(coffee);
+        aggregates.setSequence(1);
+        ExpenseChangeSet merged = ExpenseChangeSet.added(coffee).committedAt(1)
+                .merge(ExpenseChangeSet.added(bus).committedAt(2));
+
+        // Act
+        boolean applied = aggregates.apply(merged);
+
+        // Assert
+        assertFalse("Only part of it is counted, so the totals must be reloaded", applied);
+        assertEquals("Nothing applied", 550L, aggregates.getTotal());
+        assertEquals(1, aggregates.getSequence());
+    }
+}
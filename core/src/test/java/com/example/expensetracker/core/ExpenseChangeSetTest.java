@@ -0,0 +1,107 @@
+package com.example.expensetracker.core;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for merging expense change sets down to their net effect
+ */
+@RunWith(JUnit4.class)
+public class ExpenseChangeSetTest {
+
+    private final Expense coffee = new Expense(1, "Coffee", 550, "Food", "2025-07-11");
+    private final Expense bus = new Expense(2, "Bus", 225, "Transport", "2025-07-12");
+    private final Expense lunch = new Expense(3, "Lunch", 1200, "Food", "2025-07-12");
+
+    @Test
+    public void testMerge_KeepsIndependentChanges() {
+        // Act
+        ExpenseChangeSet merged = ExpenseChangeSet.added(coffee)
+                .merge(ExpenseChangeSet.removed(Collections.singletonList(bus)));
+
+        // Assert
+        assertEquals(Collections.singletonList(coffee), merged.added);
+        assertEquals(Collections.singletonList(bus), merged.removed);
+        assertFalse(merged.cleared);
+    }
+
+    @Test
+    public void testMerge_AddThenRemoveCancels() {
+        // Act
+        ExpenseChangeSet merged = ExpenseChangeSet.added(Arrays.asList(coffee, lunch))
+                .merge(ExpenseChangeSet.removed(Collections.singletonList(coffee)));
+
+        // Assert
+        assertEquals("Subscribers never saw the coffee", Collections.singletonList(lunch), merged.added);
+        assertTrue(merged.removed.isEmpty());
+    }
+
+    @Test
+    public void testMerge_UndoneRemoveCancels() {
+        // Act
+        ExpenseChangeSet merged = ExpenseChangeSet.removed(Arrays.asList(coffee, bus))
+                .merge(ExpenseChangeSet.added(Arrays.asList(coffee, bus)));
+
+        // Assert
+        assertTrue("Delete and undo inside one window is no change", merged.isEmpty());
+    }
+
+    @Test
+    public void testMerge_RemoveThenChangedAddKeepsBoth() {
+        // Arrange
+        Expense edited = new Expense(1, "Coffee", 650, "Food", "2025-07-11");
+
+        // Act
+        ExpenseChangeSet merged = ExpenseChangeSet.removed(Collections.singletonList(coffee))
+                .merge(ExpenseChangeSet.added(edited));
+
+        // Assert
+        assertEquals("Old value still has to come out of the totals", Collections.singletonList(coffee),
+                merged.removed);
+        assertEquals(Collections.singletonList(edited), merged.added);
+    }
+
+    @Test
+    public void testMerge_ClearDropsEarlierChanges() {
+        // Act
+        ExpenseChangeSet merged = ExpenseChangeSet.added(coffee)
+                .merge(ExpenseChangeSet.removed(Collections.singletonList(bus)))
+                .merge(ExpenseChangeSet.cleared())
+                .merge(ExpenseChangeSet.added(lunch))
+                .merge(ExpenseChangeSet.removed(Collections.singletonList(coffee)));
+
+        // Assert
+        assertTrue(merged.cleared);
+        assertEquals("Only what came after the clear", Collections.singletonList(lunch), merged.added);
+        assertTrue("Coffee went with the clear", merged.removed.isEmpty());
+    }
+
+    @Test
+    public void testMerge_SpansSequenceRange() {
+        // Act
+        ExpenseChangeSet merged = ExpenseChangeSet.added(coffee).committedAt(4)
+                .merge(ExpenseChangeSet.removed(Collections.singletonList(bus)).committedAt(5))
+                .merge(ExpenseChangeSet.added(lunch).committedAt(6));
+        ExpenseChangeSet cleared = merged.merge(ExpenseChangeSet.cleared().committedAt(7));
+
+        // Assert
+        assertEquals(4, merged.firstSequence);
+        assertEquals(6, merged.lastSequence);
+        assertEquals("Nothing before the clear matters", 7, cleared.firstSequence);
+        assertEquals(7, cleared.lastSequence);
+    }
+
+    @Test
+    public void testRemovedIds() {
+        ExpenseChangeSet changes = ExpenseChangeSet.removed(Arrays.asList(coffee, bus));
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), changes.removedIds());
+        assertFalse(changes.isEmpty());
+    }
+}
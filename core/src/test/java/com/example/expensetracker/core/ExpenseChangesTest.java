@@ -0,0 +1,186 @@
+package com.example.expensetracker.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for debounced, coalesced delivery of expense change sets
+ */
+@RunWith(JUnit4.class)
+public class ExpenseChangesTest {
+
+    // Long enough that only an explicit flush delivers, unless a test says otherwise
+    private static final long NEVER_MILLIS = 60_000;
+
+    private final Expense coffee = new Expense(1, "Coffee", 550, "Food", "2025-07-11");
+    private final Expense bus = new Expense(2, "Bus", 225, "Transport", "2025-07-12");
+    private ScheduledExecutorService timer;
+
+    @Before
+    public void setUp() {
+        timer = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    public void testBurst_DeliveredAsOneSet() {
+        // Arrange
+        ExpenseChanges changes = new ExpenseChanges(timer, NEVER_MILLIS, NEVER_MILLIS);
+        List<ExpenseChangeSet> delivered = new ArrayList<>();
+        changes.subscribe(Runnable::run, delivered::add);
+
+        // Act
+        changes.publish(ExpenseChangeSet.added(coffee));
+        changes.publish(ExpenseChangeSet.added(bus));
+        changes.publish(ExpenseChangeSet.removed(Collections.singletonList(coffee)));
+        changes.flush();
+        changes.flush();
+
+        // Assert
+        assertEquals("One mutation burst, one update", 1, delivered.size());
+        assertEquals(Collections.singletonList(bus), delivered.get(0).added);
+        assertTrue(delivered.get(0).removed.isEmpty());
+    }
+
+    @Test
+    public void testEverySubscriberGetsTheSameSet() {
+        // Arrange
+        ExpenseChanges changes = new ExpenseChanges(timer, NEVER_MILLIS, NEVER_MILLIS);
+        List<ExpenseChangeSet> screen = new ArrayList<>();
+        List<ExpenseChangeSet> charts = new ArrayList<>();
+        changes.subscribe(Runnable::run, screen::add);
+        ExpenseChanges.Subscription chartsSubscription = changes.subscribe(Runnable::run, charts::add);
+
+        // Act
+        changes.publish(ExpenseChangeSet.cleared());
+        changes.flush();
+        chartsSubscription.cancel();
+        changes.publish(ExpenseChangeSet.added(coffee));
+        changes.flush();
+
+        // Assert
+        assertEquals(2, screen.size());
+        assertTrue(screen.get(0).cleared);
+        assertEquals(Collections.singletonList(coffee), screen.get(1).added);
+        assertEquals("Cancelled subscriber gets nothing more", 1, charts.size());
+        assertSame(screen.get(0), charts.get(0));
+    }
+
+    @Test
+    public void testDebounce_DeliversAfterQuietPeriod() throws Exception {
+        // Arrange
+        ExpenseChanges changes = new ExpenseChanges(timer, 20, NEVER_MILLIS);
+        CountDownLatch delivered = new CountDownLatch(1);
+        List<ExpenseChangeSet> sets = Collections.synchronizedList(new ArrayList<>());
+        changes.subscribe(Runnable::run, set -> {
+            sets.add(set);
+            delivered.countDown();
+        });
+
+        // Act
+        changes.publish(ExpenseChangeSet.added(coffee));
+        changes.publish(ExpenseChangeSet.added(bus));
+
+        // Assert
+        assertTrue("Delivered without an explicit flush", delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(1, sets.size());
+        assertEquals(Arrays.asList(coffee, bus), sets.get(0).added);
+    }
+
+    @Test
+    public void testMaxDelay_CapsAContinuousStream() throws Exception {
+        // Arrange
+        ExpenseChanges changes = new ExpenseChanges(timer, 200, 300);
+        CountDownLatch delivered = new CountDownLatch(1);
+        changes.subscribe(Runnable::run, set -> delivered.countDown());
+
+        // Act: a change every 20 ms never leaves the 200 ms quiet period a debounce waits for
+        long start = System.nanoTime();
+        while (delivered.getCount() > 0 && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)) {
+            changes.publish(ExpenseChangeSet.added(coffee));
+            Thread.sleep(20);
+        }
+
+        // Assert
+        assertEquals("Delivered while changes were still arriving", 0, delivered.getCount());
+    }
+
+    @Test
+    public void testBusySubscriber_GetsBacklogMerged() {
+        // Arrange: a queued executor standing in for a busy background pool
+        List<Runnable> queue = new ArrayList<>();
+        ExpenseChanges changes = new ExpenseChanges(timer, NEVER_MILLIS, NEVER_MILLIS);
+        List<ExpenseChangeSet> delivered = new ArrayList<>();
+        changes.subscribe(queue::add, delivered::add);
+
+        // Act
+        changes.publish(ExpenseChangeSet.added(coffee));
+        changes.flush();
+        changes.publish(ExpenseChangeSet.added(bus));
+        changes.flush();
+        for (Runnable task : new ArrayList<>(queue)) {
+            task.run();
+        }
+
+        // Assert
+        assertEquals("One drain queued for both flushes", 1, queue.size());
+        assertEquals(1, delivered.size());
+        assertEquals(Arrays.asList(coffee, bus), delivered.get(0).added);
+    }
+
+    @Test
+    public void testCancelledOut_DeliversNothing() {
+        // Arrange
+        ExpenseChanges changes = new ExpenseChanges(timer, NEVER_MILLIS, NEVER_MILLIS);
+        List<ExpenseChangeSet> delivered = new ArrayList<>();
+        changes.subscribe(Runnable::run, delivered::add);
+
+        // Act: a delete undone before the screen saw it
+        changes.publish(ExpenseChangeSet.removed(Collections.singletonList(coffee)));
+        changes.publish(ExpenseChangeSet.added(coffee));
+        changes.flush();
+
+        // Assert
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    public void testClose_DropsPendingAndLaterChanges() {
+        // Arrange
+        ExpenseChanges changes = new ExpenseChanges(timer, NEVER_MILLIS, NEVER_MILLIS);
+        List<ExpenseChangeSet> delivered = new ArrayList<>();
+        changes.subscribe(Runnable::run, delivered::add);
+        changes.publish(ExpenseChangeSet.added(coffee));
+
+        // Act
+        changes.close();
+        changes.publish(ExpenseChangeSet.added(bus));
+        changes.flush();
+
+        // Assert
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxDelayShorterThanDebounce_Rejected() {
+        new ExpenseChanges(timer, 100, 10);
+    }
+}
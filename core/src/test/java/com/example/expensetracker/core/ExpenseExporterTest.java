@@ -0,0 +1,105 @@
+package com.example.expensetracker.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for chunked CSV and JSON Lines export
+ */
+@RunWith(JUnit4.class)
+public class ExpenseExporterTest {
+
+    private InMemoryExpenseRepository repository;
+    private ByteArrayOutputStream output;
+
+    @Before
+    public void setUp() {
+        repository = new InMemoryExpenseRepository();
+        repository.insertAll(Arrays.asList(
+                new Expense(0, "Coffee", 550, "Food", "2025-07-11"),
+                new Expense(0, "Dinner, \"Le Caf\u00e9\"", 12_000, "Food", "2025-07-12"),
+                new Expense(0, "Bus\nreturn", 225, "Transport", "2025-07-13")));
+        output = new ByteArrayOutputStream();
+    }
+
+    @Test
+    public void testCsv_EscapesAndImportsBack() throws IOException {
+        // Act
+        ExpenseExporter.Result result = new ExpenseExporter(repository, 2)
+                .export(ExpenseExporter.Format.CSV, Channels.newChannel(output), null);
+
+        // Assert
+        String csv = output.toString(StandardCharsets.UTF_8.name());
+        assertEquals(3, result.exported);
+        assertEquals(output.size(), result.bytesWritten);
+        assertTrue(csv.startsWith("description,amount,category,date\n\"Bus\nreturn\",2.25,Transport,2025-07-13\n"));
+        assertTrue(csv.contains("\"Dinner, \"\"Le Caf\u00e9\"\"\",120.00,Food,2025-07-12\n"));
+
+        InMemoryExpenseRepository copy = new InMemoryExpenseRepository();
+        ExpenseImporter.Result imported = new ExpenseImporter(copy, 10).importCsv(new StringReader(csv), null);
+        assertEquals("Round trip", 3, imported.imported);
+        assertEquals(repository.getTotal(), copy.getTotal());
+    }
+
+    @Test
+    public void testJsonLines_OneObjectPerLine() throws IOException {
+        // Act
+        new ExpenseExporter(repository, 10).export(ExpenseQuery.all().inCategories("Transport"),
+                ExpenseExporter.Format.JSON_LINES, Channels.newChannel(output), null);
+
+        // Assert
+        assertEquals("{\"id\":3,\"description\":\"Bus\\nreturn\",\"amountCents\":225,"
+                        + "\"category\":\"Transport\",\"date\":\"2025-07-13\"}\n",
+                output.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    public void testLargeExport_StreamsInChunksWithProgress() throws IOException {
+        // Arrange
+        List<Expense> many = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            many.add(new Expense(0, "Item " + i, 100 + i, "Shopping", 20_000 + i % 365));
+        }
+        repository.insertAll(many);
+        List<Integer> progress = new ArrayList<>();
+
+        // Act
+        ExpenseExporter.Result result = new ExpenseExporter(repository, 1000)
+                .export(ExpenseExporter.Format.CSV, Channels.newChannel(output), progress::add);
+
+        // Assert
+        assertEquals(5003, result.exported);
+        assertEquals(Arrays.asList(1000, 2000, 3000, 4000, 5000, 5003), progress);
+        String csv = output.toString(StandardCharsets.UTF_8.name());
+        assertEquals("Header, one line per row and the quoted line break", 5005,
+                csv.length() - csv.replace("\n", "").length());
+    }
+
+    @Test
+    public void testCancel_StopsAfterCurrentChunk() throws IOException {
+        // Arrange
+        ExpenseExporter exporter = new ExpenseExporter(repository, 1);
+
+        // Act
+        ExpenseExporter.Result result = exporter.export(ExpenseExporter.Format.JSON_LINES,
+                Channels.newChannel(output), exported -> exporter.cancel());
+
+        // Assert
+        assertTrue(result.cancelled);
+        assertEquals(1, result.exported);
+        assertEquals(1, output.toString().split("\n").length);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.expensetracker.core;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.lang.management.ManagementFactory;
+import java.util.Calendar;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the allocation-free formatters, including an allocation
+ * microbenchmark of the row-binding path
+ */
+@RunWith(JUnit4.class)
+public class ExpenseFormatterTest {
+
+    private static final int BIND_ITERATIONS = 100_000;
+
+    @Test
+    public void testAmountText_FormatsIntoBuffer() {
+        // Arrange
+        ExpenseFormatter.AmountText text = new ExpenseFormatter.AmountText();
+
+        // Act & Assert
+        assertTrue("First amount should be formatted", text.set(550));
+        assertEquals("$5.50", text.toString());
+        assertFalse("Same amount should not be reformatted", text.set(550));
+        assertTrue("New amount should be formatted", text.set(123456));
+        assertEquals("$1234.56", text.toString());
+    }
+
+    @Test
+    public void testIsoDate_PadsAndCaches() {
+        // Act
+        String first = ExpenseFormatter.isoDate(2025, 7, 1);
+        String second = ExpenseFormatter.isoDate(2025, 7, 1);
+
+        // Assert
+        assertEquals("2025-07-01", first);
+        assertSame("Repeated calls should reuse the cached label", first, second);
+    }
+
+    @Test
+    public void testIsoDate_FromCalendar() {
+        // Arrange
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2024, Calendar.DECEMBER, 31);
+
+        // Act & Assert
+        assertEquals("2024-12-31", ExpenseFormatter.isoDate(calendar));
+    }
+
+    @Test
+    public void testBindPath_AllocatesNearlyNothing() {
+        com.sun.management.ThreadMXBean threadBean = allocationCounter();
+        Assume.assumeNotNull(threadBean);
+
+        // Arrange: one buffer per simulated row, as each ViewHolder owns one
+        ExpenseFormatter.AmountText[] rows = new ExpenseFormatter.AmountText[16];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new ExpenseFormatter.AmountText();
+        }
+        simulateBinds(rows, 10_000); // warm up
+
+        // Act
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        simulateBinds(rows, BIND_ITERATIONS);
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        // Assert: String.format would allocate hundreds of bytes per bind
+        double bytesPerBind = (double) allocated / BIND_ITERATIONS;
+        assertTrue("Expected < 1 byte per bind but was " + bytesPerBind, bytesPerBind < 1.0);
+    }
+
+    private static void simulateBinds(ExpenseFormatter.AmountText[] rows, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            rows[i % rows.length].set(i * 37L);
+            ExpenseFormatter.isoDate(2025, 1 + i % 12, 1 + i % 28);
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) bean;
+            if (counter.isThreadAllocatedMemorySupported() && counter.isThreadAllocatedMemoryEnabled()) {
+                return counter;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.expensetracker.core;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for batched, validated CSV import
+ */
+@RunWith(JUnit4.class)
+public class ExpenseImporterTest {
+
+    @Test
+    public void testHeader_ColumnsInAnyOrder() throws IOException {
+        // Arrange
+        InMemoryExpenseRepository repository = new InMemoryExpenseRepository();
+        String csv = "Date,Category,Amount,Description\n"
+                + "2025-07-11,Food,5.50,Coffee\n"
+                + "2025-07-12,,12,\"Bus, return\"\n";
+
+        // Act
+        ExpenseImporter.Result result = new ExpenseImporter(repository, 10).importCsv(new StringReader(csv), null);
+
+        // Assert
+        assertEquals(2, result.imported);
+        assertEquals(0, result.failed);
+        Expense bus = repository.loadRecent(1).get(0);
+        assertEquals("Bus, return", bus.description);
+        assertEquals(1200, bus.amountCents);
+        assertEquals("Empty category falls back", ExpenseImporter.DEFAULT_CATEGORY, bus.category);
+        assertEquals(EpochDays.of(2025, 7, 12), bus.epochDay);
+    }
+
+    @Test
+    public void testExcelUtf8Export_HeaderRecognized() throws IOException {
+        // Arrange: Excel writes a byte-order mark before the header
+        InMemoryExpenseRepository repository = new InMemoryExpenseRepository();
+        String csv = "\uFEFFdate,category,amount,description\n2024-01-05,Food,12.50,Lunch\n";
+
+        // Act
+        ExpenseImporter.Result result = new ExpenseImporter(repository, 10).importCsv(new StringReader(csv), null);
+
+        // Assert
+        assertEquals("Header is not counted as a row", 1, result.rowsRead);
+        assertEquals(1, result.imported);
+        assertEquals(0, result.failed);
+        assertEquals(1250, repository.loadRecent(1).get(0).amountCents);
+    }
+
+    @Test
+    public void testInvalidRows_AreSkippedAndReportedWithLines() throws IOException {
+        // Arrange
+        InMemoryExpenseRepository repository = new InMemoryExpenseRepository();
+        String csv = "Coffee,5.50,Food,2025-07-11\n"
+                + "Lunch,0,Food,2025-07-11\n"
+                + "Dinner,1000000,Food,2025-07-11\n"
+                + "Taxi,15,Transport,yesterday\n"
+                + "Short row\n"
+                + "Bus,2.25,Transport,2025-07-12\n";
+
+        // Act
+        ExpenseImporter.Result result = new ExpenseImporter(repository, 10).importCsv(new StringReader(csv), null);
+
+        // Assert
+        assertEquals("No header, first row is data", 6, result.rowsRead);
+        assertEquals(2, result.imported);
+        assertEquals(4, result.failed);
+        assertEquals(2, result.errors.get(0).line);
+        assertEquals("Amount must be greater than zero", result.errors.get(0).message);
+        assertEquals("Amount is too large", result.errors.get(1).message);
+        assertEquals("Please enter a date as yyyy-MM-dd", result.errors.get(2).message);
+        assertEquals(5, result.errors.get(3).line);
+        assertEquals(2, repository.count());
+    }
+
+    @Test
+    public void testBatches_OneInsertPerBatchWithProgress() throws IOException {
+        // Arrange
+        CountingRepository repository = new CountingRepository();
+        List<Integer> progress = new ArrayList<>();
+
+        // Act
+        ExpenseImporter.Result result = new ExpenseImporter(repository, 100)
+                .importCsv(new GeneratedCsv(250), (rowsRead, imported, failed) -> progress.add(imported));
+
+        // Assert
+        assertEquals(250, result.imported);
+        assertEquals("Two full batches and the remainder", 3, repository.batches);
+        assertEquals(List.of(100, 200, 250), progress);
+    }
+
+    @Test
+    public void testHalfMillionRows_StreamWithBoundedMemory() throws IOException {
+        // Arrange, rows are generated on the fly and the repository keeps none of them
+        CountingRepository repository = new CountingRepository();
+
+        // Act
+        ExpenseImporter.Result result = new ExpenseImporter(repository, ExpenseImporter.DEFAULT_BATCH_SIZE)
+                .importCsv(new GeneratedCsv(500_000), null);
+
+        // Assert
+        assertEquals(500_000, result.imported);
+        assertEquals("No batch exceeds the configured size", ExpenseImporter.DEFAULT_BATCH_SIZE, repository.largestBatch);
+        assertEquals(500, repository.batches);
+    }
+
+    // Counts insert batches and drops the rows
+    private static class CountingRepository extends InMemoryExpenseRepository {
+        int batches;
+        int largestBatch;
+
+        @Override
+        public List<Expense> insertAll(List<Expense> expenses) {
+            batches++;
+            largestBatch = Math.max(largestBatch, expenses.size());
+            return expenses;
+        }
+    }
+
+    // A CSV of the given number of valid rows, produced while it is read
+    private static class GeneratedCsv extends Reader {
+        private final int rows;
+        private int row;
+        private String pending = "";
+        private int offset;
+
+        GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read(char[] buffer, int start, int length) {
+            if (offset == pending.length()) {
+                if (row == rows) {
+                    return -1;
+                }
+                pending = "Expense " + row + "," + (1 + row % 500) + ".25,Food,2025-07-" + (10 + row % 20) + "\n";
+                offset = 0;
+                row++;
+            }
+            int count = Math.min(length, pending.length() - offset);
+            pending.getChars(offset, offset + count, buffer, start);
+            offset += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
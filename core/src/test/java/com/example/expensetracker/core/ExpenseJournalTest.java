@@ -0,0 +1,236 @@
+package com.example.expensetracker.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the memory-mapped journal: replay, tombstones, compaction and range scans
+ */
+@RunWith(JUnit4.class)
+public class ExpenseJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private ExpenseJournal journal;
+
+    @Before
+    public void setUp() throws IOException {
+        file = new File(folder.getRoot(), "expenses.journal");
+        journal = ExpenseJournal.open(file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    public void testAppend_AssignsIdAndReadsBack() {
+        // Act
+        Expense saved = journal.append(new Expense(0, "Coffee", 550, "Food", "2025-07-11"));
+
+        // Assert
+        assertTrue("Id assigned", saved.id != 0);
+        Expense read = journal.get(saved.id);
+        assertEquals("Coffee", read.description);
+        assertEquals(550, read.amountCents);
+        assertEquals("Food", read.category);
+        assertEquals(EpochDays.parseIso("2025-07-11"), read.epochDay);
+    }
+
+    @Test
+    public void testReopen_ReplaysUpdatesAndTombstones() throws IOException {
+        // Arrange
+        Expense coffee = journal.append(new Expense(0, "Coffee", 550, "Food", "2025-07-11"));
+        Expense bus = journal.append(new Expense(0, "Bus", 225, "Transport", "2025-07-12"));
+        journal.update(new Expense(coffee.id, "Flat white", 600, "Food", coffee.epochDay));
+        journal.delete(bus.id);
+
+        // Act
+        journal.close();
+        journal = ExpenseJournal.open(file);
+
+        // Assert
+        assertEquals(1, journal.size());
+        assertEquals("Every write is a record", 4, journal.recordCount());
+        assertEquals("Latest version wins", "Flat white", journal.get(coffee.id).description);
+        assertNull("Tombstone survives reopen", journal.get(bus.id));
+        assertEquals(600, journal.sumCents(Integer.MIN_VALUE, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testUpdateAndDelete_IgnoreUnknownIds() {
+        // Act
+        journal.update(new Expense(42, "Ghost", 100, "Food", "2025-07-11"));
+        journal.delete(42);
+
+        // Assert
+        assertEquals("Nothing appended", 0, journal.recordCount());
+    }
+
+    @Test
+    public void testScan_UsesDateRangeInclusively() {
+        // Arrange: a month of expenses, one per day, more than one index block
+        int first = EpochDays.of(2025, 1, 1);
+        for (int i = 0; i < 3 * ExpenseJournal.BLOCK_RECORDS; i++) {
+            journal.append(new Expense(0, "Item " + i, 100, "Food", first + i / 10));
+        }
+        List<Expense> visited = new ArrayList<>();
+
+        // Act
+        journal.scan(first + 30, first + 31, visited::add);
+
+        // Assert
+        assertEquals("Ten expenses on each of two days", 20, visited.size());
+        assertEquals(2000, journal.sumCents(first + 30, first + 31));
+        assertEquals(0, journal.sumCents(first - 10, first - 1));
+    }
+
+    @Test
+    public void testAppend_GrowsPastInitialMapping() throws IOException {
+        // Arrange
+        int count = 5000;
+
+        // Act
+        for (int i = 0; i < count; i++) {
+            journal.append(new Expense(0, "Item", i, "Food", "2025-07-11"));
+        }
+        journal.close();
+        journal = ExpenseJournal.open(file);
+
+        // Assert
+        assertEquals(count, journal.size());
+        assertEquals((long) count * (count - 1) / 2, journal.aggregate().getTotal());
+    }
+
+    @Test
+    public void testCompact_KeepsLiveRecordsInDateOrder() throws IOException {
+        // Arrange: newest first, then delete every other one
+        List<Expense> saved = new ArrayList<>();
+        for (int day = 100; day > 0; day--) {
+            saved.add(journal.append(new Expense(0, "Day " + day, day, "Food", day)));
+        }
+        for (int i = 0; i < saved.size(); i += 2) {
+            journal.delete(saved.get(i).id);
+        }
+
+        // Act
+        journal.compact();
+        List<Expense> visited = new ArrayList<>();
+        journal.scan(Integer.MIN_VALUE, Integer.MAX_VALUE, visited::add);
+
+        // Assert
+        assertEquals("Dead records dropped", 50, journal.recordCount());
+        assertEquals(50, visited.size());
+        for (int i = 1; i < visited.size(); i++) {
+            assertTrue("Sorted by date", visited.get(i - 1).epochDay <= visited.get(i).epochDay);
+        }
+        assertEquals("Ids kept", "Day 99", journal.get(saved.get(1).id).description);
+    }
+
+    @Test
+    public void testDelete_CompactsOnceMostlyDead() {
+        // Arrange
+        List<Expense> saved = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            saved.add(journal.append(new Expense(0, "Item", 1, "Food", "2025-07-11")));
+        }
+
+        // Act
+        for (int i = 0; i < 2000; i++) {
+            journal.delete(saved.get(i).id);
+        }
+
+        // Assert
+        assertEquals(1000, journal.size());
+        assertTrue("Compacted automatically", journal.recordCount() < 5000);
+    }
+
+    @Test
+    public void testFailedRename_KeepsJournalUsable() throws IOException {
+        // Arrange
+        journal.rename = (from, to) -> false;
+        List<Expense> saved = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            saved.add(journal.append(new Expense(0, "Item", 1, "Food", "2025-07-11")));
+        }
+
+        // Act: enough deletes to try compacting, then enough appends to grow the mapping
+        for (int i = 0; i < 2000; i++) {
+            journal.delete(saved.get(i).id);
+        }
+        for (int i = 0; i < 5000; i++) {
+            journal.append(new Expense(0, "Later", 2, "Food", "2025-07-12"));
+        }
+
+        // Assert
+        assertEquals(6000, journal.size());
+        assertEquals("Nothing was compacted", 10000, journal.recordCount());
+        assertFalse("Compacted copy cleaned up", new File(file.getPath() + ".compact").exists());
+        journal.close();
+        journal = ExpenseJournal.open(file);
+        assertEquals(6000, journal.size());
+    }
+
+    @Test
+    public void testOpen_IgnoresRecordsPastTheCount() throws IOException {
+        // Arrange: a crash after writing a record but before bumping the count
+        journal.append(new Expense(0, "Coffee", 550, "Food", "2025-07-11"));
+        journal.close();
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(8);
+            raw.writeInt(0);
+        }
+
+        // Act
+        journal = ExpenseJournal.open(file);
+
+        // Assert
+        assertEquals(0, journal.size());
+    }
+
+    @Test
+    public void testDeleteAll_EmptiesJournal() {
+        // Arrange
+        journal.append(new Expense(0, "Coffee", 550, "Food", "2025-07-11"));
+
+        // Act
+        journal.deleteAll();
+
+        // Assert
+        assertEquals(0, journal.size());
+        assertEquals(0, journal.aggregate().getTotal());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAppend_RejectsOversizedCategory() {
+        journal.append(new Expense(0, "Coffee", 550, "A category name well beyond the slot", "2025-07-11"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpen_RejectsForeignFile() throws IOException {
+        // Arrange
+        File other = folder.newFile("other.bin");
+        try (RandomAccessFile raw = new RandomAccessFile(other, "rw")) {
+            raw.write(new byte[128]);
+        }
+
+        // Act
+        ExpenseJournal.open(other);
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.expensetracker.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the keyset paging window
+ */
+@RunWith(JUnit4.class)
+public class ExpensePagerTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    private final InMemoryExpenseRepository repository = new InMemoryExpenseRepository();
+    private List<Expense> window = new ArrayList<>();
+    private ExpensePager pager;
+
+    @Before
+    public void setUp() {
+        // 95 expenses, one per day, so list order is simply by date
+        List<Expense> expenses = new ArrayList<>();
+        for (int day = 0; day < 95; day++) {
+            expenses.add(new Expense(0, "Item " + day, 100, "Food", String.format("2025-%02d-%02d", 1 + day / 28, 1 + day % 28)));
+        }
+        repository.insertAll(expenses);
+
+        // Direct executors: each load completes inside the call that started it
+        pager = new ExpensePager(repository, Runnable::run, Runnable::run, PAGE_SIZE, 3, 3,
+                snapshot -> window = snapshot);
+        pager.refresh();
+    }
+
+    @Test
+    public void testRefresh_LoadsOnlyFirstPage() {
+        assertEquals(PAGE_SIZE, window.size());
+        assertEquals("Newest first", "Item 94", window.get(0).description);
+    }
+
+    @Test
+    public void testScrollNearEnd_PrefetchesNextPage() {
+        // Act: still 3 rows from the end
+        pager.onVisibleRangeChanged(0, 5);
+        int beforeThreshold = window.size();
+        pager.onVisibleRangeChanged(2, 6);
+
+        // Assert
+        assertEquals("Not yet within prefetch distance", PAGE_SIZE, beforeThreshold);
+        assertEquals(2 * PAGE_SIZE, window.size());
+        assertEquals("Continues exactly after the last row", "Item 84", window.get(PAGE_SIZE).description);
+    }
+
+    @Test
+    public void testDeepScroll_ReleasesFarPagesAndReloadsThem() {
+        // Act: scroll down through five pages
+        for (int page = 0; page < 5; page++) {
+            pager.onVisibleRangeChanged(window.size() - 5, window.size() - 1);
+        }
+
+        // Assert: memory bounded at three pages
+        assertEquals(3 * PAGE_SIZE, window.size());
+        assertEquals("Newest pages were released", "Item 64", window.get(0).description);
+
+        // Act: scroll back to the top of the window
+        pager.onVisibleRangeChanged(0, 4);
+
+        // Assert
+        assertEquals(3 * PAGE_SIZE, window.size());
+        assertEquals("Newer page loaded back in", "Item 74", window.get(0).description);
+    }
+
+    @Test
+    public void testEndOfHistory_StopsLoading() {
+        // Act
+        for (int i = 0; i < 20; i++) {
+            pager.onVisibleRangeChanged(window.size() - 1, window.size() - 1);
+        }
+
+        // Assert
+        assertEquals("Item 0", window.get(window.size() - 1).description);
+        assertEquals("Still bounded at the end", 3 * PAGE_SIZE, window.size());
+    }
+
+    @Test
+    public void testApplyAdded_OnlyIntoLoadedRange() {
+        // Act
+        pager.apply(ExpenseChangeSet.added(repository.insert(new Expense(0, "Today", 100, "Food", "2025-12-31"))));
+
+        // Assert
+        assertEquals("Today", window.get(0).description);
+        assertEquals(PAGE_SIZE + 1, window.size());
+
+        // Act: something far older than the loaded window
+        pager.apply(ExpenseChangeSet.added(repository.insert(new Expense(0, "Old", 100, "Food", "2020-01-01"))));
+
+        // Assert
+        assertEquals("Loaded when scrolled to", PAGE_SIZE + 1, window.size());
+    }
+
+    @Test
+    public void testRestore_ResumesPagingFromSavedWindow() {
+        // Arrange: a window saved after scrolling away from the newest rows
+        for (int page = 0; page < 5; page++) {
+            pager.onVisibleRangeChanged(window.size() - 5, window.size() - 1);
+        }
+        List<Expense> saved = window;
+        ExpensePager restored = new ExpensePager(repository, Runnable::run, Runnable::run, PAGE_SIZE, 3, 3,
+                snapshot -> window = snapshot);
+
+        // Act
+        restored.restore(saved, pager.hasOlder(), pager.hasNewer());
+        restored.onVisibleRangeChanged(0, 4);
+
+        // Assert
+        assertTrue(restored.hasNewer());
+        assertEquals("Newer page loaded from the restored edge", "Item 74", window.get(0).description);
+    }
+
+    @Test
+    public void testEdgeChangedWhileLoading_RetriesFromNewEdge() {
+        // Arrange: background loads wait in a queue so the edge can change under one
+        List<Runnable> background = new ArrayList<>();
+        ExpensePager queued = new ExpensePager(repository, background::add, Runnable::run, PAGE_SIZE, 3, 3,
+                snapshot -> window = snapshot);
+        queued.refresh();
+        runAll(background);
+        queued.onVisibleRangeChanged(5, 9);
+        Expense edge = window.get(PAGE_SIZE - 1);
+        repository.delete(edge.id);
+        queued.apply(ExpenseChangeSet.removed(Collections.singletonList(edge)));
+
+        // Act
+        runAll(background);
+
+        // Assert
+        assertEquals("Page from the old edge was dropped and reloaded from the new one", 2 * PAGE_SIZE - 1,
+                window.size());
+        assertEquals("Item 86", window.get(PAGE_SIZE - 2).description);
+        assertEquals("No gap after the new edge", "Item 84", window.get(PAGE_SIZE - 1).description);
+    }
+
+    @Test
+    public void testApplyChangeSet_PublishesOnce() {
+        // Arrange
+        List<Expense> removed = new ArrayList<>(window.subList(0, 3));
+        // Newer than everything in the window
+        Expense added = new Expense(1000, "Lunch", 1200, "Food", "2025-05-01");
+        int[] published = {0};
+        ExpensePager counting = new ExpensePager(repository, Runnable::run, Runnable::run, PAGE_SIZE, 3, 3,
+                snapshot -> {
+                    window = snapshot;
+                    published[0]++;
+                });
+        counting.refresh();
+
+        // Act
+        counting.apply(ExpenseChangeSet.removed(removed).merge(ExpenseChangeSet.added(added)));
+
+        // Assert
+        assertEquals("Refresh and the whole change set are one change each", 2, published[0]);
+        assertEquals(PAGE_SIZE - 3 + 1, window.size());
+        assertEquals("Newest first", "Lunch", window.get(0).description);
+        assertEquals("Item 91", window.get(1).description);
+    }
+
+    @Test
+    public void testApplyCleared_EmptiesWindow() {
+        // Act
+        pager.apply(ExpenseChangeSet.cleared());
+        pager.onVisibleRangeChanged(0, 5);
+
+        // Assert
+        assertTrue(window.isEmpty());
+        assertTrue("Nothing older to page in", pager.isEmpty());
+    }
+
+    @Test
+    public void testHiddenRows_StayHiddenAcrossRefresh() {
+        // Arrange: a delete still inside its undo window, so storage still has the rows
+        Set<Long> ids = new HashSet<>();
+        for (Expense expense : window.subList(0, 3)) {
+            ids.add(expense.id);
+        }
+
+        // Act
+        pager.setHidden(ids);
+        int afterHide = window.size();
+        pager.refresh();
+        int afterRefresh = window.size();
+        pager.setHidden(Collections.<Long>emptySet());
+
+        // Assert
+        assertEquals(PAGE_SIZE - 3, afterHide);
+        assertEquals("A reload doesn't bring them back", PAGE_SIZE - 3, afterRefresh);
+        assertEquals("Shown again once unhidden", PAGE_SIZE, window.size());
+        assertEquals("Item 94", window.get(0).description);
+    }
+
+    @Test
+    public void testHiddenRows_PrefetchFollowsShownPositions() {
+        // Arrange: all but the first two rows of the page hidden
+        Set<Long> ids = new HashSet<>();
+        for (Expense expense : window.subList(2, PAGE_SIZE)) {
+            ids.add(expense.id);
+        }
+        pager.setHidden(ids);
+
+        // Act: the last shown row is visible
+        pager.onVisibleRangeChanged(0, 1);
+
+        // Assert
+        assertEquals("Next page loaded after the hidden rows", 2 + PAGE_SIZE, window.size());
+        assertEquals("Item 84", window.get(2).description);
+    }
+
+    @Test
+    public void testLoadThrows_NextScrollLoadsAgain() {
+        // Arrange: the first page query past the newest page fails
+        boolean[] failed = {false};
+        InMemoryExpenseRepository flaky = new InMemoryExpenseRepository() {
+            @Override
+            public synchronized List<Expense> loadOlderThan(Expense anchor, int limit) {
+                if (!failed[0]) {
+                    failed[0] = true;
+                    throw new IllegalStateException("database locked");
+                }
+                return super.loadOlderThan(anchor, limit);
+            }
+        };
+        flaky.insertAll(repository.loadRecent(100));
+        int[] published = {0};
+        ExpensePager failing = new ExpensePager(flaky, Runnable::run, Runnable::run, PAGE_SIZE, 3, 3,
+                snapshot -> {
+                    window = snapshot;
+                    published[0]++;
+                });
+        failing.refresh();
+
+        // Act
+        failing.onVisibleRangeChanged(5, 9);
+        int afterFailure = window.size();
+        int publishedAfterFailure = published[0];
+        failing.onVisibleRangeChanged(5, 9);
+
+        // Assert
+        assertEquals("Window kept as it was", PAGE_SIZE, afterFailure);
+        assertEquals("The failure is still reported on main", 2, publishedAfterFailure);
+        assertEquals("Not stuck loading", 2 * PAGE_SIZE, window.size());
+        assertEquals("Item 84", window.get(PAGE_SIZE).description);
+    }
+
+    // Runs queued loads, including any they queue in turn
+    private static void runAll(List<Runnable> queue) {
+        while (!queue.isEmpty()) {
+            queue.remove(0).run();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.expensetracker.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for composed queries against the in-memory indexes and for the SQL they compile to
+ */
+@RunWith(JUnit4.class)
+public class ExpenseQueryTest {
+
+    private InMemoryExpenseRepository repository;
+
+    @Before
+    public void setUp() {
+        repository = new InMemoryExpenseRepository();
+        repository.insertAll(Arrays.asList(
+                new Expense(0, "Coffee", 550, "Food", "2025-06-30"),
+                new Expense(0, "Bus", 225, "Transport", "2025-07-01"),
+                new Expense(0, "Lunch", 1200, "Food", "2025-07-13"),
+                new Expense(0, "Cinema", 1800, "Entertainment", "2025-07-20"),
+                new Expense(0, "Dinner", 2500, "Food", "2025-07-31"),
+                new Expense(0, "Taxi", 1500, "Transport", "2025-08-01")));
+    }
+
+    @Test
+    public void testInMonth_IsInclusiveOfBothEnds() {
+        // Act
+        List<Expense> july = repository.find(ExpenseQuery.all().inMonth(EpochDays.parseIso("2025-07-15")));
+
+        // Assert
+        assertEquals(Arrays.asList("Dinner", "Cinema", "Lunch", "Bus"), descriptions(july));
+        assertEquals(225 + 1200 + 1800 + 2500,
+                repository.total(ExpenseQuery.all().inMonth(EpochDays.parseIso("2025-07-15"))));
+    }
+
+    @Test
+    public void testCombinedFilters() {
+        // Arrange
+        ExpenseQuery query = ExpenseQuery.all()
+                .between(EpochDays.parseIso("2025-07-01"), EpochDays.parseIso("2025-08-31"))
+                .inCategories("Food", "Transport")
+                .amountBetween(1000, 2000);
+
+        // Act & Assert
+        assertEquals(Arrays.asList("Taxi", "Lunch"), descriptions(repository.find(query)));
+        assertEquals(2700, repository.total(query));
+    }
+
+    @Test
+    public void testAmountOrders() {
+        assertEquals(Arrays.asList("Dinner", "Cinema", "Taxi"), descriptions(repository.find(
+                ExpenseQuery.all().orderBy(ExpenseQuery.Order.LARGEST_FIRST).limit(3))));
+        assertEquals(Arrays.asList("Coffee", "Lunch"), descriptions(repository.find(
+                ExpenseQuery.all().inCategories("Food").orderBy(ExpenseQuery.Order.SMALLEST_FIRST).limit(2))));
+    }
+
+    @Test
+    public void testKeysetPaging_VisitsEveryRowOnceInEachOrder() {
+        for (ExpenseQuery.Order order : ExpenseQuery.Order.values()) {
+            // Arrange
+            ExpenseQuery query = ExpenseQuery.all().orderBy(order).limit(4);
+            List<Expense> all = new ArrayList<>();
+
+            // Act
+            List<Expense> page = repository.find(query);
+            while (!page.isEmpty()) {
+                all.addAll(page);
+                page = repository.find(query.after(page.get(page.size() - 1)));
+            }
+
+            // Assert
+            assertEquals(order + " visits every row", 6, all.size());
+            for (int i = 1; i < all.size(); i++) {
+                assertTrue(order + " keeps its order", order.comparator.compare(all.get(i - 1), all.get(i)) < 0);
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyRanges() {
+        assertTrue("Unknown category", repository.find(ExpenseQuery.all().inCategories("Bills")).isEmpty());
+        assertTrue("Inverted dates", repository.find(ExpenseQuery.all().between(10, 5)).isEmpty());
+        assertEquals(0, repository.total(ExpenseQuery.all().amountBetween(3000, Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testWhere_OnlyBoundsThatAreSet() {
+        // Arrange
+        List<String> args = new ArrayList<>();
+        ExpenseQuery query = ExpenseQuery.all().between(100, 130).inCategories("Transport", "Food")
+                .amountBetween(500, Long.MAX_VALUE);
+
+        // Act
+        String where = ExpenseSchema.where(query, args);
+
+        // Assert
+        assertEquals("(date >= ?) AND (date <= ?) AND (category IN (?, ?)) AND (amount_cents >= ?)", where);
+        assertEquals("Categories sorted by name, bound as ids", Arrays.asList("100", "130",
+                String.valueOf(CategoryRegistry.FOOD), String.valueOf(CategoryRegistry.TRANSPORT), "500"), args);
+        assertNull("No filters, no WHERE", ExpenseSchema.where(ExpenseQuery.all(), new ArrayList<>()));
+    }
+
+    @Test
+    public void testWhere_KeysetFollowsTheOrder() {
+        // Arrange
+        Expense anchor = new Expense(7, "Lunch", 1200, "Food", 20_000);
+        List<String> args = new ArrayList<>();
+
+        // Act
+        String where = ExpenseSchema.where(
+                ExpenseQuery.all().orderBy(ExpenseQuery.Order.LARGEST_FIRST).after(anchor), args);
+
+        // Assert
+        assertEquals("(" + ExpenseSchema.WHERE_SMALLER_THAN + ")", where);
+        assertEquals(Arrays.asList("1200", "1200", "7"), args);
+        assertEquals(ExpenseSchema.ORDER_LARGEST_FIRST, ExpenseSchema.orderBy(ExpenseQuery.Order.LARGEST_FIRST));
+    }
+
+    @Test
+    public void testInCategories_UsesCanonicalNames() {
+        // Arrange
+        List<String> args = new ArrayList<>();
+        ExpenseQuery query = ExpenseQuery.all().inCategories("food", "No such category");
+
+        // Act
+        ExpenseSchema.where(query, args);
+
+        // Assert
+        assertTrue("Any spelling matches the stored name", query.matches(new Expense(1, "Coffee", 550, "Food", 100)));
+        assertEquals("Unknown names match nothing", Arrays.asList(String.valueOf(CategoryRegistry.FOOD), "-1"), args);
+    }
+
+    private static List<String> descriptions(List<Expense> expenses) {
+        List<String> descriptions = new ArrayList<>();
+        for (Expense expense : expenses) {
+            descriptions.add(expense.description);
+        }
+        return descriptions;
+    }
+}
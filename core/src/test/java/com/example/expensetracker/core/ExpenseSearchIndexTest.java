@@ -0,0 +1,112 @@
+package com.example.expensetracker.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for prefix search over descriptions and categories
+ */
+@RunWith(JUnit4.class)
+public class ExpenseSearchIndexTest {
+
+    private ExpenseSearchIndex index;
+
+    @Before
+    public void setUp() {
+        index = new ExpenseSearchIndex();
+        index.add(new Expense(1, "Morning coffee", 550, "Food", "2025-07-11"));
+        index.add(new Expense(2, "Bus ticket", 225, "Transport", "2025-07-12"));
+        index.add(new Expense(3, "Coffee beans", 1800, "Food", "2025-07-13"));
+        index.add(new Expense(4, "Electricity bill", 9000, "Bills", "2025-07-14"));
+    }
+
+    @Test
+    public void testPrefix_MatchesWhileTyping() {
+        // Act
+        List<Expense> results = index.search("cof", 10);
+
+        // Assert
+        assertEquals(2, results.size());
+        assertEquals("Newest first", 3, results.get(0).id);
+        assertEquals(1, results.get(1).id);
+    }
+
+    @Test
+    public void testMultipleTokens_AllMustMatch() {
+        List<Expense> results = index.search("coffee mor", 10);
+        assertEquals(1, results.size());
+        assertEquals(1, results.get(0).id);
+    }
+
+    @Test
+    public void testCategory_IsSearchable_CaseInsensitive() {
+        List<Expense> results = index.search("TRANS", 10);
+        assertEquals(1, results.size());
+        assertEquals(2, results.get(0).id);
+    }
+
+    @Test
+    public void testRemoveAndUpdate_AreIncremental() {
+        // Act
+        index.remove(3);
+        index.add(new Expense(2, "Coffee to go", 300, "Food", "2025-07-12"));
+
+        // Assert
+        List<Expense> results = index.search("coffee", 10);
+        assertEquals(2, results.size());
+        assertEquals("Updated expense found under its new text", 2, results.get(0).id);
+        assertTrue("Old text no longer matches", index.search("ticket", 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void testLimit_KeepsNewest() {
+        List<Expense> results = index.search("f", 1);
+        assertEquals(1, results.size());
+        assertEquals("Food and coffee match, newest kept", 3, results.get(0).id);
+    }
+
+    @Test
+    public void testBlankQuery_MatchesNothing() {
+        assertTrue(index.search("  ", 10).isEmpty());
+        assertTrue(index.search("zzz", 10).isEmpty());
+    }
+
+    @Test
+    public void testManyRemovals_CompactsWithoutLosingLiveRows() {
+        // Act
+        for (long id = 100; id < 3100; id++) {
+            index.add(new Expense(id, "Temp " + id, 100, "Other", "2025-01-01"));
+        }
+        for (long id = 100; id < 3100; id++) {
+            index.remove(id);
+        }
+
+        // Assert
+        assertEquals(4, index.size());
+        assertEquals(2, index.search("coffee", 10).size());
+        assertTrue(index.search("temp", 10).isEmpty());
+    }
+
+    @Test
+    public void testBuild_IndexesEveryPageOfTheRepository() {
+        // Arrange
+        InMemoryExpenseRepository repository = new InMemoryExpenseRepository();
+        for (int i = 0; i < 25; i++) {
+            repository.insert(new Expense(0, "Lunch " + i, 1000, "Food", "2025-07-" + (10 + i % 10)));
+        }
+
+        // Act
+        ExpenseSearchIndex built = ExpenseSearchIndex.build(repository, 10);
+
+        // Assert
+        assertEquals(25, built.size());
+        assertEquals(25, built.search("lun", 100).size());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.expensetracker.core;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the binary main screen snapshot
+ */
+@RunWith(JUnit4.class)
+public class ExpenseSnapshotTest {
+
+    @Test
+    public void testRoundTrip_KeepsWindowFlagsAndTotals() throws IOException {
+        // Arrange
+        List<Expense> window = Arrays.asList(
+                new Expense(3, "Dinner, with \"friends\"", 2500, "Food", "2025-07-13"),
+                new Expense(2, "Bus", 225, "Transport", "2025-07-12"));
+        ExpenseAggregates aggregates = new ExpenseAggregates();
+        for (Expense expense : window) {
+            aggregates.add(expense);
+        }
+        aggregates.add(new Expense(1, "Coffee", 550, "Food", "2025-06-30"));
+        aggregates.setSequence(17);
+
+        // Act
+        ExpenseSnapshot restored = roundTrip(new ExpenseSnapshot(42, window, true, false, aggregates));
+
+        // Assert
+        assertEquals(42, restored.stamp);
+        assertEquals(window.size(), restored.window.size());
+        for (int i = 0; i < window.size(); i++) {
+            assertEquals(window.get(i).id, restored.window.get(i).id);
+            assertTrue("Same row contents", window.get(i).hasSameContents(restored.window.get(i)));
+        }
+        assertEquals("Dinner, with \"friends\"", restored.window.get(0).description);
+        assertTrue(restored.hasOlder);
+        assertFalse(restored.hasNewer);
+        assertEquals(3275, restored.aggregates.getTotal());
+        assertEquals(3, restored.aggregates.getCount());
+        assertEquals(3050, restored.aggregates.getCategoryTotal("Food"));
+        assertEquals(550, restored.aggregates.getMonthTotal("2025-06"));
+        assertEquals(2500, restored.aggregates.getDayTotal("2025-07-13"));
+        assertEquals("Storage write the totals reflect", 17, restored.aggregates.getSequence());
+    }
+
+    @Test
+    public void testRestoredAggregates_StayIncremental() throws IOException {
+        // Arrange
+        Expense coffee = new Expense(1, "Coffee", 550, "Food", "2025-07-11");
+        ExpenseAggregates aggregates = new ExpenseAggregates();
+        aggregates.add(coffee);
+        ExpenseSnapshot restored = roundTrip(new ExpenseSnapshot(1, Arrays.asList(coffee), false, false, aggregates));
+
+        // Act
+        restored.aggregates.remove(coffee);
+
+        // Assert
+        assertEquals(0, restored.aggregates.getTotal());
+        assertEquals("Day bucket dropped with its last expense", 0, restored.aggregates.bucketCount() - 1);
+    }
+
+    @Test
+    public void testRoundTrip_KeepsUserCategoryIds() throws IOException {
+        // Arrange
+        Expense climbing = new Expense(5, "Climbing pass", 4000, "Bouldering", "2025-07-14");
+        ExpenseAggregates aggregates = new ExpenseAggregates();
+        aggregates.add(climbing);
+
+        // Act
+        ExpenseSnapshot restored = roundTrip(new ExpenseSnapshot(7, Arrays.asList(climbing), false, false, aggregates));
+
+        // Assert
+        Expense row = restored.window.get(0);
+        assertEquals(climbing.categoryId, row.categoryId);
+        assertEquals("Bouldering", row.category);
+        assertEquals(4000, restored.aggregates.getCategoryTotal(climbing.categoryId));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRead_RejectsTruncatedSnapshot() throws IOException {
+        // Arrange
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new ExpenseSnapshot(1, Arrays.asList(new Expense(1, "Coffee", 550, "Food", "2025-07-11")), false, false,
+                new ExpenseAggregates()).writeTo(bytes);
+        byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 6);
+
+        // Act
+        ExpenseSnapshot.readFrom(new ByteArrayInputStream(truncated));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRead_RejectsOtherData() throws IOException {
+        ExpenseSnapshot.readFrom(new ByteArrayInputStream(new byte[32]));
+    }
+
+    private static ExpenseSnapshot roundTrip(ExpenseSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.writeTo(bytes);
+        return ExpenseSnapshot.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.expensetracker.core;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the add-expense validation rules
+ */
+@RunWith(JUnit4.class)
+public class ExpenseValidatorTest {
+
+    private static final String DATE = "2025-07-11";
+
+    @Test
+    public void testValidate_ValidInput_ReturnsCents() {
+        // Act
+        ExpenseValidator.Result result = ExpenseValidator.validate("Coffee", "5.50", DATE);
+
+        // Assert
+        assertTrue("Valid input should pass", result.isValid());
+        assertEquals(550L, result.amountCents);
+        assertEquals(EpochDays.of(2025, 7, 11), result.epochDay);
+    }
+
+    @Test
+    public void testValidate_EmptyDescription_Fails() {
+        ExpenseValidator.Result result = ExpenseValidator.validate("", "5.50", DATE);
+        assertEquals(ExpenseValidator.Field.DESCRIPTION, result.field);
+    }
+
+    @Test
+    public void testValidate_DescriptionLength() {
+        String fifty = "12345678901234567890123456789012345678901234567890";
+        assertTrue("50 characters should pass",
+                ExpenseValidator.validate(fifty, "1", DATE).isValid());
+        assertEquals("51 characters should fail", ExpenseValidator.Field.DESCRIPTION,
+                ExpenseValidator.validate(fifty + "1", "1", DATE).field);
+    }
+
+    @Test
+    public void testValidate_AmountBounds() {
+        assertEquals("Empty amount", ExpenseValidator.Field.AMOUNT,
+                ExpenseValidator.validate("Coffee", "", DATE).field);
+        assertEquals("Zero amount", ExpenseValidator.Field.AMOUNT,
+                ExpenseValidator.validate("Coffee", "0", DATE).field);
+        assertEquals("Negative amount", ExpenseValidator.Field.AMOUNT,
+                ExpenseValidator.validate("Coffee", "-1", DATE).field);
+        assertEquals("Malformed amount", ExpenseValidator.Field.AMOUNT,
+                ExpenseValidator.validate("Coffee", "abc", DATE).field);
+        assertTrue("Maximum amount should pass",
+                ExpenseValidator.validate("Coffee", "999999.99", DATE).isValid());
+        assertEquals("Over maximum", ExpenseValidator.Field.AMOUNT,
+                ExpenseValidator.validate("Coffee", "1000000", DATE).field);
+    }
+
+    @Test
+    public void testValidate_EmptyDate_Fails() {
+        ExpenseValidator.Result result = ExpenseValidator.validate("Coffee", "5.50", "");
+        assertEquals(ExpenseValidator.Field.DATE, result.field);
+        assertEquals("Please select a date", result.message);
+    }
+
+    @Test
+    public void testValidate_MalformedDate_Fails() {
+        assertEquals(ExpenseValidator.Field.DATE, ExpenseValidator.validate("Coffee", "5.50", "11/07/2025").field);
+        assertEquals("No February 30th", ExpenseValidator.Field.DATE,
+                ExpenseValidator.validate("Coffee", "5.50", "2025-02-30").field);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.expensetracker.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-process stand-in for the Realtime Database.
+ * Stores each written child as a flat map keyed by its full path, resolves
+ * server timestamps from a logical clock and can simulate being offline.
+ */
+class FakeRemoteDatabase implements RemoteDatabase {
+
+    private final Map<String, Map<String, Object>> nodes = new TreeMap<>();
+    private int failuresRemaining;
+    private int writeCount;
+    private int queryCount;
+    private long clock = 1000;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void updateChildren(String path, Map<String, Object> updates, CompletionListener listener) {
+        synchronized (this) {
+            if (failuresRemaining > 0) {
+                failuresRemaining--;
+                listener.onComplete(new IOException("Simulated network failure"));
+                return;
+            }
+            writeCount++;
+            long now = ++clock;
+            for (Map.Entry<String, Object> update : updates.entrySet()) {
+                String childPath = path + "/" + update.getKey();
+                if (update.getValue() == null) {
+                    nodes.remove(childPath);
+                    continue;
+                }
+                Map<String, Object> value = new HashMap<>((Map<String, Object>) update.getValue());
+                for (Map.Entry<String, Object> field : value.entrySet()) {
+                    if (field.getValue() == SERVER_TIMESTAMP) {
+                        field.setValue(now);
+                    }
+                }
+                nodes.put(childPath, value);
+            }
+        }
+        listener.onComplete(null);
+    }
+
+    @Override
+    public void queryChangedSince(String path, SyncCursor cursor, int limit, QueryListener listener) {
+        List<RemoteChild> children = new ArrayList<>();
+        synchronized (this) {
+            if (failuresRemaining > 0) {
+                failuresRemaining--;
+                listener.onResult(null, new IOException("Simulated network failure"));
+                return;
+            }
+            queryCount++;
+            String prefix = path + "/";
+            for (Map.Entry<String, Map<String, Object>> node : nodes.entrySet()) {
+                String key = node.getKey().startsWith(prefix) ? node.getKey().substring(prefix.length()) : null;
+                if (key != null && key.indexOf('/') < 0
+                        && cursor.isBefore(updatedAt(node.getValue()), key)) {
+                    children.add(new RemoteChild(key, new HashMap<>(node.getValue())));
+                }
+            }
+        }
+        children.sort((a, b) -> {
+            int byTime = Long.compare(updatedAt(a.value), updatedAt(b.value));
+            return byTime != 0 ? byTime : SyncCursor.compareKeys(a.key, b.key);
+        });
+        listener.onResult(children.size() > limit ? new ArrayList<>(children.subList(0, limit)) : children, null);
+    }
+
+    private static long updatedAt(Map<String, Object> value) {
+        Object updatedAt = value.get(OutboxCoalescer.FIELD_UPDATED_AT);
+        return updatedAt instanceof Long ? (Long) updatedAt : 0;
+    }
+
+    synchronized void failNext(int count) {
+        failuresRemaining = count;
+    }
+
+    synchronized Map<String, Object> get(String path) {
+        return nodes.get(path);
+    }
+
+    synchronized int nodeCount() {
+        return nodes.size();
+    }
+
+    synchronized int getQueryCount() {
+        return queryCount;
+    }
+
+    // Number of successful multi-path writes
+    synchronized int getWriteCount() {
+        return writeCount;
+    }
+}
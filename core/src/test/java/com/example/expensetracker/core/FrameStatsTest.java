@@ -0,0 +1,123 @@
+package com.example.expensetracker.core;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the frame, bind, inflation and stall counters
+ */
+@RunWith(JUnit4.class)
+public class FrameStatsTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    public void testRecordFrame_CountsJankAndFrozen() {
+        // Arrange
+        FrameStats stats = new FrameStats();
+
+        // Act
+        stats.recordFrame(8 * MILLIS);
+        stats.recordFrame(FrameStats.FRAME_BUDGET_NANOS);
+        stats.recordFrame(40 * MILLIS);
+        stats.recordFrame(FrameStats.FROZEN_FRAME_NANOS);
+
+        // Assert
+        assertEquals(4, stats.frames());
+        assertEquals("A frame exactly on budget isn't janky", 2, stats.jankyFrames());
+        assertEquals(1, stats.frozenFrames());
+    }
+
+    @Test
+    public void testFrameMillisAt_Percentiles() {
+        // Arrange
+        FrameStats stats = new FrameStats();
+        for (int i = 0; i < 98; i++) {
+            stats.recordFrame(5 * MILLIS);
+        }
+        stats.recordFrame(30 * MILLIS);
+        stats.recordFrame(2000 * MILLIS);
+
+        // Act & Assert
+        assertEquals(5, stats.frameMillisAt(50));
+        assertEquals(5, stats.frameMillisAt(98));
+        assertEquals(30, stats.frameMillisAt(99));
+        assertEquals("Very long frames share the last bucket", 128, stats.frameMillisAt(100));
+        assertEquals("No frames", 0, new FrameStats().frameMillisAt(99));
+    }
+
+    @Test
+    public void testBindsInflationsAndStalls() {
+        // Arrange
+        FrameStats stats = new FrameStats();
+
+        // Act
+        stats.recordBind(MILLIS / 10);
+        stats.recordBind(FrameStats.SLOW_BIND_NANOS);
+        stats.recordInflation(3 * MILLIS);
+        stats.recordStall(250 * MILLIS);
+        stats.recordStall(120 * MILLIS);
+
+        // Assert
+        assertEquals(2, stats.binds());
+        assertEquals(1, stats.slowBinds());
+        assertEquals(FrameStats.SLOW_BIND_NANOS, stats.maxBindNanos());
+        assertEquals(1, stats.inflations());
+        assertEquals(2, stats.stalls());
+        assertEquals(250 * MILLIS, stats.maxStallNanos());
+        assertTrue(stats.report().contains("Main-thread stalls: 2, longest 250 ms"));
+    }
+
+    @Test
+    public void testReset_ClearsEverything() {
+        // Arrange
+        FrameStats stats = new FrameStats();
+        stats.recordFrame(40 * MILLIS);
+        stats.recordBind(FrameStats.SLOW_BIND_NANOS);
+        stats.recordStall(MILLIS);
+
+        // Act
+        stats.reset();
+
+        // Assert
+        assertEquals(0, stats.frames());
+        assertEquals(0, stats.frameMillisAt(99));
+        assertEquals(0, stats.slowBinds());
+        assertEquals(0, stats.maxStallNanos());
+    }
+
+    @Test
+    public void testConcurrentRecording_LosesNothing() throws InterruptedException {
+        // Arrange
+        FrameStats stats = new FrameStats();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch done = new CountDownLatch(4);
+
+        // Act
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    stats.recordFrame(20 * MILLIS);
+                    stats.recordBind(MILLIS);
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // Assert
+        assertEquals(40_000, stats.frames());
+        assertEquals(40_000, stats.jankyFrames());
+        assertEquals(40_000, stats.binds());
+        assertEquals(20, stats.frameMillisAt(50));
+    }
+}
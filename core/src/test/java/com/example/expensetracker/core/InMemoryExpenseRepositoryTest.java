@@ -0,0 +1,130 @@
+package com.example.expensetracker.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the in-memory repository's queries and totals
+ */
+@RunWith(JUnit4.class)
+public class InMemoryExpenseRepositoryTest {
+
+    private InMemoryExpenseRepository repository;
+
+    @Before
+    public void setUp() {
+        repository = new InMemoryExpenseRepository();
+        repository.insertAll(Arrays.asList(
+                new Expense(0, "Coffee", 550, "Food", "2025-07-11"),
+                new Expense(0, "Bus", 225, "Transport", "2025-07-12"),
+                new Expense(0, "Lunch", 1200, "Food", "2025-07-13"),
+                new Expense(0, "Dinner", 2500, "Food", "2025-07-13")));
+    }
+
+    @Test
+    public void testInsert_AssignsIds() {
+        // Act
+        Expense saved = repository.insert(new Expense(0, "Taxi", 1500, "Transport", "2025-07-14"));
+
+        // Assert
+        assertEquals("Ids continue after the batch", 5, saved.id);
+        assertEquals(5, repository.count());
+    }
+
+    @Test
+    public void testLoadRecent_NewestFirstWithLimit() {
+        // Act
+        List<Expense> page = repository.loadRecent(3);
+
+        // Assert
+        assertEquals(3, page.size());
+        assertEquals("Same day: higher id first", "Dinner", page.get(0).description);
+        assertEquals("Lunch", page.get(1).description);
+        assertEquals("Bus", page.get(2).description);
+    }
+
+    @Test
+    public void testKeysetPaging_ContinuesFromAnchor() {
+        // Arrange: Dinner, Lunch, Bus, Coffee in list order
+        List<Expense> firstPage = repository.loadRecent(2);
+
+        // Act
+        List<Expense> older = repository.loadOlderThan(firstPage.get(1), 10);
+        List<Expense> newer = repository.loadNewerThan(older.get(1), 10);
+
+        // Assert
+        assertEquals("Same-day tie broken by id", "Bus", older.get(0).description);
+        assertEquals("Coffee", older.get(1).description);
+        assertEquals(3, newer.size());
+        assertEquals("Newer rows keep list order", "Dinner", newer.get(0).description);
+        assertEquals("Bus", newer.get(2).description);
+    }
+
+    @Test
+    public void testFindByCategory() {
+        List<Expense> food = repository.findByCategory("Food", 10);
+        assertEquals(3, food.size());
+        assertEquals("Dinner", food.get(0).description);
+        assertTrue("Unknown category is empty", repository.findByCategory("Bills", 10).isEmpty());
+    }
+
+    @Test
+    public void testFindByDateRange_IsInclusive() {
+        List<Expense> range = repository.findByDateRange("2025-07-11", "2025-07-12", 10);
+        assertEquals(2, range.size());
+        assertEquals("Bus", range.get(0).description);
+        assertEquals("Coffee", range.get(1).description);
+        assertTrue("Reversed range is empty",
+                repository.findByDateRange("2025-07-13", "2025-07-11", 10).isEmpty());
+    }
+
+    @Test
+    public void testUpdateAndDelete_KeepTotalsInSync() {
+        // Arrange
+        Expense bus = repository.findByCategory("Transport", 1).get(0);
+
+        // Act
+        repository.update(new Expense(bus.id, "Train", 900, "Transport", bus.epochDay));
+        repository.delete(repository.findByCategory("Food", 1).get(0).id);
+
+        // Assert
+        assertEquals(550 + 900 + 1200, repository.getTotal());
+        assertEquals(3, repository.count());
+        assertEquals(900, repository.loadAggregates().getCategoryTotal("Transport"));
+    }
+
+    @Test
+    public void testLoadAggregates_ReturnsIndependentCopy() {
+        // Arrange
+        ExpenseAggregates snapshot = repository.loadAggregates();
+
+        // Act
+        repository.deleteAll();
+
+        // Assert
+        assertEquals("Snapshot unaffected", 4475, snapshot.getTotal());
+        assertEquals(0, repository.getTotal());
+    }
+
+    @Test
+    public void testDeleteAllByIds_SkipsUnknownAndKeepsTotals() {
+        // Arrange
+        List<Expense> food = repository.findByCategory("Food", 10);
+
+        // Act
+        int deleted = repository.deleteAll(Arrays.asList(food.get(0).id, food.get(1).id, 999L));
+
+        // Assert
+        assertEquals(2, deleted);
+        assertEquals(2, repository.count());
+        assertEquals(550 + 225, repository.getTotal());
+        assertEquals(550, repository.loadAggregates().getCategoryTotal("Food"));
+    }
+}
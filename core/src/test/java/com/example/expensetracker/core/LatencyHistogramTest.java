@@ -0,0 +1,101 @@
+package com.example.expensetracker.core;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the log-linear latency buckets and their percentiles
+ */
+@RunWith(JUnit4.class)
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBuckets_CoverEveryValueWithinPrecision() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            // Arrange
+            long value = random.nextLong() >>> (21 + random.nextInt(42));
+
+            // Act
+            int index = LatencyHistogram.indexOf(value);
+            long upper = LatencyHistogram.upperBound(index);
+
+            // Assert
+            assertTrue(value + " fits its bucket", value <= upper);
+            assertTrue(value + " is within 1/32 of its bucket edge", upper - value <= value / 32);
+            if (index > 0) {
+                assertTrue("Buckets don't overlap", LatencyHistogram.upperBound(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    public void testValueAtPercentile() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+
+        // Act
+        long p50 = histogram.valueAtPercentile(50);
+        long p99 = histogram.valueAtPercentile(99);
+
+        // Assert
+        assertEquals(500e6, p50, 500e6 / 32);
+        assertTrue("Never under-reports", p50 >= 500_000_000L);
+        assertEquals(990e6, p99, 990e6 / 32);
+        assertEquals("p100 is the exact max", 1000_000_000L, histogram.valueAtPercentile(100));
+        assertEquals(500.5e6, histogram.meanNanos(), 1);
+        assertEquals(1000, histogram.count());
+    }
+
+    @Test
+    public void testEmptyAndReset() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act & Assert
+        assertEquals(0, histogram.valueAtPercentile(99));
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals("Negative values clamp to 0", 0, histogram.valueAtPercentile(50));
+        assertTrue("Huge values are clamped, not lost", histogram.valueAtPercentile(100) > 0);
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.maxNanos());
+    }
+
+    @Test
+    public void testConcurrentRecording_LosesNothing() throws InterruptedException {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch done = new CountDownLatch(4);
+
+        // Act
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 25_000; i++) {
+                    histogram.record(1000);
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // Assert
+        assertEquals(100_000, histogram.count());
+        assertEquals(1000, histogram.maxNanos());
+    }
+}
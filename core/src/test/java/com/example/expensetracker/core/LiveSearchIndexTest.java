@@ -0,0 +1,90 @@
+package com.example.expensetracker.core;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for keeping the search index current while it is rebuilt
+ */
+@RunWith(JUnit4.class)
+public class LiveSearchIndexTest {
+
+    private static final int BATCH_SIZE = 10;
+
+    private final LiveSearchIndex index = new LiveSearchIndex();
+
+    @Test
+    public void testChangesBetweenBuilds_AppliedAtOnce() {
+        // Act
+        index.apply(ExpenseChangeSet.added(new Expense(1, "Morning coffee", 550, "Food", "2025-07-11")));
+
+        // Assert
+        assertEquals(1, index.current().search("coffee", 10).size());
+    }
+
+    @Test
+    public void testChangeDuringBuild_ReplayedOntoNewIndex() {
+        // Arrange: a change committed after the build has read past it
+        Expense stored = new Expense(1, "Bus ticket", 225, "Transport", "2025-07-12");
+        Expense late = new Expense(2, "Coffee beans", 1800, "Food", "2025-07-13");
+        InMemoryExpenseRepository repository = new InMemoryExpenseRepository() {
+            @Override
+            public synchronized List<Expense> loadRecent(int limit) {
+                List<Expense> page = super.loadRecent(limit);
+                index.apply(ExpenseChangeSet.removed(Collections.singletonList(stored))
+                        .merge(ExpenseChangeSet.added(late)));
+                return page;
+            }
+        };
+        repository.insert(stored);
+
+        // Act
+        boolean swapped = index.rebuild(repository, BATCH_SIZE);
+
+        // Assert
+        assertTrue(swapped);
+        assertTrue("Removal replayed", index.current().search("bus", 10).isEmpty());
+        assertEquals("Addition replayed", 1, index.current().search("coffee", 10).size());
+    }
+
+    @Test
+    public void testOvertakenBuild_Dropped() {
+        // Arrange: a second rebuild starts while the first is still reading
+        InMemoryExpenseRepository newer = new InMemoryExpenseRepository();
+        newer.insert(new Expense(1, "Electricity bill", 9000, "Bills", "2025-07-14"));
+        boolean[] innerSwapped = new boolean[1];
+        InMemoryExpenseRepository older = new InMemoryExpenseRepository() {
+            @Override
+            public synchronized List<Expense> loadRecent(int limit) {
+                innerSwapped[0] = index.rebuild(newer, BATCH_SIZE);
+                return super.loadRecent(limit);
+            }
+        };
+
+        // Act
+        boolean outerSwapped = index.rebuild(older, BATCH_SIZE);
+
+        // Assert
+        assertTrue(innerSwapped[0]);
+        assertFalse(outerSwapped);
+        assertEquals("The later build stays", 1, index.current().search("bill", 10).size());
+    }
+
+    @Test
+    public void testCleared_StartsEmptyIndex() {
+        // Arrange
+        index.apply(ExpenseChangeSet.added(new Expense(1, "Morning coffee", 550, "Food", "2025-07-11")));
+
+        // Act
+        index.apply(ExpenseChangeSet.cleared());
+
+        // Assert
+        assertTrue(index.current().search("coffee", 10).isEmpty());
+    }
+}
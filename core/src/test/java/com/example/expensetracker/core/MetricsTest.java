@@ -0,0 +1,154 @@
+package com.example.expensetracker.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the metrics registry, timed sections and the JSON Lines exporter
+ */
+@RunWith(JUnit4.class)
+public class MetricsTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private Metrics metrics;
+
+    @Before
+    public void setUp() {
+        metrics = new Metrics(nanos::get);
+    }
+
+    @Test
+    public void testRegistry_ReturnsTheSameMetricForAName() {
+        // Act
+        metrics.counter("expense.added").increment();
+        metrics.counter("expense.added").add(2);
+
+        // Assert
+        assertSame(metrics.histogram("auth.signIn"), metrics.histogram("auth.signIn"));
+        assertEquals(3, metrics.counter("expense.added").get());
+    }
+
+    @Test
+    public void testSection_RecordsLatencyAndErrorsOnce() {
+        // Arrange
+        Metrics.Section ok = metrics.begin("auth.signIn");
+        Metrics.Section failed = metrics.begin("auth.signIn");
+
+        // Act
+        nanos.addAndGet(250_000_000L);
+        ok.end();
+        nanos.addAndGet(50_000_000L);
+        failed.end(false);
+        failed.end(true);
+
+        // Assert
+        LatencyHistogram histogram = metrics.histogram("auth.signIn");
+        assertEquals("A repeated end is ignored", 2, histogram.count());
+        assertEquals(300_000_000L, histogram.maxNanos());
+        assertEquals(1, metrics.counter("auth.signIn.errors").get());
+    }
+
+    @Test
+    public void testTime_CountsThrownErrors() throws Exception {
+        // Act
+        String result = metrics.time("expense.add", () -> "saved");
+        try {
+            metrics.time("expense.add", () -> {
+                throw new IOException("disk full");
+            });
+            fail("The exception is rethrown");
+        } catch (IOException expected) {
+            // Expected
+        }
+
+        // Assert
+        assertEquals("saved", result);
+        assertEquals(2, metrics.histogram("expense.add").count());
+        assertEquals(1, metrics.counter("expense.add.errors").get());
+    }
+
+    @Test
+    public void testSection_NotifiesTraceListener() {
+        // Arrange
+        List<String> events = new ArrayList<>();
+        metrics.setTraceListener(new Metrics.TraceListener() {
+            @Override
+            public void onBegin(String name, int cookie) {
+                events.add("begin " + name + " " + cookie);
+            }
+
+            @Override
+            public void onEnd(String name, int cookie) {
+                events.add("end " + name + " " + cookie);
+            }
+        });
+
+        // Act
+        Metrics.Section first = metrics.begin("sync.push");
+        Metrics.Section second = metrics.begin("sync.push");
+        first.end();
+        second.end();
+
+        // Assert
+        assertEquals("Overlapping sections get their own cookies", 4, events.size());
+        assertEquals(events.get(0).replace("begin", "end"), events.get(2));
+        assertNotEquals(events.get(0), events.get(1));
+    }
+
+    @Test
+    public void testExporter_WritesSortedJsonLines() throws IOException {
+        // Arrange
+        metrics.counter("b.count").add(4);
+        metrics.counter("a.count").increment();
+        Metrics.Section section = metrics.begin("expense.add");
+        nanos.addAndGet(2_000_000L);
+        section.end();
+        StringWriter out = new StringWriter();
+
+        // Act
+        MetricsExporter.write(metrics, out);
+
+        // Assert
+        String[] lines = out.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("{\"type\":\"counter\",\"name\":\"a.count\",\"value\":1}", lines[0]);
+        assertEquals("{\"type\":\"counter\",\"name\":\"b.count\",\"value\":4}", lines[1]);
+        assertTrue(lines[2], lines[2].startsWith("{\"type\":\"histogram\",\"name\":\"expense.add\",\"count\":1,"
+                + "\"mean_ms\":2.000,\"p50_ms\":2.000,"));
+    }
+
+    @Test
+    public void testExport_ReplacesTheFile() throws IOException {
+        // Arrange
+        File file = File.createTempFile("metrics", ".jsonl");
+        metrics.counter("auth.signIn.errors").increment();
+
+        try {
+            // Act
+            MetricsExporter.export(metrics, file);
+            metrics.counter("auth.signIn.errors").increment();
+            MetricsExporter.export(metrics, file);
+
+            // Assert
+            List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            assertEquals(1, lines.size());
+            assertTrue(lines.get(0).endsWith("\"value\":2}"));
+            assertFalse("No temp file left behind", new File(file.getPath() + ".tmp").exists());
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.expensetracker.core;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the long-cents money parser and formatter
+ */
+@RunWith(JUnit4.class)
+public class MoneyTest {
+
+    @Test
+    public void testParseCents_ValidAmounts() {
+        assertEquals("Whole number", 1200L, Money.parseCents("12"));
+        assertEquals("One decimal", 1250L, Money.parseCents("12.5"));
+        assertEquals("Two decimals", 1205L, Money.parseCents("12.05"));
+        assertEquals("Leading dot", 50L, Money.parseCents(".5"));
+        assertEquals("Trailing dot", 700L, Money.parseCents("7."));
+        assertEquals("Maximum amount", Money.MAX_EXPENSE_CENTS, Money.parseCents("999999.99"));
+        assertEquals("Negative amount", -150L, Money.parseCents("-1.50"));
+    }
+
+    @Test
+    public void testParseCents_InvalidAmounts() {
+        assertEquals("Empty text", Money.INVALID, Money.parseCents(""));
+        assertEquals("Only a dot", Money.INVALID, Money.parseCents("."));
+        assertEquals("Only a sign", Money.INVALID, Money.parseCents("-"));
+        assertEquals("Letters", Money.INVALID, Money.parseCents("12a"));
+        assertEquals("Three decimals", Money.INVALID, Money.parseCents("1.005"));
+        assertEquals("Two dots", Money.INVALID, Money.parseCents("1.2.3"));
+        assertEquals("Too many digits", Money.INVALID, Money.parseCents("1234567890123456"));
+    }
+
+    @Test
+    public void testFormat_String() {
+        assertEquals("$0.00", Money.format(0));
+        assertEquals("$0.05", Money.format(5));
+        assertEquals("$5.50", Money.format(550));
+        assertEquals("$999999.99", Money.format(Money.MAX_EXPENSE_CENTS));
+        assertEquals("-$12.30", Money.format(-1230));
+    }
+
+    @Test
+    public void testFormat_IntoBufferAtOffset() {
+        // Arrange
+        char[] buffer = new char[Money.MAX_FORMATTED_LENGTH + 2];
+
+        // Act
+        int length = Money.format(123456, buffer, 2);
+
+        // Assert
+        assertEquals("$1234.56", new String(buffer, 2, length));
+    }
+
+    @Test
+    public void testFormat_ExtremeValuesFitBuffer() {
+        assertEquals("-$92233720368547758.08", Money.format(Long.MIN_VALUE));
+        assertEquals("$92233720368547758.07", Money.format(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testSum_IsExactAfterManyAddDeleteCycles() {
+        // 0.1 + 0.2 style drift can't happen with integer cents
+        long total = 0;
+        for (int i = 0; i < 100_000; i++) {
+            total += Money.parseCents("0.10");
+            total += Money.parseCents("0.20");
+            total -= Money.parseCents("0.30");
+        }
+        assertEquals(0L, total);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.expensetracker.core;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for collapsing outbox entries into one multi-path update
+ */
+@RunWith(JUnit4.class)
+public class OutboxCoalescerTest {
+
+    private final InMemoryOutboxStore outbox = new InMemoryOutboxStore();
+
+    @Test
+    public void testCreateThenDelete_CancelsOut() {
+        // Arrange
+        Expense coffee = new Expense(7, "Coffee", 550, "Food", "2025-07-11");
+        outbox.append(OutboxEntry.OP_CREATE, 7, coffee);
+        outbox.append(OutboxEntry.OP_DELETE, 7, null);
+
+        // Act
+        Map<String, Object> updates = OutboxCoalescer.coalesce(outbox.peek(10));
+
+        // Assert
+        assertTrue("Nothing to send for an expense that never reached the server", updates.isEmpty());
+    }
+
+    @Test
+    public void testRepeatedUpdates_LastValueWins() {
+        // Arrange
+        outbox.append(OutboxEntry.OP_CREATE, 7, new Expense(7, "Coffee", 550, "Food", "2025-07-11"));
+        outbox.append(OutboxEntry.OP_UPDATE, 7, new Expense(7, "Coffee", 600, "Food", "2025-07-11"));
+        outbox.append(OutboxEntry.OP_UPDATE, 7, new Expense(7, "Latte", 650, "Food", "2025-07-11"));
+
+        // Act
+        Map<String, Object> updates = OutboxCoalescer.coalesce(outbox.peek(10));
+
+        // Assert
+        assertEquals("One write per expense", 1, updates.size());
+        Map<?, ?> value = (Map<?, ?>) updates.get("expenses/7");
+        assertEquals("Latte", value.get(OutboxCoalescer.FIELD_DESCRIPTION));
+        assertEquals(650L, value.get(OutboxCoalescer.FIELD_AMOUNT_CENTS));
+        assertEquals(RemoteDatabase.SERVER_TIMESTAMP, value.get(OutboxCoalescer.FIELD_UPDATED_AT));
+    }
+
+    @Test
+    public void testDeleteOfSyncedExpense_WritesTombstone() {
+        // Arrange: expense 3 was flushed in an earlier batch
+        outbox.append(OutboxEntry.OP_UPDATE, 3, new Expense(3, "Bus", 225, "Transport", "2025-07-12"));
+        outbox.append(OutboxEntry.OP_DELETE, 3, null);
+        outbox.append(OutboxEntry.OP_CREATE, 4, new Expense(4, "Taxi", 1500, "Transport", "2025-07-12"));
+
+        // Act
+        Map<String, Object> updates = OutboxCoalescer.coalesce(outbox.peek(10));
+
+        // Assert
+        assertEquals(2, updates.size());
+        Map<?, ?> tombstone = (Map<?, ?>) updates.get("expenses/3");
+        assertEquals("Deletes stay visible to other devices", true, tombstone.get(OutboxCoalescer.FIELD_DELETED));
+        assertNull(tombstone.get(OutboxCoalescer.FIELD_DESCRIPTION));
+        assertEquals(false, ((Map<?, ?>) updates.get("expenses/4")).get(OutboxCoalescer.FIELD_DELETED));
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.expensetracker.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for draining the outbox into a fake remote database
+ */
+@RunWith(JUnit4.class)
+public class OutboxFlusherTest {
+
+    private static final String USER_PATH = OutboxFlusher.userPath("user1");
+
+    private final InMemoryOutboxStore outbox = new InMemoryOutboxStore();
+    private final FakeRemoteDatabase remote = new FakeRemoteDatabase();
+    private ScheduledExecutorService executor;
+    private OutboxFlusher flusher;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        flusher = new OutboxFlusher(outbox, remote, USER_PATH, executor,
+                new Backoff(1, 8, new Random(42)), 2);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testFlush_SendsBatchesAndEmptiesOutbox() throws Exception {
+        // Arrange
+        for (long id = 1; id <= 5; id++) {
+            outbox.append(OutboxEntry.OP_CREATE, id, new Expense(id, "Item " + id, id * 100, "Food", "2025-07-11"));
+        }
+
+        // Act
+        flusher.requestFlush();
+        awaitEmptyOutbox();
+
+        // Assert
+        assertEquals("Batch size of 2 means 3 writes", 3, remote.getWriteCount());
+        assertEquals(5, remote.nodeCount());
+        assertEquals(300L, remote.get(USER_PATH + "/expenses/3").get(OutboxCoalescer.FIELD_AMOUNT_CENTS));
+    }
+
+    @Test
+    public void testFlush_CancelledBatchSkipsNetwork() throws Exception {
+        // Arrange
+        outbox.append(OutboxEntry.OP_CREATE, 1, new Expense(1, "Coffee", 550, "Food", "2025-07-11"));
+        outbox.append(OutboxEntry.OP_DELETE, 1, null);
+
+        // Act
+        flusher.requestFlush();
+        awaitEmptyOutbox();
+
+        // Assert
+        assertEquals("No round trip for a no-op batch", 0, remote.getWriteCount());
+    }
+
+    @Test
+    public void testFlush_RetriesAfterFailures() throws Exception {
+        // Arrange
+        remote.failNext(3);
+        outbox.append(OutboxEntry.OP_CREATE, 1, new Expense(1, "Coffee", 550, "Food", "2025-07-11"));
+
+        // Act
+        flusher.requestFlush();
+        awaitEmptyOutbox();
+
+        // Assert
+        assertEquals("Entry survives failures and is written once", 1, remote.getWriteCount());
+        assertNotNull(remote.get(USER_PATH + "/expenses/1"));
+    }
+
+    @Test
+    public void testSynchronousThrow_RetriedWithBackoff() throws Exception {
+        // Arrange: the first upload throws before any round trip, like a value the server rejects
+        AtomicInteger uploads = new AtomicInteger();
+        RemoteDatabase throwingOnce = new RemoteDatabase() {
+            @Override
+            public void updateChildren(String path, Map<String, Object> updates, CompletionListener listener) {
+                if (uploads.getAndIncrement() == 0) {
+                    throw new IllegalArgumentException("Invalid value");
+                }
+                remote.updateChildren(path, updates, listener);
+            }
+
+            @Override
+            public void queryChangedSince(String path, SyncCursor cursor, int limit, QueryListener listener) {
+                remote.queryChangedSince(path, cursor, limit, listener);
+            }
+        };
+        flusher = new OutboxFlusher(outbox, throwingOnce, USER_PATH, executor,
+                new Backoff(1, 8, new Random(42)), 2);
+        outbox.append(OutboxEntry.OP_CREATE, 1, new Expense(1, "Coffee", 550, "Food", "2025-07-11"));
+
+        // Act
+        flusher.requestFlush();
+        awaitEmptyOutbox();
+
+        // Assert
+        assertEquals("Retried after the throw", 2, uploads.get());
+        assertEquals(1, remote.getWriteCount());
+    }
+
+    @Test
+    public void testBackoff_GrowsAndIsCapped() {
+        Backoff backoff = new Backoff(100, 1000, new Random(1));
+        for (int i = 0; i < 10; i++) {
+            long delay = backoff.nextDelayMillis();
+            assertTrue("Never below the base delay", delay >= 100);
+            assertTrue("Never above the cap", delay <= 1000);
+        }
+
+        // A Random pinned to the top of its range makes each delay the current ceiling
+        Backoff pinned = new Backoff(100, 1000, new Random() {
+            @Override
+            public double nextDouble() {
+                return 1.0;
+            }
+        });
+        long[] delays = new long[6];
+        for (int i = 0; i < delays.length; i++) {
+            delays[i] = pinned.nextDelayMillis();
+        }
+        assertArrayEquals("Doubles per failure up to the cap", new long[]{100, 200, 400, 800, 1000, 1000}, delays);
+        pinned.reset();
+        assertEquals("Back to the base delay", 100, pinned.nextDelayMillis());
+    }
+
+    private void awaitEmptyOutbox() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (outbox.size() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals("Outbox drained", 0, outbox.size());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.expensetracker.core;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for settling a deferred delete exactly once
+ */
+@RunWith(JUnit4.class)
+public class PendingDeleteTest {
+
+    @Test
+    public void testCommit_OnlyOnce() {
+        // Arrange
+        PendingDelete delete = PendingDelete.of(Arrays.asList(new Expense(1, "Coffee", 550, "Food", "2025-07-11")));
+
+        // Act
+        boolean first = delete.commit();
+        boolean second = delete.commit();
+
+        // Assert
+        assertTrue(first);
+        assertFalse("Dismiss callback after an explicit commit is a no-op", second);
+        assertFalse("Too late to undo", delete.undo());
+        assertFalse("Still settled after the refused undo", delete.commit());
+    }
+
+    @Test
+    public void testUndo_PreventsCommit() {
+        // Arrange
+        PendingDelete delete = PendingDelete.everything();
+
+        // Act
+        boolean undone = delete.undo();
+
+        // Assert
+        assertTrue(undone);
+        assertFalse("Nothing is deleted after undo", delete.commit());
+        assertFalse("Undone only once", delete.undo());
+        assertTrue(delete.all);
+        assertTrue(delete.expenses.isEmpty());
+    }
+
+    @Test
+    public void testIds_CoverSelection() {
+        PendingDelete delete = PendingDelete.of(Arrays.asList(
+                new Expense(1, "Coffee", 550, "Food", "2025-07-11"),
+                new Expense(2, "Bus", 225, "Transport", "2025-07-12")));
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), delete.ids());
+        assertFalse(delete.all);
+    }
+}
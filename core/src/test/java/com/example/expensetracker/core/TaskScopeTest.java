@@ -0,0 +1,128 @@
+package com.example.expensetracker.core;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for handing background results back to a screen
+ */
+@RunWith(JUnit4.class)
+public class TaskScopeTest {
+
+    // Stands in for the main looper: tasks wait here until the test runs them
+    private final BlockingQueue<Runnable> mainQueue = new LinkedBlockingQueue<>();
+    private final ExecutorService io = Executors.newFixedThreadPool(2);
+    private final ExecutorService diskWriter = Executors.newSingleThreadExecutor();
+    private final List<Throwable> errors = new ArrayList<>();
+    private final TaskScope scope = new TaskScope(mainQueue::add, io, diskWriter, errors::add);
+
+    @After
+    public void tearDown() {
+        io.shutdownNow();
+        diskWriter.shutdownNow();
+    }
+
+    @Test
+    public void testLoad_DeliversResultOnMainThread() throws Exception {
+        // Arrange
+        List<String> delivered = new ArrayList<>();
+
+        // Act
+        scope.load(() -> Thread.currentThread().getName(), delivered::add);
+        runNextMainTask();
+
+        // Assert
+        assertEquals(1, delivered.size());
+        assertNotEquals("Work ran off the test thread", Thread.currentThread().getName(), delivered.get(0));
+    }
+
+    @Test
+    public void testCancel_DropsPendingLoadsAndContinuations() throws Exception {
+        // Arrange: block the pool so the second load is still queued
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> delivered = new ArrayList<>();
+        List<String> ran = new ArrayList<>();
+        scope.load(() -> {
+            release.await();
+            return "first";
+        }, delivered::add);
+        scope.load(() -> "second", delivered::add);
+        scope.load(() -> "third", delivered::add);
+
+        // Act
+        scope.cancel();
+        release.countDown();
+        scope.load(() -> {
+            ran.add("after");
+            return "after";
+        }, delivered::add);
+        io.shutdown();
+        assertTrue(io.awaitTermination(5, TimeUnit.SECONDS));
+        drainMainQueue();
+
+        // Assert
+        assertTrue("Nothing reaches a cancelled screen", delivered.isEmpty());
+        assertTrue("New loads are not started", ran.isEmpty());
+    }
+
+    @Test
+    public void testWrite_RunsEvenAfterCancel() throws Exception {
+        // Arrange
+        CountDownLatch written = new CountDownLatch(1);
+        List<Integer> delivered = new ArrayList<>();
+        scope.cancel();
+
+        // Act
+        scope.write(() -> {
+            written.countDown();
+            return 1;
+        }, delivered::add);
+
+        // Assert
+        assertTrue("Write still ran", written.await(5, TimeUnit.SECONDS));
+        diskWriter.shutdown();
+        assertTrue(diskWriter.awaitTermination(5, TimeUnit.SECONDS));
+        drainMainQueue();
+        assertTrue("Only the UI continuation was dropped", delivered.isEmpty());
+    }
+
+    @Test
+    public void testFailure_ReportedToErrorHandler() throws Exception {
+        // Act
+        scope.write(() -> {
+            throw new IllegalStateException("disk full");
+        }, null);
+        diskWriter.shutdown();
+        assertTrue(diskWriter.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(1, errors.size());
+        assertEquals("disk full", errors.get(0).getMessage());
+    }
+
+    private void runNextMainTask() throws InterruptedException {
+        Runnable task = mainQueue.poll(5, TimeUnit.SECONDS);
+        assertNotNull("A result was posted to the main thread", task);
+        task.run();
+    }
+
+    private void drainMainQueue() {
+        Runnable task;
+        while ((task = mainQueue.poll()) != null) {
+            task.run();
+        }
+    }
+}
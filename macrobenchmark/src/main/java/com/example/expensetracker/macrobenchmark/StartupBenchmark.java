@@ -0,0 +1,54 @@
+package com.example.expensetracker.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.TraceSectionMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import kotlin.Unit;
+
+/**
+ * Cold start of the launcher activity.
+ * StartupTimingMetric reports time to initial display (first frame) and, via
+ * reportFullyDrawn(), time to full display once the first page is bound.
+ * The trace sections split out session routing and MainActivity.onCreate.
+ * Results are most useful compared across commits on the same device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+
+    private static final String TARGET_PACKAGE = "com.example.expensetracker";
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void coldStart() {
+        benchmarkRule.measureRepeated(
+                TARGET_PACKAGE,
+                Arrays.asList(
+                        new StartupTimingMetric(),
+                        new TraceSectionMetric("Startup.route"),
+                        new TraceSectionMetric("Startup.mainOnCreate")),
+                new CompilationMode.Partial(),
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -21,4 +21,7 @@ dependencyResolutionManagement {
 
 rootProject.name = "Expense Tracker"
 include(":app")
+include(":core")
+include(":benchmark")
+include(":macrobenchmark")
  
\ No newline at end of file